@@ -86,7 +86,11 @@ public enum PASharedProperties implements PACommonProperties {
     /** Controls the fetch mode of scripts defined by URL.
     If true (default), it means that the script is fetched at task execution time
     If false, it means that the script is fetch when the job is submitted to the scheduler */
-    LAZY_FETCH_SCRIPT("pa.lazy.fetch.script", PropertyType.BOOLEAN, "true");
+    LAZY_FETCH_SCRIPT("pa.lazy.fetch.script", PropertyType.BOOLEAN, "true"),
+
+    /** Maximum number of compiled groovy scripts kept in memory, scripts of other languages are always evaluated from source.
+    A zero or negative value disables the compilation of scripts, which are then evaluated from source on each execution */
+    SCRIPT_COMPILED_CACHE_SIZE("pa.script.compiled.cache.size", PropertyType.INTEGER, "256");
 
     /* ***************************************************************************** */
     /* ***************************************************************************** */
@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+
+
+/**
+ * The class generated by the compilation of a groovy script.
+ *
+ * Each evaluation creates a new instance of the class with its own binding, so nothing is kept from one
+ * evaluation to the next. Unlike the groovy script engine, which registers the methods of every script
+ * it evaluates in a map shared by all the scripts of the engine, the methods of a script are only
+ * visible to this script.
+ */
+final class CompiledGroovyScript {
+
+    private final Class<?> scriptClass;
+
+    private CompiledGroovyScript(Class<?> scriptClass) {
+        this.scriptClass = scriptClass;
+    }
+
+    /**
+     * Compiles a script in its own class loader, so that the class is unloaded with the compiled script.
+     */
+    static CompiledGroovyScript compile(String scriptName, String scriptContent) throws javax.script.ScriptException {
+        try {
+            GroovyClassLoader classLoader = new GroovyClassLoader(parentClassLoader());
+            return new CompiledGroovyScript(classLoader.parseClass(scriptContent, scriptName));
+        } catch (CompilationFailedException e) {
+            throw new javax.script.ScriptException(e);
+        }
+    }
+
+    /**
+     * Runs a new instance of the script, bound to the engine scope bindings of the given context, with
+     * its output written to the writer of the context.
+     */
+    Object eval(ScriptContext context) {
+        Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        Writer writer = context.getWriter();
+        bindings.put("context", context);
+        bindings.put("out", writer instanceof PrintWriter ? writer : new PrintWriter(writer, true));
+        try {
+            return InvokerHelper.createScript(scriptClass, new Binding(bindings)).run();
+        } finally {
+            bindings.remove("out");
+            bindings.remove("context");
+        }
+    }
+
+    /**
+     * @return the context class loader, like the groovy script engine, unless it does not see the groovy
+     *         classes of this class
+     */
+    private static ClassLoader parentClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                if (Class.forName(groovy.lang.Script.class.getName(), false, contextClassLoader) ==
+                    groovy.lang.Script.class) {
+                    return contextClassLoader;
+                }
+            } catch (ClassNotFoundException e) {
+                // use the class loader of groovy
+            }
+        }
+        return groovy.lang.Script.class.getClassLoader();
+    }
+}
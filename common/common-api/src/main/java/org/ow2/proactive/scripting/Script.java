@@ -39,8 +39,6 @@ import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -48,7 +46,8 @@ import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
+import javax.script.SimpleBindings;
+import javax.script.SimpleScriptContext;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -58,6 +57,7 @@ import org.ow2.proactive.utils.BoundedStringWriter;
 import org.ow2.proactive.utils.FileUtils;
 
 import com.google.common.base.Throwables;
+import com.google.common.io.CharStreams;
 
 
 /**
@@ -388,20 +388,38 @@ public abstract class Script<E> implements Serializable {
             }
             return new ScriptResult<>(new Exception(stack));
         }
-        ScriptEngine engine = createScriptEngine();
+        ScriptEngineRegistry registry = ScriptEngineRegistry.getInstance();
+        ScriptEngineFactory factory = registry.getFactory(scriptEngineLookupName);
 
-        if (engine == null)
+        if (factory == null)
             return new ScriptResult<>(new Exception("No Script Engine Found for name or extension " +
                                                     scriptEngineLookupName));
 
+        CompiledGroovyScript compiledScript = null;
+        ScriptEngine engine = null;
+        ScriptContext context;
+        if (registry.isCompilable(factory)) {
+            // compiled scripts are shared, they are evaluated with their own context and bindings
+            try {
+                compiledScript = registry.getCompiledScript(factory, scriptName, readScript());
+            } catch (Throwable t) {
+                return new ScriptResult<>(new ScriptException(getStackTrace(t)));
+            }
+            context = new SimpleScriptContext();
+            context.setBindings(new SimpleBindings(), ScriptContext.ENGINE_SCOPE);
+        } else {
+            engine = createScriptEngine();
+            context = engine.getContext();
+        }
+
         // SCHEDULING-1532: redirect script output to a buffer (keep the latest DEFAULT_OUTPUT_MAX_SIZE)
         BoundedStringWriter outputBoundedWriter = new BoundedStringWriter(outputSink, DEFAULT_OUTPUT_MAX_SIZE);
         BoundedStringWriter errorBoundedWriter = new BoundedStringWriter(errorSink, DEFAULT_OUTPUT_MAX_SIZE);
         StringBuilder outputBuffer = new StringBuilder();
         outputBoundedWriter.setContentBuffer(outputBuffer);
         errorBoundedWriter.setContentBuffer(outputBuffer);
-        engine.getContext().setWriter(new PrintWriter(outputBoundedWriter, true));
-        engine.getContext().setErrorWriter(new PrintWriter(errorBoundedWriter, true));
+        context.setWriter(new PrintWriter(outputBoundedWriter, true));
+        context.setErrorWriter(new PrintWriter(errorBoundedWriter, true));
         Reader closedInput = new Reader() {
             @Override
             public int read(char[] cbuf, int off, int len) throws IOException {
@@ -413,11 +431,11 @@ public abstract class Script<E> implements Serializable {
 
             }
         };
-        engine.getContext().setReader(closedInput);
-        engine.getContext().setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
+        context.setReader(closedInput);
+        context.setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
 
         try {
-            Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
             //add additional bindings
             if (aBindings != null) {
                 for (Entry<String, Object> e : aBindings.entrySet()) {
@@ -425,37 +443,30 @@ public abstract class Script<E> implements Serializable {
                 }
             }
             prepareBindings(bindings);
-            Object evalResult = engine.eval(getReader());
+            Object evalResult;
+            if (compiledScript != null) {
+                evalResult = compiledScript.eval(context);
+            } else {
+                evalResult = engine.eval(getReader());
+            }
 
             // Add output to the script result
             ScriptResult<E> result = this.getResult(evalResult, bindings);
-            captureOutput(engine, outputBuffer, result);
+            captureOutput(context, outputBuffer, result);
 
-            return result;
-        } catch (javax.script.ScriptException e) {
-            // wrap exception cause as it might not be serializable
-            String stack = Throwables.getStackTraceAsString(e);
-            if (e.getMessage() != null) {
-                stack = e.getMessage() + System.lineSeparator() + stack;
-            }
-            ScriptResult<E> result = new ScriptResult<>(new ScriptException(stack));
-            captureOutput(engine, outputBuffer, result);
             return result;
         } catch (Throwable t) {
-            String stack = Throwables.getStackTraceAsString(t);
-            if (t.getMessage() != null) {
-                stack = t.getMessage() + System.lineSeparator() + stack;
-            }
-            ScriptResult<E> result = new ScriptResult<>(new ScriptException(stack));
-            captureOutput(engine, outputBuffer, result);
+            // wrap exception cause as it might not be serializable
+            ScriptResult<E> result = new ScriptResult<>(new ScriptException(getStackTrace(t)));
+            captureOutput(context, outputBuffer, result);
             return result;
         }
     }
 
-    private void captureOutput(ScriptEngine engine, StringBuilder outputBuffer, ScriptResult<E> result) {
+    private void captureOutput(ScriptContext context, StringBuilder outputBuffer, ScriptResult<E> result) {
         try {
-            engine.getContext().getErrorWriter().flush();
-            engine.getContext().getWriter().flush();
+            context.getErrorWriter().flush();
+            context.getWriter().flush();
         } catch (IOException e) {
             logger.warn("Could not flush the end of the script execution output");
         }
@@ -531,56 +542,24 @@ public abstract class Script<E> implements Serializable {
         return new StringReader(this.script);
     }
 
-    /** The Script Engine used to evaluate the script. */
-    protected ScriptEngine createScriptEngine() {
-
-        Map<ScriptEngine, Integer> scriptEngineCandidates;
-        final boolean findByName = true;
-        scriptEngineCandidates = findScriptEngineCandidates(findByName);
-
-        if (scriptEngineCandidates.isEmpty()) {
-            scriptEngineCandidates = findScriptEngineCandidates(!findByName);
+    /** The script content, as given by the reader of the script. */
+    private String readScript() throws IOException {
+        try (Reader reader = getReader()) {
+            return CharStreams.toString(reader);
         }
-
-        return findBestScriptEngine(scriptEngineCandidates);
     }
 
-    private Map<ScriptEngine, Integer> findScriptEngineCandidates(boolean findByName) {
-        Map<ScriptEngine, Integer> matchPositionPerScriptEngineCandidate = new HashMap<>();
-        int matchPosition;
-        List<String> lookupCriteria;
-
-        for (ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories()) {
-            matchPosition = 0;
-            if (findByName) {
-                lookupCriteria = factory.getNames();
-            } else {
-                lookupCriteria = factory.getExtensions();
-            }
-
-            for (String criteria : lookupCriteria) {
-                if (criteria.equalsIgnoreCase(scriptEngineLookupName)) {
-                    matchPositionPerScriptEngineCandidate.put(factory.getScriptEngine(), matchPosition);
-                }
-                matchPosition++;
-            }
+    private static String getStackTrace(Throwable t) {
+        String stack = Throwables.getStackTraceAsString(t);
+        if (t.getMessage() != null) {
+            stack = t.getMessage() + System.lineSeparator() + stack;
         }
-
-        return matchPositionPerScriptEngineCandidate;
+        return stack;
     }
 
-    private ScriptEngine findBestScriptEngine(Map<ScriptEngine, Integer> scriptEngineCandidates) {
-        int minimumMatchingIndex = Integer.MAX_VALUE;
-        ScriptEngine bestScriptEngine = null;
-
-        for (Entry<ScriptEngine, Integer> candidate : scriptEngineCandidates.entrySet()) {
-            if (candidate.getValue() < minimumMatchingIndex) {
-                minimumMatchingIndex = candidate.getValue();
-                bestScriptEngine = candidate.getKey();
-            }
-        }
-
-        return bestScriptEngine;
+    /** The Script Engine used to evaluate the script. */
+    protected ScriptEngine createScriptEngine() {
+        return ScriptEngineRegistry.getInstance().createScriptEngine(scriptEngineLookupName);
     }
 
     /**
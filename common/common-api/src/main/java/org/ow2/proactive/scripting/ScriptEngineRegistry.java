@@ -0,0 +1,268 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+
+import org.ow2.proactive.core.properties.PASharedProperties;
+
+
+/**
+ * Resolves script engines and caches compiled scripts.
+ *
+ * The script engine factories available to a class loader are discovered once, and the
+ * factory matching an engine lookup name (first by name, then by extension) is resolved
+ * once per class loader.
+ *
+ * Groovy scripts are compiled once and the generated classes are kept in a LRU cache, keyed
+ * by the engine factory, the script name and the digest of the script content. Each
+ * evaluation runs a new instance of the class, see {@link CompiledGroovyScript}. Scripts of
+ * the other engines are evaluated from source by a new engine on each execution, as their
+ * compiled forms remain bound to the engine which compiled them and to the state it keeps
+ * between evaluations.
+ *
+ * The size of the cache is defined by {@link PASharedProperties#SCRIPT_COMPILED_CACHE_SIZE},
+ * a zero or negative size disables the compilation of scripts.
+ */
+public class ScriptEngineRegistry {
+
+    private static final String GROOVY_FACTORY_CLASS_NAME = "org.codehaus.groovy.jsr223.GroovyScriptEngineFactory";
+
+    private static final String GROOVY_SCRIPT_CLASS_NAME = "groovy.lang.Script";
+
+    private static final ScriptEngineRegistry instance = new ScriptEngineRegistry(PASharedProperties.SCRIPT_COMPILED_CACHE_SIZE.getValueAsInt());
+
+    private final int compiledScriptsCacheSize;
+
+    /**
+     * engine factories and resolved lookup names, per class loader
+     */
+    private final Map<ClassLoader, FactoriesOfClassLoader> factoriesByClassLoader = new WeakHashMap<>();
+
+    /**
+     * whether the scripts of each factory can be compiled
+     */
+    private final Map<ScriptEngineFactory, Boolean> compilableFactories = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<CompiledScriptKey, CompiledGroovyScript> compiledScripts;
+
+    ScriptEngineRegistry(int compiledScriptsCacheSize) {
+        this.compiledScriptsCacheSize = compiledScriptsCacheSize;
+        this.compiledScripts = Collections.synchronizedMap(new LruMap<>(compiledScriptsCacheSize));
+    }
+
+    public static ScriptEngineRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the factory of the engine matching the given lookup name, for the context class loader
+     * of the current thread. The lookup name is first compared to the names of the engines, then to
+     * their extensions. The factory whose matching name or extension comes first is returned.
+     *
+     * @param lookupName name or extension of the engine
+     * @return the factory, or null if no engine matches the lookup name
+     */
+    public ScriptEngineFactory getFactory(String lookupName) {
+        if (lookupName == null) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        FactoriesOfClassLoader factories;
+        synchronized (factoriesByClassLoader) {
+            factories = factoriesByClassLoader.computeIfAbsent(classLoader, FactoriesOfClassLoader::new);
+        }
+        return factories.resolve(lookupName);
+    }
+
+    /**
+     * @return a new engine matching the given lookup name, or null if no engine matches
+     */
+    public ScriptEngine createScriptEngine(String lookupName) {
+        ScriptEngineFactory factory = getFactory(lookupName);
+        return factory != null ? factory.getScriptEngine() : null;
+    }
+
+    /**
+     * @return true if scripts evaluated by the engines of the given factory can be compiled
+     */
+    boolean isCompilable(ScriptEngineFactory factory) {
+        return compiledScriptsCacheSize > 0 &&
+               compilableFactories.computeIfAbsent(factory, ScriptEngineRegistry::isGroovyAvailable);
+    }
+
+    /**
+     * Returns the compiled form of a script, compiling it if it is not in the cache.
+     *
+     * @param factory the factory of the engine, see {@link #isCompilable(ScriptEngineFactory)}
+     * @param scriptName the name of the script, used to report errors
+     * @param scriptContent the script
+     * @return the compiled script
+     * @throws javax.script.ScriptException if the script cannot be compiled
+     */
+    CompiledGroovyScript getCompiledScript(ScriptEngineFactory factory, String scriptName, String scriptContent)
+            throws javax.script.ScriptException {
+        CompiledScriptKey key = new CompiledScriptKey(factory, scriptName, Script.digest(scriptContent));
+        CompiledGroovyScript compiledScript = compiledScripts.get(key);
+        if (compiledScript == null) {
+            compiledScript = CompiledGroovyScript.compile(scriptName, scriptContent);
+            compiledScripts.put(key, compiledScript);
+        }
+        return compiledScript;
+    }
+
+    /**
+     * Removes all compiled scripts and resolved engines.
+     */
+    public void clear() {
+        synchronized (factoriesByClassLoader) {
+            factoriesByClassLoader.clear();
+        }
+        compilableFactories.clear();
+        compiledScripts.clear();
+    }
+
+    /**
+     * @return true if the factory is the groovy one, and its groovy classes are the ones against which
+     *         {@link CompiledGroovyScript} is linked
+     */
+    private static boolean isGroovyAvailable(ScriptEngineFactory factory) {
+        if (!GROOVY_FACTORY_CLASS_NAME.equals(factory.getClass().getName())) {
+            return false;
+        }
+        try {
+            ClassLoader groovyClassLoader = factory.getClass().getClassLoader();
+            ClassLoader registryClassLoader = ScriptEngineRegistry.class.getClassLoader();
+            return Class.forName(GROOVY_SCRIPT_CLASS_NAME, false, groovyClassLoader) == Class.forName(GROOVY_SCRIPT_CLASS_NAME,
+                                                                                                     false,
+                                                                                                     registryClassLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static final class FactoriesOfClassLoader {
+
+        private final List<ScriptEngineFactory> factories;
+
+        private final Map<String, ScriptEngineFactory> resolved = new HashMap<>();
+
+        private FactoriesOfClassLoader(ClassLoader classLoader) {
+            this.factories = new ArrayList<>(new ScriptEngineManager(classLoader).getEngineFactories());
+        }
+
+        private synchronized ScriptEngineFactory resolve(String lookupName) {
+            String key = lookupName.toLowerCase();
+            ScriptEngineFactory factory = resolved.get(key);
+            if (factory == null) {
+                factory = findBestFactory(lookupName, true);
+                if (factory == null) {
+                    factory = findBestFactory(lookupName, false);
+                }
+                if (factory != null) {
+                    resolved.put(key, factory);
+                }
+            }
+            return factory;
+        }
+
+        private ScriptEngineFactory findBestFactory(String lookupName, boolean findByName) {
+            int minimumMatchPosition = Integer.MAX_VALUE;
+            ScriptEngineFactory bestFactory = null;
+            for (ScriptEngineFactory factory : factories) {
+                List<String> lookupCriteria = findByName ? factory.getNames() : factory.getExtensions();
+                int matchPosition = 0;
+                for (String criteria : lookupCriteria) {
+                    if (criteria.equalsIgnoreCase(lookupName) && matchPosition < minimumMatchPosition) {
+                        minimumMatchPosition = matchPosition;
+                        bestFactory = factory;
+                    }
+                    matchPosition++;
+                }
+            }
+            return bestFactory;
+        }
+    }
+
+    private static final class CompiledScriptKey {
+
+        private final ScriptEngineFactory factory;
+
+        private final String scriptName;
+
+        private final String digest;
+
+        private CompiledScriptKey(ScriptEngineFactory factory, String scriptName, String digest) {
+            this.factory = factory;
+            this.scriptName = scriptName;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompiledScriptKey)) {
+                return false;
+            }
+            CompiledScriptKey other = (CompiledScriptKey) o;
+            return factory == other.factory && Objects.equals(scriptName, other.scriptName) &&
+                   digest.equals(other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(factory), scriptName, digest);
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private final int maxSize;
+
+        private LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
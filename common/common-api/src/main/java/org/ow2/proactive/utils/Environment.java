@@ -59,12 +59,16 @@ public class Environment {
 
     public interface WinLibC extends Library {
         int _putenv(String name);
+
+        int _chdir(String directory);
     }
 
     public interface LinuxLibC extends Library {
         int setenv(String name, String value, int overwrite);
 
         int unsetenv(String name);
+
+        int chdir(String directory);
     }
 
     public static class POSIX {
@@ -126,6 +130,17 @@ public class Environment {
             }
             return 0;
         }
+
+        public int chdir(String directory) {
+            if (libc != null) {
+                if (libc instanceof LinuxLibC) {
+                    return ((LinuxLibC) libc).chdir(directory);
+                } else {
+                    return ((WinLibC) libc)._chdir(directory);
+                }
+            }
+            return -1;
+        }
     }
 
     private static POSIX posix;
@@ -159,6 +174,20 @@ public class Environment {
         return getPOSIXinstance().setenv(name, value, overwrite ? 1 : 0);
     }
 
+    /**
+     * Changes the working directory of the current JVM, used to resolve relative paths and inherited by
+     * the processes it starts afterwards.
+     *
+     * @return 0 on success, -1 if the working directory of the process could not be changed
+     */
+    public static int chdir(String directory) {
+        int result = getPOSIXinstance().chdir(directory);
+        if (result == 0) {
+            System.setProperty("user.dir", directory);
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     public static Map<String, String> getwinenv() {
         try {
@@ -0,0 +1,93 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.script.ScriptEngineFactory;
+
+import org.junit.Test;
+
+
+public class ScriptEngineRegistryTest {
+
+    @Test
+    public void testFactoryIsResolvedByNameOrExtension() {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(10);
+
+        ScriptEngineFactory factory = registry.getFactory("groovy");
+
+        assertNotNull(factory);
+        assertSame(factory, registry.getFactory("Groovy"));
+        assertNotNull(registry.getFactory("js"));
+        assertNull(registry.getFactory("neverheardofthis"));
+        assertNull(registry.getFactory(null));
+    }
+
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(10);
+        ScriptEngineFactory factory = registry.getFactory("groovy");
+
+        assertTrue(registry.isCompilable(factory));
+
+        CompiledGroovyScript compiledScript = registry.getCompiledScript(factory, "script", "1 + 1");
+
+        assertSame(compiledScript, registry.getCompiledScript(factory, "script", "1 + 1"));
+        assertNotSame(compiledScript, registry.getCompiledScript(factory, "script", "1 + 2"));
+        assertNotSame(compiledScript, registry.getCompiledScript(factory, "other", "1 + 1"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCompiledScriptIsEvicted() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(1);
+        ScriptEngineFactory factory = registry.getFactory("groovy");
+
+        CompiledGroovyScript compiledScript = registry.getCompiledScript(factory, "script", "1 + 1");
+        registry.getCompiledScript(factory, "script", "1 + 2");
+
+        assertNotSame(compiledScript, registry.getCompiledScript(factory, "script", "1 + 1"));
+    }
+
+    @Test
+    public void testOnlyGroovyScriptsAreCompiled() {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(10);
+
+        assertFalse(registry.isCompilable(registry.getFactory("js")));
+    }
+
+    @Test
+    public void testCompilationCanBeDisabled() {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(0);
+
+        assertFalse(registry.isCompilable(registry.getFactory("groovy")));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Compares the evaluation of a groovy selection script when the script engine and the compiled
+ * script must be created for each evaluation (cold), and when they are taken from the
+ * {@link ScriptEngineRegistry} (warm).
+ *
+ * Run with the test classpath: {@code java org.ow2.proactive.scripting.ScriptEvaluationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScriptEvaluationBenchmark {
+
+    private static final String SELECTION_SCRIPT = "def osName = System.getProperty('os.name')\n" +
+                                                   "def free = Runtime.getRuntime().freeMemory()\n" +
+                                                   "selected = osName != null && free > 0 && variables.get('required') == 'yes'";
+
+    private SelectionScript selectionScript;
+
+    private PrintStream nullStream;
+
+    @Setup
+    public void setUp() throws InvalidScriptException {
+        selectionScript = new SelectionScript(SELECTION_SCRIPT, "groovy", true);
+        nullStream = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        });
+    }
+
+    @Benchmark
+    public Object coldEvaluation() {
+        ScriptEngineRegistry.getInstance().clear();
+        return evaluate();
+    }
+
+    @Benchmark
+    public Object warmEvaluation() {
+        return evaluate();
+    }
+
+    private Object evaluate() {
+        ScriptResult<Boolean> result = selectionScript.execute(Collections.singletonMap("variables",
+                                                                                        Collections.singletonMap("required",
+                                                                                                                 "yes")),
+                                                               nullStream,
+                                                               nullStream);
+        if (result.errorOccured() || !result.getResult()) {
+            throw new IllegalStateException("Unexpected selection script result", result.getException());
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ScriptEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -171,6 +171,55 @@ public class ScriptTest {
         assertNull(result.getException());
     }
 
+    @Test
+    public void testCompiledGroovyScriptDoesNotShareBindingsBetweenExecutions() throws Exception {
+        String scriptContent = "result = binding.hasVariable('previous') ? 'shared' : 'isolated'\nprevious = true";
+
+        for (int i = 0; i < 2; i++) {
+            ScriptResult<Object> result = new ScriptForTests(scriptContent, "groovy").execute();
+
+            assertNull(result.getException());
+            assertEquals("isolated", result.getResult());
+        }
+    }
+
+    @Test
+    public void testCompiledGroovyScriptOutputIsCaptured() throws Exception {
+        ScriptForTests script = new ScriptForTests("println 'hello'\nresult = args[0]", "groovy");
+        script.parameters = new String[] { "world" };
+
+        for (int i = 0; i < 2; i++) {
+            ScriptResult<Object> result = script.execute();
+
+            assertNull(result.getException());
+            assertEquals("world", result.getResult());
+            assertEquals("hello", result.getOutput().trim());
+        }
+    }
+
+    @Test
+    public void testCompiledGroovyScriptsDefiningSameMethodAreIsolated() throws Exception {
+        ScriptForTests first = new ScriptForTests("def name() { 'first' }\nresult = name()", "groovy");
+        ScriptForTests second = new ScriptForTests("def name() { 'second' }\nresult = name()", "groovy");
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals("first", first.execute().getResult());
+            assertEquals("second", second.execute().getResult());
+        }
+    }
+
+    @Test
+    public void testCompiledGroovyScriptCannotCallMethodOfAnotherScript() throws Exception {
+        ScriptResult<Object> defining = new ScriptForTests("def secret() { 'leaked' }\nresult = secret()",
+                                                           "groovy").execute();
+        assertEquals("leaked", defining.getResult());
+
+        ScriptResult<Object> calling = new ScriptForTests("result = secret()", "groovy").execute();
+
+        assertNotNull(calling.getException());
+        assertNull(calling.getResult());
+    }
+
     class ScriptForTests extends Script<Object> {
 
         @Override
@@ -131,6 +131,9 @@ public interface SchedulerRestInterface {
      * @param limit
      *            optional, if a sublist has to be returned, the limit of the
      *            sublist
+     * @param after
+     *            optional, id of the last job of the previous page. When set,
+     *            the sublist starts right after this job and the index is ignored
      * @param sessionId
      *            a valid session id
      * @return a list of UserJobData
@@ -139,8 +142,8 @@ public interface SchedulerRestInterface {
     @Path("jobsinfo")
     @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
     RestPage<UserJobData> jobsInfo(@HeaderParam("sessionid") String sessionId,
-            @QueryParam("index") @DefaultValue("-1") int index, @QueryParam("limit") @DefaultValue("-1") int limit)
-            throws RestException;
+            @QueryParam("index") @DefaultValue("-1") int index, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("after") String after) throws RestException;
 
     /**
      * Returns a list of jobs info corresponding to the given job IDs (in the same order)
@@ -200,6 +203,11 @@ public interface SchedulerRestInterface {
      *            PENDING_TASKS,RUNNING_TASKS,FINISHED_TASKS,FAILED_TASKS,FAULTY_TASKS,IN_ERROR_TASKS
      *            Each parameter must end with _d for descending order or _a for ascending.
      *            Default value is: "STATE_a,ID_d"
+     * @param after
+     *            optional, id of the last job of the previous page. When set,
+     *            the sublist starts right after this job in the requested order
+     *            and the index is ignored. Unlike the index, the cost of fetching
+     *            a page with this cursor does not grow with the page depth.
      * @return a map containing one entry with the revision id as key and the
      *         list of UserJobData as value.
      */
@@ -214,7 +222,7 @@ public interface SchedulerRestInterface {
             @QueryParam("running") @DefaultValue("true") boolean running,
             @QueryParam("finished") @DefaultValue("true") boolean finished,
             @QueryParam("childJobs") @DefaultValue("true") boolean childJobs,
-            @QueryParam("sortParams") String sortParams) throws RestException;
+            @QueryParam("sortParams") String sortParams, @QueryParam("after") String after) throws RestException;
 
     /**
      * Returns the revision number of the scheduler state
@@ -362,6 +370,41 @@ public interface SchedulerRestInterface {
     String jobServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId)
             throws RestException;
 
+    /**
+     * Streams job server logs, or a range of them, without loading the whole logs in memory.
+     * <p>
+     * A range can be requested with a standard HTTP <code>Range</code> header (a single
+     * range, e.g. <code>bytes=100-199</code> or <code>bytes=-1000</code>), or with the
+     * <code>offset</code>, <code>length</code> and <code>tail</code> query parameters, which
+     * take precedence over the header. A range is answered with a <code>206 Partial Content</code>
+     * response and its <code>Content-Range</code>, or with <code>416</code> if it starts beyond
+     * the end of the logs. Tasks logs are ordered by task id.
+     * <p>
+     * The scheduler keeps the layout of the logs for a few seconds, so that the chunks of a response
+     * fit together even while the job runs. If the logs still change during a response, the
+     * connection is aborted instead of sending bytes of a different layout.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param range
+     *            the HTTP Range header
+     * @param offset
+     *            position of the first byte to send
+     * @param length
+     *            number of bytes to send
+     * @param tail
+     *            number of bytes to send from the end of the logs
+     * @return job traces from the scheduler and resource manager
+     */
+    @GET
+    @Path("jobs/{jobid}/log/server/stream")
+    @Produces(MediaType.TEXT_PLAIN)
+    Response jobServerLogStream(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+            @HeaderParam("Range") String range, @QueryParam("offset") Long offset,
+            @QueryParam("length") Long length, @QueryParam("tail") Long tail) throws RestException;
+
     /**
      * Kill the job represented by jobId.<br>
      *
@@ -1277,6 +1320,34 @@ public interface SchedulerRestInterface {
     String taskServerLog(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
             @PathParam("taskname") String taskname) throws RestException;
 
+    /**
+     * Streams task server logs, or a range of them, see
+     * {@link #jobServerLogStream(String, String, String, Long, Long, Long)}.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskname
+     *            the name of the task
+     * @param range
+     *            the HTTP Range header
+     * @param offset
+     *            position of the first byte to send
+     * @param length
+     *            number of bytes to send
+     * @param tail
+     *            number of bytes to send from the end of the logs
+     * @return task traces from the scheduler and resource manager
+     */
+    @GET
+    @Path("jobs/{jobid}/tasks/{taskname}/log/server/stream")
+    @Produces(MediaType.TEXT_PLAIN)
+    Response taskServerLogStream(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
+            @PathParam("taskname") String taskname, @HeaderParam("Range") String range,
+            @QueryParam("offset") Long offset, @QueryParam("length") Long length, @QueryParam("tail") Long tail)
+            throws RestException;
+
     /**
      * Returns server logs for a set of tasks filtered by a given tag.
      * 
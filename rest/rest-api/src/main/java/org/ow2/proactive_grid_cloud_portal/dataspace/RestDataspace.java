@@ -76,17 +76,28 @@ public interface RestDataspace {
      * <li>Any other encoding format will be handled as it is (no decoding or recursive expanding).</li>
      * <li>Any file that already exists in the specified location will be
      * replaced.</li>
+     * <li>A large file can be uploaded in several requests, each one carrying a part of the file and a
+     * 'Content-Range' header (e.g. {@code bytes 0-1048575/5000000}). Parts are appended to a temporary file
+     * which replaces the file in the specified location once all bytes are received. Such requests are
+     * answered with status 202(ACCEPTED) and a 'Range' header giving the bytes received so far, until the last
+     * part is stored. A request with a {@code bytes *}{@code /<size>} range only returns the bytes received, so
+     * that an interrupted upload can be resumed. Parts cannot be encoded. All the requests of an upload carry
+     * the same 'uploadid' header (1 to 64 letters, digits, '-' or '_'), chosen by the client so that it
+     * changes with the content of the file: parts of distinct uploads to the same location are kept apart.</li>
      * </ul>
      * @param sessionId a valid session id
+     * @param encoding encoding of the content, can be "gzip", "zip", empty or an arbitrary format which will be handled in the same way as empty.
+     * @param contentRange position of the content in the file, when the file is uploaded in several parts
+     * @param uploadId identifier of the upload, when the file is uploaded in several parts
      * @param dataspace can have two possible values, 'user' or 'global',
      * depending on the target <i>DATASPACE</i>
      * @param pathname location of the file or folder to retrieve
-     * @param encoding encoding of the content, can be "gzip", "zip", empty or an arbitrary format which will be handled in the same way as empty.
      * @return a REST response with status 201(CREATED) if the operation was successful
      */
     @PUT
     @Path("/{dataspace}/{path-name:.*}")
     Response store(@HeaderParam("sessionid") String sessionId, @HeaderParam("Content-Encoding") String encoding,
+            @HeaderParam("Content-Range") String contentRange, @HeaderParam("uploadid") String uploadId,
             @PathParam("dataspace") String dataspace, @PathParam("path-name") String pathname, InputStream is)
             throws NotConnectedRestException, PermissionRestException;
 
@@ -105,10 +116,14 @@ public interface RestDataspace {
      * {@link ListFile} type object will be returned in JSON format. It will contain a list of files and folder contained in the selected
      * path, equivalent to a directory listing.
      * </li>
+     * <li>If 'checksum' is specified as the 'comp' query parameter, the hexadecimal SHA-256 digest of the file
+     * will be returned as plain text.</li>
      * <li>If the pathname represents a file, its contents will be returned as:
      * <ul>
-     * <li>an octet stream, if its a compressed file already or if the client doesn't
+     * <li>an octet stream, if its a compressed file or media already or if the client doesn't
      * accept encoded content (encoding specified as "identity")</li>
+     * <li>a part of the octet stream, if a single range is requested in the 'Range' header (e.g.
+     * {@code bytes=1048576-2097151}). The response has status 206(PARTIAL_CONTENT) and a 'Content-Range' header.</li>
      * <li>a 'gzip' encoded stream, if the client accepts 'gzip' encoded content
      * </li>
      * <li>a 'zip' encoded stream, if the client accepts 'zip' encoded contents</li>
@@ -125,7 +140,8 @@ public interface RestDataspace {
      * @param dataspace can have two possible values, 'user' or 'global',
      * depending on the target <i>DATASPACE</i>
      * @param pathname location of the file or folder to retrieve
-     * @param component can either be 'list' or empty. If 'list' is used, the response will contain in JSON format the list of files and folder presents at specified location, equivalent to a directory listing.
+     * @param range the 'Range' header, to retrieve a part of a file
+     * @param component can either be 'list', 'checksum' or empty. If 'list' is used, the response will contain in JSON format the list of files and folder presents at specified location, equivalent to a directory listing.
      * @param includes a list of inclusion directives
      * @param excludes a list of exclusion directives
      * @param encoding the accepted encoding supported by the client, can be "*", "gzip", "zip", "identity" or empty. It overrides the accepted encoding specified in {@code headerAcceptEncoding}.
@@ -135,11 +151,11 @@ public interface RestDataspace {
     @Path("/{dataspace}/{path-name:.*}")
     @Produces(MediaType.WILDCARD)
     Response retrieve(@HeaderParam("sessionid") String sessionId,
-            @HeaderParam("Accept-Encoding") String headerAcceptEncoding, @PathParam("dataspace") String dataspace,
-            @PathParam("path-name") String pathname, @QueryParam("comp") String component,
-            @QueryParam("includes") List<String> includes, @QueryParam("excludes") List<String> excludes,
-            @QueryParam("encoding") String encoding, @QueryParam("token") String token)
-            throws NotConnectedRestException, PermissionRestException;
+            @HeaderParam("Accept-Encoding") String headerAcceptEncoding, @HeaderParam("Range") String range,
+            @PathParam("dataspace") String dataspace, @PathParam("path-name") String pathname,
+            @QueryParam("comp") String component, @QueryParam("includes") List<String> includes,
+            @QueryParam("excludes") List<String> excludes, @QueryParam("encoding") String encoding,
+            @QueryParam("token") String token) throws NotConnectedRestException, PermissionRestException;
 
     /**
      * Delete file(s) from the specified location in the <i>dataspace</i>.
@@ -34,6 +34,7 @@ import java.net.URLEncoder;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -71,12 +72,14 @@ import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
 import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
 import org.jboss.resteasy.resteasy_jaxrs.i18n.LogMessages;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive_grid_cloud_portal.common.SchedulerRestInterface;
 import org.ow2.proactive_grid_cloud_portal.common.exceptionmapper.ExceptionToJson;
 import org.ow2.proactive_grid_cloud_portal.dataspace.dto.ListFile;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.utils.Zipper;
 import org.ow2.proactive_grid_cloud_portal.scheduler.dto.JobIdData;
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.NotConnectedRestException;
+import org.ow2.proactive_grid_cloud_portal.utils.ByteRange;
 
 import com.google.common.collect.Maps;
 import com.google.common.io.Files;
@@ -560,6 +563,62 @@ public class SchedulerRestClient {
         return response.readEntity(JobIdData.class);
     }
 
+    public ServerLogsChunk jobServerLogs(String sessionId, String jobId, long offset, int length) throws Exception {
+        return serverLogs(sessionId,
+                          "scheduler/jobs/" + escapeUrlPathSegment(jobId) + "/log/server/stream",
+                          offset,
+                          length);
+    }
+
+    public ServerLogsChunk taskServerLogs(String sessionId, String jobId, String taskName, long offset, int length)
+            throws Exception {
+        return serverLogs(sessionId,
+                          "scheduler/jobs/" + escapeUrlPathSegment(jobId) + "/tasks/" +
+                                     escapeUrlPathSegment(taskName) + "/log/server/stream",
+                          offset,
+                          length);
+    }
+
+    private ServerLogsChunk serverLogs(String sessionId, String path, long offset, int length) throws Exception {
+        String uriTmpl = restEndpointURL + addSlashIfMissing(restEndpointURL) + path;
+
+        ResteasyClient client = buildResteasyClient(providerFactory);
+
+        ResteasyWebTarget target = client.target(uriTmpl);
+        if (offset >= 0) {
+            target = target.queryParam("offset", offset).queryParam("length", Math.max(length, 1));
+        } else {
+            target = target.queryParam("tail", -offset);
+        }
+
+        Response response = null;
+        try {
+            response = target.request().header("sessionid", sessionId).get();
+            int status = response.getStatus();
+            if (status == Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode()) {
+                long totalSize = ByteRange.contentRangeTotalSize(response.getHeaderString("Content-Range"));
+                return new ServerLogsChunk(new byte[0], totalSize, totalSize);
+            } else if (status == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                throw new NotConnectedRestException("User not authenticated or session timeout.");
+            } else if (status != HttpURLConnection.HTTP_PARTIAL) {
+                // recreate the server side exception so that callers can tell unknown jobs or tasks apart
+                throw rebuildServerSideException(response.readEntity(ExceptionToJson.class));
+            }
+            String contentRange = response.getHeaderString("Content-Range");
+            byte[] content = response.readEntity(byte[].class);
+            return new ServerLogsChunk(content.length > length ? Arrays.copyOf(content, length) : content,
+                                       ByteRange.contentRangeOffset(contentRange),
+                                       ByteRange.contentRangeTotalSize(contentRange));
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+            if (!client.isClosed()) {
+                client.close();
+            }
+        }
+    }
+
     private String addSlashIfMissing(String url) {
         return url.endsWith("/") ? "" : "/";
     }
@@ -700,7 +759,7 @@ public class SchedulerRestClient {
     }
 
     private static String encoding(File file) throws FileNotFoundException {
-        return file.isDirectory() ? "zip" : (Zipper.isZipFile(file)) ? null : "gzip";
+        return file.isDirectory() ? "zip" : (Zipper.isCompressedFile(file)) ? null : "gzip";
     }
 
     private static class CompressedStreamingOutput implements StreamingOutput {
@@ -719,7 +778,7 @@ public class SchedulerRestClient {
         @Override
         public void write(OutputStream outputStream) throws IOException, WebApplicationException {
             if (file.isFile()) {
-                if (Zipper.isZipFile(file)) {
+                if (Zipper.isCompressedFile(file)) {
                     Files.asByteSource(file).copyTo(outputStream);
                 } else {
                     Zipper.GZIP.zip(file, outputStream);
@@ -54,6 +54,25 @@ public class Zipper {
 
     private static byte[] MAGIC = { 'P', 'K', 0x3, 0x4 };
 
+    /**
+     * Leading bytes of formats which are already compressed and do not benefit from
+     * being compressed again: zip, gzip, bzip2, xz, 7z, zstd, png and jpeg
+     */
+    private static final byte[][] COMPRESSED_MAGICS = { MAGIC, { 0x1f, (byte) 0x8b }, { 'B', 'Z', 'h' },
+                                                        { (byte) 0xfd, '7', 'z', 'X', 'Z', 0x0 },
+                                                        { '7', 'z', (byte) 0xbc, (byte) 0xaf, 0x27, 0x1c },
+                                                        { 0x28, (byte) 0xb5, 0x2f, (byte) 0xfd },
+                                                        { (byte) 0x89, 'P', 'N', 'G' },
+                                                        { (byte) 0xff, (byte) 0xd8, (byte) 0xff } };
+
+    private static final int COMPRESSED_MAGIC_MAX_LENGTH = 6;
+
+    private static final String[] COMPRESSED_CONTENT_TYPES = { "image/", "video/", "audio/", "application/zip",
+                                                               "application/gzip", "application/x-gzip",
+                                                               "application/x-bzip", "application/x-xz",
+                                                               "application/x-7z", "application/java-archive",
+                                                               "application/zstd" };
+
     private Zipper() {
     }
 
@@ -277,6 +296,66 @@ public class Zipper {
         return isZipStream;
     }
 
+    public static boolean isCompressedFile(File file) throws FileNotFoundException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return isCompressed(inputStream);
+        } catch (IOException e) {
+            throw new FileNotFoundException("Error when reading file " + file + " " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the stream starts with the signature of an already compressed format
+     */
+    public static boolean isCompressed(InputStream is) {
+        if (!is.markSupported()) {
+            is = new BufferedInputStream(is);
+        }
+        byte[] header = new byte[COMPRESSED_MAGIC_MAX_LENGTH];
+        int length;
+        try {
+            is.mark(header.length);
+            length = ByteStreams.read(is, header, 0, header.length);
+            is.reset();
+        } catch (IOException ioe) {
+            return false;
+        }
+        for (byte[] magic : COMPRESSED_MAGICS) {
+            if (length >= magic.length && startsWith(header, magic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the content type denotes a compressed archive or a media format which is compressed
+     */
+    public static boolean isCompressedContentType(String contentType) {
+        if (Strings.isNullOrEmpty(contentType)) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        if (type.startsWith("image/svg") || type.startsWith("image/bmp") || type.startsWith("audio/wav")) {
+            return false;
+        }
+        for (String prefix : COMPRESSED_CONTENT_TYPES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static class FilesOnlyPredicate implements Predicate<File> {
         @Override
         public boolean apply(File file) {
@@ -0,0 +1,169 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.utils;
+
+/**
+ * A single range of bytes of a resource, requested either with an HTTP {@code Range} header
+ * (RFC 7233) or with offset, length and tail query parameters.
+ */
+public class ByteRange {
+
+    public static final String UNIT = "bytes";
+
+    /** first byte position, or if negative, number of bytes to take from the end */
+    private final long first;
+
+    /** last byte position (inclusive), or -1 if the range extends to the end */
+    private final long last;
+
+    private ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses the value of a {@code Range} header.
+     *
+     * @return the requested range, or null if the header is absent, malformed or requests several ranges,
+     * in which case the whole resource should be sent
+     */
+    public static ByteRange parse(String header) {
+        if (header == null || !header.trim().startsWith(UNIT + "=")) {
+            return null;
+        }
+        String spec = header.trim().substring(UNIT.length() + 1).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.contains(",")) {
+            return null;
+        }
+        String firstPosition = spec.substring(0, dash).trim();
+        String lastPosition = spec.substring(dash + 1).trim();
+        try {
+            if (firstPosition.isEmpty()) {
+                long suffixLength = Long.parseLong(lastPosition);
+                return suffixLength > 0 ? new ByteRange(-suffixLength, -1) : null;
+            }
+            long first = Long.parseLong(firstPosition);
+            long last = lastPosition.isEmpty() ? -1 : Long.parseLong(lastPosition);
+            if (first < 0 || (!lastPosition.isEmpty() && last < first)) {
+                return null;
+            }
+            return new ByteRange(first, last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a range from query parameters, a tail cannot be combined with an offset or a length.
+     *
+     * @return the requested range, or null if no parameter is given
+     * @throws IllegalArgumentException if the parameters do not describe a valid range
+     */
+    public static ByteRange of(Long offset, Long length, Long tail) {
+        if (tail != null) {
+            if (offset != null || length != null) {
+                throw new IllegalArgumentException("tail cannot be combined with offset or length");
+            }
+            if (tail <= 0) {
+                throw new IllegalArgumentException("Invalid tail " + tail);
+            }
+            return new ByteRange(-tail, -1);
+        }
+        if (offset == null && length == null) {
+            return null;
+        }
+        long first = offset == null ? 0 : offset;
+        if (first < 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset);
+        }
+        if (length != null && length <= 0) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        return new ByteRange(first, length == null ? -1 : first + length - 1);
+    }
+
+    /**
+     * @return the position of the first byte, or if negative, the number of bytes to read from the end
+     */
+    public long getOffset() {
+        return first;
+    }
+
+    /**
+     * @return the number of bytes in the range, {@link Long#MAX_VALUE} if it extends to the end
+     */
+    public long getLength() {
+        if (first < 0) {
+            return -first;
+        }
+        return last < 0 ? Long.MAX_VALUE : last - first + 1;
+    }
+
+    /**
+     * @return the value of a {@code Content-Range} header for the given bytes of a resource
+     */
+    public static String contentRange(long offset, long length, long totalSize) {
+        return UNIT + " " + offset + "-" + (offset + length - 1) + "/" + totalSize;
+    }
+
+    /**
+     * @return the value of a {@code Content-Range} header for a range that cannot be satisfied
+     */
+    public static String unsatisfiableContentRange(long totalSize) {
+        return UNIT + " */" + totalSize;
+    }
+
+    /**
+     * @return the position of the first byte of a {@code Content-Range} header, -1 for an unsatisfiable range
+     */
+    public static long contentRangeOffset(String contentRange) {
+        String range = contentRangeSpec(contentRange);
+        return range.startsWith("*") ? -1 : Long.parseLong(range.substring(0, range.indexOf('-')));
+    }
+
+    /**
+     * @return the size of the resource in a {@code Content-Range} header
+     */
+    public static long contentRangeTotalSize(String contentRange) {
+        String range = contentRangeSpec(contentRange);
+        return Long.parseLong(range.substring(range.indexOf('/') + 1));
+    }
+
+    private static String contentRangeSpec(String contentRange) {
+        String value = contentRange.trim();
+        if (!value.startsWith(UNIT + " ")) {
+            throw new IllegalArgumentException("Invalid content range " + contentRange);
+        }
+        return value.substring(UNIT.length() + 1).trim();
+    }
+
+    @Override
+    public String toString() {
+        return UNIT + "=" + (first < 0 ? "" : first) + "-" + (first < 0 ? -first : (last < 0 ? "" : last));
+    }
+
+}
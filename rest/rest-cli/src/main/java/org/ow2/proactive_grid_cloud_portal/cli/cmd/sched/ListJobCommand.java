@@ -97,6 +97,7 @@ public class ListJobCommand extends AbstractCommand implements Command {
                                                                                             true,
                                                                                             true,
                                                                                             true,
+                                                                                            null,
                                                                                             null);
         Map<Long, ArrayList<UserJobData>> stateMap = page.getMap();
         List<UserJobData> jobs = stateMap.values().iterator().next();
@@ -101,6 +101,7 @@ public class ListJobCommandTest {
                                                                     true,
                                                                     true,
                                                                     true,
+                                                                    null,
                                                                     null))
                .thenReturn(page);
 
@@ -114,6 +115,7 @@ public class ListJobCommandTest {
                                                                        true,
                                                                        true,
                                                                        true,
+                                                                       null,
                                                                        null);
     }
 
@@ -139,6 +141,7 @@ public class ListJobCommandTest {
                                                                     true,
                                                                     true,
                                                                     true,
+                                                                    null,
                                                                     null))
                .thenReturn(page);
 
@@ -152,6 +155,7 @@ public class ListJobCommandTest {
                                                                        true,
                                                                        true,
                                                                        true,
+                                                                       null,
                                                                        null);
 
     }
@@ -178,6 +182,7 @@ public class ListJobCommandTest {
                                                                     true,
                                                                     true,
                                                                     true,
+                                                                    null,
                                                                     null))
                .thenReturn(page);
 
@@ -191,6 +196,7 @@ public class ListJobCommandTest {
                                                                        true,
                                                                        true,
                                                                        true,
+                                                                       null,
                                                                        null);
     }
 
@@ -216,6 +222,7 @@ public class ListJobCommandTest {
                                                                     true,
                                                                     true,
                                                                     true,
+                                                                    null,
                                                                     null))
                .thenReturn(page);
 
@@ -229,6 +236,7 @@ public class ListJobCommandTest {
                                                                        true,
                                                                        true,
                                                                        true,
+                                                                       null,
                                                                        null);
 
     }
@@ -255,6 +263,7 @@ public class ListJobCommandTest {
                                                                     true,
                                                                     true,
                                                                     true,
+                                                                    null,
                                                                     null))
                .thenReturn(page);
 
@@ -268,6 +277,7 @@ public class ListJobCommandTest {
                                                                        true,
                                                                        true,
                                                                        true,
+                                                                       null,
                                                                        null);
     }
 
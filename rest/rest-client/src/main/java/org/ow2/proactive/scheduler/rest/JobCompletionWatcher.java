@@ -0,0 +1,239 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.rest;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.authentication.ConnectionInfo;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+
+
+/**
+ * Completes futures when jobs or tasks finish, using the scheduler events pushed by the REST server.
+ *
+ * A single event subscription is opened for all the waiting threads of a client. Each (re)connection increments
+ * a generation number: waiters check the state of their jobs or tasks through REST when the generation changes,
+ * as they may have finished while no subscription was active. When the subscription cannot be opened, the
+ * generation is negative and waiters fall back to polling.
+ */
+class JobCompletionWatcher implements DisconnectionAwareSchedulerEventListener {
+
+    private static final Logger logger = Logger.getLogger(JobCompletionWatcher.class);
+
+    private static final long RECONNECTION_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+    private static final SchedulerEvent[] EVENTS = { SchedulerEvent.JOB_PENDING_TO_FINISHED,
+                                                     SchedulerEvent.JOB_RUNNING_TO_FINISHED,
+                                                     SchedulerEvent.JOB_RUNNING_TO_FINISHED_WITH_ERRORS,
+                                                     SchedulerEvent.JOB_ABORTED,
+                                                     SchedulerEvent.JOB_REMOVE_FINISHED,
+                                                     SchedulerEvent.TASK_RUNNING_TO_FINISHED,
+                                                     SchedulerEvent.TASK_IN_ERROR_TO_FINISHED,
+                                                     SchedulerEvent.TASK_SKIPPED };
+
+    private final ConnectionInfo connectionInfo;
+
+    private final Supplier<String> sessionId;
+
+    private final Map<String, Set<CompletableFuture<Void>>> jobWaiters = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, Set<CompletableFuture<Void>>>> taskWaiters = new ConcurrentHashMap<>();
+
+    private SchedulerEventReceiver eventReceiver;
+
+    private boolean connected = false;
+
+    private long generation = 0;
+
+    private long nextConnectionAttempt = 0;
+
+    JobCompletionWatcher(ConnectionInfo connectionInfo, Supplier<String> sessionId) {
+        this.connectionInfo = connectionInfo;
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Opens the event subscription if it is not active
+     *
+     * @return the generation of the subscription, or -1 if no subscription is active
+     */
+    synchronized long connect() {
+        if (!connected) {
+            if (currentTimeMillis() < nextConnectionAttempt) {
+                return -1;
+            }
+            // the receiver of a lost subscription still holds its connection resources
+            if (eventReceiver != null) {
+                eventReceiver.stop();
+                eventReceiver = null;
+            }
+            try {
+                eventReceiver = new SchedulerEventReceiver.Builder().restServerUrl(connectionInfo.getUrl())
+                                                                    .insecure(connectionInfo.isInsecure())
+                                                                    .sessionId(sessionId.get())
+                                                                    .schedulerEventListener(this)
+                                                                    .myEventsOnly(false)
+                                                                    .selectedEvents(EVENTS)
+                                                                    .build();
+                eventReceiver.start();
+                connected = true;
+                generation++;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not subscribe to scheduler events, jobs and tasks will be polled", e);
+                eventReceiver = null;
+                nextConnectionAttempt = currentTimeMillis() + RECONNECTION_DELAY;
+                return -1;
+            }
+        }
+        return generation;
+    }
+
+    synchronized void close() {
+        if (eventReceiver != null) {
+            eventReceiver.stop();
+            eventReceiver = null;
+        }
+        connected = false;
+    }
+
+    /**
+     * @return futures completed when the given jobs finish, indexed by job id
+     */
+    Map<String, CompletableFuture<Void>> watchJobs(Collection<String> jobIds) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (String jobId : jobIds) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            jobWaiters.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(future);
+            futures.put(jobId, future);
+        }
+        return futures;
+    }
+
+    void unwatchJobs(Map<String, CompletableFuture<Void>> futures) {
+        futures.forEach((jobId, future) -> jobWaiters.computeIfPresent(jobId, (id, waiters) -> {
+            waiters.remove(future);
+            return waiters.isEmpty() ? null : waiters;
+        }));
+    }
+
+    /**
+     * @return futures completed when the given tasks finish, indexed by task name
+     */
+    Map<String, CompletableFuture<Void>> watchTasks(String jobId, Collection<String> taskNames) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        Map<String, Set<CompletableFuture<Void>>> waitersByTask = taskWaiters.computeIfAbsent(jobId,
+                                                                                              id -> new ConcurrentHashMap<>());
+        for (String taskName : taskNames) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            waitersByTask.computeIfAbsent(taskName, name -> ConcurrentHashMap.newKeySet()).add(future);
+            futures.put(taskName, future);
+        }
+        return futures;
+    }
+
+    void unwatchTasks(String jobId, Map<String, CompletableFuture<Void>> futures) {
+        taskWaiters.computeIfPresent(jobId, (id, waitersByTask) -> {
+            futures.forEach((taskName, future) -> waitersByTask.computeIfPresent(taskName, (name, waiters) -> {
+                waiters.remove(future);
+                return waiters.isEmpty() ? null : waiters;
+            }));
+            return waitersByTask.isEmpty() ? null : waitersByTask;
+        });
+    }
+
+    @Override
+    public synchronized void notifyDisconnection() {
+        connected = false;
+    }
+
+    @Override
+    public void jobStateUpdatedEvent(NotificationData<JobInfo> notification) {
+        JobInfo jobInfo = notification.getData();
+        if (notification.getEventType() == SchedulerEvent.JOB_REMOVE_FINISHED || !jobInfo.getStatus().isJobAlive()) {
+            String jobId = jobInfo.getJobId().value();
+            complete(jobWaiters.get(jobId));
+            // tasks of a finished job may not have received their own event (e.g. when the job is killed)
+            Map<String, Set<CompletableFuture<Void>>> waitersByTask = taskWaiters.get(jobId);
+            if (waitersByTask != null) {
+                waitersByTask.values().forEach(this::complete);
+            }
+        }
+    }
+
+    @Override
+    public void taskStateUpdatedEvent(NotificationData<TaskInfo> notification) {
+        TaskInfo taskInfo = notification.getData();
+        if (!taskInfo.getStatus().isTaskAlive()) {
+            Map<String, Set<CompletableFuture<Void>>> waitersByTask = taskWaiters.get(taskInfo.getJobId().value());
+            if (waitersByTask != null) {
+                complete(waitersByTask.get(taskInfo.getName()));
+            }
+        }
+    }
+
+    private void complete(Set<CompletableFuture<Void>> waiters) {
+        if (waiters != null) {
+            new HashSet<>(waiters).forEach(future -> future.complete(null));
+        }
+    }
+
+    @Override
+    public void schedulerStateUpdatedEvent(SchedulerEvent eventType) {
+        // not needed to detect finished jobs
+    }
+
+    @Override
+    public void jobSubmittedEvent(JobState job) {
+        // not needed to detect finished jobs
+    }
+
+    @Override
+    public void jobUpdatedFullDataEvent(JobState job) {
+        // not needed to detect finished jobs
+    }
+
+    @Override
+    public void usersUpdatedEvent(NotificationData<UserIdentification> notification) {
+        // not needed to detect finished jobs
+    }
+}
@@ -57,14 +57,18 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -92,6 +96,7 @@ import org.ow2.proactive.scheduler.common.Page;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.exception.JobAlreadyFinishedException;
@@ -154,6 +159,9 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
 
     private static final long RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(1);
 
+    /** Interval between two REST checks of waited jobs or tasks while scheduler events are received */
+    private static final long EVENT_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
     private SchedulerRestClient schedulerRestClient;
 
     private String sid;
@@ -164,6 +172,8 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
 
     private SchedulerEventReceiver schedulerEventReceiver;
 
+    private JobCompletionWatcher jobCompletionWatcher;
+
     private static final Logger logger = Logger.getLogger(SchedulerClient.class);
 
     private SchedulerClient() {
@@ -256,6 +266,12 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
 
     @Override
     public void disconnect() throws NotConnectedException, PermissionException {
+        synchronized (this) {
+            if (jobCompletionWatcher != null) {
+                jobCompletionWatcher.close();
+                jobCompletionWatcher = null;
+            }
+        }
         try {
             restApi().disconnect(sid);
         } catch (Exception e) {
@@ -327,7 +343,11 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
             List<SortParameter<JobSortParameter>> arg3) throws NotConnectedException, PermissionException {
         Page<JobInfo> jobInfos = null;
         try {
-            RestPage<UserJobData> userJobDataList = restApi().jobsInfo(sid, index, range);
+            RestPage<UserJobData> userJobDataList = restApi().jobsInfo(sid,
+                                                                       index,
+                                                                       range,
+                                                                       criteria == null ? null
+                                                                                        : criteria.getAfterJobId());
             jobInfos = new Page<JobInfo>(toJobInfos(userJobDataList.getList()), userJobDataList.getSize());
         } catch (Exception e) {
             throwNCEOrPE(e);
@@ -359,6 +379,18 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return jobServerLog;
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String jobId, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        ServerLogsChunk jobServerLog = null;
+        try {
+            jobServerLog = restApiClient().jobServerLogs(sid, jobId, offset, length);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPE(e);
+        }
+        return jobServerLog;
+    }
+
     @Override
     public SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
         SchedulerStatus status = null;
@@ -434,6 +466,18 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return taskLogs;
     }
 
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String jobId, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        ServerLogsChunk taskLogs = null;
+        try {
+            taskLogs = restApiClient().taskServerLogs(sid, jobId, taskName, offset, length);
+        } catch (Exception e) {
+            throwUJEOrNCEOrPEOrUTE(e);
+        }
+        return taskLogs;
+    }
+
     @Override
     public String getTaskServerLogsByTag(String jobId, String tag)
             throws UnknownJobException, NotConnectedException, PermissionException {
@@ -931,18 +975,10 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
     @Override
     public JobResult waitForJob(String jobId, long timeout)
             throws NotConnectedException, UnknownJobException, PermissionException, TimeoutException {
-        timeout += currentTimeMillis();
-        while (currentTimeMillis() < timeout) {
-            if (isJobFinished(jobId)) {
-                return getJobResult(jobId);
-            }
-            if (currentTimeMillis() + RETRY_INTERVAL < timeout) {
-                sleep(RETRY_INTERVAL);
-            } else {
-                break;
-            }
+        if (awaitJobs(Collections.singletonList(jobId), timeout, true).isEmpty()) {
+            throw new TimeoutException(format("Timeout waiting for the job: job-id=%s", jobId));
         }
-        throw new TimeoutException(format("Timeout waiting for the job: job-id=%s", jobId));
+        return getJobResult(jobId);
     }
 
     @Override
@@ -962,29 +998,24 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
     @Override
     public TaskResult waitForTask(String jobId, String taskName, long timeout) throws UnknownJobException,
             NotConnectedException, PermissionException, UnknownTaskException, TimeoutException {
-        timeout += currentTimeMillis();
-        while (currentTimeMillis() < timeout) {
-            if (isTaskFinished(jobId, taskName)) {
-                return getTaskResult(jobId, taskName);
-            }
-            if (currentTimeMillis() + RETRY_INTERVAL < timeout) {
-                sleep(RETRY_INTERVAL);
-            } else {
-                break;
-            }
+        if (awaitTasks(jobId, Collections.singletonList(taskName), timeout, true).isEmpty()) {
+            throw new TimeoutException(format("Timeout waiting for the task: job-id=%s, task-id=%s", jobId, taskName));
         }
-        throw new TimeoutException(format("Timeout waiting for the task: job-id=%s, task-id=%s", jobId, taskName));
+        return getTaskResult(jobId, taskName);
     }
 
     @Override
     public List<JobResult> waitForAllJobs(List<String> jobIds, long timeout)
             throws NotConnectedException, UnknownJobException, PermissionException, TimeoutException {
-        long timestamp = 0;
+        Set<String> finishedJobIds = awaitJobs(jobIds, timeout, false);
+        for (String jobId : jobIds) {
+            if (!finishedJobIds.contains(jobId)) {
+                throw new TimeoutException(format("Timeout waiting for the job: job-id=%s", jobId));
+            }
+        }
         List<JobResult> results = new ArrayList<>(jobIds.size());
         for (String jobId : jobIds) {
-            timestamp = currentTimeMillis();
-            results.add(waitForJob(jobId, timeout));
-            timeout = timeout - (currentTimeMillis() - timestamp);
+            results.add(getJobResult(jobId));
         }
         return results;
     }
@@ -992,59 +1023,207 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
     @Override
     public Map.Entry<String, JobResult> waitForAnyJob(List<String> jobIds, long timeout)
             throws NotConnectedException, UnknownJobException, PermissionException, TimeoutException {
-        timeout += currentTimeMillis();
-        while (currentTimeMillis() < timeout) {
-            for (String jobId : jobIds) {
-                if (isJobFinished(jobId)) {
-                    return toEntry(jobId, getJobResult(jobId));
-                }
-            }
-            if (currentTimeMillis() + RETRY_INTERVAL < timeout) {
-                sleep(RETRY_INTERVAL);
-            } else {
-                break;
-            }
+        Set<String> finishedJobIds = awaitJobs(jobIds, timeout, true);
+        if (finishedJobIds.isEmpty()) {
+            throw new TimeoutException(format("Timeout waiting for any job: jobIds=%s.", String.valueOf(jobIds)));
         }
-        throw new TimeoutException(format("Timeout waiting for any job: jobIds=%s.", String.valueOf(jobIds)));
+        String jobId = finishedJobIds.iterator().next();
+        return toEntry(jobId, getJobResult(jobId));
     }
 
     @Override
     public Entry<String, TaskResult> waitForAnyTask(String jobId, List<String> taskNames, long timeout)
             throws UnknownJobException, NotConnectedException, PermissionException, UnknownTaskException,
             TimeoutException {
-        timeout += currentTimeMillis();
-        while (currentTimeMillis() < timeout) {
-            for (String taskName : taskNames) {
-                if (isTaskFinished(jobId, taskName)) {
-                    return toEntry(taskName, getTaskResult(jobId, taskName));
-                }
-            }
-            if (currentTimeMillis() + RETRY_INTERVAL < timeout) {
-                sleep(RETRY_INTERVAL);
-            } else {
-                break;
-            }
+        Set<String> finishedTaskNames = awaitTasks(jobId, taskNames, timeout, true);
+        if (finishedTaskNames.isEmpty()) {
+            throw new TimeoutException(format("Timeout waiting for any task: job-id=%s, task-ids=%s.",
+                                              jobId,
+                                              String.valueOf(taskNames)));
         }
-        throw new TimeoutException(format("Timeout waiting for any task: job-id=%s, task-ids=%s.",
-                                          jobId,
-                                          String.valueOf(taskNames)));
+        String taskName = finishedTaskNames.iterator().next();
+        return toEntry(taskName, getTaskResult(jobId, taskName));
     }
 
     @Override
     public List<Entry<String, TaskResult>> waitForAllTasks(String jobId, List<String> taskNames, long timeout)
             throws UnknownJobException, NotConnectedException, PermissionException, UnknownTaskException,
             TimeoutException {
-        long timestamp = 0;
+        Set<String> finishedTaskNames = awaitTasks(jobId, taskNames, timeout, false);
+        for (String taskName : taskNames) {
+            if (!finishedTaskNames.contains(taskName)) {
+                throw new TimeoutException(format("Timeout waiting for the task: job-id=%s, task-id=%s",
+                                                  jobId,
+                                                  taskName));
+            }
+        }
         List<Map.Entry<String, TaskResult>> taskResults = new ArrayList<>(taskNames.size());
         for (String taskName : taskNames) {
-            timestamp = currentTimeMillis();
-            Entry<String, TaskResult> taskResultEntry = toEntry(taskName, waitForTask(jobId, taskName, timeout));
-            taskResults.add(taskResultEntry);
-            timeout = timeout - (currentTimeMillis() - timestamp);
+            taskResults.add(toEntry(taskName, getTaskResult(jobId, taskName)));
         }
         return taskResults;
     }
 
+    /**
+     * Waits until any or all of the given jobs are finished, or until the timeout expires.
+     *
+     * Finished jobs are notified by the scheduler events, jobs are only checked through REST when the event
+     * subscription is (re)opened and every EVENT_CHECK_INTERVAL, or every RETRY_INTERVAL if events are not available.
+     * When the calling thread is interrupted, the wait stops as if the timeout expired and the thread stays interrupted.
+     *
+     * @return the finished jobs
+     */
+    private Set<String> awaitJobs(List<String> jobIds, long timeout, boolean any)
+            throws NotConnectedException, UnknownJobException, PermissionException {
+        long deadline = currentTimeMillis() + timeout;
+        JobCompletionWatcher watcher = jobCompletionWatcher();
+        Map<String, CompletableFuture<Void>> futures = watcher.watchJobs(jobIds);
+        Semaphore completions = completionSignal(futures);
+        try {
+            Set<String> finished = new LinkedHashSet<>();
+            long checkedGeneration = -1;
+            long nextCheck = 0;
+            while (true) {
+                long generation = watcher.connect();
+                if (generation != checkedGeneration || currentTimeMillis() >= nextCheck) {
+                    finished.addAll(finishedJobs(pending(futures, finished)));
+                    checkedGeneration = generation;
+                    nextCheck = currentTimeMillis() + (generation < 0 ? RETRY_INTERVAL : EVENT_CHECK_INTERVAL);
+                }
+                collectCompleted(futures, finished);
+                if (any ? !finished.isEmpty() : finished.size() == futures.size()) {
+                    return finished;
+                }
+                long remaining = deadline - currentTimeMillis();
+                if (remaining <= 0) {
+                    return finished;
+                }
+                if (!awaitAnyCompletion(completions, Math.min(remaining, nextCheck - currentTimeMillis()))) {
+                    return finished;
+                }
+            }
+        } finally {
+            watcher.unwatchJobs(futures);
+        }
+    }
+
+    /**
+     * Waits until any or all of the given tasks are finished, or until the timeout expires.
+     *
+     * @see #awaitJobs(List, long, boolean)
+     * @return the finished tasks
+     */
+    private Set<String> awaitTasks(String jobId, List<String> taskNames, long timeout, boolean any)
+            throws NotConnectedException, UnknownJobException, PermissionException, UnknownTaskException {
+        long deadline = currentTimeMillis() + timeout;
+        JobCompletionWatcher watcher = jobCompletionWatcher();
+        Map<String, CompletableFuture<Void>> futures = watcher.watchTasks(jobId, taskNames);
+        Semaphore completions = completionSignal(futures);
+        try {
+            Set<String> finished = new LinkedHashSet<>();
+            long checkedGeneration = -1;
+            long nextCheck = 0;
+            while (true) {
+                long generation = watcher.connect();
+                if (generation != checkedGeneration || currentTimeMillis() >= nextCheck) {
+                    for (String taskName : pending(futures, finished)) {
+                        if (isTaskFinished(jobId, taskName)) {
+                            finished.add(taskName);
+                        }
+                    }
+                    checkedGeneration = generation;
+                    nextCheck = currentTimeMillis() + (generation < 0 ? RETRY_INTERVAL : EVENT_CHECK_INTERVAL);
+                }
+                collectCompleted(futures, finished);
+                if (any ? !finished.isEmpty() : finished.size() == futures.size()) {
+                    return finished;
+                }
+                long remaining = deadline - currentTimeMillis();
+                if (remaining <= 0) {
+                    return finished;
+                }
+                if (!awaitAnyCompletion(completions, Math.min(remaining, nextCheck - currentTimeMillis()))) {
+                    return finished;
+                }
+            }
+        } finally {
+            watcher.unwatchTasks(jobId, futures);
+        }
+    }
+
+    private Set<String> finishedJobs(List<String> jobIds)
+            throws NotConnectedException, UnknownJobException, PermissionException {
+        Set<String> finished = new HashSet<>();
+        if (jobIds.size() == 1) {
+            if (isJobFinished(jobIds.get(0))) {
+                finished.add(jobIds.get(0));
+            }
+            return finished;
+        }
+        Set<String> notFound = new HashSet<>(jobIds);
+        for (JobInfo jobInfo : getJobsInfoList(jobIds)) {
+            String jobId = jobInfo.getJobId().value();
+            notFound.remove(jobId);
+            if (!jobInfo.getStatus().isJobAlive()) {
+                finished.add(jobId);
+            }
+        }
+        // jobs missing from the answer are checked individually to report unknown jobs
+        for (String jobId : notFound) {
+            if (isJobFinished(jobId)) {
+                finished.add(jobId);
+            }
+        }
+        return finished;
+    }
+
+    private static List<String> pending(Map<String, CompletableFuture<Void>> futures, Set<String> finished) {
+        return futures.keySet().stream().filter(id -> !finished.contains(id)).collect(Collectors.toList());
+    }
+
+    private static void collectCompleted(Map<String, CompletableFuture<Void>> futures, Set<String> finished) {
+        futures.forEach((id, future) -> {
+            if (future.isDone()) {
+                finished.add(id);
+            }
+        });
+    }
+
+    /**
+     * @return a semaphore released once by the completion of each of the given futures, so that a wait registers
+     *         a single dependent action on each future whatever the number of times it waits for them
+     */
+    private static Semaphore completionSignal(Map<String, CompletableFuture<Void>> futures) {
+        Semaphore completions = new Semaphore(0);
+        futures.values().forEach(future -> future.whenComplete((result, exception) -> completions.release()));
+        return completions;
+    }
+
+    /**
+     * Waits until one of the futures is completed, at most the given time and never more than
+     * RETRY_INTERVAL so that a lost event subscription is detected. Futures completed since the
+     * previous wait return immediately, the caller checks which ones are done.
+     *
+     * @return false if the calling thread was interrupted, its interrupt status is then set
+     */
+    private static boolean awaitAnyCompletion(Semaphore completions, long millis) {
+        try {
+            completions.tryAcquire(Math.max(1, Math.min(millis, RETRY_INTERVAL)), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized JobCompletionWatcher jobCompletionWatcher() {
+        checkInitialized();
+        if (jobCompletionWatcher == null) {
+            jobCompletionWatcher = new JobCompletionWatcher(connectionInfo, this::getSession);
+        }
+        return jobCompletionWatcher;
+    }
+
     @Override
     public boolean pushFile(String spacename, String pathname, String filename, String file)
             throws NotConnectedException, PermissionException {
@@ -1156,14 +1335,6 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         }
     }
 
-    private void sleep(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException ie) {
-            // ignore
-        }
-    }
-
     private SchedulerRestInterface restApi() {
         checkInitialized();
         return schedulerRestClient.getScheduler();
@@ -25,20 +25,31 @@
  */
 package org.ow2.proactive.scheduler.rest.ds;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -61,15 +72,29 @@ import org.ow2.proactive.scheduler.rest.ISchedulerClient;
 import org.ow2.proactive.scheduler.rest.SchedulerClient;
 import org.ow2.proactive_grid_cloud_portal.dataspace.dto.ListFile;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerRestClient;
+import org.ow2.proactive_grid_cloud_portal.utils.ByteRange;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
 
 
 public class DataSpaceClient implements IDataSpaceClient {
 
     private static final Logger log = Logger.getLogger(DataSpaceClient.class);
 
+    private static final long DEFAULT_TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    private static final int DEFAULT_PARALLEL_DOWNLOADS = 4;
+
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static final String RANGE = "Range";
+
+    private static final String CONTENT_RANGE = "Content-Range";
+
     private String restDataspaceUrl;
 
     private String sessionId;
@@ -80,6 +105,14 @@ public class DataSpaceClient implements IDataSpaceClient {
 
     private ISchedulerClient schedulerClient;
 
+    private long transferChunkSize = DEFAULT_TRANSFER_CHUNK_SIZE;
+
+    private int parallelDownloads = DEFAULT_PARALLEL_DOWNLOADS;
+
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    private boolean checksumVerification = true;
+
     public DataSpaceClient() {
     }
 
@@ -93,6 +126,8 @@ public class DataSpaceClient implements IDataSpaceClient {
                                                                              .insecure(client.getConnectionInfo()
                                                                                              .isInsecure())
                                                                              .useSystemProperties()
+                                                                             .maxConnections(DEFAULT_PARALLEL_DOWNLOADS *
+                                                                                             2)
                                                                              .build());
         this.providerFactory = ResteasyProviderFactory.getInstance();
         SchedulerRestClient.registerGzipEncoding(providerFactory);
@@ -154,6 +189,335 @@ public class DataSpaceClient implements IDataSpaceClient {
         }
     }
 
+    /**
+     * Sets the size of the parts in which {@link #uploadFile(File, IRemoteDestination)} and
+     * {@link #downloadFile(IRemoteSource, File)} split a file.
+     */
+    public void setTransferChunkSize(long transferChunkSize) {
+        checkArgument(transferChunkSize > 0, "Transfer chunk size must be positive");
+        this.transferChunkSize = transferChunkSize;
+    }
+
+    /**
+     * Sets the maximum number of ranges of a file downloaded concurrently by
+     * {@link #downloadFile(IRemoteSource, File)}.
+     */
+    public void setParallelDownloads(int parallelDownloads) {
+        checkArgument(parallelDownloads > 0, "Number of parallel downloads must be positive");
+        this.parallelDownloads = parallelDownloads;
+    }
+
+    /**
+     * Sets how many times a part of a file transfer is sent again after a connection failure.
+     */
+    public void setMaxRetries(int maxRetries) {
+        checkArgument(maxRetries >= 0, "Number of retries cannot be negative");
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Enables or disables the comparison of the SHA-256 digests of the local and remote files
+     * at the end of a ranged transfer.
+     */
+    public void setChecksumVerification(boolean checksumVerification) {
+        this.checksumVerification = checksumVerification;
+    }
+
+    @Override
+    public boolean uploadFile(File source, IRemoteDestination destination)
+            throws NotConnectedException, PermissionException {
+        checkArgument(source.isFile(), "%s is not a file", source);
+        long totalSize = source.length();
+        if (totalSize == 0) {
+            return upload(new LocalFileSource(source), destination);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Uploading " + source + " to " + destination + " in parts of " + transferChunkSize + " bytes");
+        }
+
+        ResteasyWebTarget target = target(destination.getDataspace(), destination.getPath());
+        String uploadId = uploadId(source);
+        // the server may already hold the beginning of the file from a previous attempt, so the upload
+        // starts with a status query, repeated after each failure
+        long received = -1;
+        int failures = 0;
+        while (received < totalSize) {
+            try {
+                received = uploadPart(target, uploadId, source, received, totalSize);
+                failures = 0;
+            } catch (ProcessingException e) {
+                if (++failures > maxRetries) {
+                    throw new RuntimeException(String.format("Upload of %s failed after %d attempts", source, failures),
+                                               e);
+                }
+                log.warn("Upload of " + source + " interrupted, resuming it", e);
+                received = -1;
+            }
+        }
+
+        if (checksumVerification) {
+            verifyChecksum(source, target);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Upload from " + source + " to " + destination + " performed with success");
+        }
+        return true;
+    }
+
+    /**
+     * Identifies the upload of a file to the server, which only resumes an upload whose parts have the
+     * same identifier. It changes when the file is modified, so that parts of a previous version of
+     * the file are not completed with the current one.
+     */
+    private static String uploadId(File source) {
+        String version = source.getAbsolutePath() + ':' + source.length() + ':' + source.lastModified();
+        return Hashing.sha256().hashString(version, StandardCharsets.UTF_8).toString().substring(0, 32);
+    }
+
+    /**
+     * Sends the part of the file starting at {@code offset}, or only asks for the upload status
+     * when the offset is negative.
+     *
+     * @return the number of bytes of the file received by the server
+     */
+    private long uploadPart(ResteasyWebTarget target, String uploadId, final File source, final long offset,
+            long totalSize) throws NotConnectedException, PermissionException {
+        Response response = null;
+        try {
+            Invocation.Builder request = target.request()
+                                               .header("sessionid", sessionId)
+                                               .header("uploadid", uploadId);
+            if (offset < 0) {
+                response = request.header(CONTENT_RANGE, ByteRange.UNIT + " */" + totalSize)
+                                  .put(Entity.entity(new byte[0], MediaType.APPLICATION_OCTET_STREAM_TYPE));
+            } else {
+                final long length = Math.min(transferChunkSize, totalSize - offset);
+                response = request.header(CONTENT_RANGE, ByteRange.contentRange(offset, length, totalSize))
+                                  .put(Entity.entity(new StreamingOutput() {
+                                      @Override
+                                      public void write(OutputStream outputStream) throws IOException {
+                                          ByteSource part = com.google.common.io.Files.asByteSource(source)
+                                                                                      .slice(offset, length);
+                                          part.copyTo(outputStream);
+                                      }
+                                  }, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+            }
+
+            switch (response.getStatus()) {
+                case HttpURLConnection.HTTP_CREATED:
+                    return totalSize;
+                case HttpURLConnection.HTTP_ACCEPTED:
+                    ByteRange range = ByteRange.parse(response.getHeaderString(RANGE));
+                    return range == null ? 0 : range.getOffset() + range.getLength();
+                case HttpURLConnection.HTTP_UNAUTHORIZED:
+                    throw new NotConnectedException("User not authenticated or session timeout.");
+                case HttpURLConnection.HTTP_FORBIDDEN:
+                    throw new PermissionException("Permission denied to write " + target.getUri());
+                default:
+                    throw new RuntimeException("File upload failed. Status code:" + response.getStatus());
+            }
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean downloadFile(final IRemoteSource source, File destination)
+            throws NotConnectedException, PermissionException {
+        final ResteasyWebTarget target = target(source.getDataspace(), source.getPath());
+        final RemoteFileVersion version = remoteFileVersion(target);
+        long totalSize = version.size;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Downloading " + totalSize + " bytes from " + source + " to " + destination);
+        }
+
+        File parent = destination.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        int segments = (int) Math.max(1,
+                                      Math.min(parallelDownloads,
+                                               (totalSize + transferChunkSize - 1) / transferChunkSize));
+        long segmentSize = (totalSize + segments - 1) / segments;
+        List<File> parts = new ArrayList<>(segments);
+        ExecutorService executor = Executors.newFixedThreadPool(segments);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(segments);
+            for (int i = 0; i < segments; i++) {
+                final long start = i * segmentSize;
+                final long end = Math.min(totalSize, start + segmentSize);
+                // a part file left by an interrupted download of the same segment of the same file version is resumed
+                final File part = new File(destination.getPath() + "." + version.tag() + "." + i + "-" + segments +
+                                           ".part");
+                parts.add(part);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        downloadSegment(target, version, part, start, end);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Download of " + source + " interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RemoteFileModifiedException) {
+                deleteParts(parts);
+            }
+            Throwables.propagateIfInstanceOf(e.getCause(), NotConnectedException.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), PermissionException.class);
+            throw Throwables.propagate(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            try (OutputStream outputStream = new FileOutputStream(destination)) {
+                for (File part : parts) {
+                    com.google.common.io.Files.copy(part, outputStream);
+                }
+            }
+            if (checksumVerification) {
+                verifyChecksum(destination, target);
+            }
+        } catch (IOException ioe) {
+            throw Throwables.propagate(ioe);
+        } catch (RuntimeException e) {
+            // the parts cannot be trusted to resume a later download either
+            destination.delete();
+            deleteParts(parts);
+            throw e;
+        }
+        deleteParts(parts);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Download from " + source + " to " + destination + " performed with success");
+        }
+        return true;
+    }
+
+    private static void deleteParts(List<File> parts) {
+        for (File part : parts) {
+            part.delete();
+        }
+    }
+
+    private RemoteFileVersion remoteFileVersion(ResteasyWebTarget target)
+            throws NotConnectedException, PermissionException {
+        Response response = null;
+        try {
+            response = target.request().header("sessionid", sessionId).header(RANGE, ByteRange.UNIT + "=0-0").get();
+            switch (response.getStatus()) {
+                case HttpURLConnection.HTTP_PARTIAL:
+                case 416: // an empty file cannot satisfy any range
+                    return new RemoteFileVersion(ByteRange.contentRangeTotalSize(response.getHeaderString(CONTENT_RANGE)),
+                                                 response.getHeaderString(HttpHeaders.LAST_MODIFIED));
+                case HttpURLConnection.HTTP_UNAUTHORIZED:
+                    throw new NotConnectedException("User not authenticated or session timeout.");
+                case HttpURLConnection.HTTP_FORBIDDEN:
+                    throw new PermissionException("Permission denied to read " + target.getUri());
+                default:
+                    throw new RuntimeException(String.format("Cannot retrieve the file. Status code: %s",
+                                                             response.getStatus()));
+            }
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    private void downloadSegment(ResteasyWebTarget target, RemoteFileVersion version, File part, long start,
+            long end) throws IOException, NotConnectedException {
+        if (part.length() > end - start) {
+            part.delete();
+        }
+        // an empty segment (empty remote file) still needs its part to assemble the destination
+        part.createNewFile();
+        int failures = 0;
+        while (part.length() < end - start) {
+            long offset = start + part.length();
+            Response response = null;
+            try {
+                response = target.request()
+                                 .header("sessionid", sessionId)
+                                 .header(RANGE, ByteRange.UNIT + "=" + offset + "-" + (end - 1))
+                                 .get();
+                if (response.getStatus() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                    throw new NotConnectedException("User not authenticated or session timeout.");
+                } else if (response.getStatus() != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new RuntimeException(String.format("Cannot retrieve the range %d-%d. Status code: %s",
+                                                             offset,
+                                                             end - 1,
+                                                             response.getStatus()));
+                }
+                String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+                if (version.lastModified != null && !version.lastModified.equals(lastModified)) {
+                    throw new RemoteFileModifiedException(target.getUri() + " was modified during the download");
+                }
+                try (InputStream inputStream = response.readEntity(InputStream.class);
+                        OutputStream outputStream = new FileOutputStream(part, true)) {
+                    ByteStreams.copy(ByteStreams.limit(inputStream, end - offset), outputStream);
+                }
+                failures = 0;
+            } catch (ProcessingException | IOException e) {
+                if (++failures > maxRetries) {
+                    throw e;
+                }
+                log.warn("Download of range " + offset + "-" + (end - 1) + " interrupted, resuming it", e);
+            } finally {
+                if (response != null) {
+                    response.close();
+                }
+            }
+        }
+    }
+
+    private void verifyChecksum(File file, ResteasyWebTarget target) throws NotConnectedException {
+        Response response = null;
+        try {
+            response = target.queryParam("comp", "checksum").request().header("sessionid", sessionId).get();
+            if (response.getStatus() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                throw new NotConnectedException("User not authenticated or session timeout.");
+            } else if (response.getStatus() != HttpURLConnection.HTTP_OK) {
+                throw new RuntimeException(String.format("Cannot retrieve the checksum of %s. Status code: %s",
+                                                         target.getUri(),
+                                                         response.getStatus()));
+            }
+            String remoteChecksum = response.readEntity(String.class).trim();
+            String localChecksum = com.google.common.io.Files.hash(file, Hashing.sha256()).toString();
+            if (!localChecksum.equalsIgnoreCase(remoteChecksum)) {
+                throw new RuntimeException(String.format("Checksum mismatch between %s (%s) and %s (%s)",
+                                                         file,
+                                                         localChecksum,
+                                                         target.getUri(),
+                                                         remoteChecksum));
+            }
+        } catch (IOException ioe) {
+            throw Throwables.propagate(ioe);
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    private ResteasyWebTarget target(Dataspace dataspace, String path) {
+        ResteasyClient client = new ResteasyClientBuilder().providerFactory(providerFactory)
+                                                           .httpEngine(httpEngine)
+                                                           .build();
+        return client.target(restDataspaceUrl + dataspace.value()).path(path);
+    }
+
     @Override
     public boolean create(IRemoteSource source) throws NotConnectedException, PermissionException {
         if (log.isDebugEnabled()) {
@@ -538,4 +902,30 @@ public class DataSpaceClient implements IDataSpaceClient {
         }
     }
 
+    /**
+     * Size and modification date of a remote file, identifying the part files of its download.
+     */
+    private static final class RemoteFileVersion {
+        private final long size;
+
+        private final String lastModified;
+
+        private RemoteFileVersion(long size, String lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private String tag() {
+            return Hashing.sha256()
+                          .hashString(size + ":" + lastModified, StandardCharsets.UTF_8)
+                          .toString()
+                          .substring(0, 16);
+        }
+    }
+
+    private static final class RemoteFileModifiedException extends RuntimeException {
+        private RemoteFileModifiedException(String message) {
+            super(message);
+        }
+    }
 }
@@ -25,6 +25,7 @@
  */
 package org.ow2.proactive.scheduler.rest.ds;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -73,6 +74,33 @@ public interface IDataSpaceClient {
     boolean upload(ILocalSource source, IRemoteDestination destination)
             throws NotConnectedException, PermissionException;
 
+    /**
+     * Downloads a single file using byte ranges: the file is fetched in several ranges in parallel,
+     * each range being resumed after a connection failure from the bytes already written locally.
+     *
+     * @param source the remote file to download
+     * @param destination the local file to write
+     * @return {@code true} if the download has succeeded
+     *
+     * @throws NotConnectedException if the client is not logged in or the session has expired
+     * @throws PermissionException   if the user does not have permission to read the file
+     */
+    boolean downloadFile(IRemoteSource source, File destination) throws NotConnectedException, PermissionException;
+
+    /**
+     * Uploads a single file in several parts, the server assembling the file once all parts are
+     * received. An interrupted upload is resumed from the bytes already received by the server.
+     *
+     * @param source the local file to upload
+     * @param destination the remote location of the file
+     * @return {@code true} if the upload has succeeded
+     *
+     * @throws NotConnectedException if the client is not logged in or the session has expired
+     * @throws PermissionException   if the user does not have permission to upload the file to
+     *                               the specified location in the server
+     */
+    boolean uploadFile(File source, IRemoteDestination destination) throws NotConnectedException, PermissionException;
+
     /**
      * Returns a {@link ListFile} type object which contains the names of files
      * and directories in the specified location of the <i>dataspace</i>.
@@ -41,6 +41,8 @@ public class LocalFileSource implements ILocalSource {
 
     private File file;
 
+    private boolean compressionEnabled = true;
+
     public LocalFileSource(File file) {
         checkArgument(file.isFile());
         this.file = file;
@@ -52,9 +54,17 @@ public class LocalFileSource implements ILocalSource {
 
     }
 
+    /**
+     * Enables or disables the gzip compression of the file content during the upload. The content of
+     * files which are already compressed (archives, images, ...) is always sent as is.
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
     @Override
     public void writeTo(OutputStream outputStream) throws IOException {
-        if (Zipper.isZipFile(file)) {
+        if (getEncoding() == null) {
             Files.asByteSource(file).copyTo(outputStream);
         } else {
             Zipper.GZIP.zip(file, outputStream);
@@ -63,7 +73,7 @@ public class LocalFileSource implements ILocalSource {
 
     @Override
     public String getEncoding() throws IOException {
-        return Zipper.isZipFile(file) ? null : "gzip";
+        return !compressionEnabled || Zipper.isCompressedFile(file) ? null : "gzip";
     }
 
     @Override
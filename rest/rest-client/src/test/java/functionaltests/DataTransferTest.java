@@ -290,6 +290,26 @@ public class DataTransferTest extends AbstractRestFuncTestCase {
 
     }
 
+    @Test
+    public void testDownloadEmptyFile() throws Exception {
+        String srcDirPath = URI.create(getScheduler().getUserSpaceURIs().get(0)).getPath();
+        File srcFile = new File(srcDirPath, TEMP_FILE_TMP_NAME);
+        if (srcFile.exists()) {
+            assertTrue(srcFile.delete());
+        }
+        assertTrue(srcFile.createNewFile());
+
+        File destDir = tmpDir.newFolder();
+        File destFile = new File(destDir, TEMP_FILE_TMP_NAME);
+
+        IDataSpaceClient client = clientInstance();
+        assertTrue(client.downloadFile(new RemoteSource(USER, TEMP_FILE_TMP_NAME), destFile));
+        assertTrue(destFile.isFile());
+        assertEquals(0, destFile.length());
+        // no part file is left behind once the download succeeded
+        assertArrayEquals(new String[] { TEMP_FILE_TMP_NAME }, destDir.list());
+    }
+
     @Test
     public void testDownloadZipFile() throws Exception {
         testDownloadArchiveFile(TEMP_FILE_ZIP_NAME, zipFileUrl);
@@ -0,0 +1,114 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.rest;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import org.ow2.proactive.authentication.ConnectionInfo;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.rest.data.JobInfoImpl;
+import org.ow2.proactive.scheduler.rest.data.TaskInfoImpl;
+
+
+public class JobCompletionWatcherTest {
+
+    private final JobCompletionWatcher watcher = new JobCompletionWatcher(new ConnectionInfo("http://localhost:8080/rest",
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             false),
+                                                                          () -> "sessionId");
+
+    @Test
+    public void testJobFuturesAreCompletedWhenJobFinishes() {
+        Map<String, CompletableFuture<Void>> futures = watcher.watchJobs(Arrays.asList("1", "2"));
+
+        watcher.jobStateUpdatedEvent(new NotificationData<>(SchedulerEvent.JOB_PENDING_TO_RUNNING,
+                                                            jobInfo("1", JobStatus.RUNNING)));
+        assertThat(futures.get("1").isDone()).isFalse();
+
+        watcher.jobStateUpdatedEvent(new NotificationData<>(SchedulerEvent.JOB_RUNNING_TO_FINISHED,
+                                                            jobInfo("1", JobStatus.FINISHED)));
+        assertThat(futures.get("1").isDone()).isTrue();
+        assertThat(futures.get("2").isDone()).isFalse();
+
+        watcher.unwatchJobs(futures);
+        watcher.jobStateUpdatedEvent(new NotificationData<>(SchedulerEvent.JOB_RUNNING_TO_FINISHED,
+                                                            jobInfo("2", JobStatus.FINISHED)));
+        assertThat(futures.get("2").isDone()).isFalse();
+    }
+
+    @Test
+    public void testTaskFuturesAreCompletedWhenTaskOrJobFinishes() {
+        Map<String, CompletableFuture<Void>> futures = watcher.watchTasks("1", Arrays.asList("task1", "task2"));
+
+        watcher.taskStateUpdatedEvent(new NotificationData<>(SchedulerEvent.TASK_RUNNING_TO_FINISHED,
+                                                             taskInfo("1", "task1", TaskStatus.FINISHED)));
+        assertThat(futures.get("task1").isDone()).isTrue();
+        assertThat(futures.get("task2").isDone()).isFalse();
+
+        watcher.jobStateUpdatedEvent(new NotificationData<>(SchedulerEvent.JOB_RUNNING_TO_FINISHED,
+                                                            jobInfo("1", JobStatus.KILLED)));
+        assertThat(futures.get("task2").isDone()).isTrue();
+    }
+
+    @Test
+    public void testSeveralWaitersOfTheSameJob() {
+        Map<String, CompletableFuture<Void>> first = watcher.watchJobs(Collections.singletonList("1"));
+        Map<String, CompletableFuture<Void>> second = watcher.watchJobs(Collections.singletonList("1"));
+        watcher.unwatchJobs(first);
+
+        watcher.jobStateUpdatedEvent(new NotificationData<>(SchedulerEvent.JOB_RUNNING_TO_FINISHED,
+                                                            jobInfo("1", JobStatus.FINISHED)));
+        assertThat(first.get("1").isDone()).isFalse();
+        assertThat(second.get("1").isDone()).isTrue();
+    }
+
+    private static JobInfoImpl jobInfo(String jobId, JobStatus status) {
+        JobInfoImpl jobInfo = new JobInfoImpl();
+        jobInfo.setJobId(JobIdImpl.makeJobId(jobId));
+        jobInfo.setJobStatus(status);
+        return jobInfo;
+    }
+
+    private static TaskInfoImpl taskInfo(String jobId, String taskName, TaskStatus status) {
+        TaskInfoImpl taskInfo = new TaskInfoImpl();
+        taskInfo.setJobId(JobIdImpl.makeJobId(jobId));
+        taskInfo.setName(taskName);
+        taskInfo.setStatus(status);
+        return taskInfo;
+    }
+}
@@ -49,6 +49,9 @@ import org.ow2.proactive_grid_cloud_portal.dataspace.dto.ListFile;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Closer;
 
@@ -236,6 +239,18 @@ public class FileSystem {
         }
     }
 
+    /**
+     * @return the hexadecimal SHA-256 digest of the file content
+     */
+    public static String checksum(FileObject fo) throws IOException {
+        fo.refresh();
+        Hasher hasher = Hashing.sha256().newHasher();
+        try (InputStream is = fo.getContent().getInputStream()) {
+            ByteStreams.copy(is, Funnels.asOutputStream(hasher));
+        }
+        return hasher.hash().toString();
+    }
+
     public static boolean isEmpty(FileObject fo) throws FileSystemException {
         fo.refresh();
         FileObject[] children = fo.getChildren();
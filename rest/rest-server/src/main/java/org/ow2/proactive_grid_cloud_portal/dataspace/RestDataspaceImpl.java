@@ -32,7 +32,10 @@ import static org.apache.commons.vfs2.Selectors.SELECT_SELF;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.HttpHeaders;
@@ -54,11 +57,15 @@ import org.ow2.proactive_grid_cloud_portal.common.SessionStore;
 import org.ow2.proactive_grid_cloud_portal.common.SharedSessionStore;
 import org.ow2.proactive_grid_cloud_portal.common.TokenStore;
 import org.ow2.proactive_grid_cloud_portal.dataspace.util.VFSZipper;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.utils.Zipper;
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.NotConnectedRestException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.exception.PermissionRestException;
+import org.ow2.proactive_grid_cloud_portal.utils.ByteRange;
 
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Striped;
 
 
 @Path("/data/")
@@ -70,10 +77,24 @@ public class RestDataspaceImpl implements RestDataspace {
 
     public static final String GLOBAL = "global";
 
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+
+    private static final String CONTENT_RANGE = "Content-Range";
+
+    private static final String RANGE = "Range";
+
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /**
+     * Serializes the parts written to, and the replacement of, a same output file
+     */
+    private static final Striped<Lock> uploadLocks = Striped.lazyWeakLock(64);
+
     private static SessionStore sessions = SharedSessionStore.getInstance();
 
     @Override
     public Response store(@HeaderParam("sessionid") String sessionId, @HeaderParam("Content-Encoding") String encoding,
+            @HeaderParam("Content-Range") String contentRange, @HeaderParam("uploadid") String uploadId,
             @PathParam("dataspace") String dataspace, @PathParam("path-name") String pathname, InputStream is)
             throws NotConnectedRestException, PermissionRestException {
         Session session = checkSessionValidity(sessionId);
@@ -84,6 +105,13 @@ public class RestDataspaceImpl implements RestDataspace {
             if (!fileObject.isWriteable()) {
                 return unauthorizedWriteRes(pathname);
             }
+            if (contentRange != null) {
+                logger.debug(String.format("Storing part %s of file %s in %s",
+                                           contentRange,
+                                           pathname,
+                                           dataspace.toUpperCase()));
+                return writeFilePart(is, fileObject, encoding, contentRange, uploadId);
+            }
             writeFile(is, fileObject, encoding);
         } catch (Throwable error) {
             logger.error(String.format("Cannot save the requested file to %s in %s.",
@@ -97,11 +125,11 @@ public class RestDataspaceImpl implements RestDataspace {
 
     @Override
     public Response retrieve(@HeaderParam("sessionid") String sessionId,
-            @HeaderParam("Accept-Encoding") String headerAcceptEncoding, @PathParam("dataspace") String dataspace,
-            @PathParam("path-name") String pathname, @QueryParam("comp") String component,
-            @QueryParam("includes") List<String> includes, @QueryParam("excludes") List<String> excludes,
-            @QueryParam("encoding") String encoding, @QueryParam("token") String token)
-            throws NotConnectedRestException, PermissionRestException {
+            @HeaderParam("Accept-Encoding") String headerAcceptEncoding, @HeaderParam("Range") String range,
+            @PathParam("dataspace") String dataspace, @PathParam("path-name") String pathname,
+            @QueryParam("comp") String component, @QueryParam("includes") List<String> includes,
+            @QueryParam("excludes") List<String> excludes, @QueryParam("encoding") String encoding,
+            @QueryParam("token") String token) throws NotConnectedRestException, PermissionRestException {
         if (encoding == null) {
             encoding = headerAcceptEncoding;
         }
@@ -130,7 +158,14 @@ public class RestDataspaceImpl implements RestDataspace {
                 return componentResponse(component, fo, includes, excludes);
             }
             if (fo.getType() == FileType.FILE) {
-                if (VFSZipper.isZipFile(fo)) {
+                ByteRange byteRange = ByteRange.parse(range);
+                if (byteRange != null) {
+                    logger.debug(String.format("Retrieving %s of file %s in %s",
+                                               byteRange,
+                                               pathname,
+                                               dataspace.toUpperCase()));
+                    return rangeComponentResponse(fo, byteRange);
+                } else if (VFSZipper.isCompressedFile(fo) || Zipper.isCompressedContentType(mediaType(fo))) {
                     logger.debug(String.format("Retrieving file %s in %s", pathname, dataspace.toUpperCase()));
                     return fileComponentResponse(fo);
                 } else if (Strings.isNullOrEmpty(encoding) || encoding.contains("*") || encoding.contains("gzip")) {
@@ -243,10 +278,15 @@ public class RestDataspaceImpl implements RestDataspace {
     }
 
     private Response componentResponse(String type, FileObject fo, List<String> includes, List<String> excludes)
-            throws FileSystemException {
+            throws IOException {
         switch (type) {
             case "list":
                 return Response.ok(FileSystem.list(fo, includes, excludes), MediaType.APPLICATION_JSON).build();
+            case "checksum":
+                if (fo.getType() != FileType.FILE) {
+                    return badRequestRes("Checksum is only supported for files.");
+                }
+                return Response.ok(FileSystem.checksum(fo), MediaType.TEXT_PLAIN).build();
             default:
                 return Response.status(Response.Status.BAD_REQUEST)
                                .entity(String.format("Unknown query parameter: comp=%s", type))
@@ -295,7 +335,43 @@ public class RestDataspaceImpl implements RestDataspace {
                     throw new WebApplicationException(ioe, Response.Status.INTERNAL_SERVER_ERROR);
                 }
             }
-        }).header(HttpHeaders.CONTENT_TYPE, mediaType(fo)).header(HttpHeaders.CONTENT_ENCODING, "identity").build();
+        })
+                       .header(HttpHeaders.CONTENT_TYPE, mediaType(fo))
+                       .header(HttpHeaders.CONTENT_ENCODING, "identity")
+                       .header(ACCEPT_RANGES, ByteRange.UNIT)
+                       .build();
+    }
+
+    private Response rangeComponentResponse(final FileObject fo, ByteRange range) throws FileSystemException {
+        long size = fo.getContent().getSize();
+        // lets clients detect that the file changed between two ranges of the same download
+        Date lastModified = new Date(fo.getContent().getLastModifiedTime());
+        final long offset = range.getOffset() >= 0 ? range.getOffset() : Math.max(0, size + range.getOffset());
+        if (offset >= size) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(CONTENT_RANGE, ByteRange.unsatisfiableContentRange(size))
+                           .lastModified(lastModified)
+                           .build();
+        }
+        final long length = Math.min(range.getLength(), size - offset);
+        return Response.status(Response.Status.PARTIAL_CONTENT).entity(new StreamingOutput() {
+            @Override
+            public void write(OutputStream outputStream) throws IOException, WebApplicationException {
+                try (InputStream inputStream = fo.getContent().getInputStream()) {
+                    ByteStreams.skipFully(inputStream, offset);
+                    ByteStreams.copy(ByteStreams.limit(inputStream, length), outputStream);
+                } catch (IOException ioe) {
+                    throw new WebApplicationException(ioe, Response.Status.INTERNAL_SERVER_ERROR);
+                }
+            }
+        })
+                       .header(HttpHeaders.CONTENT_TYPE, mediaType(fo))
+                       .header(HttpHeaders.CONTENT_ENCODING, "identity")
+                       .header(HttpHeaders.CONTENT_LENGTH, length)
+                       .header(CONTENT_RANGE, ByteRange.contentRange(offset, length, size))
+                       .header(ACCEPT_RANGES, ByteRange.UNIT)
+                       .lastModified(lastModified)
+                       .build();
     }
 
     private Response deleteDir(FileObject fo, List<String> includes, List<String> excludes) throws FileSystemException {
@@ -407,6 +483,74 @@ public class RestDataspaceImpl implements RestDataspace {
         }
     }
 
+    /**
+     * Appends a part of a file uploaded in several requests to a temporary file, which replaces the
+     * output file once all its bytes are received. A part which does not start within the bytes already
+     * received, or a range without position, is answered with the bytes received so far so that the
+     * client can resume the upload from there.
+     * <p>
+     * The temporary file is named after the upload id given by the client, so that the parts of
+     * another upload to the same output file, or left by an interrupted upload of other content,
+     * are never mixed with this one. Parts of a same output file are written one at a time.
+     */
+    public Response writeFilePart(InputStream inputStream, FileObject outputFile, String encoding,
+            String contentRange, String uploadId) throws IOException {
+        if (!Strings.isNullOrEmpty(encoding) && !"identity".equals(encoding)) {
+            return badRequestRes("Encoded content cannot be uploaded in several parts.");
+        }
+        if (uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            return badRequestRes("A file uploaded in several parts requires a valid 'uploadid' header.");
+        }
+        long offset;
+        long totalSize;
+        try {
+            offset = ByteRange.contentRangeOffset(contentRange);
+            totalSize = ByteRange.contentRangeTotalSize(contentRange);
+        } catch (RuntimeException e) {
+            return badRequestRes("Invalid Content-Range: " + contentRange);
+        }
+
+        Lock lock = uploadLocks.get(outputFile.getName().getURI());
+        lock.lock();
+        try {
+            FileObject partFile = outputFile.getParent()
+                                            .resolveFile("." + outputFile.getName().getBaseName() + "." + uploadId +
+                                                         ".part");
+            partFile.refresh();
+            long received = partFile.exists() ? partFile.getContent().getSize() : 0;
+            if (received > totalSize) {
+                // the client reused the upload id for other content
+                partFile.delete();
+                received = 0;
+            }
+            if (offset >= 0 && offset <= received) {
+                if (!partFile.exists()) {
+                    partFile.createFile();
+                }
+                // skip the bytes of a part sent again after a failure
+                ByteStreams.copy(ByteStreams.limit(inputStream, received - offset), ByteStreams.nullOutputStream());
+                try (OutputStream outputStream = partFile.getContent().getOutputStream(true)) {
+                    received += ByteStreams.copy(ByteStreams.limit(inputStream, totalSize - received), outputStream);
+                }
+                if (received == totalSize) {
+                    outputFile.refresh();
+                    if (outputFile.exists()) {
+                        outputFile.delete(SELECT_SELF);
+                    }
+                    partFile.moveTo(outputFile);
+                    return Response.status(Response.Status.CREATED).build();
+                }
+            }
+            Response.ResponseBuilder builder = Response.status(Response.Status.ACCEPTED);
+            if (received > 0) {
+                builder.header(RANGE, ByteRange.UNIT + "=0-" + (received - 1));
+            }
+            return builder.build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public FileSystem fileSystem(Session session)
             throws FileSystemException, NotConnectedException, PermissionException {
         FileSystem fs = session.fileSystem();
@@ -184,6 +184,12 @@ public class VFSZipper {
         return Zipper.isZipFile(fo.getContent().getInputStream());
     }
 
+    public static boolean isCompressedFile(FileObject fo) throws IOException {
+        try (InputStream inputStream = fo.getContent().getInputStream()) {
+            return Zipper.isCompressed(inputStream);
+        }
+    }
+
     private static ZipEntry zipEntry(String basePath, FileObject fo) {
         String entryPath = fo.getName().getPath().substring(basePath.length() + 1);
         return new ZipEntry(entryPath);
@@ -61,6 +61,16 @@ public class EventListener implements SchedulerEventListener {
         state.incrementRevision();
         // event doesn't provide current state, just reset stored value so that state will be re-read on demand
         state.setStatus(null);
+        switch (event) {
+            case SHUTDOWN:
+            case KILLED:
+            case DB_DOWN:
+                // no more events will be received until the listener reconnects
+                state.setConnected(false);
+                break;
+            default:
+                break;
+        }
     }
 
     @Override
@@ -0,0 +1,161 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.JobIdData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskIdData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskInfoData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskStatusData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.eventing.EventNotification;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Serializes the event notifications sent by the {@link SchedulerEventBroadcaster} instances.
+ *
+ * Every subscribed session receives its own copy of each scheduler event. Task events, which are by far the most
+ * frequent, are mapped without reflection and their JSON representation is shared between all the broadcasters
+ * receiving the same event, so that it is serialized only once.
+ */
+final class EventNotificationSerializer {
+
+    private static final ObjectMapper mapper;
+
+    static {
+        mapper = new ObjectMapper();
+        mapper.setAnnotationIntrospector(new JaxbAnnotationIntrospector());
+        mapper.configure(SerializationConfig.Feature.FAIL_ON_EMPTY_BEANS, false);
+    }
+
+    /** Serialized task events, indexed by the event type and the content of the event */
+    private static final Cache<List<Object>, String> serializedTaskEvents = CacheBuilder.newBuilder()
+                                                                                        .maximumSize(4096)
+                                                                                        .expireAfterWrite(10,
+                                                                                                          TimeUnit.SECONDS)
+                                                                                        .build();
+
+    private EventNotificationSerializer() {
+    }
+
+    static String serialize(EventNotification eventNotification) throws IOException {
+        return mapper.writeValueAsString(eventNotification);
+    }
+
+    /**
+     * @return the JSON representation of a task state notification, shared by all identical notifications
+     */
+    static String serializeTaskEvent(String eventType, TaskInfo taskInfo) throws IOException {
+        TaskInfoData taskInfoData = toTaskInfoData(taskInfo);
+        try {
+            return serializedTaskEvents.get(cacheKey(eventType, taskInfoData),
+                                            () -> serialize(new EventNotification(EventNotification.Action.TASK_STATE_UPDATED,
+                                                                                  eventType,
+                                                                                  taskInfoData)));
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Maps a task info to its DTO, as the dozer mapping would do
+     */
+    static TaskInfoData toTaskInfoData(TaskInfo taskInfo) {
+        TaskInfoData taskInfoData = new TaskInfoData();
+        taskInfoData.setJobId(toJobIdData(taskInfo.getJobId()));
+        taskInfoData.setTaskId(toTaskIdData(taskInfo.getTaskId()));
+        taskInfoData.setStartTime(taskInfo.getStartTime());
+        taskInfoData.setFinishedTime(taskInfo.getFinishedTime());
+        taskInfoData.setInErrorTime(taskInfo.getInErrorTime());
+        taskInfoData.setScheduledTime(taskInfo.getScheduledTime());
+        taskInfoData.setExecutionDuration(taskInfo.getExecutionDuration());
+        if (taskInfo.getStatus() != null) {
+            taskInfoData.setTaskStatus(TaskStatusData.valueOf(taskInfo.getStatus().name()));
+        }
+        taskInfoData.setExecutionHostName(taskInfo.getExecutionHostName());
+        taskInfoData.setNumberOfExecutionLeft(taskInfo.getNumberOfExecutionLeft());
+        taskInfoData.setNumberOfExecutionOnFailureLeft(taskInfo.getNumberOfExecutionOnFailureLeft());
+        taskInfoData.setVisualizationActivated(taskInfo.isVisualizationActivated());
+        taskInfoData.setVisualizationConnectionString(taskInfo.getVisualizationConnectionString());
+        taskInfoData.setProgress(taskInfo.getProgress());
+        return taskInfoData;
+    }
+
+    private static JobIdData toJobIdData(JobId jobId) {
+        if (jobId == null) {
+            return null;
+        }
+        JobIdData jobIdData = new JobIdData();
+        jobIdData.setId(jobId.longValue());
+        jobIdData.setReadableName(jobId.getReadableName());
+        return jobIdData;
+    }
+
+    private static TaskIdData toTaskIdData(TaskId taskId) {
+        if (taskId == null) {
+            return null;
+        }
+        TaskIdData taskIdData = new TaskIdData();
+        taskIdData.setId(taskId.longValue());
+        taskIdData.setReadableName(taskId.getReadableName());
+        return taskIdData;
+    }
+
+    private static List<Object> cacheKey(String eventType, TaskInfoData taskInfoData) {
+        JobIdData jobId = taskInfoData.getJobId();
+        TaskIdData taskId = taskInfoData.getTaskId();
+        return Arrays.asList(eventType,
+                             jobId == null ? null : jobId.getId(),
+                             jobId == null ? null : jobId.getReadableName(),
+                             taskId == null ? null : taskId.getId(),
+                             taskId == null ? null : taskId.getReadableName(),
+                             taskInfoData.getStartTime(),
+                             taskInfoData.getFinishedTime(),
+                             taskInfoData.getInErrorTime(),
+                             taskInfoData.getScheduledTime(),
+                             taskInfoData.getExecutionDuration(),
+                             taskInfoData.getTaskStatus(),
+                             taskInfoData.getExecutionHostName(),
+                             taskInfoData.getNumberOfExecutionLeft(),
+                             taskInfoData.getNumberOfExecutionOnFailureLeft(),
+                             taskInfoData.isVisualizationActivated(),
+                             taskInfoData.getVisualizationConnectionString(),
+                             taskInfoData.getProgress());
+    }
+}
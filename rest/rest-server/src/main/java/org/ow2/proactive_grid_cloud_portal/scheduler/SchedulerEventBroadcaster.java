@@ -25,48 +25,54 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import javax.servlet.ServletContext;
 
 import org.apache.log4j.Logger;
 import org.atmosphere.cpr.BroadcasterFactory;
 import org.atmosphere.util.ServletContextFactory;
-import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.map.SerializationConfig;
-import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
-import org.dozer.DozerBeanMapperSingletonWrapper;
-import org.dozer.Mapper;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.scheduler.common.NotificationData;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobState;
 import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
-import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskInfoData;
 import org.ow2.proactive_grid_cloud_portal.scheduler.dto.eventing.EventNotification;
+import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
 
 import com.google.common.base.Throwables;
 
 
 /**
  * Broadcasts the scheduler events which it receives to the target REST client.
+ *
+ * When {@link PortalConfiguration#SCHEDULER_EVENTS_TASK_COALESCING_WINDOW} is set, successive events of the same task
+ * received within the window are merged and only the latest one is sent to the client. Pending task events are
+ * always sent before any other event, so that the client observes events in the order they were produced.
  */
 public class SchedulerEventBroadcaster implements SchedulerEventListener {
 
     private static final Logger log = Logger.getLogger(SchedulerEventBroadcaster.class);
 
-    private static final Mapper dozerMapper = DozerBeanMapperSingletonWrapper.getInstance();
-
-    private static final ObjectMapper mapper;
-
-    static {
-        mapper = new ObjectMapper();
-        mapper.setAnnotationIntrospector(new JaxbAnnotationIntrospector());
-        mapper.configure(SerializationConfig.Feature.FAIL_ON_EMPTY_BEANS, false);
-    }
+    private static final ScheduledExecutorService coalescingTimer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SchedulerEventBroadcaster coalescing",
+                                                                                                                                      true));
 
     private String broadcasterUUID;
 
+    /** Latest serialized event of each task, waiting for the end of the coalescing window */
+    private transient Map<TaskId, String> pendingTaskEvents;
+
     public SchedulerEventBroadcaster() {
         super();
     }
@@ -115,11 +121,21 @@ public class SchedulerEventBroadcaster implements SchedulerEventListener {
     @Override
     public void taskStateUpdatedEvent(NotificationData<TaskInfo> notification) {
         logEvent(notification);
-        TaskInfoData taskInfoData = dozerMapper.map(notification.getData(), TaskInfoData.class);
+        TaskInfo taskInfo = notification.getData();
+        String message;
+        try {
+            message = EventNotificationSerializer.serializeTaskEvent(eventTypeName(notification), taskInfo);
+        } catch (Exception e) {
+            log.error("Cannot broadcast event notification.", e);
+            throw Throwables.propagate(e);
+        }
 
-        broadcast(new EventNotification(EventNotification.Action.TASK_STATE_UPDATED,
-                                        eventTypeName(notification),
-                                        taskInfoData));
+        int coalescingWindow = PortalConfiguration.SCHEDULER_EVENTS_TASK_COALESCING_WINDOW.getValueAsInt();
+        if (coalescingWindow <= 0 || taskInfo.getTaskId() == null) {
+            flushAndBroadcast(message);
+        } else {
+            coalesce(taskInfo.getTaskId(), message, coalescingWindow);
+        }
     }
 
     @Override
@@ -130,12 +146,59 @@ public class SchedulerEventBroadcaster implements SchedulerEventListener {
                                         notification.getData()));
     }
 
+    private synchronized void coalesce(TaskId taskId, String message, int coalescingWindow) {
+        if (pendingTaskEvents == null) {
+            pendingTaskEvents = new LinkedHashMap<>();
+        }
+        boolean flushScheduled = !pendingTaskEvents.isEmpty();
+        // the task keeps its position in the sequence, only its content is updated
+        pendingTaskEvents.put(taskId, message);
+        if (!flushScheduled) {
+            coalescingTimer.schedule(this::flushPendingTaskEventsQuietly, coalescingWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushPendingTaskEventsQuietly() {
+        try {
+            flushPendingTaskEvents();
+        } catch (Exception e) {
+            log.warn("Cannot broadcast pending task event notifications of " + broadcasterUUID, e);
+        }
+    }
+
+    private synchronized void flushPendingTaskEvents() {
+        if (pendingTaskEvents == null || pendingTaskEvents.isEmpty()) {
+            return;
+        }
+        List<String> messages = new ArrayList<>(pendingTaskEvents.values());
+        pendingTaskEvents.clear();
+        for (String message : messages) {
+            broadcast(message);
+        }
+    }
+
     private void broadcast(EventNotification eventNotification) {
+        String message;
+        try {
+            message = EventNotificationSerializer.serialize(eventNotification);
+        } catch (IOException e) {
+            log.error("Cannot broadcast event notification.", e);
+            throw Throwables.propagate(e);
+        }
+        flushAndBroadcast(message);
+    }
+
+    private synchronized void flushAndBroadcast(String message) {
+        flushPendingTaskEvents();
+        broadcast(message);
+    }
+
+    private void broadcast(String message) {
         try {
             ServletContext servletContext = ServletContextFactory.getDefault().getServletContext();
 
             ((BroadcasterFactory) servletContext.getAttribute(BroadcasterFactory.class.getName())).lookup(broadcasterUUID)
-                                                                                                  .broadcast(mapper.writeValueAsString(eventNotification));
+                                                                                                  .broadcast(message);
         } catch (Exception e) {
             log.error("Cannot broadcast event notification.", e);
             Throwables.propagate(e);
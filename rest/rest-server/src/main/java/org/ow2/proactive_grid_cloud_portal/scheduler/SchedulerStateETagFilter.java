@@ -0,0 +1,130 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.util.regex.Pattern;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+
+import org.ow2.proactive.scheduler.common.exception.NotConnectedException;
+import org.ow2.proactive_grid_cloud_portal.common.Session;
+import org.ow2.proactive_grid_cloud_portal.common.SessionStore;
+import org.ow2.proactive_grid_cloud_portal.common.SharedSessionStore;
+import org.ow2.proactive_grid_cloud_portal.scheduler.exception.NotConnectedRestException;
+
+
+/**
+ * Adds entity tags to the job and task lists returned by {@link SchedulerStateRest}.
+ *
+ * The tag is derived from the scheduler state revision, the user and the request, so a client sending back the tag
+ * of its last response in an <code>If-None-Match</code> header gets a <code>304 Not Modified</code> as long as no
+ * scheduler event was received, without the scheduler being accessed.
+ *
+ * Requests are not tagged while the {@link SchedulerStateListener} is not connected to the scheduler, as its
+ * revision would then not change with the scheduler state, nor when the {@link SchedulerStateResponseCache} is
+ * disabled. Only <code>200 OK</code> responses carry the tag computed by the request filter.
+ */
+@Provider
+public class SchedulerStateETagFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Pattern TAGGED_PATHS = Pattern.compile("/?scheduler/(jobsinfo|revisionjobsinfo|tasks|tasks/tag/[^/]+|taskstates|taskstates/tag/[^/]+)/?");
+
+    private static final String ENTITY_TAG_PROPERTY = SchedulerStateETagFilter.class.getName() + ".entityTag";
+
+    private final SessionStore sessionStore = SharedSessionStore.getInstance();
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        SchedulerStateResponseCache responseCache = SchedulerStateResponseCache.getInstance();
+        if (!HttpMethod.GET.equals(requestContext.getMethod()) || !responseCache.isEnabled() ||
+            !TAGGED_PATHS.matcher(requestContext.getUriInfo().getPath()).matches()) {
+            return;
+        }
+
+        String sessionId = requestContext.getHeaderString("sessionid");
+        // read before the response is computed, so that the tag never claims a more recent state
+        long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
+        if (sessionId == null || revision < 0) {
+            // not connected to the scheduler events
+            return;
+        }
+
+        Session session;
+        try {
+            session = sessionStore.get(sessionId);
+        } catch (NotConnectedRestException e) {
+            // let the resource report the error
+            return;
+        }
+
+        EntityTag entityTag = new EntityTag(responseCache.entityTag(revision,
+                                                                    session.getUserName(),
+                                                                    requestContext.getUriInfo().getRequestUri()));
+        requestContext.setProperty(ENTITY_TAG_PROPERTY, entityTag);
+
+        if (matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+            try {
+                sessionStore.renewSession(sessionId);
+            } catch (NotConnectedException e) {
+                return;
+            }
+            requestContext.abortWith(Response.notModified(entityTag).build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object entityTag = requestContext.getProperty(ENTITY_TAG_PROPERTY);
+        if (entityTag != null && responseContext.getStatus() == Response.Status.OK.getStatusCode()) {
+            responseContext.getHeaders().putSingle(HttpHeaders.ETAG, entityTag);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, EntityTag entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                // weak comparison is allowed for If-None-Match
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("\"" + entityTag.getValue() + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
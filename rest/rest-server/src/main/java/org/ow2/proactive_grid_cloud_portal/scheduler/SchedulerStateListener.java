@@ -46,6 +46,9 @@ public class SchedulerStateListener {
 
     private static final SchedulerStateListener instance = new SchedulerStateListener();
 
+    /** Interval in ms between two checks of the connection to the scheduler once connected */
+    private static final long CONNECTION_CHECK_INTERVAL = 10000;
+
     public static SchedulerStateListener getInstance() {
         return instance;
     }
@@ -59,6 +62,8 @@ public class SchedulerStateListener {
 
         private volatile SchedulerStatus status;
 
+        private volatile boolean connected;
+
         void incrementRevision() {
             revision.incrementAndGet();
         }
@@ -67,6 +72,18 @@ public class SchedulerStateListener {
             return revision.get();
         }
 
+        boolean isConnected() {
+            return connected;
+        }
+
+        void setConnected(boolean connected) {
+            if (connected) {
+                // events may have been missed while disconnected
+                revision.incrementAndGet();
+            }
+            this.connected = connected;
+        }
+
         public SchedulerStatus getStatus() {
             return status;
         }
@@ -100,6 +117,7 @@ public class SchedulerStateListener {
 
     public void kill() {
         killed = true;
+        state.setConnected(false);
         if (scheduler != null) {
             try {
                 scheduler.disconnect();
@@ -113,7 +131,19 @@ public class SchedulerStateListener {
         String url = PortalConfiguration.SCHEDULER_URL.getValueAsString();
         String cred_path = PortalConfiguration.SCHEDULER_CACHE_CREDENTIALS.getValueAsStringOrNull();
 
-        while (scheduler == null && !killed) {
+        while (!killed) {
+            if (scheduler != null) {
+                Thread.sleep(CONNECTION_CHECK_INTERVAL);
+                // the event listener also reports the scheduler being shut down or killed
+                if (killed || (state.isConnected() && scheduler.isConnected())) {
+                    continue;
+                }
+                logger.warn("Connection to the scheduler lost, reconnecting");
+                state.setConnected(false);
+                PAActiveObject.terminateActiveObject(eventListener, true);
+                PAActiveObject.terminateActiveObject(scheduler, true);
+                scheduler = null;
+            }
             try {
                 scheduler = PAActiveObject.newActive(SchedulerProxyUserInterface.class, new Object[] {});
 
@@ -138,6 +168,7 @@ public class SchedulerStateListener {
                     eventListener = PAActiveObject.turnActive(eventListener);
                 }
                 scheduler.addEventListener(eventListener, false, false);
+                state.setConnected(true);
             } catch (Exception e) {
                 logger.warn("no scheduler found on " + url + " retrying in 8 seconds", e);
                 if (scheduler != null) {
@@ -150,12 +181,16 @@ public class SchedulerStateListener {
         }
     }
 
+    /**
+     * @return the revision of the scheduler state, incremented on every scheduler event, or -1 while no events
+     *         are received from the scheduler
+     */
     public long getSchedulerStateRevision() {
-        return state.getRevision();
+        return state.isConnected() ? state.getRevision() : -1;
     }
 
     public SchedulerStatus getSchedulerStatus(Scheduler scheduler) throws PermissionException, NotConnectedException {
-        SchedulerStatus status = state.getStatus();
+        SchedulerStatus status = state.isConnected() ? state.getStatus() : null;
         if (status == null) {
             status = scheduler.getStatus();
             state.setStatus(status);
@@ -0,0 +1,148 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.exception.RestException;
+import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+
+/**
+ * Caches the job and task lists returned by the REST API.
+ *
+ * A response is indexed by the revision of the scheduler state (see {@link SchedulerStateListener}) at the time
+ * it was computed, and by the user and all the parameters of the request. As the revision is incremented on
+ * every scheduler event, a cached response is only reused as long as nothing changed in the scheduler, and
+ * older revisions are simply evicted when the cache is full.
+ *
+ * The same revision is used to build the entity tags of these responses, so that a client polling an unchanged
+ * list is answered without accessing the scheduler at all.
+ *
+ * While the {@link SchedulerStateListener} is not connected to the scheduler, its revision is negative and every
+ * request is computed from the scheduler, as the revision would not change with the scheduler state. Responses are
+ * also computed again once they are older than
+ * {@link PortalConfiguration#SCHEDULER_REST_RESPONSE_CACHE_EXPIRATION}, which bounds their staleness if an event
+ * is missed.
+ */
+public class SchedulerStateResponseCache {
+
+    private static final SchedulerStateResponseCache instance = new SchedulerStateResponseCache(PortalConfiguration.SCHEDULER_REST_RESPONSE_CACHE_SIZE.getValueAsInt(),
+                                                                                                PortalConfiguration.SCHEDULER_REST_RESPONSE_CACHE_EXPIRATION.getValueAsInt(),
+                                                                                                Ticker.systemTicker());
+
+    /** Identifies this server instance in the entity tags, revisions start again from scratch after a restart */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Cache<List<Object>, Object> responses;
+
+    /**
+     * @param size maximum number of cached responses, 0 to disable the cache
+     * @param expiration time in seconds during which a response is reused
+     * @param ticker source of time of the expiration
+     */
+    SchedulerStateResponseCache(int size, long expiration, Ticker ticker) {
+        if (size > 0) {
+            responses = CacheBuilder.newBuilder()
+                                    .maximumSize(size)
+                                    .expireAfterWrite(expiration, TimeUnit.SECONDS)
+                                    .ticker(ticker)
+                                    .build();
+        } else {
+            responses = null;
+        }
+    }
+
+    public static SchedulerStateResponseCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return false if the cache and the entity tags are disabled by configuration
+     */
+    public boolean isEnabled() {
+        return responses != null;
+    }
+
+    /**
+     * Returns the response cached for the given revision and request, computing it if needed.
+     *
+     * @param revision the scheduler state revision, read before computing the response
+     * @param request the name of the endpoint, the user and the parameters of the request
+     * @param loader computes the response when it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(long revision, List<?> request, ResponseLoader<T> loader) throws RestException {
+        if (responses == null || revision < 0) {
+            // not connected to the scheduler events, the revision does not reflect the scheduler state
+            return loader.load();
+        }
+        List<Object> key = new ArrayList<>(request.size() + 1);
+        key.add(revision);
+        key.addAll(request);
+        try {
+            return (T) responses.get(key, loader::load);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), RestException.class);
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Builds the entity tag of a response, it changes as soon as the scheduler state changes.
+     *
+     * @param revision the scheduler state revision
+     * @param user the user performing the request, responses depend on its permissions
+     * @param requestUri the request, including its query parameters
+     * @return the opaque value of the entity tag
+     */
+    public String entityTag(long revision, String user, URI requestUri) {
+        String hash = Hashing.murmur3_128()
+                             .hashString(instanceId + '\n' + user + '\n' + requestUri, Charsets.UTF_8)
+                             .toString();
+        return revision + "-" + hash;
+    }
+
+    public interface ResponseLoader<T> {
+        T load() throws RestException;
+    }
+}
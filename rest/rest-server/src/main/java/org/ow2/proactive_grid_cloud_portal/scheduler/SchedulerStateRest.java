@@ -110,6 +110,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.exception.*;
 import org.ow2.proactive_grid_cloud_portal.scheduler.util.EventUtil;
 import org.ow2.proactive_grid_cloud_portal.scheduler.util.ValidationUtil;
 import org.ow2.proactive_grid_cloud_portal.scheduler.util.WorkflowVariablesTransformer;
+import org.ow2.proactive_grid_cloud_portal.utils.ByteRange;
 import org.ow2.proactive_grid_cloud_portal.webapp.DateFormatter;
 import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
 
@@ -147,6 +148,8 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     private final SessionStore sessionStore = SharedSessionStore.getInstance();
 
+    private final SchedulerStateResponseCache responseCache = SchedulerStateResponseCache.getInstance();
+
     private static RestDataspaceImpl dataspaceRestApi = new RestDataspaceImpl();
 
     private static Map<String, String> sortableTaskAttrMap = null;
@@ -264,23 +267,33 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     }
 
     @Override
-    public RestPage<UserJobData> jobsInfo(String sessionId, int index, int limit) throws RestException {
-        try {
-            Scheduler s = checkAccess(sessionId, "/scheduler/jobsinfo");
+    public RestPage<UserJobData> jobsInfo(String sessionId, int index, int limit, String after)
+            throws RestException {
+        long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
+        Scheduler s = checkAccess(sessionId, "/scheduler/jobsinfo");
+        String user = sessionStore.get(sessionId).getUserName();
 
-            Page<JobInfo> page = s.getJobs(index,
-                                           limit,
-                                           new JobFilterCriteria(false, true, true, true, true),
-                                           DEFAULT_JOB_SORT_PARAMS);
-            List<UserJobData> userJobInfoList = new ArrayList<>(page.getList().size());
-            for (JobInfo jobInfo : page.getList()) {
-                userJobInfoList.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
-            }
+        return responseCache.get(revision, Arrays.asList("jobsinfo", user, index, limit, after), () -> {
+            try {
+                Page<JobInfo> page = s.getJobs(index,
+                                               limit,
+                                               new JobFilterCriteria(false,
+                                                                     true,
+                                                                     true,
+                                                                     true,
+                                                                     true,
+                                                                     Strings.emptyToNull(after)),
+                                               DEFAULT_JOB_SORT_PARAMS);
+                List<UserJobData> userJobInfoList = new ArrayList<>(page.getList().size());
+                for (JobInfo jobInfo : page.getList()) {
+                    userJobInfoList.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+                }
 
-            return new RestPage<>(userJobInfoList, page.getSize());
-        } catch (SchedulerException e) {
-            throw RestException.wrapExceptionToRest(e);
-        }
+                return new RestPage<>(userJobInfoList, page.getSize());
+            } catch (SchedulerException e) {
+                throw RestException.wrapExceptionToRest(e);
+            }
+        });
     }
 
     @Override
@@ -303,12 +316,25 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     @Override
     public RestMapPage<Long, ArrayList<UserJobData>> revisionAndJobsInfo(String sessionId, int index, int limit,
-            boolean myJobs, boolean pending, boolean running, boolean finished, boolean childJobs, String sortParams)
-            throws RestException {
-        try {
-            Scheduler s = checkAccess(sessionId, "revisionjobsinfo?index=" + index + "&limit=" + limit);
-            String user = sessionStore.get(sessionId).getUserName();
-
+            boolean myJobs, boolean pending, boolean running, boolean finished, boolean childJobs, String sortParams,
+            String after) throws RestException {
+        // the revision is read before the jobs, so that the returned jobs are at least as recent as the revision
+        long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
+        Scheduler s = checkAccess(sessionId, "revisionjobsinfo?index=" + index + "&limit=" + limit);
+        String user = sessionStore.get(sessionId).getUserName();
+
+        List<Object> request = Arrays.asList("revisionjobsinfo",
+                                             user,
+                                             index,
+                                             limit,
+                                             myJobs,
+                                             pending,
+                                             running,
+                                             finished,
+                                             childJobs,
+                                             sortParams,
+                                             after);
+        return responseCache.get(revision, request, () -> {
             boolean onlyUserJobs = (myJobs && user != null && user.trim().length() > 0);
             List<SortParameter<JobSortParameter>> sortParameterList;
             if (Strings.isNullOrEmpty(sortParams)) {
@@ -322,25 +348,32 @@ public class SchedulerStateRest implements SchedulerRestInterface {
                 }
             }
 
-            Page<JobInfo> page = s.getJobs(index,
-                                           limit,
-                                           new JobFilterCriteria(onlyUserJobs, pending, running, finished, childJobs),
-                                           sortParameterList);
-            List<JobInfo> jobsInfo = page.getList();
-            ArrayList<UserJobData> jobs = new ArrayList<>(jobsInfo.size());
-            for (JobInfo jobInfo : jobsInfo) {
-                jobs.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
-            }
+            try {
+                Page<JobInfo> page = s.getJobs(index,
+                                               limit,
+                                               new JobFilterCriteria(onlyUserJobs,
+                                                                     pending,
+                                                                     running,
+                                                                     finished,
+                                                                     childJobs,
+                                                                     Strings.emptyToNull(after)),
+                                               sortParameterList);
+                List<JobInfo> jobsInfo = page.getList();
+                ArrayList<UserJobData> jobs = new ArrayList<>(jobsInfo.size());
+                for (JobInfo jobInfo : jobsInfo) {
+                    jobs.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+                }
 
-            HashMap<Long, ArrayList<UserJobData>> map = new HashMap<>(1);
-            map.put(SchedulerStateListener.getInstance().getSchedulerStateRevision(), jobs);
-            RestMapPage<Long, ArrayList<UserJobData>> restMapPage = new RestMapPage<>();
-            restMapPage.setMap(map);
-            restMapPage.setSize(page.getSize());
-            return restMapPage;
-        } catch (SchedulerException e) {
-            throw RestException.wrapExceptionToRest(e);
-        }
+                HashMap<Long, ArrayList<UserJobData>> map = new HashMap<>(1);
+                map.put(revision, jobs);
+                RestMapPage<Long, ArrayList<UserJobData>> restMapPage = new RestMapPage<>();
+                restMapPage.setMap(map);
+                restMapPage.setSize(page.getSize());
+                return restMapPage;
+            } catch (SchedulerException e) {
+                throw RestException.wrapExceptionToRest(e);
+            }
+        });
     }
 
     @Override
@@ -586,6 +619,21 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public Response jobServerLogStream(String sessionId, String jobId, String range, Long offset, Long length,
+            Long tail) throws RestException {
+        try {
+            Scheduler s = checkAccess(sessionId, PATH_JOBS + jobId + "/log/server/stream");
+            return serverLogsResponse((position, size) -> s.getJobServerLogs(jobId, position, size),
+                                      range,
+                                      offset,
+                                      length,
+                                      tail);
+        } catch (SchedulerException e) {
+            throw RestException.wrapExceptionToRest(e);
+        }
+    }
+
     @Override
     public boolean killJob(String sessionId, String jobId) throws RestException {
         try {
@@ -1396,6 +1444,79 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public Response taskServerLogStream(String sessionId, String jobId, String taskname, String range, Long offset,
+            Long length, Long tail) throws RestException {
+        try {
+            Scheduler s = checkAccess(sessionId, PATH_JOBS + jobId + PATH_TASKS + taskname + "/log/server/stream");
+            return serverLogsResponse((position, size) -> s.getTaskServerLogs(jobId, taskname, position, size),
+                                      range,
+                                      offset,
+                                      length,
+                                      tail);
+        } catch (SchedulerException e) {
+            throw RestException.wrapExceptionToRest(e);
+        }
+    }
+
+    /**
+     * Streams server logs chunk by chunk, reading the first chunk before answering so that
+     * errors and the size of the logs are known when the response status is chosen.
+     * The scheduler reads the chunks of one stream from the same layout of the logs, if the
+     * layout still changes in between (very long stream of a running job) the connection is
+     * aborted, so that clients do not take a truncated or shifted body for a complete one.
+     */
+    private Response serverLogsResponse(ServerLogsReader reader, String rangeHeader, Long offset, Long length,
+            Long tail) throws SchedulerException {
+        ByteRange range = ByteRange.of(offset, length, tail);
+        if (range == null) {
+            range = ByteRange.parse(rangeHeader);
+        }
+        int chunkSize = PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_CHUNK_SIZE.getValueAsInt();
+        long requested = range == null ? Long.MAX_VALUE : range.getLength();
+
+        ServerLogsChunk first = reader.read(range == null ? 0 : range.getOffset(),
+                                            (int) Math.min(chunkSize, requested));
+        long end = first.getOffset() + Math.min(requested, first.getTotalSize() - first.getOffset());
+
+        Response.ResponseBuilder builder;
+        if (range == null) {
+            builder = Response.ok();
+        } else if (first.getLength() == 0) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header("Content-Range", ByteRange.unsatisfiableContentRange(first.getTotalSize()))
+                           .build();
+        } else {
+            String contentRange = ByteRange.contentRange(first.getOffset(),
+                                                         end - first.getOffset(),
+                                                         first.getTotalSize());
+            builder = Response.status(Response.Status.PARTIAL_CONTENT).header("Content-Range", contentRange);
+        }
+
+        StreamingOutput output = outputStream -> {
+            ServerLogsChunk chunk = first;
+            long position = chunk.getOffset();
+            while (chunk.getLength() > 0) {
+                int count = (int) Math.min(chunk.getLength(), end - position);
+                outputStream.write(chunk.getContent(), 0, count);
+                position += count;
+                if (position >= end) {
+                    break;
+                }
+                try {
+                    chunk = reader.read(position, (int) Math.min(chunkSize, end - position));
+                } catch (SchedulerException e) {
+                    throw new WebApplicationException(e, Response.Status.INTERNAL_SERVER_ERROR);
+                }
+                if (chunk.getTotalSize() != first.getTotalSize()) {
+                    throw new IOException("Server logs changed while being streamed, aborting at offset " +
+                                          position);
+                }
+            }
+        };
+        return builder.entity(output).header("Accept-Ranges", ByteRange.UNIT).build();
+    }
+
     @Override
     public String taskServerLogByTag(String sessionId, String jobId, String taskTag) throws RestException {
         try {
@@ -2648,64 +2769,88 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     @Override
     public RestPage<String> getTaskIdsByTag(String sessionId, String taskTag, long from, long to, boolean mytasks,
             String statusFilter, int offset, int limit) throws RestException {
+        long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
         Scheduler s = checkAccess(sessionId, "tasks");
+        String user = sessionStore.get(sessionId).getUserName();
 
         PageBoundaries boundaries = Pagination.getTasksPageBoundaries(offset, limit, TASKS_PAGE_SIZE);
 
-        try {
-            final Set<TaskStatus> statuses = TaskStatus.expandAggregatedStatusesToRealStatuses(Stream.of(statusFilter.split(";"))
-                                                                                                     .collect(Collectors.toList()));
-            Page<TaskId> page = s.getTaskIds(taskTag,
+        List<Object> request = Arrays.asList("tasks",
+                                             user,
+                                             taskTag,
                                              from,
                                              to,
                                              mytasks,
-                                             statuses,
+                                             statusFilter,
                                              boundaries.getOffset(),
                                              boundaries.getLimit());
-            List<TaskId> taskIds = page.getList();
-            List<String> taskNames = new ArrayList<>(taskIds.size());
-            for (TaskId taskId : taskIds) {
-                taskNames.add(taskId.getReadableName());
+        return responseCache.get(revision, request, () -> {
+            try {
+                final Set<TaskStatus> statuses = TaskStatus.expandAggregatedStatusesToRealStatuses(Stream.of(statusFilter.split(";"))
+                                                                                                         .collect(Collectors.toList()));
+                Page<TaskId> page = s.getTaskIds(taskTag,
+                                                 from,
+                                                 to,
+                                                 mytasks,
+                                                 statuses,
+                                                 boundaries.getOffset(),
+                                                 boundaries.getLimit());
+                List<TaskId> taskIds = page.getList();
+                List<String> taskNames = new ArrayList<>(taskIds.size());
+                for (TaskId taskId : taskIds) {
+                    taskNames.add(taskId.getReadableName());
+                }
+                return new RestPage<>(taskNames, page.getSize());
+            } catch (SchedulerException e) {
+                throw RestException.wrapExceptionToRest(e);
             }
-            return new RestPage<>(taskNames, page.getSize());
-        } catch (SchedulerException e) {
-            throw RestException.wrapExceptionToRest(e);
-        }
+        });
     }
 
     @Override
     public RestPage<TaskStateData> getTaskStatesByTag(String sessionId, String taskTag, long from, long to,
             boolean mytasks, String statusFilter, int offset, int limit, SortSpecifierContainer sortParams)
             throws RestException {
+        long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
         Scheduler s = checkAccess(sessionId, "tasks/tag/" + taskTag);
+        String user = sessionStore.get(sessionId).getUserName();
 
         PageBoundaries boundaries = Pagination.getTasksPageBoundaries(offset, limit, TASKS_PAGE_SIZE);
 
-        Page<TaskState> page = null;
-
         // if that method is called directly from REST without any sorting
         // parameters
         // sortParams will be null
-        if (sortParams == null) {
-            sortParams = new SortSpecifierContainer();
-        }
-        try {
-            final Set<TaskStatus> statuses = TaskStatus.expandAggregatedStatusesToRealStatuses(Stream.of(statusFilter.split(";"))
-                                                                                                     .collect(Collectors.toList()));
-
-            page = s.getTaskStates(taskTag,
-                                   from,
-                                   to,
-                                   mytasks,
-                                   statuses,
-                                   boundaries.getOffset(),
-                                   boundaries.getLimit(),
-                                   sortParams);
-            List<TaskStateData> tasks = map(page.getList(), TaskStateData.class);
-            return new RestPage<>(tasks, page.getSize());
-        } catch (SchedulerException e) {
-            throw RestException.wrapExceptionToRest(e);
-        }
+        SortSpecifierContainer sortSpecifiers = sortParams != null ? sortParams : new SortSpecifierContainer();
+
+        List<Object> request = Arrays.asList("taskstates",
+                                             user,
+                                             taskTag,
+                                             from,
+                                             to,
+                                             mytasks,
+                                             statusFilter,
+                                             boundaries.getOffset(),
+                                             boundaries.getLimit(),
+                                             sortSpecifiers.toString());
+        return responseCache.get(revision, request, () -> {
+            try {
+                final Set<TaskStatus> statuses = TaskStatus.expandAggregatedStatusesToRealStatuses(Stream.of(statusFilter.split(";"))
+                                                                                                         .collect(Collectors.toList()));
+
+                Page<TaskState> page = s.getTaskStates(taskTag,
+                                                       from,
+                                                       to,
+                                                       mytasks,
+                                                       statuses,
+                                                       boundaries.getOffset(),
+                                                       boundaries.getLimit(),
+                                                       sortSpecifiers);
+                List<TaskStateData> tasks = map(page.getList(), TaskStateData.class);
+                return new RestPage<>(tasks, page.getSize());
+            } catch (SchedulerException e) {
+                throw RestException.wrapExceptionToRest(e);
+            }
+        });
     }
 
     /**
@@ -2765,4 +2910,9 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     }
 
+    @FunctionalInterface
+    private interface ServerLogsReader {
+        ServerLogsChunk read(long offset, int length) throws SchedulerException;
+    }
+
 }
@@ -49,6 +49,15 @@ public enum PortalConfiguration implements PACommonProperties {
 
     SCHEDULER_CACHE_CREDENTIALS("scheduler.cache.credential", PropertyType.STRING),
 
+    /** Time window in ms during which successive task events are merged before being pushed to subscribers, 0 to disable */
+    SCHEDULER_EVENTS_TASK_COALESCING_WINDOW("scheduler.events.task.coalescing.window", PropertyType.INTEGER, "0"),
+
+    /** Maximum number of job and task list responses cached per scheduler state revision, 0 to disable caching and ETags */
+    SCHEDULER_REST_RESPONSE_CACHE_SIZE("scheduler.rest.response.cache.size", PropertyType.INTEGER, "256"),
+
+    /** Time in seconds after which a cached job or task list response is computed again, even if no event was received */
+    SCHEDULER_REST_RESPONSE_CACHE_EXPIRATION("scheduler.rest.response.cache.expiration", PropertyType.INTEGER, "60"),
+
     SCHEDULER_LOGINFORWARDINGSERVICE_PROVIDER(
             "scheduler.logforwardingservice.provider",
             PropertyType.STRING,
@@ -45,6 +45,7 @@ import org.ow2.proactive_grid_cloud_portal.common.SharedSessionStore;
 import org.ow2.proactive_grid_cloud_portal.rm.RMStateCaching;
 import org.ow2.proactive_grid_cloud_portal.scheduler.IntWrapperConverter;
 import org.ow2.proactive_grid_cloud_portal.scheduler.RestartModeConverter;
+import org.ow2.proactive_grid_cloud_portal.scheduler.SchedulerStateETagFilter;
 import org.ow2.proactive_grid_cloud_portal.scheduler.SchedulerStateListener;
 
 
@@ -65,6 +66,7 @@ public class RestRuntime {
         dispatcher.registerProvider(RestartModeConverter.class);
         dispatcher.registerProvider(IntWrapperConverter.class);
         dispatcher.registerProvider(JacksonProvider.class);
+        dispatcher.registerProvider(SchedulerStateETagFilter.class);
 
         configureLogger(log4jConfig);
 
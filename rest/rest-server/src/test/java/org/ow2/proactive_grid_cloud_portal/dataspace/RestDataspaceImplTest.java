@@ -0,0 +1,210 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.dataspace;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ * Unit tests of the uploads of a file in several parts.
+ */
+public class RestDataspaceImplTest {
+
+    private static final String UPLOAD_ID = "upload-1";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private RestDataspaceImpl restDataspace;
+
+    private File file;
+
+    private FileObject fileObject;
+
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        restDataspace = new RestDataspaceImpl();
+        file = new File(temporaryFolder.getRoot(), "file.bin");
+        fileObject = VFS.getManager().resolveFile(file.toURI());
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void storeInParts() throws Exception {
+        Response response = storePart(0, 40);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.ACCEPTED.getStatusCode());
+        assertThat(response.getHeaderString("Range")).isEqualTo("bytes=0-39");
+        assertThat(file.exists()).isFalse();
+
+        response = storePart(40, 60);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.CREATED.getStatusCode());
+        assertThat(Files.readAllBytes(file.toPath())).isEqualTo(content);
+        assertThat(Arrays.asList(temporaryFolder.getRoot().list())).containsExactly("file.bin");
+    }
+
+    @Test
+    public void storePartSentAgain() throws Exception {
+        storePart(0, 50);
+        // the client did not receive the answer and sends an overlapping part
+        Response response = storePart(30, 70);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.CREATED.getStatusCode());
+        assertThat(Files.readAllBytes(file.toPath())).isEqualTo(content);
+    }
+
+    @Test
+    public void storePartAfterMissingBytes() throws Exception {
+        storePart(0, 20);
+        Response response = storePart(50, 50);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.ACCEPTED.getStatusCode());
+        assertThat(response.getHeaderString("Range")).isEqualTo("bytes=0-19");
+        assertThat(file.exists()).isFalse();
+    }
+
+    @Test
+    public void uploadStatus() throws Exception {
+        Response response = restDataspace.writeFilePart(new ByteArrayInputStream(new byte[0]),
+                                                        fileObject,
+                                                        null,
+                                                        "bytes */100",
+                                                        UPLOAD_ID);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.ACCEPTED.getStatusCode());
+        assertThat(response.getHeaderString("Range")).isNull();
+
+        storePart(0, 10);
+        response = restDataspace.writeFilePart(new ByteArrayInputStream(new byte[0]),
+                                               fileObject,
+                                               null,
+                                               "bytes */100",
+                                               UPLOAD_ID);
+        assertThat(response.getHeaderString("Range")).isEqualTo("bytes=0-9");
+    }
+
+    @Test
+    public void storeEncodedPartIsRejected() throws Exception {
+        Response response = restDataspace.writeFilePart(new ByteArrayInputStream(content),
+                                                        fileObject,
+                                                        "gzip",
+                                                        "bytes 0-99/100",
+                                                        UPLOAD_ID);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    public void storePartWithoutUploadIdIsRejected() throws Exception {
+        Response response = restDataspace.writeFilePart(new ByteArrayInputStream(content),
+                                                        fileObject,
+                                                        null,
+                                                        "bytes 0-99/100",
+                                                        null);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    public void stalePartOfAnotherUploadIsIgnored() throws Exception {
+        byte[] otherContent = new byte[content.length];
+        Arrays.fill(otherContent, (byte) 7);
+        // left by an interrupted upload of a previous version of the file
+        storePart(otherContent, 0, 50, "previous");
+
+        Response response = storePart(content, 0, 40, UPLOAD_ID);
+        assertThat(response.getHeaderString("Range")).isEqualTo("bytes=0-39");
+        response = storePart(content, 40, 60, UPLOAD_ID);
+        assertThat(response.getStatus()).isEqualTo(Response.Status.CREATED.getStatusCode());
+        assertThat(Files.readAllBytes(file.toPath())).isEqualTo(content);
+    }
+
+    @Test
+    public void concurrentUploadsToSameFile() throws Exception {
+        final byte[] otherContent = new byte[content.length];
+        Arrays.fill(otherContent, (byte) 7);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> uploads = new ArrayList<>();
+            uploads.add(executor.submit(upload(content, "first")));
+            uploads.add(executor.submit(upload(otherContent, "second")));
+            for (Future<Void> upload : uploads) {
+                upload.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        byte[] stored = Files.readAllBytes(file.toPath());
+        assertThat(Arrays.equals(stored, content) || Arrays.equals(stored, otherContent)).isTrue();
+        assertThat(Arrays.asList(temporaryFolder.getRoot().list())).containsExactly("file.bin");
+    }
+
+    private Callable<Void> upload(final byte[] bytes, final String uploadId) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for (int offset = 0; offset < bytes.length; offset += 10) {
+                    storePart(bytes, offset, 10, uploadId);
+                }
+                return null;
+            }
+        };
+    }
+
+    private Response storePart(int offset, int length) throws Exception {
+        return storePart(content, offset, length, UPLOAD_ID);
+    }
+
+    private Response storePart(byte[] bytes, int offset, int length, String uploadId) throws Exception {
+        byte[] part = Arrays.copyOfRange(bytes, offset, offset + length);
+        return restDataspace.writeFilePart(new ByteArrayInputStream(part),
+                                           fileObject,
+                                           null,
+                                           "bytes " + offset + "-" + (offset + length - 1) + "/" + bytes.length,
+                                           uploadId);
+    }
+}
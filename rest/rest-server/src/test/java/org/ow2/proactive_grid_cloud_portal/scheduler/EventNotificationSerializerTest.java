@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.dozer.DozerBeanMapper;
+import org.dozer.Mapper;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.job.JobInfoImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskInfoImpl;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.TaskInfoData;
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.eventing.EventNotification;
+
+
+public class EventNotificationSerializerTest {
+
+    private final Mapper mapper = new DozerBeanMapper(Collections.singletonList("dozerBeanMapping.xml"));
+
+    @Test
+    public void taskInfoMappingMatchesDozerMapping() throws Exception {
+        TaskInfoImpl taskInfo = createTaskInfo(TaskStatus.RUNNING);
+
+        TaskInfoData expected = mapper.map(taskInfo, TaskInfoData.class);
+        TaskInfoData actual = EventNotificationSerializer.toTaskInfoData(taskInfo);
+
+        assertEquals(serialize(expected), serialize(actual));
+    }
+
+    @Test
+    public void identicalTaskEventsShareTheirSerialization() throws Exception {
+        String first = EventNotificationSerializer.serializeTaskEvent(SchedulerEvent.TASK_PENDING_TO_RUNNING.name(),
+                                                                      createTaskInfo(TaskStatus.RUNNING));
+        String second = EventNotificationSerializer.serializeTaskEvent(SchedulerEvent.TASK_PENDING_TO_RUNNING.name(),
+                                                                       createTaskInfo(TaskStatus.RUNNING));
+        String finished = EventNotificationSerializer.serializeTaskEvent(SchedulerEvent.TASK_RUNNING_TO_FINISHED.name(),
+                                                                         createTaskInfo(TaskStatus.FINISHED));
+
+        assertSame(first, second);
+        assertNotEquals(first, finished);
+        assertEquals(serialize(EventNotificationSerializer.toTaskInfoData(createTaskInfo(TaskStatus.RUNNING)),
+                               SchedulerEvent.TASK_PENDING_TO_RUNNING.name()),
+                     first);
+    }
+
+    private TaskInfoImpl createTaskInfo(TaskStatus status) {
+        JobIdImpl jobId = new JobIdImpl(42, "job");
+        JobInfoImpl jobInfo = new JobInfoImpl();
+        jobInfo.setJobId(jobId);
+
+        TaskInfoImpl taskInfo = new TaskInfoImpl();
+        taskInfo.setJobInfo(jobInfo);
+        taskInfo.setTaskId(TaskIdImpl.createTaskId(jobId, "task", 1));
+        taskInfo.setStatus(status);
+        taskInfo.setStartTime(1000);
+        taskInfo.setScheduledTime(900);
+        taskInfo.setExecutionHostName("host");
+        taskInfo.setNumberOfExecutionLeft(2);
+        taskInfo.setNumberOfExecutionOnFailureLeft(1);
+        taskInfo.setProgress(50);
+        return taskInfo;
+    }
+
+    private String serialize(TaskInfoData taskInfoData) throws Exception {
+        return serialize(taskInfoData, SchedulerEvent.TASK_PENDING_TO_RUNNING.name());
+    }
+
+    private String serialize(TaskInfoData taskInfoData, String eventType) throws Exception {
+        return EventNotificationSerializer.serialize(new EventNotification(EventNotification.Action.TASK_STATE_UPDATED,
+                                                                           eventType,
+                                                                           taskInfoData));
+    }
+}
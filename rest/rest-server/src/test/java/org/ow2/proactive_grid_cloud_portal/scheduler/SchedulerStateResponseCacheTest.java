@@ -0,0 +1,122 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.exception.RestException;
+
+import com.google.common.base.Ticker;
+
+
+public class SchedulerStateResponseCacheTest {
+
+    @Test
+    public void responsesAreReusedUntilTheRevisionChanges() throws Exception {
+        SchedulerStateResponseCache cache = new SchedulerStateResponseCache(16, 60, Ticker.systemTicker());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, (int) cache.get(3, Arrays.asList("jobsinfo", "admin", 0, 50), loads::incrementAndGet));
+        assertEquals(1, (int) cache.get(3, Arrays.asList("jobsinfo", "admin", 0, 50), loads::incrementAndGet));
+        assertEquals(2, (int) cache.get(3, Arrays.asList("jobsinfo", "user", 0, 50), loads::incrementAndGet));
+        assertEquals(3, (int) cache.get(4, Arrays.asList("jobsinfo", "admin", 0, 50), loads::incrementAndGet));
+        // no event received yet
+        assertEquals(4, (int) cache.get(-1, Arrays.asList("jobsinfo", "admin", 0, 50), loads::incrementAndGet));
+        assertEquals(5, (int) cache.get(-1, Arrays.asList("jobsinfo", "admin", 0, 50), loads::incrementAndGet));
+    }
+
+    @Test
+    public void responsesExpireAfterWrite() throws Exception {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        SchedulerStateResponseCache cache = new SchedulerStateResponseCache(16, 60, ticker);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, (int) cache.get(3, Arrays.asList("jobsinfo", "admin"), loads::incrementAndGet));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(1, (int) cache.get(3, Arrays.asList("jobsinfo", "admin"), loads::incrementAndGet));
+        // reading the response does not extend its lifetime
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, (int) cache.get(3, Arrays.asList("jobsinfo", "admin"), loads::incrementAndGet));
+    }
+
+    @Test
+    public void disabledCacheAlwaysLoads() throws Exception {
+        SchedulerStateResponseCache cache = new SchedulerStateResponseCache(0, 60, Ticker.systemTicker());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertFalse(cache.isEnabled());
+        assertEquals(1, (int) cache.get(3, Arrays.asList("tasks", "admin"), loads::incrementAndGet));
+        assertEquals(2, (int) cache.get(3, Arrays.asList("tasks", "admin"), loads::incrementAndGet));
+    }
+
+    @Test(expected = RestException.class)
+    public void loadingErrorsAreRethrownAndNotCached() throws Exception {
+        SchedulerStateResponseCache cache = new SchedulerStateResponseCache(16, 60, Ticker.systemTicker());
+        cache.get(3, Arrays.asList("tasks", "admin"), () -> {
+            throw new RestException("failure");
+        });
+    }
+
+    @Test
+    public void entityTagDependsOnRevisionUserAndRequest() {
+        SchedulerStateResponseCache cache = new SchedulerStateResponseCache(16, 60, Ticker.systemTicker());
+        URI request = URI.create("http://localhost:8080/rest/scheduler/jobsinfo?index=0&limit=50");
+        String tag = cache.entityTag(3, "admin", request);
+
+        assertEquals(tag, cache.entityTag(3, "admin", request));
+        assertNotEquals(tag, cache.entityTag(4, "admin", request));
+        assertNotEquals(tag, cache.entityTag(3, "user", request));
+        assertNotEquals(tag, cache.entityTag(3, "admin", URI.create(request + "&after=12")));
+    }
+
+    @Test
+    public void ifNoneMatchAcceptsListsAndWeakTags() {
+        EntityTag tag = new EntityTag("3-abc");
+
+        assertTrue(SchedulerStateETagFilter.matches("\"3-abc\"", tag));
+        assertTrue(SchedulerStateETagFilter.matches("\"2-abc\", W/\"3-abc\"", tag));
+        assertFalse(SchedulerStateETagFilter.matches("\"2-abc\"", tag));
+        assertFalse(SchedulerStateETagFilter.matches(null, tag));
+    }
+}
@@ -27,14 +27,24 @@ package org.ow2.proactive_grid_cloud_portal.scheduler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.jboss.resteasy.client.core.BaseClientResponse;
@@ -43,6 +53,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.task.SimpleTaskLogs;
 import org.ow2.proactive.scheduler.common.util.SchedulerProxyUserInterface;
 import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
@@ -160,6 +171,85 @@ public class SchedulerStateRestJobLogsTest {
         assertEquals("1032", IOUtils.toString(fullLogs));
     }
 
+    @Test
+    public void job_server_logs_stream() throws Exception {
+        mockJobServerLogs("0123456789abcdefghijklmnopqrstuvwxyz");
+
+        Response response = restScheduler.jobServerLogStream(validSessionId, "123", null, null, null, null);
+
+        assertEquals(HttpURLConnection.HTTP_OK, response.getStatus());
+        assertEquals("0123456789abcdefghijklmnopqrstuvwxyz", write(response));
+    }
+
+    @Test
+    public void job_server_logs_stream_range_header() throws Exception {
+        mockJobServerLogs("0123456789abcdefghijklmnopqrstuvwxyz");
+
+        Response response = restScheduler.jobServerLogStream(validSessionId, "123", "bytes=5-24", null, null, null);
+
+        assertEquals(HttpURLConnection.HTTP_PARTIAL, response.getStatus());
+        assertEquals("bytes 5-24/36", response.getHeaderString("Content-Range"));
+        assertEquals("56789abcdefghijklmno", write(response));
+
+        response = restScheduler.jobServerLogStream(validSessionId, "123", "bytes=-10", null, null, null);
+
+        assertEquals("bytes 26-35/36", response.getHeaderString("Content-Range"));
+        assertEquals("qrstuvwxyz", write(response));
+    }
+
+    @Test
+    public void job_server_logs_stream_query_parameters() throws Exception {
+        mockJobServerLogs("0123456789abcdefghijklmnopqrstuvwxyz");
+
+        Response response = restScheduler.jobServerLogStream(validSessionId, "123", "bytes=0-1", 30L, null, null);
+
+        assertEquals("bytes 30-35/36", response.getHeaderString("Content-Range"));
+        assertEquals("uvwxyz", write(response));
+
+        response = restScheduler.jobServerLogStream(validSessionId, "123", null, null, null, 3L);
+
+        assertEquals("xyz", write(response));
+
+        response = restScheduler.jobServerLogStream(validSessionId, "123", null, 36L, 10L, null);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */36", response.getHeaderString("Content-Range"));
+    }
+
+    @Test(expected = IOException.class)
+    public void job_server_logs_stream_is_aborted_when_logs_change() throws Exception {
+        mockJobServerLogs("0123456789abcdefghijklmnopqrstuvwxyz");
+
+        Response response = restScheduler.jobServerLogStream(validSessionId, "123", null, null, null, null);
+
+        // logs written in the job log shift the task logs after the first chunk is sent
+        mockJobServerLogs("0123456789-NEW-abcdefghijklmnopqrstuvwxyz");
+
+        assertEquals(HttpURLConnection.HTTP_OK, response.getStatus());
+        write(response);
+    }
+
+    /**
+     * Serves the given logs by chunks smaller than the requested ranges, as the scheduler would with a low
+     * maximum chunk size, so that responses are made of several chunks
+     */
+    private void mockJobServerLogs(String logs) throws Exception {
+        byte[] bytes = logs.getBytes(Charset.defaultCharset());
+        when(mockScheduler.getJobServerLogs(eq("123"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = (Long) invocation.getArguments()[1];
+            int length = Math.min((Integer) invocation.getArguments()[2], 7);
+            int start = (int) (offset >= 0 ? Math.min(offset, bytes.length) : Math.max(0, bytes.length + offset));
+            int end = Math.min(start + length, bytes.length);
+            return new ServerLogsChunk(Arrays.copyOfRange(bytes, start, end), start, bytes.length);
+        });
+    }
+
+    private static String write(Response response) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return new String(output.toByteArray(), Charset.defaultCharset());
+    }
+
     private static void addTask(InternalTaskFlowJob jobState, long finishedTime, long id) {
         InternalScriptTask task = new InternalScriptTask(jobState);
         task.setPreciousLogs(true);
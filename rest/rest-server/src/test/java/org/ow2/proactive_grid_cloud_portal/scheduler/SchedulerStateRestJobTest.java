@@ -111,7 +111,7 @@ public class SchedulerStateRestJobTest extends RestTestServer {
                                      (JobFilterCriteria) notNull(),
                                      eq(SchedulerStateRest.DEFAULT_JOB_SORT_PARAMS))).thenReturn(expectedJobs);
 
-        RestPage<UserJobData> actualPage = restInterface.jobsInfo(sessionId, -1, -1);
+        RestPage<UserJobData> actualPage = restInterface.jobsInfo(sessionId, -1, -1, null);
 
         RestTestUtils.assertJobsInfoPage(expectedJobs, actualPage);
     }
@@ -27,8 +27,10 @@ package org.ow2.proactive.resourcemanager.common.event;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -66,24 +68,50 @@ public class RMInitialState implements Serializable {
 
     private static final Logger LOGGER = Logger.getLogger(RMInitialState.class);
 
+    /**
+     * Number of deltas kept between two events, one per counter known by clients
+     */
+    private static final int MAXIMUM_CACHED_DELTAS = 64;
+
+    /**
+     * Latest event of each node and node source, sorted by counter
+     */
     private SortedUniqueSet<RMEvent> events = new SortedUniqueSet<>();
 
+    /**
+     * Same events split by type
+     */
+    private SortedUniqueSet<RMEvent> nodeEvents = new SortedUniqueSet<>();
+
+    private SortedUniqueSet<RMEvent> nodeSourceEvents = new SortedUniqueSet<>();
+
     /**
      * keeps track of the latest (biggest) counter among the 'nodeEvents' and 'nodeSourceEvents'
      */
     private AtomicLong latestCounter = new AtomicLong(0);
 
+    /**
+     * Deltas computed since the last event, by counter known by clients.
+     * Clients polling with the same counter share the same delta.
+     */
+    private transient Map<Long, RMStateDelta> deltas;
+
     public void addAll(Collection<? extends RMEvent> toAdd) {
-        toAdd.forEach(rmEvent -> events.add(rmEvent));
-        latestCounter.set(Math.max(latestCounter.get(), findLargestCounter(events.getSortedItems())));
+        toAdd.forEach(rmEvent -> {
+            add(rmEvent);
+            updateCounter(rmEvent);
+        });
     }
 
     public List<RMNodeEvent> getNodeEvents() {
-        return getNodeEvents(events.getSortedItems());
+        return nodeEvents.getSortedItems().stream().map(event -> (RMNodeEvent) event).collect(Collectors.toList());
     }
 
     public List<RMNodeSourceEvent> getNodeSourceEvents() {
-        return getNodeSourceEvents(events.getSortedItems());
+        return nodeSourceEvents.getSortedItems()
+                               .stream()
+                               .map(event -> (RMNodeSourceEvent) event)
+                               .collect(Collectors.toList());
     }
 
     private List<RMNodeEvent> getNodeEvents(Collection<RMEvent> rmEvents) {
@@ -131,21 +159,52 @@ public class RMInitialState implements Serializable {
     protected void update(RMEvent event) {
         final Optional<RMEvent> existingEvent = events.get(event.getKey());
         existingEvent.ifPresent(event::updateFirstCounter);
-        events.add(event);
+        add(event);
         updateCounter(event);
     }
 
+    /**
+     * Replaces the event with the same key, in all the indexes
+     */
+    private void add(RMEvent event) {
+        events.get(event.getKey()).ifPresent(existingEvent -> indexOf(existingEvent).remove(existingEvent));
+        events.add(event);
+        indexOf(event).add(event);
+        if (deltas != null) {
+            deltas.clear();
+        }
+    }
+
+    private SortedUniqueSet<RMEvent> indexOf(RMEvent event) {
+        return event instanceof RMNodeSourceEvent ? nodeSourceEvents : nodeEvents;
+    }
+
     /**
      * Clones current state events, but keep only those events which has counter bigger than provided 'filter'
      * Event counter can take values [0, +).
      * So if filter is '-1' then all events will returned.
      *
+     * The returned delta is shared by all callers with the same counter until the next event,
+     * so its lists cannot be modified.
+     *
      * @param counterKnownByClient latest counter associated with event known by client
      * @return RMStateDelta where all the events bigger than 'filter'
      */
     public RMStateDelta cloneAndFilter(long counterKnownByClient) {
         final long effectiveFilter = computeActualFilter(counterKnownByClient);
 
+        if (deltas == null) {
+            deltas = new LinkedHashMap<Long, RMStateDelta>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, RMStateDelta> eldest) {
+                    return size() > MAXIMUM_CACHED_DELTAS;
+                }
+            };
+        }
+        return deltas.computeIfAbsent(effectiveFilter, this::computeDelta);
+    }
+
+    private RMStateDelta computeDelta(long effectiveFilter) {
         final List<RMEvent> responseEvents = events.getSortedItems()
                                                    .tailSet(new RMEvent(effectiveFilter + 1)) // because tailSet returns event which is equal or greater
                                                    .stream()
@@ -157,8 +216,8 @@ public class RMInitialState implements Serializable {
 
         RMStateDelta response = new RMStateDelta();
 
-        response.setNodeSource(getNodeSourceEvents(responseEvents));
-        response.setNodesEvents(getNodeEvents(responseEvents));
+        response.setNodeSource(Collections.unmodifiableList(getNodeSourceEvents(responseEvents)));
+        response.setNodesEvents(Collections.unmodifiableList(getNodeEvents(responseEvents)));
         response.setLatestCounter(Math.max(effectiveFilter, findLargestCounter(responseEvents)));
 
         return response;
@@ -201,9 +260,11 @@ public class RMInitialState implements Serializable {
         latestCounter.set(Math.max(latestCounter.get(), event.getCounter()));
     }
 
-    private <T extends RMEvent> long findLargestCounter(Collection<T> events) {
-        final Optional<T> max = events.stream().max(Comparator.comparing(RMEvent::getCounter));
-        return max.map(RMEvent::getCounter).orElse(EMPTY_STATE);
+    /**
+     * @param events events sorted by counter
+     */
+    private long findLargestCounter(List<RMEvent> events) {
+        return events.isEmpty() ? EMPTY_STATE : events.get(events.size() - 1).getCounter();
     }
 
     /**
@@ -211,16 +272,18 @@ public class RMInitialState implements Serializable {
      * @return RMStateFull where all the events are correspond to existing node/nodesources
      */
     public RMStateFull cloneAndFilterNotRemovedOnly() {
-        final List<RMEvent> responseEvents = events.getSortedItems()
-                                                   .stream()
-                                                   .filter(event -> (event.getEventType() != RMEventType.NODE_REMOVED &&
-                                                                     event.getEventType() != RMEventType.NODESOURCE_REMOVED))
-                                                   .collect(Collectors.toList());
-
         RMStateFull response = new RMStateFull();
 
-        response.setNodeSource(getNodeSourceEvents(responseEvents));
-        response.setNodesEvents(getNodeEvents(responseEvents));
+        response.setNodeSource(nodeSourceEvents.getSortedItems()
+                                               .stream()
+                                               .filter(this::isNotRemoved)
+                                               .map(event -> (RMNodeSourceEvent) event)
+                                               .collect(Collectors.toList()));
+        response.setNodesEvents(nodeEvents.getSortedItems()
+                                          .stream()
+                                          .filter(this::isNotRemoved)
+                                          .map(event -> (RMNodeEvent) event)
+                                          .collect(Collectors.toList()));
 
         return response;
     }
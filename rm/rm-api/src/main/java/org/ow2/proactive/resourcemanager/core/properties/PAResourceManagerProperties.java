@@ -349,6 +349,28 @@ public enum PAResourceManagerProperties implements PACommonProperties {
      */
     LOG4J_ASYNC_APPENDER_FLUSH_TIMOUT("pa.log4j.async.appender.flush.timeout", PropertyType.INTEGER, "50"),
 
+    /**
+     * When asynchronous logging is enabled and the appender cache is not, write job and task logs through
+     * a bounded pool of open files, batching writes per file
+     */
+    LOG4J_ASYNC_APPENDER_POOL_ENABLED("pa.log4j.async.appender.pool.enabled", PropertyType.BOOLEAN, "true"),
+
+    /**
+     * Defines the maximum number of files kept open by each writer of the pooled appender
+     */
+    LOG4J_ASYNC_APPENDER_POOL_SIZE("pa.log4j.async.appender.pool.size", PropertyType.INTEGER, "256"),
+
+    /**
+     * Defines the number of threads writing files in the pooled appender
+     */
+    LOG4J_ASYNC_APPENDER_POOL_WRITERS("pa.log4j.async.appender.pool.writers", PropertyType.INTEGER, "2"),
+
+    /**
+     * Defines the time in milliseconds after which a file which is not written is closed by the pooled appender.
+     * Values lower than 100 are raised to 100.
+     */
+    LOG4J_ASYNC_APPENDER_POOL_IDLE_TIMEOUT("pa.log4j.async.appender.pool.idle.timeout", PropertyType.INTEGER, "30000"),
+
     /**
      * Defines the log4j pattern used for all file appenders (used by the scheduler for job/task log files
      */
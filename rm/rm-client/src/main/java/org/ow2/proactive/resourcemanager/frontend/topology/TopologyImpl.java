@@ -54,6 +54,10 @@ public class TopologyImpl implements Topology, Cloneable {
      * Host -&gt; Hosts -&gt; Distance
      * Store here only half of matrix - each host have distances to hosts added before.
      * Assume that they are symmetrical.
+     * <p>
+     * This map is the serialized form of the topology returned to clients, which is why it is not
+     * indexed by host. It is only read through {@link #getDistance(InetAddress, InetAddress)}, once
+     * per pair of nodes, by {@link HAC} which clusters nodes on its own dense matrix.
      */
     private HashMap<InetAddress, HashMap<InetAddress, Long>> distances = new HashMap<>();
 
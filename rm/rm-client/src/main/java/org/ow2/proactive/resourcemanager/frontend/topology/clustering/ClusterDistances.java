@@ -0,0 +1,256 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.frontend.topology.clustering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.ow2.proactive.topology.descriptor.DistanceFunction;
+
+
+/**
+ * Distances between the clusters built by {@link HAC}.
+ * <p>
+ * Distances are stored in a dense lower triangular matrix indexed by the position of
+ * the initial elements. Merging two clusters keeps the index of the bigger one, so the
+ * matrix never grows. When needed, the closest neighbour of every cluster is cached so that
+ * finding the closest pair is a scan over the clusters rather than over all pairs.
+ */
+class ClusterDistances<T> {
+
+    /** Distance of elements which are not connected */
+    private static final long NOT_CONNECTED = -1;
+
+    private final DistanceFunction distanceFunction;
+
+    private final long threshold;
+
+    /** index -&gt; cluster, null once merged into another one */
+    private final List<Cluster<T>> clusters;
+
+    private final long[] distances;
+
+    /**
+     * Logical time of the last change of each cluster. Between two clusters the one which changed
+     * last owns the pair, as it used to own the corresponding entry of the distance map.
+     */
+    private final long[] stamps;
+
+    private long clock;
+
+    private int size;
+
+    /** index of the closest neighbour of each cluster, -1 if none, lazily initialized */
+    private int[] nearest;
+
+    private long[] nearestDistance;
+
+    /**
+     * @param clusters initial clusters, each holding one element
+     * @param distance distance between two elements, null if unknown
+     */
+    ClusterDistances(List<Cluster<T>> clusters, BiFunction<T, T, Long> distance, DistanceFunction distanceFunction,
+            long threshold) {
+        this.distanceFunction = distanceFunction;
+        this.threshold = threshold;
+        this.clusters = new ArrayList<>(clusters);
+        this.size = clusters.size();
+        this.stamps = new long[size];
+        this.distances = new long[offset(size)];
+
+        for (int i = 0; i < size; i++) {
+            T element = clusters.get(i).getElements().get(0);
+            for (int j = 0; j < i; j++) {
+                Long d = distance.apply(element, clusters.get(j).getElements().get(0));
+                distances[offset(i) + j] = d == null ? NOT_CONNECTED : d;
+            }
+            stamps[i] = i;
+        }
+        clock = size;
+    }
+
+    private static int offset(int row) {
+        return (int) ((long) row * (row - 1) / 2);
+    }
+
+    long distance(int index1, int index2) {
+        return index1 > index2 ? distances[offset(index1) + index2] : distances[offset(index2) + index1];
+    }
+
+    private void setDistance(int index1, int index2, long distance) {
+        if (index1 > index2) {
+            distances[offset(index1) + index2] = distance;
+        } else {
+            distances[offset(index2) + index1] = distance;
+        }
+    }
+
+    private boolean mergeable(long distance) {
+        return distance >= 0 && distance <= threshold;
+    }
+
+    /**
+     * @return the number of clusters
+     */
+    int size() {
+        return size;
+    }
+
+    Cluster<T> get(int index) {
+        return clusters.get(index);
+    }
+
+    /**
+     * @return clusters in the order of their indexes
+     */
+    List<Cluster<T>> getClusters() {
+        List<Cluster<T>> result = new ArrayList<>(size);
+        for (Cluster<T> cluster : clusters) {
+            if (cluster != null) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the two closest clusters within the threshold.
+     *
+     * @return indexes of the owner of the pair and of the other cluster,
+     * or null if no clusters are close enough
+     */
+    int[] findClosestClusters() {
+        if (nearest == null) {
+            initNearest();
+        }
+
+        int closest = -1;
+        for (int i = 0; i < clusters.size(); i++) {
+            if (clusters.get(i) != null && nearest[i] >= 0 &&
+                (closest < 0 || nearestDistance[i] < nearestDistance[closest])) {
+                closest = i;
+            }
+        }
+        if (closest < 0) {
+            return null;
+        }
+
+        int other = nearest[closest];
+        return stamps[closest] > stamps[other] ? new int[] { closest, other } : new int[] { other, closest };
+    }
+
+    /**
+     * Finds the cluster closest to the given one within the threshold.
+     *
+     * @return index of the closest cluster or -1 if no clusters are close enough
+     */
+    int findClosestClusterTo(int index) {
+        int closest = -1;
+        long proximity = 0;
+        for (int i = 0; i < clusters.size(); i++) {
+            if (i == index || clusters.get(i) == null) {
+                continue;
+            }
+            long d = distance(index, i);
+            if (mergeable(d) && (closest < 0 || d < proximity)) {
+                closest = i;
+                proximity = d;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Merges two clusters and recalculates distances to others.
+     * The bigger cluster is used as a container for elements of the smaller one,
+     * the second one being considered bigger when sizes are equal.
+     *
+     * @return index of the merged cluster
+     */
+    int merge(int index1, int index2) {
+        int bigger = get(index1).size() > get(index2).size() ? index1 : index2;
+        int smaller = bigger == index1 ? index2 : index1;
+
+        for (int i = 0; i < clusters.size(); i++) {
+            if (i == bigger || i == smaller || clusters.get(i) == null) {
+                continue;
+            }
+            setDistance(bigger, i, distanceFunction.distance(distance(bigger, i), distance(smaller, i)));
+        }
+
+        get(bigger).add(get(smaller).getElements());
+        clusters.set(smaller, null);
+        stamps[bigger] = clock++;
+        size--;
+
+        if (nearest != null) {
+            updateNearest(bigger, smaller);
+        }
+        return bigger;
+    }
+
+    private void initNearest() {
+        nearest = new int[clusters.size()];
+        nearestDistance = new long[clusters.size()];
+        for (int i = 0; i < clusters.size(); i++) {
+            if (clusters.get(i) != null) {
+                findNearest(i);
+            }
+        }
+    }
+
+    private void findNearest(int index) {
+        int closest = findClosestClusterTo(index);
+        nearest[index] = closest;
+        if (closest >= 0) {
+            nearestDistance[index] = distance(index, closest);
+        }
+    }
+
+    /**
+     * Only the distances to the merged cluster have changed, so the neighbour of another
+     * cluster has to be searched again only if it was one of the merged clusters.
+     */
+    private void updateNearest(int merged, int removed) {
+        findNearest(merged);
+        for (int i = 0; i < clusters.size(); i++) {
+            if (i == merged || clusters.get(i) == null) {
+                continue;
+            }
+            if (nearest[i] == merged || nearest[i] == removed) {
+                findNearest(i);
+            } else {
+                long d = distance(i, merged);
+                if (mergeable(d) && (nearest[i] < 0 || d < nearestDistance[i] ||
+                                     (d == nearestDistance[i] && merged < nearest[i]))) {
+                    nearest[i] = merged;
+                    nearestDistance[i] = d;
+                }
+            }
+        }
+    }
+}
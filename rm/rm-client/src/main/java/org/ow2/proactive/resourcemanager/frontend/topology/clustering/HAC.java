@@ -25,12 +25,14 @@
  */
 package org.ow2.proactive.resourcemanager.frontend.topology.clustering;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
@@ -98,10 +100,11 @@ public class HAC {
             return new LinkedList<>();
         }
 
-        // initializing cluster distances map
+        // initializing cluster distances matrix
         // cluster is a group of nodes, initially each cluster consist of one node
         logger.debug("Initializing clusters map");
-        HashMap<Cluster<Node>, HashMap<Cluster<Node>, Long>> clusterDistances = initClusterDistances(from);
+        Map<String, Integer> indexes = new HashMap<>();
+        ClusterDistances<Node> clusterDistances = initClusterDistances(from, indexes);
 
         // no topology information for provided nodes
         if (from.size() > 0 && clusterDistances.size() == 0) {
@@ -112,47 +115,48 @@ public class HAC {
         if (pivot.size() > 0) {
             // fixed orientation clustering
             Iterator<Node> it = pivot.iterator();
-            Node pivotNode = it.next();
-            target = new Cluster<>(getNodeId(pivotNode), pivotNode);
+            int targetIndex = indexes.get(getNodeId(it.next()));
             // merging pivot nodes into one cluster and recalculating distances
             logger.debug("Merging pivot nodes into one cluster");
             while (it.hasNext()) {
                 // merging clusters and recalculating distances between others
-                pivotNode = it.next();
-                Cluster<Node> pivotCluster = new Cluster<>(getNodeId(pivotNode), pivotNode);
-                target = recalculateDistances(target, pivotCluster, clusterDistances);
+                targetIndex = merge(targetIndex, indexes.get(getNodeId(it.next())), clusterDistances);
             }
 
             // clustering centralized to the pivot
             logger.debug("Begin centralized hierarchical agglomerative clustering");
-            while (clusterDistances.size() > 1 && target.size() < (number + pivot.size())) {
-                Cluster<Node> closest = findClosestClustersTo(target, clusterDistances);
+            while (clusterDistances.size() > 1 &&
+                   clusterDistances.get(targetIndex).size() < (number + pivot.size())) {
+                int closest = clusterDistances.findClosestClusterTo(targetIndex);
 
-                if (closest == null) {
+                if (closest < 0) {
                     // no clusters found => cannot merge anything => stop where we are
                     break;
                 }
                 // merging clusters and recalculating distances between others
-                target = recalculateDistances(target, closest, clusterDistances);
+                targetIndex = merge(targetIndex, closest, clusterDistances);
             }
 
             // removing pivot nodes from the result
+            target = clusterDistances.get(targetIndex);
             target.remove(pivot);
         } else {
             logger.debug("Begin hierarchical agglomerative clustering");
-            target = (Cluster<Node>) clusterDistances.keySet().iterator().next();
+            target = clusterDistances.get(0);
             Cluster<Node> largest = target;
             // floating clustering
             while (clusterDistances.size() > 1) {
                 // finding two clusters to merge according
-                Cluster<Node>[] clustersToMerge = findClosestClusters(clusterDistances);
+                int[] clustersToMerge = clusterDistances.findClosestClusters();
                 if (clustersToMerge == null) {
                     // there is no clusters close to each other
                     // stop the process
                     break;
                 }
+                Cluster<Node> cluster1 = clusterDistances.get(clustersToMerge[0]);
+                Cluster<Node> cluster2 = clusterDistances.get(clustersToMerge[1]);
                 // merging clusters and recalculating distances between others
-                target = recalculateDistances(clustersToMerge[0], clustersToMerge[1], clusterDistances);
+                target = clusterDistances.get(merge(clustersToMerge[0], clustersToMerge[1], clusterDistances));
                 if (target.size() >= largest.size()) {
                     largest = target;
                 }
@@ -168,21 +172,17 @@ public class HAC {
                     logger.debug("Number of node in the cluster exceeded required node number " + target.size() +
                                  " vs " + number);
 
-                    Cluster<Node> anotherCluster = clustersToMerge[0] == target ? clustersToMerge[1]
-                                                                                : clustersToMerge[0];
+                    Cluster<Node> anotherCluster = cluster1 == target ? cluster2 : cluster1;
                     target.removeLast(anotherCluster.size());
-                    final Cluster<Node> finalTarget = target;
 
+                    // distances of nodes in the smaller cluster to target, computed once per node
+                    final Map<Node, Long> distancesToTarget = new HashMap<>();
+                    for (Node node : anotherCluster.getElements()) {
+                        distancesToTarget.put(node, getDistance(node, target));
+                    }
                     Comparator<Node> nodeDistanceComparator = new Comparator<Node>() {
                         public int compare(Node n1, Node n2) {
-                            long res = getDistance(n1, finalTarget) - getDistance(n2, finalTarget);
-                            if (res < 0) {
-                                return -1;
-                            } else if (res > 0) {
-                                return 1;
-                            } else {
-                                return 0;
-                            }
+                            return Long.compare(distancesToTarget.get(n1), distancesToTarget.get(n2));
                         }
                     };
                     // sorting nodes in the smaller cluster according to their distances to target
@@ -219,7 +219,13 @@ public class HAC {
         return topology.getDistance(node, node2);
     }
 
-    private HashMap<Cluster<Node>, HashMap<Cluster<Node>, Long>> initClusterDistances(List<Node> from) {
+    /**
+     * Creates one cluster per node, pivot nodes being added at the end if missing.
+     * Pivot clusters hold the pivot instances of the nodes.
+     *
+     * @param indexes filled with the index of the cluster of each node id
+     */
+    private ClusterDistances<Node> initClusterDistances(List<Node> from, Map<String, Integer> indexes) {
         if (pivot.size() > 0) {
             from = new LinkedList<>(from);
             for (Node piv : pivot) {
@@ -228,70 +234,20 @@ public class HAC {
             }
         }
 
-        HashMap<Cluster<Node>, HashMap<Cluster<Node>, Long>> clusterDistances = new HashMap<>();
-
-        for (Node node : from) {
-            Cluster<Node> newCluster = new Cluster<>(getNodeId(node), node);
-            HashMap<Cluster<Node>, Long> dist = new HashMap<>();
-            for (Cluster<Node> cluster : clusterDistances.keySet()) {
-                dist.put(cluster, getDistance(node, cluster.getElements().get(0)));
-            }
-            clusterDistances.put(newCluster, dist);
-        }
-        return clusterDistances;
-    }
-
-    @SuppressWarnings(value = "unchecked")
-    private <T> Cluster<T>[] findClosestClusters(HashMap<Cluster<T>, HashMap<Cluster<T>, Long>> curDistances) {
-
-        Cluster<T>[] res = null;
-        long proximity = threshold;
-
-        for (Cluster<?> a : curDistances.keySet()) {
-            for (Cluster<?> b : curDistances.get(a).keySet()) {
-                if (a.equals(b)) {
-                    continue;
-                }
-
-                Long distance = curDistances.get(a).get(b);
-                if (distance >= 0 && distance <= proximity) {
-                    res = (Cluster<T>[]) new Cluster[] { a, b };
-                    proximity = curDistances.get(a).get(b);
-                }
-            }
+        Map<String, Node> pivotNodes = new HashMap<>();
+        for (Node piv : pivot) {
+            pivotNodes.put(getNodeId(piv), piv);
         }
 
-        return res;
-    }
-
-    @SuppressWarnings(value = "unchecked")
-    private <T> Cluster<T> findClosestClustersTo(Cluster<T> cluster,
-            HashMap<Cluster<T>, HashMap<Cluster<T>, Long>> curDistances) {
-
-        Cluster<T>[] res = null;
-        long proximity = threshold;
-
-        for (Cluster<T> a : curDistances.keySet()) {
-            for (Cluster<T> b : curDistances.get(a).keySet()) {
-                if (a.equals(b) || (!a.equals(cluster) && !b.equals(cluster))) {
-                    continue;
-                }
-
-                Long distance = curDistances.get(a).get(b);
-                if (distance >= 0 && distance <= proximity) {
-                    res = (Cluster<T>[]) new Cluster[] { a, b };
-                    proximity = distance;
-                }
+        List<Cluster<Node>> clusters = new ArrayList<>(from.size());
+        for (Node node : from) {
+            String id = getNodeId(node);
+            if (!indexes.containsKey(id)) {
+                indexes.put(id, clusters.size());
+                clusters.add(new Cluster<>(id, pivotNodes.containsKey(id) ? pivotNodes.get(id) : node));
             }
         }
-
-        // no closest found
-        if (res == null)
-            return null;
-
-        //return the one that is not 'cluster'
-        return (res[0].equals(cluster)) ? res[1] : res[0];
-
+        return new ClusterDistances<>(clusters, this::getDistance, distanceFunction, threshold);
     }
 
     private String getNodeId(Node node) {
@@ -308,57 +264,22 @@ public class HAC {
      * To achieve better performance new cluster is not created.
      * Instead the bigger cluster is used as a container for nodes
      * from smaller one.
+     *
+     * @return index of the merged cluster
      */
-    private <T> Cluster<T> recalculateDistances(Cluster<T> cluster1, Cluster<T> cluster2,
-            HashMap<Cluster<T>, HashMap<Cluster<T>, Long>> curDistances) {
-
-        final Cluster<T> biggerCluster = cluster1.size() > cluster2.size() ? cluster1 : cluster2;
-        final Cluster<T> smallerCluster = cluster1.size() > cluster2.size() ? cluster2 : cluster1;
-
+    private <T> int merge(int cluster1, int cluster2, ClusterDistances<T> clusterDistances) {
         if (logger.isDebugEnabled()) {
             logger.debug("Recalculating distances");
-            logger.debug("Clusters to merge:\n" + biggerCluster + "\n" + smallerCluster);
+            logger.debug("Clusters to merge:\n" + clusterDistances.get(cluster1) + "\n" +
+                         clusterDistances.get(cluster2));
         }
 
-        for (Cluster<T> cluster : curDistances.keySet()) {
-            if (cluster.equals(smallerCluster) || cluster.equals(biggerCluster)) {
-                continue;
-            }
-
-            //logger.debug(curDistances);
-            long d0, d1;
-            if (curDistances.get(cluster) != null && curDistances.get(cluster).containsKey(biggerCluster)) {
-                d0 = curDistances.get(cluster).get(biggerCluster);
-            } else {
-                d0 = curDistances.get(biggerCluster).get(cluster);
-            }
-            if (curDistances.get(cluster) != null && curDistances.get(cluster).containsKey(smallerCluster)) {
-                d1 = curDistances.get(cluster).get(smallerCluster);
-            } else {
-                d1 = curDistances.get(smallerCluster).get(cluster);
-            }
-
-            long newDistance = distanceFunction.distance(d0, d1);
-            curDistances.get(biggerCluster).put(cluster, newDistance);
-
-            if (curDistances.get(cluster) != null) {
-                curDistances.get(cluster).remove(smallerCluster);
-                curDistances.get(cluster).remove(biggerCluster);
-            }
-        }
-
-        biggerCluster.add(smallerCluster.getElements());
-        // we may actually add nodes to another instance of the cluster
-        // so override the key value in the hash
-        curDistances.put(biggerCluster, curDistances.remove(biggerCluster));
-
-        curDistances.remove(smallerCluster);
-        curDistances.get(biggerCluster).remove(smallerCluster);
+        int merged = clusterDistances.merge(cluster1, cluster2);
 
         if (logger.isDebugEnabled()) {
-            logger.debug(biggerCluster + " size = " + biggerCluster.size());
+            logger.debug(clusterDistances.get(merged) + " size = " + clusterDistances.get(merged).size());
         }
-        return biggerCluster;
+        return merged;
     }
 
     public List<Cluster<String>> clusterize(int numberOfClusters, Set<String> hosts) {
@@ -368,29 +289,27 @@ public class HAC {
         }
 
         logger.debug("Initializing clusters map");
-        HashMap<Cluster<String>, HashMap<Cluster<String>, Long>> clusterDistances = new HashMap<>();
-
+        List<Cluster<String>> clusters = new ArrayList<>(hosts.size());
         for (String host : hosts) {
-            Cluster<String> newCluster = new Cluster<>(host, host);
-            HashMap<Cluster<String>, Long> dist = new HashMap<>();
-            for (Cluster<String> cluster : clusterDistances.keySet()) {
-                dist.put(cluster, topology.getDistance(host, cluster.getElements().get(0)));
-            }
-            clusterDistances.put(newCluster, dist);
+            clusters.add(new Cluster<>(host, host));
         }
+        ClusterDistances<String> clusterDistances = new ClusterDistances<>(clusters,
+                                                                           topology::getDistance,
+                                                                           distanceFunction,
+                                                                           threshold);
 
         while (clusterDistances.size() > numberOfClusters) {
             // finding two clusters to merge according
-            Cluster<String>[] clustersToMerge = findClosestClusters(clusterDistances);
+            int[] clustersToMerge = clusterDistances.findClosestClusters();
             if (clustersToMerge == null) {
                 // there is no clusters close to each other
                 // stop the process
                 break;
             }
             // merging clusters and recalculating distances between others
-            recalculateDistances(clustersToMerge[0], clustersToMerge[1], clusterDistances);
+            merge(clustersToMerge[0], clustersToMerge[1], clusterDistances);
         }
 
-        return new LinkedList<>(clusterDistances.keySet());
+        return new LinkedList<>(clusterDistances.getClusters());
     }
 }
@@ -26,6 +26,8 @@
 package org.ow2.proactive.resourcemanager.common.event;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -97,4 +99,27 @@ public class RMInitialStateTest {
         assertEquals(2, rmInitialState.cloneAndFilter(RMInitialState.EMPTY_STATE).getNodeSource().size());
     }
 
+    @Test
+    public void testDeltaSharedUntilNextEvent() {
+        final RMStateDelta delta = rmInitialState.cloneAndFilter(3);
+        assertSame(delta, rmInitialState.cloneAndFilter(3));
+
+        rmInitialState.nodeStateChanged(new RMNodeEvent("http://localhost:0000", counter++));
+        final RMStateDelta updated = rmInitialState.cloneAndFilter(3);
+        assertNotSame(delta, updated);
+        assertEquals(4, updated.getNodesEvents().size());
+        assertEquals(7, updated.getLatestCounter());
+    }
+
+    @Test
+    public void testEventsByType() {
+        rmInitialState.nodeRemoved(new RMNodeEvent("http://localhost:0003", counter++, RMEventType.NODE_REMOVED));
+
+        assertEquals(5, rmInitialState.getNodeEvents().size());
+        assertEquals("http://localhost:0003", rmInitialState.getNodeEvents().get(4).getNodeUrl());
+        assertEquals(2, rmInitialState.getNodeSourceEvents().size());
+        assertEquals(4, rmInitialState.cloneAndFilterNotRemovedOnly().getNodesEvents().size());
+        assertEquals(2, rmInitialState.cloneAndFilterNotRemovedOnly().getNodeSource().size());
+    }
+
 }
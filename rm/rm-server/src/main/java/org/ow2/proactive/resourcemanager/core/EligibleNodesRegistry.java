@@ -0,0 +1,273 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+
+/**
+ * Registry of the nodes which are eligible for scheduling, i.e. the nodes which
+ * are in the `FREE` state and not locked.
+ *
+ * Nodes are added and removed in constant time, whatever the number of nodes, and
+ * are kept in insertion order. Secondary indexes give the eligible nodes of a node
+ * source or protected by a token without scanning all eligible nodes.
+ *
+ * The registry is versioned: every modification increments its version, and the
+ * immutable set of eligible node urls returned by {@link #getNodeUrls()} is only
+ * rebuilt when the version changed since the previous call.
+ *
+ * All methods are synchronized on the registry.
+ */
+class EligibleNodesRegistry {
+
+    /**
+     * eligible nodes, in insertion order, with the values under which they are indexed
+     */
+    private final Map<RMNode, IndexedNode> nodes = new LinkedHashMap<>();
+
+    private final Map<String, RMNode> nodesByUrl = new HashMap<>();
+
+    private final Map<String, Set<RMNode>> nodesByNodeSource = new HashMap<>();
+
+    private final Map<String, Set<RMNode>> nodesByToken = new HashMap<>();
+
+    private long version = 0;
+
+    private long nodeUrlsVersion = -1;
+
+    private Set<String> nodeUrls = Collections.emptySet();
+
+    EligibleNodesRegistry() {
+    }
+
+    EligibleNodesRegistry(Collection<RMNode> initialNodes) {
+        addAll(initialNodes);
+    }
+
+    /**
+     * Adds a node to the eligible nodes.
+     *
+     * @return true if the node was not already eligible
+     */
+    synchronized boolean add(RMNode node) {
+        if (nodes.containsKey(node)) {
+            return false;
+        }
+        IndexedNode indexedNode = new IndexedNode(node);
+        nodes.put(node, indexedNode);
+        index(node, indexedNode);
+        version++;
+        return true;
+    }
+
+    synchronized void addAll(Collection<RMNode> nodesToAdd) {
+        for (RMNode node : nodesToAdd) {
+            add(node);
+        }
+    }
+
+    /**
+     * Removes a node from the eligible nodes.
+     *
+     * @return true if the node was eligible
+     */
+    synchronized boolean remove(RMNode node) {
+        IndexedNode indexedNode = nodes.remove(node);
+        if (indexedNode == null) {
+            return false;
+        }
+        unindex(node, indexedNode);
+        version++;
+        return true;
+    }
+
+    /**
+     * Updates the secondary indexes of a node, to be called when the tokens of an eligible
+     * node changed.
+     */
+    synchronized void refresh(RMNode node) {
+        IndexedNode previous = nodes.get(node);
+        if (previous != null) {
+            unindex(node, previous);
+            IndexedNode indexedNode = new IndexedNode(node);
+            nodes.put(node, indexedNode);
+            index(node, indexedNode);
+            version++;
+        }
+    }
+
+    synchronized boolean contains(RMNode node) {
+        return nodes.containsKey(node);
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return a copy of the eligible nodes, in insertion order
+     */
+    synchronized List<RMNode> getNodes() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * @return the eligible nodes among the given node urls, in insertion order
+     */
+    synchronized List<RMNode> getNodes(Set<String> urls) {
+        if (urls.size() >= nodes.size()) {
+            List<RMNode> result = new ArrayList<>(nodes.size());
+            for (Map.Entry<RMNode, IndexedNode> entry : nodes.entrySet()) {
+                if (urls.contains(entry.getValue().url)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+        Set<RMNode> found = new HashSet<>(urls.size());
+        for (String url : urls) {
+            RMNode node = nodesByUrl.get(url);
+            if (node != null) {
+                found.add(node);
+            }
+        }
+        List<RMNode> result = new ArrayList<>(found.size());
+        for (RMNode node : nodes.keySet()) {
+            if (found.isEmpty()) {
+                break;
+            }
+            if (found.remove(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of the eligible nodes of the given node source, in insertion order
+     */
+    synchronized List<RMNode> getNodesOfNodeSource(String nodeSourceName) {
+        return copyOf(nodesByNodeSource.get(nodeSourceName));
+    }
+
+    synchronized List<RMNode> getNodesWithToken(String token) {
+        return copyOf(nodesByToken.get(token));
+    }
+
+    /**
+     * @return an immutable set of the urls of the eligible nodes, shared between the calls
+     * as long as the registry is not modified
+     */
+    synchronized Set<String> getNodeUrls() {
+        if (nodeUrlsVersion != version) {
+            Set<String> urls = new LinkedHashSet<>(nodes.size());
+            for (IndexedNode indexedNode : nodes.values()) {
+                urls.add(indexedNode.url);
+            }
+            nodeUrls = Collections.unmodifiableSet(urls);
+            nodeUrlsVersion = version;
+        }
+        return nodeUrls;
+    }
+
+    private void index(RMNode node, IndexedNode indexedNode) {
+        if (indexedNode.url != null) {
+            nodesByUrl.put(indexedNode.url, node);
+        }
+        addToIndex(nodesByNodeSource, indexedNode.nodeSourceName, node);
+        for (String token : indexedNode.tokens) {
+            addToIndex(nodesByToken, token, node);
+        }
+    }
+
+    private void unindex(RMNode node, IndexedNode indexedNode) {
+        if (indexedNode.url != null) {
+            nodesByUrl.remove(indexedNode.url, node);
+        }
+        removeFromIndex(nodesByNodeSource, indexedNode.nodeSourceName, node);
+        for (String token : indexedNode.tokens) {
+            removeFromIndex(nodesByToken, token, node);
+        }
+    }
+
+    private static void addToIndex(Map<String, Set<RMNode>> index, String key, RMNode node) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(node);
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Set<RMNode>> index, String key, RMNode node) {
+        if (key != null) {
+            Set<RMNode> indexedNodes = index.get(key);
+            if (indexedNodes != null) {
+                indexedNodes.remove(node);
+                if (indexedNodes.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    private static List<RMNode> copyOf(Set<RMNode> indexedNodes) {
+        return indexedNodes == null ? new ArrayList<>(0) : new ArrayList<>(indexedNodes);
+    }
+
+    /**
+     * The values under which a node is indexed, kept to remove the node from the
+     * indexes even if the node changed in the meantime.
+     */
+    private static final class IndexedNode {
+
+        private final String url;
+
+        private final String nodeSourceName;
+
+        private final Set<String> tokens;
+
+        private IndexedNode(RMNode node) {
+            this.url = node.getNodeURL();
+            this.nodeSourceName = node.getNodeSourceName();
+            this.tokens = node.getNodeTokens() != null ? new HashSet<>(node.getNodeTokens())
+                                                       : Collections.emptySet();
+        }
+    }
+}
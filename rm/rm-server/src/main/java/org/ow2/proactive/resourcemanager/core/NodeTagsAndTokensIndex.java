@@ -0,0 +1,187 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+
+/**
+ * Inverted indexes of the tags and of the tokens of all the nodes known by the core,
+ * giving the urls of the nodes having a tag or a token without scanning all nodes.
+ *
+ * Nodes are indexed by url: indexing a node replaces the entry of any node previously
+ * indexed under the same url. The index must be updated each time a node is registered,
+ * removed, or when its tags or tokens are modified.
+ *
+ * All methods are synchronized on the index.
+ */
+class NodeTagsAndTokensIndex {
+
+    private final Map<String, Set<String>> tagsByNode = new HashMap<>();
+
+    private final Map<String, List<String>> tokensByNode = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> nodesByTag = new HashMap<>();
+
+    private final Map<String, Set<String>> nodesByToken = new HashMap<>();
+
+    NodeTagsAndTokensIndex() {
+    }
+
+    NodeTagsAndTokensIndex(Collection<RMNode> initialNodes) {
+        for (RMNode node : initialNodes) {
+            put(node);
+        }
+    }
+
+    /**
+     * Indexes the current tags and tokens of a node, replacing the ones previously
+     * indexed for its url.
+     */
+    synchronized void put(RMNode node) {
+        String url = node.getNodeURL();
+        if (url == null) {
+            return;
+        }
+        remove(url);
+        Set<String> tags = node.getNodeTags() != null ? new HashSet<>(node.getNodeTags()) : Collections.emptySet();
+        List<String> tokens = node.getNodeTokens() != null ? new ArrayList<>(node.getNodeTokens())
+                                                           : Collections.emptyList();
+        tagsByNode.put(url, tags);
+        tokensByNode.put(url, tokens);
+        for (String tag : tags) {
+            nodesByTag.computeIfAbsent(tag, k -> new HashSet<>()).add(url);
+        }
+        for (String token : tokens) {
+            nodesByToken.computeIfAbsent(token, k -> new HashSet<>()).add(url);
+        }
+    }
+
+    synchronized void remove(String url) {
+        Set<String> tags = tagsByNode.remove(url);
+        if (tags != null) {
+            for (String tag : tags) {
+                removeFromIndex(nodesByTag, tag, url);
+            }
+        }
+        List<String> tokens = tokensByNode.remove(url);
+        if (tokens != null) {
+            for (String token : tokens) {
+                removeFromIndex(nodesByToken, token, url);
+            }
+        }
+    }
+
+    /**
+     * @return the urls of the nodes having the given tag
+     */
+    synchronized Set<String> getNodesByTag(String tag) {
+        Set<String> urls = nodesByTag.get(tag);
+        return urls != null ? new HashSet<>(urls) : new HashSet<>();
+    }
+
+    /**
+     * @param all if true, the nodes must have all the given tags, otherwise any of them
+     * @return the urls of the nodes matching the given tags
+     */
+    synchronized Set<String> getNodesByTags(Set<String> tags, boolean all) {
+        if (tags.isEmpty()) {
+            // every node contains all the tags of an empty set, and none of its tags
+            return all ? new HashSet<>(tagsByNode.keySet()) : new HashSet<>();
+        }
+        List<Set<String>> taggedNodes = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            Set<String> urls = nodesByTag.get(tag);
+            if (urls != null) {
+                taggedNodes.add(urls);
+            } else if (all) {
+                return new HashSet<>();
+            }
+        }
+        Set<String> result = new HashSet<>();
+        if (all) {
+            // intersect starting from the smallest set of nodes
+            taggedNodes.sort(Comparator.comparingInt(Set::size));
+            result.addAll(taggedNodes.get(0));
+            for (int i = 1; i < taggedNodes.size() && !result.isEmpty(); i++) {
+                result.retainAll(taggedNodes.get(i));
+            }
+        } else {
+            for (Set<String> urls : taggedNodes) {
+                result.addAll(urls);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the urls of the nodes having the given token
+     */
+    synchronized Set<String> getNodesByToken(String token) {
+        Set<String> urls = nodesByToken.get(token);
+        return urls != null ? new HashSet<>(urls) : new HashSet<>();
+    }
+
+    /**
+     * @return the tokens of a node, or null if the node is not indexed
+     */
+    synchronized List<String> getNodeTokens(String url) {
+        List<String> tokens = tokensByNode.get(url);
+        return tokens != null ? new ArrayList<>(tokens) : null;
+    }
+
+    /**
+     * @return the tokens of all the indexed nodes, by node url
+     */
+    synchronized Map<String, List<String>> getAllNodesTokens() {
+        Map<String, List<String>> allNodesTokens = new LinkedHashMap<>(tokensByNode.size());
+        for (Map.Entry<String, List<String>> entry : tokensByNode.entrySet()) {
+            allNodesTokens.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return allNodesTokens;
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String url) {
+        Set<String> urls = index.get(key);
+        if (urls != null) {
+            urls.remove(url);
+            if (urls.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
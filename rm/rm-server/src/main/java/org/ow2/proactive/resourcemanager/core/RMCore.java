@@ -265,11 +265,16 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     private Map<String, RMNode> allNodes;
 
     /**
-     * List of nodes that are eligible for Scheduling.
+     * Inverted indexes of the tags and tokens of the nodes of {@link #allNodes}
+     */
+    private NodeTagsAndTokensIndex nodeTagsAndTokens;
+
+    /**
+     * Registry of nodes that are eligible for Scheduling.
      * It corresponds to nodes that are in the `FREE` state and not locked.
-     * Nodes which are locked are not part of this list.
+     * Nodes which are locked are not part of this registry.
      **/
-    private List<RMNode> eligibleNodes;
+    private EligibleNodesRegistry eligibleNodes;
 
     private SelectionManager selectionManager;
 
@@ -354,7 +359,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.allNodes = new ConcurrentHashMap<>();
         this.delayedNodeSourceRemovalEvents = new ConcurrentHashMap<>();
         this.delayedNodeSourceUndeploying = new ConcurrentHashMap<>();
-        this.eligibleNodes = Collections.synchronizedList(new ArrayList<RMNode>());
+        this.eligibleNodes = new EligibleNodesRegistry();
+        this.nodeTagsAndTokens = new NodeTagsAndTokensIndex();
 
         this.accountsManager = new RMAccountsManager();
         this.jmxHelper = new RMJMXHelper(this.accountsManager);
@@ -369,7 +375,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.caller = caller;
         this.monitoring = monitoring;
         this.selectionManager = manager;
-        this.eligibleNodes = freeNodesList;
+        this.eligibleNodes = new EligibleNodesRegistry(freeNodesList);
+        this.nodeTagsAndTokens = new NodeTagsAndTokensIndex(allNodes.values());
         this.dbManager = newDataBaseManager;
     }
 
@@ -691,6 +698,10 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             eligibleNodes.remove(rmnode);
         }
         this.allNodes.remove(rmnode.getNodeURL());
+        this.nodeTagsAndTokens.remove(rmnode.getNodeURL());
+        if (selectionManager != null) {
+            selectionManager.nodeRemoved(rmnode.getNodeURL());
+        }
 
         // persist node removal
         dbManager.removeNode(rmnode);
@@ -783,6 +794,10 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      */
     public BooleanWrapper registerAvailableNode(RMNode rmNode) {
         this.allNodes.put(rmNode.getNodeURL(), rmNode);
+        this.nodeTagsAndTokens.put(rmNode);
+        if (selectionManager != null) {
+            selectionManager.nodeAdded(rmNode.getNodeURL());
+        }
         return new BooleanWrapper(true);
     }
 
@@ -976,9 +991,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     public void removeNodes(int number, String nodeSourceName, boolean preemptive) {
         int numberOfRemovedNodes = 0;
 
-        // temporary list to avoid concurrent modification
-        List<RMNode> nodelList = new LinkedList<>();
-        nodelList.addAll(eligibleNodes);
+        // copy of the free nodes of the node source, to avoid concurrent modification
+        List<RMNode> nodelList = eligibleNodes.getNodesOfNodeSource(nodeSourceName);
 
         logger.debug("Free nodes size " + nodelList.size());
         for (RMNode node : nodelList) {
@@ -987,14 +1001,11 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
                 break;
             }
 
-            if (node.getNodeSource().getName().equals(nodeSourceName)) {
-                removeNode(node.getNodeURL(), preemptive);
-                numberOfRemovedNodes++;
-            }
+            removeNode(node.getNodeURL(), preemptive);
+            numberOfRemovedNodes++;
         }
 
-        nodelList.clear();
-        nodelList.addAll(allNodes.values());
+        nodelList = new LinkedList<>(allNodes.values());
         logger.debug("All nodes size " + nodelList.size());
         if (numberOfRemovedNodes < number) {
             for (RMNode node : nodelList) {
@@ -2303,7 +2314,26 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     }
 
     public List<RMNode> getFreeNodes() {
-        return eligibleNodes;
+        return eligibleNodes.getNodes();
+    }
+
+    /**
+     * Returns the nodes eligible for scheduling which can match a selection request,
+     * using the indexes of the eligible nodes instead of scanning all of them.
+     *
+     * @param nodeUrls if not null, only the eligible nodes having one of these urls are returned
+     * @param token if not null, only the eligible nodes protected by this token are returned
+     * @return the matching eligible nodes
+     */
+    public List<RMNode> getFreeNodes(Set<String> nodeUrls, String token) {
+        if (token == null) {
+            return nodeUrls != null ? eligibleNodes.getNodes(nodeUrls) : eligibleNodes.getNodes();
+        }
+        List<RMNode> nodesWithToken = eligibleNodes.getNodesWithToken(token);
+        if (nodeUrls != null) {
+            nodesWithToken.removeIf(node -> !nodeUrls.contains(node.getNodeURL()));
+        }
+        return nodesWithToken;
     }
 
     /**
@@ -2422,7 +2452,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      * {@inheritDoc}
      */
     public RMState getState() {
-        RMStateNodeUrls rmStateNodeUrls = new RMStateNodeUrls(nodesListToUrlsSet(eligibleNodes),
+        // the set of eligible node urls is an immutable snapshot, only rebuilt when the eligible nodes changed
+        RMStateNodeUrls rmStateNodeUrls = new RMStateNodeUrls(eligibleNodes.getNodeUrls(),
                                                               listAliveNodeUrls(),
                                                               nodesListToUrlsSet(allNodes.values()));
         RMState state = new RMState(rmStateNodeUrls, maximumNumberOfNodes);
@@ -3139,6 +3170,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
                 checkNodeAdminPermission(rmNode, caller);
             }
             rmNode.addToken(token);
+            eligibleNodes.refresh(rmNode);
+            nodeTagsAndTokens.put(rmNode);
 
             persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
 
@@ -3162,18 +3195,16 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
     @Override
     public Map<String, List<String>> getAllNodesTokens() throws RMException {
-        Map<String, List<String>> allNodesTokens = new LinkedHashMap<>(allNodes.size());
-        for (Map.Entry<String, RMNode> entry : allNodes.entrySet()) {
-            allNodesTokens.put(entry.getKey(), entry.getValue().getNodeTokens());
-        }
-        return allNodesTokens;
+        return nodeTagsAndTokens.getAllNodesTokens();
     }
 
     @Override
     public Map<String, List<String>> getAllEligibleNodesTokens() throws RMException {
-        Map<String, List<String>> allNodesTokens = new LinkedHashMap<>(eligibleNodes.size());
-        for (RMNode rmNode : eligibleNodes) {
-            allNodesTokens.put(rmNode.getNodeURL(), rmNode.getNodeTokens());
+        List<RMNode> eligibleNodesList = eligibleNodes.getNodes();
+        Map<String, List<String>> allNodesTokens = new LinkedHashMap<>(eligibleNodesList.size());
+        for (RMNode rmNode : eligibleNodesList) {
+            List<String> tokens = nodeTagsAndTokens.getNodeTokens(rmNode.getNodeURL());
+            allNodesTokens.put(rmNode.getNodeURL(), tokens != null ? tokens : rmNode.getNodeTokens());
         }
         return allNodesTokens;
     }
@@ -3190,32 +3221,12 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
     @Override
     public Set<String> getNodesByTag(String tag) {
-        Set<String> result = new HashSet<>();
-        for (RMNode rmNode : this.allNodes.values()) {
-            if (rmNode.getNodeTags().contains(tag)) {
-                result.add(rmNode.getNodeURL());
-            }
-        }
-        return result;
+        return nodeTagsAndTokens.getNodesByTag(tag);
     }
 
     @Override
     public Set<String> getNodesByTags(Set<String> tags, boolean all) {
-        Set<String> result = new HashSet<>();
-        for (RMNode rmNode : this.allNodes.values()) {
-            if (all) {
-                if (rmNode.getNodeTags().containsAll(tags)) {
-                    result.add(rmNode.getNodeURL());
-                }
-            } else {
-                // include node in the result if node contains any specified tag
-                // (i.e, have common elements between the ndoe tags and specified tags)
-                if (!Collections.disjoint(rmNode.getNodeTags(), tags)) {
-                    result.add(rmNode.getNodeURL());
-                }
-            }
-        }
-        return result;
+        return nodeTagsAndTokens.getNodesByTags(tags, all);
     }
 
     @Override
@@ -3231,6 +3242,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
                 checkNodeAdminPermission(rmNode, caller);
             }
             rmNode.removeToken(token);
+            eligibleNodes.refresh(rmNode);
+            nodeTagsAndTokens.put(rmNode);
 
             persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
 
@@ -3251,6 +3264,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         if (allNodes.containsKey(nodeUrl)) {
             RMNode rmNode = allNodes.get(nodeUrl);
             rmNode.setNodeTokens(nodeUrl, tokens);
+            eligibleNodes.refresh(rmNode);
+            nodeTagsAndTokens.put(rmNode);
 
             persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
 
@@ -201,6 +201,24 @@ public abstract class SelectionManager {
     public abstract boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
             ScriptResult<Boolean> scriptResult, RMNode rmnode);
 
+    /**
+     * Notifies the selection manager that a node was added to the resource manager, script
+     * results are only recorded for the nodes it was notified about.
+     *
+     * @param nodeUrl the url of the added node
+     */
+    public void nodeAdded(String nodeUrl) {
+    }
+
+    /**
+     * Notifies the selection manager that a node was removed from the resource manager,
+     * so that it can forget what it knows about this node.
+     *
+     * @param nodeUrl the url of the removed node
+     */
+    public void nodeRemoved(String nodeUrl) {
+    }
+
     public NodeSet selectNodes(Criteria criteria, Client client) {
 
         maybeSetLoggingContext(criteria);
@@ -248,7 +266,7 @@ public abstract class SelectionManager {
 
         int totalNumberOfAliveNodesRightNow = rmcore.getTotalAliveNodesNumber();
 
-        List<RMNode> freeNodes = rmcore.getFreeNodes();
+        List<RMNode> freeNodes = getCandidateFreeNodes(criteria);
         // filtering out the "free node list"
         // removing exclusion and checking permissions
         List<RMNode> filteredNodes = filterOut(freeNodes, criteria, client);
@@ -531,6 +549,23 @@ public abstract class SelectionManager {
         }
     }
 
+    /**
+     * Returns the free nodes to be filtered for the given criteria. When the request restricts
+     * the acceptable nodes or requires a node access token, only the free nodes which can match
+     * are fetched from the indexes of the core.
+     */
+    private List<RMNode> getCandidateFreeNodes(Criteria criteria) {
+        Set<String> acceptableNodesUrls = criteria.getAcceptableNodesUrls();
+        String nodeAccessToken = criteria.getNodeAccessToken();
+        if (nodeAccessToken != null && nodeAccessToken.isEmpty()) {
+            nodeAccessToken = null;
+        }
+        if (acceptableNodesUrls == null && nodeAccessToken == null) {
+            return rmcore.getFreeNodes();
+        }
+        return rmcore.getFreeNodes(acceptableNodesUrls, nodeAccessToken);
+    }
+
     /**
      * Removes exclusion nodes and nodes not accessible for the client
      */
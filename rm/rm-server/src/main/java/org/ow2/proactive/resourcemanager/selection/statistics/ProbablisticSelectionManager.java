@@ -28,13 +28,18 @@ package org.ow2.proactive.resourcemanager.selection.statistics;
 import java.io.Serializable;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
@@ -67,9 +72,20 @@ public class ProbablisticSelectionManager extends SelectionManager {
 
     private final static Logger logger = Logger.getLogger(ProbablisticSelectionManager.class);
 
+    // maximum number of (script, bindings) pairs for which the digest is kept
+    private static final int DIGEST_CACHE_SIZE = 256;
+
     // contains an information about already executed scripts
-    // script digest => node => probability
-    private HashMap<String, HashMap<String, Probability>> probabilities;
+    // script digest => node index => probability
+    private final Map<String, NodeProbabilities> probabilities = new ConcurrentHashMap<>();
+
+    // node url => index of the node in the probability tables
+    private final Map<String, Integer> nodeIndexes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextNodeIndex = new AtomicInteger();
+
+    // indexes of removed nodes, given to new nodes so that the probability tables stay compact
+    private final Queue<Integer> freeNodeIndexes = new ConcurrentLinkedQueue<>();
 
     // in order to avoid OOM when the number of scripts exceeds the limit
     // we could :
@@ -78,14 +94,27 @@ public class ProbablisticSelectionManager extends SelectionManager {
     //	  need to store the time, update it each time, then sort when removing
     //    the system will be too CPU consuming working on the limit
     // 3. Removed the oldest added script. For this we have this queue. 
-    private LinkedList<String> digestQueue = new LinkedList<>();
+    private final Queue<String> digestQueue = new ConcurrentLinkedQueue<>();
+
+    // (script, bindings) => script with replaced bindings and its digest
+    // the same script and bindings are used for all the nodes of a selection request
+    // digests of the scripts of the last selection, served without hashing its bindings again
+    private volatile SelectionDigests selectionDigests;
+
+    private final Map<DigestKey, ScriptDigest> digests = Collections.synchronizedMap(new LinkedHashMap<DigestKey, ScriptDigest>(16,
+                                                                                                                                 0.75f,
+                                                                                                                                 true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DigestKey, ScriptDigest> eldest) {
+            return size() > DIGEST_CACHE_SIZE;
+        }
+    });
 
     public ProbablisticSelectionManager() {
     }
 
     public ProbablisticSelectionManager(RMCore rmcore) {
         super(rmcore);
-        this.probabilities = new HashMap<>();
     }
 
     /**
@@ -108,21 +137,25 @@ public class ProbablisticSelectionManager extends SelectionManager {
             return nodes;
         }
 
+        // the digests and probability tables of the scripts do not depend on the node
+        ScriptDigest[] scriptDigests = new ScriptDigest[scripts.size()];
+        NodeProbabilities[] scriptProbabilities = new NodeProbabilities[scripts.size()];
+        for (int i = 0; i < scripts.size(); i++) {
+            scriptDigests[i] = getScriptDigest(new DigestKey(scripts.get(i), bindings));
+            scriptProbabilities[i] = probabilities.get(scriptDigests[i].digest);
+        }
+        selectionDigests = new SelectionDigests(bindings, scripts, scriptDigests);
+
         // finding intersection
         HashMap<RMNode, Probability> intersectionMap = new LinkedHashMap<>();
         for (RMNode rmnode : nodes) {
             boolean intersection = true;
             double intersectionProbability = 1;
-            for (SelectionScript script : scripts) {
-                SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
-                String digest = "";
-                try {
-                    digest = new String(scriptWithReplacedBindings.digest());
-                } catch (NoSuchAlgorithmException e) {
-                    logger.error(e.getMessage(), e);
-                }
-                if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                    double probability = probabilities.get(digest).get(rmnode.getNodeURL()).value();
+            int nodeIndex = getNodeIndex(rmnode);
+            for (NodeProbabilities nodeProbabilities : scriptProbabilities) {
+                Probability known = nodeProbabilities != null ? nodeProbabilities.get(nodeIndex) : null;
+                if (known != null) {
+                    double probability = known.value();
                     if (Math.abs(probability - 0) < 0.0001) {
                         intersection = false;
                         break;
@@ -168,28 +201,24 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return true if script will pass on the node
      */
     @Override
-    public synchronized boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
-        String digest = null;
-        SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
+    public boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
+        ScriptDigest scriptDigest = getScriptDigest(script, bindings);
         if (logger.isTraceEnabled()) {
-            logger.trace(rmnode.getNodeURL() + " : script with replaced bindings : " +
-                         scriptWithReplacedBindings.getId());
+            logger.trace(rmnode.getNodeURL() + " : script with replaced bindings : " + scriptDigest.script.getId());
         }
-        try {
-            digest = new String(scriptWithReplacedBindings.digest());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                Probability p = probabilities.get(digest).get(rmnode.getNodeURL());
-                String scriptType = scriptWithReplacedBindings.isDynamic() ? "dynamic" : "static";
-                if (logger.isDebugEnabled())
-                    logger.debug(rmnode.getNodeURL() + " : " + digest.hashCode() + " known " + scriptType + " script");
-                return p.value() == 1;
-            }
-        } catch (NoSuchAlgorithmException e) {
-            logger.error(e.getMessage(), e);
+
+        NodeProbabilities nodeProbabilities = probabilities.get(scriptDigest.digest);
+        Probability p = nodeProbabilities != null ? nodeProbabilities.get(getNodeIndex(rmnode)) : null;
+        if (p != null) {
+            String scriptType = scriptDigest.script.isDynamic() ? "dynamic" : "static";
+            if (logger.isDebugEnabled())
+                logger.debug(rmnode.getNodeURL() + " : " + scriptDigest.digest.hashCode() + " known " + scriptType +
+                             " script");
+            return p.value() == 1;
         }
 
         if (logger.isDebugEnabled())
-            logger.debug(rmnode.getNodeURL() + " : " + digest.hashCode() + " unknown script");
+            logger.debug(rmnode.getNodeURL() + " : " + scriptDigest.digest.hashCode() + " unknown script");
         return false;
     }
 
@@ -203,20 +232,35 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return whether node is selected
      */
     @Override
-    public synchronized boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
+    public boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
             ScriptResult<Boolean> scriptResult, RMNode rmnode) {
 
         boolean result = false;
 
-        SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
+        ScriptDigest scriptDigest = getScriptDigest(script, bindings);
+        SelectionScript scriptWithReplacedBindings = scriptDigest.script;
+        String digest = scriptDigest.digest;
 
-        try {
-            String digest = new String(scriptWithReplacedBindings.digest());
-            Probability probability = new Probability(Probability.defaultValue());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                probability = probabilities.get(digest).get(rmnode.getNodeURL());
-                assert (probability.value() >= 0 && probability.value() <= 1);
+        int nodeIndex = getNodeIndex(rmnode);
+        if (nodeIndex < 0) {
+            // the node was removed, recording its result would register it again
+            if (logger.isDebugEnabled()) {
+                logger.debug(rmnode.getNodeURL() + " : ignoring the script result of an unknown node");
+            }
+            return result;
+        }
+        NodeProbabilities nodeProbabilities = getOrCreateNodeProbabilities(digest, scriptWithReplacedBindings);
+
+        synchronized (nodeProbabilities) {
+            if (!isNodeIndex(rmnode, nodeIndex)) {
+                // the node was removed meanwhile, its index may already belong to another node
+                return result;
             }
+            Probability probability = nodeProbabilities.get(nodeIndex);
+            if (probability == null) {
+                probability = new Probability(Probability.defaultValue());
+            }
+            assert (probability.value() >= 0 && probability.value() <= 1);
 
             if (scriptResult == null || scriptResult.errorOccured() || !scriptResult.getResult()) {
                 // error during script execution or script returned false
@@ -235,41 +279,127 @@ public class ProbablisticSelectionManager extends SelectionManager {
                 }
             }
 
-            if (!probabilities.containsKey(digest)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(rmnode.getNodeURL() + " : script " + scriptWithReplacedBindings.hashCode() +
+                             ", probability " + probability);
+            }
+
+            nodeProbabilities.set(nodeIndex, probability);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives an index in the probability tables to an added node, reusing the index of a removed node if any.
+     *
+     * @param nodeUrl the url of the added node
+     */
+    @Override
+    public void nodeAdded(String nodeUrl) {
+        nodeIndexes.computeIfAbsent(nodeUrl, url -> {
+            Integer freeNodeIndex = freeNodeIndexes.poll();
+            return freeNodeIndex != null ? freeNodeIndex : nextNodeIndex.getAndIncrement();
+        });
+    }
+
+    /**
+     * Forgets the probabilities of a removed node and frees its index for the next added node.
+     *
+     * @param nodeUrl the url of the removed node
+     */
+    @Override
+    public void nodeRemoved(String nodeUrl) {
+        Integer nodeIndex = nodeIndexes.remove(nodeUrl);
+        if (nodeIndex != null) {
+            for (NodeProbabilities nodeProbabilities : probabilities.values()) {
+                nodeProbabilities.clear(nodeIndex);
+            }
+            freeNodeIndexes.offer(nodeIndex);
+        }
+    }
+
+    /**
+     * @see org.ow2.proactive.authentication.Loggable#getLogger()
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    private NodeProbabilities getOrCreateNodeProbabilities(String digest, SelectionScript scriptWithReplacedBindings) {
+        NodeProbabilities nodeProbabilities = probabilities.get(digest);
+        if (nodeProbabilities != null) {
+            return nodeProbabilities;
+        }
+
+        synchronized (digestQueue) {
+            nodeProbabilities = probabilities.get(digest);
+            if (nodeProbabilities == null) {
                 // checking if the number of selection script does not exceeded the maximum
                 if (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.getValueAsInt()) {
                     String oldest = digestQueue.poll();
-                    probabilities.remove(oldest);
+                    if (oldest != null) {
+                        probabilities.remove(oldest);
+                    }
                     if (logger.isDebugEnabled()) {
                         logger.debug("Removing the script: " + scriptWithReplacedBindings.hashCode() +
                                      " from the data base because the limit is reached");
                     }
                 }
                 // adding a new script record
-                probabilities.put(digest, new HashMap<String, Probability>());
+                nodeProbabilities = new NodeProbabilities();
+                probabilities.put(digest, nodeProbabilities);
                 logger.debug("Scripts cache size " + probabilities.size());
                 digestQueue.offer(digest);
             }
+            return nodeProbabilities;
+        }
+    }
 
-            if (logger.isDebugEnabled()) {
-                logger.debug(rmnode.getNodeURL() + " : script " + scriptWithReplacedBindings.hashCode() +
-                             ", probability " + probability);
-            }
+    private int getNodeIndex(RMNode rmnode) {
+        Integer index = nodeIndexes.get(rmnode.getNodeURL());
+        return index != null ? index : -1;
+    }
 
-            probabilities.get(digest).put(rmnode.getNodeURL().intern(), probability);
+    private boolean isNodeIndex(RMNode rmnode, int nodeIndex) {
+        Integer index = nodeIndexes.get(rmnode.getNodeURL());
+        return index != null && index == nodeIndex;
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            logger.error(e.getMessage(), e);
+    /**
+     * Returns the script with replaced bindings and its digest. The nodes of a selection are served from
+     * the digests computed by {@link #arrangeNodesForScriptExecution(List, List, Map)} for the same bindings
+     * instance, other calls hash the bindings to look them up in a small cache.
+     */
+    private ScriptDigest getScriptDigest(SelectionScript script, Map<String, Serializable> bindings) {
+        SelectionDigests selection = selectionDigests;
+        if (selection != null) {
+            ScriptDigest scriptDigest = selection.get(script, bindings);
+            if (scriptDigest != null) {
+                return scriptDigest;
+            }
         }
-
-        return result;
+        return getScriptDigest(new DigestKey(script, bindings));
     }
 
     /**
-     * @see org.ow2.proactive.authentication.Loggable#getLogger()
+     * Returns the script with replaced bindings and its digest. They are computed once for
+     * a given script and given bindings, and then served from a small cache.
      */
-    public Logger getLogger() {
-        return logger;
+    private ScriptDigest getScriptDigest(DigestKey key) {
+        ScriptDigest scriptDigest = digests.get(key);
+        if (scriptDigest == null) {
+            SelectionScript scriptWithReplacedBindings = replaceBindings(key.script, key.bindings);
+            String digest = "";
+            try {
+                digest = new String(scriptWithReplacedBindings.digest());
+            } catch (NoSuchAlgorithmException e) {
+                logger.error(e.getMessage(), e);
+            }
+            scriptDigest = new ScriptDigest(scriptWithReplacedBindings, digest);
+            digests.put(key.snapshot(), scriptDigest);
+        }
+        return scriptDigest;
     }
 
     private SelectionScript replaceBindings(SelectionScript script, Map<String, Serializable> bindings) {
@@ -313,4 +443,133 @@ public class ProbablisticSelectionManager extends SelectionManager {
         return scriptContent;
     }
 
+    /**
+     * Probabilities of a script to pass on the nodes, indexed by node index.
+     * All the accesses are synchronized on the instance, so that each script has its own lock.
+     */
+    private static final class NodeProbabilities {
+
+        private Probability[] values = new Probability[16];
+
+        synchronized Probability get(int nodeIndex) {
+            if (nodeIndex < 0 || nodeIndex >= values.length) {
+                return null;
+            }
+            return values[nodeIndex];
+        }
+
+        synchronized void set(int nodeIndex, Probability probability) {
+            if (nodeIndex >= values.length) {
+                values = Arrays.copyOf(values, Math.max(nodeIndex + 1, values.length * 2));
+            }
+            values[nodeIndex] = probability;
+        }
+
+        synchronized void clear(int nodeIndex) {
+            if (nodeIndex < values.length) {
+                values[nodeIndex] = null;
+            }
+        }
+    }
+
+    /**
+     * A selection script with its bindings replaced, and the digest of its content.
+     */
+    private static final class ScriptDigest {
+
+        private final SelectionScript script;
+
+        private final String digest;
+
+        private ScriptDigest(SelectionScript script, String digest) {
+            this.script = script;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * Digests of the scripts of one selection, looked up by reference as all the nodes of a selection are
+     * checked with the same script and bindings instances.
+     */
+    private static final class SelectionDigests {
+
+        private final Map<String, Serializable> bindings;
+
+        private final List<SelectionScript> scripts;
+
+        private final ScriptDigest[] digests;
+
+        private SelectionDigests(Map<String, Serializable> bindings, List<SelectionScript> scripts,
+                ScriptDigest[] digests) {
+            this.bindings = bindings;
+            this.scripts = scripts;
+            this.digests = digests;
+        }
+
+        private ScriptDigest get(SelectionScript script, Map<String, Serializable> bindings) {
+            if (bindings != this.bindings) {
+                return null;
+            }
+            for (int i = 0; i < digests.length; i++) {
+                if (scripts.get(i) == script) {
+                    return digests[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Key of the digests cache. Scripts are compared by reference as the same instances are used for all the
+     * nodes of a request, whereas bindings are compared by value as they can be modified between requests.
+     */
+    private static final class DigestKey {
+
+        private final SelectionScript script;
+
+        private final Map<String, Serializable> bindings;
+
+        private final int hash;
+
+        private DigestKey(SelectionScript script, Map<String, Serializable> bindings) {
+            this.script = script;
+            this.bindings = bindings;
+            this.hash = 31 * System.identityHashCode(script) + Objects.hashCode(bindings);
+        }
+
+        /**
+         * @return a key holding a copy of the bindings, so that the cache is not altered by later modifications
+         */
+        private DigestKey snapshot() {
+            if (bindings == null) {
+                return this;
+            }
+            Map<String, Serializable> copy = new HashMap<>(bindings.size());
+            for (Map.Entry<String, Serializable> entry : bindings.entrySet()) {
+                Serializable value = entry.getValue();
+                if (value instanceof Map) {
+                    value = new HashMap<Object, Object>((Map<?, ?>) value);
+                }
+                copy.put(entry.getKey(), value);
+            }
+            return new DigestKey(script, copy);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DigestKey)) {
+                return false;
+            }
+            DigestKey other = (DigestKey) o;
+            return script == other.script && hash == other.hash && Objects.equals(bindings, other.bindings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
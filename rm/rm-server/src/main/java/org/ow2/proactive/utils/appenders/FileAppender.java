@@ -26,9 +26,11 @@
 package org.ow2.proactive.utils.appenders;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.EnhancedPatternLayout;
+import org.apache.log4j.Layout;
 import org.apache.log4j.Logger;
 import org.apache.log4j.MDC;
 import org.apache.log4j.RollingFileAppender;
@@ -65,7 +67,11 @@ public abstract class FileAppender extends WriterAppender {
     abstract public void append(String cacheKey, LoggingEvent event);
 
     RollingFileAppender createAppender(String cacheKey) {
-        RollingFileAppender appender;
+        return createAppender(cacheKey, RollingFileAppender::new);
+    }
+
+    <T extends RollingFileAppender> T createAppender(String cacheKey, RollingFileAppenderFactory<T> factory) {
+        T appender;
         String fileName = cacheKey;
         if (filesLocation != null) {
             fileName = filesLocation + File.separator + fileName;
@@ -77,7 +83,7 @@ public abstract class FileAppender extends WriterAppender {
                 FileUtils.touch(file);
             }
 
-            appender = new RollingFileAppender(getLayout(), fileName, true);
+            appender = factory.create(getLayout(), fileName, true);
             appender.setMaxBackupIndex(1);
             appender.setImmediateFlush(true);
             if (maxFileSize != null) {
@@ -108,4 +114,9 @@ public abstract class FileAppender extends WriterAppender {
     public void setFilesLocation(String logsLocation) {
         this.filesLocation = logsLocation;
     }
+
+    interface RollingFileAppenderFactory<T extends RollingFileAppender> {
+
+        T create(Layout layout, String fileName, boolean append) throws IOException;
+    }
 }
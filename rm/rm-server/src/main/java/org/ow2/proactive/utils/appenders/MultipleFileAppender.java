@@ -38,13 +38,19 @@ import org.apache.log4j.spi.LoggingEvent;
  *
  * It is used in the RM to during the selection script execution.
  * If the selection is performed for several tasks it writes logs
- * to all the tasks files.
+ * to all the tasks files. Files are kept open between selections.
+ * As the task files are also written by the scheduler appenders,
+ * each event is flushed as soon as it is written.
  *
  */
-public class MultipleFileAppender extends SynchFileAppender {
+public class MultipleFileAppender extends PooledFileAppender {
 
     public static final String FILE_NAMES = "filenames";
 
+    public MultipleFileAppender() {
+        super(true);
+    }
+
     @Override
     public void append(LoggingEvent event) {
         Object value = MDC.get(FILE_NAMES);
@@ -0,0 +1,395 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils.appenders;
+
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_BUFFER_SIZE;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_IDLE_TIMEOUT;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_SIZE;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_WRITERS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.Logger;
+import org.apache.log4j.MDC;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.LoggingEvent;
+
+
+/**
+ * Asynchronous appender which keeps log files open between events.
+ * <p>
+ * Events are dispatched by file name to a few writer threads, so that all the events of a file
+ * are written in order by the same thread. Each writer keeps a bounded LRU of open files, closes
+ * files which are not written anymore, and flushes the files it wrote when its queue is empty or
+ * after a batch of events.
+ * <p>
+ * Like {@link AsynchChachedFileAppender}, {@link #flush()} and {@link #close()} apply to the file
+ * of the current log4j context when there is one. Without context, {@link #close()} stops the writers.
+ */
+public class PooledFileAppender extends FileAppender {
+
+    private static final Logger LOGGER = Logger.getLogger(PooledFileAppender.class);
+
+    /** Number of events written before open files are flushed, when events keep coming */
+    private static final int BATCH_SIZE = 512;
+
+    /** Minimum idle timeout, as writers wait for new events at most the idle timeout */
+    private static final int MINIMUM_IDLE_TIMEOUT_MILLIS = 100;
+
+    private final Writer[] writers;
+
+    /** whether each event is flushed once written, instead of files being flushed by batch */
+    private final boolean immediateFlush;
+
+    public PooledFileAppender() {
+        this(false);
+    }
+
+    /**
+     * @param immediateFlush flush each event once written, for files which are also written by other appenders
+     */
+    protected PooledFileAppender(boolean immediateFlush) {
+        super();
+        this.immediateFlush = immediateFlush;
+
+        int numberOfWriters = Math.max(1, LOG4J_ASYNC_APPENDER_POOL_WRITERS.getValueAsInt());
+        int capacity = Math.max(1, LOG4J_ASYNC_APPENDER_BUFFER_SIZE.getValueAsInt() / numberOfWriters);
+        int idleTimeout = Math.max(MINIMUM_IDLE_TIMEOUT_MILLIS, LOG4J_ASYNC_APPENDER_POOL_IDLE_TIMEOUT.getValueAsInt());
+        writers = new Writer[numberOfWriters];
+        for (int i = 0; i < numberOfWriters; i++) {
+            writers[i] = new Writer("logFileWriter-" + i,
+                                    capacity,
+                                    LOG4J_ASYNC_APPENDER_POOL_SIZE.getValueAsInt(),
+                                    TimeUnit.MILLISECONDS.toNanos(idleTimeout));
+            writers[i].start();
+        }
+    }
+
+    // non blocking unless the writer is late by a full buffer
+    @Override
+    public void append(String cacheKey, LoggingEvent event) {
+        // values computed lazily by log4j must be taken in the logging thread
+        event.getThreadName();
+        event.getNDC();
+        event.getMDCCopy();
+        event.getRenderedMessage();
+        event.getThrowableStrRep();
+
+        writerOf(cacheKey).submit(new PendingEvent(cacheKey, event, null, false));
+    }
+
+    /**
+     * Waits until events of the current log4j context are written to its file
+     */
+    public void flush() {
+        extractKey().ifPresent(key -> awaitMarker(key, false));
+    }
+
+    @Override
+    public void close() {
+        Optional<String> key = extractKey();
+        if (key.isPresent()) {
+            awaitMarker(key.get(), true);
+        } else if (!closed) {
+            for (Writer writer : writers) {
+                writer.shutdown();
+            }
+            super.close();
+        }
+    }
+
+    private Optional<String> extractKey() {
+        return Optional.ofNullable((String) MDC.get(FILE_NAME));
+    }
+
+    private void awaitMarker(String key, boolean closeFile) {
+        CountDownLatch written = new CountDownLatch(1);
+        Writer writer = writerOf(key);
+        writer.submit(new PendingEvent(key, null, written, closeFile));
+        try {
+            // the writer may be stopped by a concurrent close
+            boolean done = false;
+            while (!done) {
+                done = written.await(100, TimeUnit.MILLISECONDS) || !writer.isAlive();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for logs of " + key);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Writer writerOf(String key) {
+        return writers[Math.floorMod(key.hashCode(), writers.length)];
+    }
+
+    /**
+     * An event to write, or a marker waited by a thread once all previous events of the file are written
+     */
+    private static class PendingEvent {
+
+        private final String key;
+
+        private final LoggingEvent event;
+
+        private final CountDownLatch written;
+
+        private final boolean closeFile;
+
+        PendingEvent(String key, LoggingEvent event, CountDownLatch written, boolean closeFile) {
+            this.key = key;
+            this.event = event;
+            this.written = written;
+            this.closeFile = closeFile;
+        }
+    }
+
+    /**
+     * File appender which is flushed explicitly
+     */
+    private static class LogFile extends RollingFileAppender {
+
+        private Object fileKey;
+
+        private long lastWrite;
+
+        private boolean dirty;
+
+        LogFile(Layout layout, String fileName, boolean append) throws IOException {
+            super(layout, fileName, append);
+            fileKey = fileKey();
+        }
+
+        private Object fileKey() {
+            try {
+                return Files.readAttributes(Paths.get(getFile()), BasicFileAttributes.class).fileKey();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return false if the file was removed or replaced since it was opened,
+         * by a clean up or a roll over
+         */
+        boolean isCurrent() {
+            Object currentKey = fileKey();
+            return currentKey != null && currentKey.equals(fileKey);
+        }
+
+        void flush() {
+            if (dirty && qw != null) {
+                qw.flush();
+            }
+            dirty = false;
+        }
+
+        @Override
+        public void append(LoggingEvent event) {
+            super.append(event);
+            dirty = true;
+            lastWrite = System.nanoTime();
+        }
+
+        @Override
+        public void rollOver() {
+            super.rollOver();
+            fileKey = fileKey();
+        }
+    }
+
+    private class Writer extends Thread {
+
+        private final Queue<PendingEvent> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final int capacity;
+
+        private final long idleTimeout;
+
+        /** open files in access order, only used by this thread */
+        private final LinkedHashMap<String, LogFile> files;
+
+        /** files checked since the last flush */
+        private final Map<String, LogFile> checked = new LinkedHashMap<>();
+
+        private volatile boolean running = true;
+
+        Writer(String name, int capacity, int maximumOpenFiles, long idleTimeout) {
+            super(name);
+            setDaemon(true);
+            this.capacity = capacity;
+            this.idleTimeout = idleTimeout;
+            this.files = new LinkedHashMap<String, LogFile>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LogFile> eldest) {
+                    if (size() > maximumOpenFiles) {
+                        closeFile(eldest.getValue());
+                        checked.remove(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        void submit(PendingEvent pendingEvent) {
+            while (queued.get() >= capacity && running) {
+                LockSupport.unpark(this);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            if (!running) {
+                if (pendingEvent.written != null) {
+                    pendingEvent.written.countDown();
+                }
+                return;
+            }
+            queued.incrementAndGet();
+            queue.offer(pendingEvent);
+            LockSupport.unpark(this);
+        }
+
+        void shutdown() {
+            running = false;
+            LockSupport.unpark(this);
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            int written = 0;
+            while (running || !queue.isEmpty()) {
+                PendingEvent pendingEvent = queue.poll();
+                if (pendingEvent == null) {
+                    flushFiles();
+                    written = 0;
+                    closeIdleFiles();
+                    LockSupport.parkNanos(this, idleTimeout);
+                    continue;
+                }
+                queued.decrementAndGet();
+                try {
+                    if (pendingEvent.event != null) {
+                        write(pendingEvent);
+                        if (++written >= BATCH_SIZE) {
+                            flushFiles();
+                            written = 0;
+                        }
+                    } else {
+                        applyMarker(pendingEvent);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not write logs to " + pendingEvent.key, e);
+                }
+            }
+            flushFiles();
+            for (LogFile file : files.values()) {
+                file.close();
+            }
+            files.clear();
+        }
+
+        private void write(PendingEvent pendingEvent) {
+            LogFile file = checked.get(pendingEvent.key);
+            if (file == null) {
+                file = files.get(pendingEvent.key);
+                if (file != null && !file.isCurrent()) {
+                    files.remove(pendingEvent.key);
+                    closeFile(file);
+                    file = null;
+                }
+                if (file == null) {
+                    file = createAppender(pendingEvent.key, LogFile::new);
+                    if (file == null) {
+                        return;
+                    }
+                    file.setImmediateFlush(immediateFlush);
+                    files.put(pendingEvent.key, file);
+                }
+                checked.put(pendingEvent.key, file);
+            } else {
+                // keeps the access order of the LRU
+                files.get(pendingEvent.key);
+            }
+            file.append(pendingEvent.event);
+        }
+
+        private void applyMarker(PendingEvent marker) {
+            LogFile file = marker.closeFile ? files.remove(marker.key) : files.get(marker.key);
+            if (file != null) {
+                if (marker.closeFile) {
+                    checked.remove(marker.key);
+                    closeFile(file);
+                } else {
+                    file.flush();
+                }
+            }
+            marker.written.countDown();
+        }
+
+        private void flushFiles() {
+            for (LogFile file : checked.values()) {
+                file.flush();
+            }
+            checked.clear();
+        }
+
+        private void closeIdleFiles() {
+            long now = System.nanoTime();
+            Iterator<LogFile> iterator = files.values().iterator();
+            while (iterator.hasNext()) {
+                LogFile file = iterator.next();
+                if (now - file.lastWrite > idleTimeout) {
+                    closeFile(file);
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void closeFile(LogFile file) {
+            file.flush();
+            file.close();
+        }
+    }
+}
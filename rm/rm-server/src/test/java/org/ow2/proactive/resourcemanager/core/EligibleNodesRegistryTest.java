@@ -0,0 +1,120 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+
+public class EligibleNodesRegistryTest {
+
+    @Test
+    public void testAddAndRemoveKeepInsertionOrder() {
+        RMNode node1 = createNode("node1", "ns", "host1");
+        RMNode node2 = createNode("node2", "ns", "host1");
+        RMNode node3 = createNode("node3", "ns", "host2");
+
+        EligibleNodesRegistry registry = new EligibleNodesRegistry(Lists.newArrayList(node1, node2, node3));
+
+        assertThat(registry.add(node2)).isFalse();
+        assertThat(registry.getNodes()).containsExactly(node1, node2, node3).inOrder();
+
+        assertThat(registry.remove(node2)).isTrue();
+        assertThat(registry.remove(node2)).isFalse();
+        assertThat(registry.contains(node2)).isFalse();
+        assertThat(registry.getNodes()).containsExactly(node1, node3).inOrder();
+        assertThat(registry.getNodesOfNodeSource("ns")).containsExactly(node1, node3).inOrder();
+        assertThat(registry.getNodes(ImmutableSet.of("node3", "node2"))).containsExactly(node3);
+    }
+
+    @Test
+    public void testRefreshUpdatesTokenIndex() {
+        RMNode node = createNode("node1", "ns", "host1");
+        when(node.getNodeTokens()).thenReturn(ImmutableList.of("token1"));
+
+        EligibleNodesRegistry registry = new EligibleNodesRegistry();
+        registry.add(node);
+        assertThat(registry.getNodesWithToken("token1")).containsExactly(node);
+
+        when(node.getNodeTokens()).thenReturn(ImmutableList.of("token2"));
+        registry.refresh(node);
+
+        assertThat(registry.getNodesWithToken("token1")).isEmpty();
+        assertThat(registry.getNodesWithToken("token2")).containsExactly(node);
+    }
+
+    @Test
+    public void testNodeUrlsSnapshotIsReusedUntilModification() {
+        RMNode node1 = createNode("node1", "ns", "host1");
+        RMNode node2 = createNode("node2", "ns", "host1");
+
+        EligibleNodesRegistry registry = new EligibleNodesRegistry(Collections.singletonList(node1));
+
+        Set<String> urls = registry.getNodeUrls();
+        assertThat(urls).containsExactly("node1");
+        assertThat(registry.getNodeUrls()).isSameAs(urls);
+
+        long version = registry.getVersion();
+        registry.add(node2);
+        assertThat(registry.getVersion()).isGreaterThan(version);
+
+        Set<String> newUrls = registry.getNodeUrls();
+        assertThat(newUrls).isNotSameAs(urls);
+        assertThat(newUrls).containsExactly("node1", "node2").inOrder();
+        assertThat(urls).containsExactly("node1");
+    }
+
+    @Test
+    public void testReturnedNodesAreCopies() {
+        RMNode node = createNode("node1", "ns", "host1");
+        EligibleNodesRegistry registry = new EligibleNodesRegistry(Collections.singletonList(node));
+
+        List<RMNode> nodes = registry.getNodes();
+        nodes.clear();
+
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    private static RMNode createNode(String url, String nodeSourceName, String hostName) {
+        RMNode node = mock(RMNode.class);
+        when(node.getNodeURL()).thenReturn(url);
+        when(node.getNodeSourceName()).thenReturn(nodeSourceName);
+        when(node.getHostName()).thenReturn(hostName);
+        return node;
+    }
+}
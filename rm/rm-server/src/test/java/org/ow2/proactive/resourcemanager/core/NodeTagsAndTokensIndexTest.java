@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+
+public class NodeTagsAndTokensIndexTest {
+
+    private RMNode node1;
+
+    private RMNode node2;
+
+    private RMNode node3;
+
+    private NodeTagsAndTokensIndex index;
+
+    @Before
+    public void setUp() {
+        node1 = createNode("node1", ImmutableSet.of("linux", "gpu"), ImmutableList.of("token1"));
+        node2 = createNode("node2", ImmutableSet.of("linux"), ImmutableList.of("token1", "token2"));
+        node3 = createNode("node3", ImmutableSet.of("windows", "gpu"), Collections.<String> emptyList());
+        index = new NodeTagsAndTokensIndex(Lists.newArrayList(node1, node2, node3));
+    }
+
+    @Test
+    public void testGetNodesByTag() {
+        assertThat(index.getNodesByTag("linux")).containsExactly("node1", "node2");
+        assertThat(index.getNodesByTag("unknown")).isEmpty();
+    }
+
+    @Test
+    public void testGetNodesByTags() {
+        Set<String> tags = ImmutableSet.of("linux", "gpu");
+        assertThat(index.getNodesByTags(tags, true)).containsExactly("node1");
+        assertThat(index.getNodesByTags(tags, false)).containsExactly("node1", "node2", "node3");
+        assertThat(index.getNodesByTags(ImmutableSet.of("linux", "unknown"), true)).isEmpty();
+        assertThat(index.getNodesByTags(ImmutableSet.of("windows", "unknown"), false)).containsExactly("node3");
+        assertThat(index.getNodesByTags(Collections.<String> emptySet(), true)).containsExactly("node1",
+                                                                                              "node2",
+                                                                                              "node3");
+        assertThat(index.getNodesByTags(Collections.<String> emptySet(), false)).isEmpty();
+    }
+
+    @Test
+    public void testTokensAreReindexed() {
+        assertThat(index.getNodesByToken("token1")).containsExactly("node1", "node2");
+
+        when(node2.getNodeTokens()).thenReturn(ImmutableList.of("token3"));
+        index.put(node2);
+
+        assertThat(index.getNodesByToken("token1")).containsExactly("node1");
+        assertThat(index.getNodesByToken("token2")).isEmpty();
+        assertThat(index.getNodeTokens("node2")).containsExactly("token3");
+        assertThat(index.getAllNodesTokens().keySet()).containsExactly("node1", "node2", "node3");
+    }
+
+    @Test
+    public void testRemovedNodeIsUnindexed() {
+        index.remove("node1");
+
+        assertThat(index.getNodesByTag("gpu")).containsExactly("node3");
+        assertThat(index.getNodesByToken("token1")).containsExactly("node2");
+        assertThat(index.getNodeTokens("node1")).isNull();
+        assertThat(index.getAllNodesTokens()).doesNotContainKey("node1");
+    }
+
+    private static RMNode createNode(String url, Set<String> tags, List<String> tokens) {
+        RMNode node = mock(RMNode.class);
+        when(node.getNodeURL()).thenReturn(url);
+        when(node.getNodeTags()).thenReturn(tags);
+        when(node.getNodeTokens()).thenReturn(tokens);
+        return node;
+    }
+}
@@ -634,7 +634,7 @@ public class RMCoreTest {
         assertThat(lockResult.getBooleanValue()).isTrue();
         assertThat(rmNode.getState()).isEqualTo(nodeState);
         assertThat(rmNode.isLocked()).isTrue();
-        assertThat(freeNodes).isEmpty();
+        assertThat(rmCore.getFreeNodes()).isEmpty();
     }
 
     @Test
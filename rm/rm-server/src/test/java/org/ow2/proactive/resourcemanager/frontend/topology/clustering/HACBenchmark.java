@@ -0,0 +1,113 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.frontend.topology.clustering;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.proactive.core.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.ow2.proactive.topology.descriptor.BestProximityDescriptor;
+
+
+/**
+ * Measures the selection of nodes by {@link HAC} on the host grids of {@link MatrixBasedTests},
+ * with and without pivot. Grids are randomly generated with the density of the reasonable time tests.
+ *
+ * Run with the test classpath:
+ * {@code java org.ow2.proactive.resourcemanager.frontend.topology.clustering.HACBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HACBenchmark {
+
+    @Param({ "20", "30" })
+    public int gridSize;
+
+    private List<Node> nodes;
+
+    private List<Node> pivot;
+
+    private int number;
+
+    @Setup
+    public void setUp() {
+        String map = createGrid(gridSize, 0.30, new Random(42));
+        // one node of the first host as pivot
+        StringBuilder pivotMap = new StringBuilder(map.replaceAll("[1-9]", "0"));
+        pivotMap.setCharAt(pivotMap.indexOf("0"), '1');
+
+        pivot = MatrixBasedTests.initDistances(gridSize, gridSize, map, pivotMap.toString());
+        nodes = new LinkedList<>(MatrixBasedTests.distances.keySet());
+        number = nodes.size() / 10;
+    }
+
+    @Benchmark
+    public List<Node> selectWithoutPivot() {
+        HAC hac = new HAC(new MatrixBasedTests.LocalTopology(), null, BestProximityDescriptor.AVG, 99999);
+        return hac.select(number, new LinkedList<>(nodes));
+    }
+
+    @Benchmark
+    public List<Node> selectWithPivot() {
+        HAC hac = new HAC(new MatrixBasedTests.LocalTopology(), pivot, BestProximityDescriptor.AVG, 99999);
+        return hac.select(number, new LinkedList<>(nodes));
+    }
+
+    /**
+     * Builds a square grid description where each place holds a host of 1 to 9 nodes with the given density.
+     */
+    static String createGrid(int size, double density, Random random) {
+        StringBuilder grid = new StringBuilder();
+        for (int i = 0; i < size * size; i++) {
+            grid.append(random.nextDouble() < density ? (char) ('1' + random.nextInt(9)) : '.');
+        }
+        return grid.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HACBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -60,7 +60,7 @@ public class MatrixBasedTests {
 
     protected static int gridHeight;
 
-    private class LocalTopology implements Topology {
+    static class LocalTopology implements Topology {
 
         private static final long serialVersionUID = 32L;
 
@@ -26,6 +26,9 @@
 package org.ow2.proactive.resourcemanager.selection.statistics;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
@@ -305,6 +308,66 @@ public class ProbabilisticSelectionManagerTest {
         Assert.assertFalse(selectionManager.isPassed(script, bindings, freeNodes.get(0)));
     }
 
+    @Test
+    public void testBindingsAreReplacedOncePerScriptAndBindings() throws Exception {
+        int nbNodes = 10;
+        SelectionScript script = spy(new SelectionScript("variables.get(\"TOTO\")", "groovy", false));
+        ManagerObjects managerObjects = new ManagerObjects(nbNodes).invoke();
+        SelectionManager selectionManager = managerObjects.getSelectionManager();
+        ArrayList<RMNode> freeNodes = managerObjects.getFreeNodes();
+
+        Map<String, Serializable> bindings = new HashMap<>();
+        Map<String, Serializable> variablesBindings = new HashMap<>();
+        variablesBindings.put("TOTO", "value");
+        bindings.put("variables", (Serializable) variablesBindings);
+
+        for (RMNode node : freeNodes) {
+            selectionManager.processScriptResult(script, bindings, new ScriptResult<>(true), node);
+        }
+        List<RMNode> arrangedNodes = selectionManager.arrangeNodesForScriptExecution(freeNodes,
+                                                                                     Collections.singletonList(script),
+                                                                                     bindings);
+        for (RMNode node : arrangedNodes) {
+            Assert.assertTrue(selectionManager.isPassed(script, bindings, node));
+        }
+        verify(script, times(1)).fetchScript();
+
+        // modified bindings lead to a different script in the next selection
+        variablesBindings.put("TOTO", "differentValue");
+        selectionManager.arrangeNodesForScriptExecution(freeNodes, Collections.singletonList(script), bindings);
+        Assert.assertFalse(selectionManager.isPassed(script, bindings, freeNodes.get(0)));
+        verify(script, times(2)).fetchScript();
+    }
+
+    @Test
+    public void testIndexOfRemovedNodeIsReusedWithoutItsProbabilities() throws Exception {
+        int nbNodes = 1;
+        SelectionScript script = new SelectionScript("test", "groovy", false);
+        ManagerObjects managerObjects = new ManagerObjects(nbNodes).invoke();
+        SelectionManager selectionManager = managerObjects.getSelectionManager();
+        RMNode removedNode = managerObjects.getFreeNodes().get(0);
+        RMNode addedNode = SelectionManagerTest.createMockedNode("user", "mocked-node-3", "mocked-node-3");
+
+        selectionManager.processScriptResult(script, Collections.EMPTY_MAP, new ScriptResult<>(true), removedNode);
+        Assert.assertTrue(selectionManager.isPassed(script, Collections.EMPTY_MAP, removedNode));
+
+        selectionManager.nodeRemoved(removedNode.getNodeURL());
+        Assert.assertFalse(selectionManager.isPassed(script, Collections.EMPTY_MAP, removedNode));
+
+        // a result arriving after the removal does not register the node again
+        selectionManager.processScriptResult(script, Collections.EMPTY_MAP, new ScriptResult<>(true), removedNode);
+        Assert.assertFalse(selectionManager.isPassed(script, Collections.EMPTY_MAP, removedNode));
+        selectionManager.nodeAdded(addedNode.getNodeURL());
+
+        // the added node takes the index of the removed node, but not its script results
+        SelectionScript otherScript = new SelectionScript("other", "groovy", false);
+        selectionManager.processScriptResult(otherScript, Collections.EMPTY_MAP, new ScriptResult<>(true), addedNode);
+        Assert.assertFalse(selectionManager.isPassed(script, Collections.EMPTY_MAP, addedNode));
+        selectionManager.processScriptResult(script, Collections.EMPTY_MAP, new ScriptResult<>(true), addedNode);
+        Assert.assertTrue(selectionManager.isPassed(script, Collections.EMPTY_MAP, addedNode));
+        Assert.assertFalse(selectionManager.isPassed(script, Collections.EMPTY_MAP, removedNode));
+    }
+
     private class ManagerObjects {
         private int nbNodes;
 
@@ -336,6 +399,9 @@ public class ProbabilisticSelectionManagerTest {
             when(rmCore.getFreeNodes()).thenReturn(freeNodes);
 
             selectionManager = new ProbablisticSelectionManager(rmCore);
+            for (RMNode node : freeNodes) {
+                selectionManager.nodeAdded(node.getNodeURL());
+            }
 
             return this;
         }
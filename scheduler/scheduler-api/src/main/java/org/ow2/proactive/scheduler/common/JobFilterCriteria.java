@@ -43,13 +43,25 @@ public class JobFilterCriteria implements Serializable {
 
     private final boolean childJobs;
 
+    private final String afterJobId;
+
     public JobFilterCriteria(boolean myJobsOnly, boolean pending, boolean running, boolean finished,
             boolean childJobs) {
+        this(myJobsOnly, pending, running, finished, childJobs, null);
+    }
+
+    /**
+     * @param afterJobId id of the last job of the previous page. When set, the requested page starts right after
+     *                   this job in the requested sort order and the offset is ignored.
+     */
+    public JobFilterCriteria(boolean myJobsOnly, boolean pending, boolean running, boolean finished,
+            boolean childJobs, String afterJobId) {
         this.myJobsOnly = myJobsOnly;
         this.pending = pending;
         this.running = running;
         this.finished = finished;
         this.childJobs = childJobs;
+        this.afterJobId = afterJobId;
     }
 
     public boolean isMyJobsOnly() {
@@ -71,4 +83,8 @@ public class JobFilterCriteria implements Serializable {
     public boolean isChildJobs() {
         return childJobs;
     }
+
+    public String getAfterJobId() {
+        return afterJobId;
+    }
 }
@@ -1447,6 +1447,66 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     String getTaskServerLogs(String id, String taskName)
             throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException;
 
+    /**
+     * Retrieves a range of the server logs of a job with the given id, without
+     * transferring the whole logs. Only the job owner of admin if the scheduler
+     * can request these logs.
+     *
+     * The logs are addressed as the document returned by
+     * {@link #getJobServerLogs(String)}, with tasks logs ordered by task id.
+     * The length of the returned chunk is limited by the scheduler, consecutive
+     * calls must be made to read larger ranges. The layout of the logs is kept for a
+     * few seconds so that consecutive calls read the same document while the job
+     * runs, a different total size reports that the logs changed in between.
+     *
+     * @param id
+     *            of the job for which logs are requested
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the requested range of the job's logs
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException;
+
+    /**
+     * Retrieves a range of the server logs of a task, without transferring the
+     * whole logs. Only the job owner of admin if the scheduler can request
+     * these logs.
+     *
+     * @param id
+     *            of the job where the task is.
+     * @param taskName
+     *            the name of the task.
+     * @param offset
+     *            position of the first byte to read, or if negative, number of
+     *            bytes to read from the end of the logs
+     * @param length
+     *            maximum number of bytes to read
+     *
+     * @return the requested range of the task's logs
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws UnknownTaskException
+     *             if this task does not exist in the job.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     * @see #getJobServerLogs(String, long, int)
+     */
+    ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException;
+
     /**
      * Retrieves server logs for a set of tasks filtered by the given tag. Only
      * the job owner of admin if the scheduler can request these logs.
@@ -1483,7 +1543,9 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
      *            does not have permissions to do it (namely
      *            HandleOnlyMyJobsPermission(true)) user will get his own jobs
      *            instead of a PermissionException. This behavior should
-     *            simplify the client design.
+     *            simplify the client design. When the criteria contain the id
+     *            of the last job of the previous page, the offset is ignored
+     *            and the page starts right after this job.
      *
      * @param sortParameters
      *            defines in how jobs must be sorted
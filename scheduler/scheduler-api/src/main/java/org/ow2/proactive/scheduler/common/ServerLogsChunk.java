@@ -0,0 +1,98 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+
+
+/**
+ * A contiguous range of bytes of the server logs of a job or a task.
+ * <p>
+ * The server logs of a job are addressed as a single document made of the job log followed by the
+ * logs of its tasks, as returned by {@link Scheduler#getJobServerLogs(String)}. A chunk carries the
+ * bytes read from that document, the offset at which they start and the size of the whole document
+ * when the chunk was read, so that a client can request the following range or only the end of the logs.
+ * <p>
+ * The scheduler keeps the layout of the document for a few seconds, so that consecutive chunks fit together
+ * even for a running job. A total size different from the one of the previous chunk means that the layout was
+ * rebuilt with new logs in between and that the offsets of the previous chunk may not apply anymore.
+ */
+public class ServerLogsChunk implements Serializable {
+
+    private final byte[] content;
+
+    private final long offset;
+
+    private final long totalSize;
+
+    public ServerLogsChunk(byte[] content, long offset, long totalSize) {
+        this.content = content;
+        this.offset = offset;
+        this.totalSize = totalSize;
+    }
+
+    /**
+     * @return the bytes of this chunk, empty if the requested range is beyond the end of the logs
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the offset of the first byte of this chunk in the logs
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of bytes in this chunk
+     */
+    public int getLength() {
+        return content.length;
+    }
+
+    /**
+     * @return the size of the logs when this chunk was read
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return true if no byte of the logs follows this chunk
+     */
+    public boolean isLast() {
+        return offset + content.length >= totalSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerLogsChunk{" + "offset=" + offset + ", length=" + content.length + ", totalSize=" + totalSize +
+               '}';
+    }
+
+}
@@ -25,13 +25,15 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EmptyStackException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -136,6 +138,11 @@ public class FlowChecker {
      */
     private List<TaskTree> tasksFlat;
 
+    /**
+     * the tasks of the job in a double-linked tree structure, indexed by name
+     */
+    private Map<String, TaskTree> tasksByName;
+
     /**
      * Constructor
      * 
@@ -233,37 +240,51 @@ public class FlowChecker {
      * @throws FlowError
      */
     private void checkRecursion() throws FlowError {
-        for (TaskTree tree : this.roots) {
-            LinkedList<TaskTree> env = new LinkedList<>();
-            internalCheckRecursion(env, tree);
-        }
-    }
-
-    private void internalCheckRecursion(LinkedList<TaskTree> env, TaskTree cur) throws FlowError {
-
-        for (TaskTree t : env) {
-            if (t.equals(cur)) {
-                throw new FlowError("Infinite recursion detected", FlowErrorType.RECURSION, t.element.getName());
-            }
-        }
-        env.addFirst(cur);
-
-        if (cur.children != null && cur.children.size() > 0) {
-            for (TaskTree child : cur.children) {
-                LinkedList<TaskTree> n = new LinkedList<>(env);
-                internalCheckRecursion(n, child);
+        // depth first search over the dependencies and IF/ELSE/JOIN links: a task met again while its
+        // descendants are being explored closes a cycle, a fully explored task needs no second visit
+        Set<TaskTree> explored = new HashSet<>();
+        Set<TaskTree> onPath = new HashSet<>();
+        for (TaskTree root : this.roots) {
+            if (explored.contains(root)) {
+                continue;
             }
-        }
-        if (cur.targets != null && cur.targets.size() > 0) {
-            for (TaskTree child : cur.targets) {
-                LinkedList<TaskTree> n = new LinkedList<>(env);
-                internalCheckRecursion(n, child);
+            Deque<TaskTree> path = new ArrayDeque<>();
+            Deque<Iterator<TaskTree>> successors = new ArrayDeque<>();
+            path.push(root);
+            onPath.add(root);
+            successors.push(successors(root).iterator());
+            while (!path.isEmpty()) {
+                Iterator<TaskTree> it = successors.peek();
+                if (it.hasNext()) {
+                    TaskTree next = it.next();
+                    if (onPath.contains(next)) {
+                        throw new FlowError("Infinite recursion detected",
+                                            FlowErrorType.RECURSION,
+                                            next.element.getName());
+                    }
+                    if (explored.add(next)) {
+                        path.push(next);
+                        onPath.add(next);
+                        successors.push(successors(next).iterator());
+                    }
+                } else {
+                    TaskTree done = path.pop();
+                    successors.pop();
+                    onPath.remove(done);
+                    explored.add(done);
+                }
             }
         }
+    }
+
+    private static List<TaskTree> successors(TaskTree cur) {
+        List<TaskTree> successors = new ArrayList<>(cur.children.size() + cur.targets.size() + 1);
+        successors.addAll(cur.children);
+        successors.addAll(cur.targets);
         if (cur.joinedBy != null) {
-            LinkedList<TaskTree> n = new LinkedList<>(env);
-            internalCheckRecursion(n, cur.joinedBy);
+            successors.add(cur.joinedBy);
         }
+        return successors;
     }
 
     /**
@@ -273,28 +294,31 @@ public class FlowChecker {
      * @return FlowError
      */
     private void checkReachable() throws FlowError {
-        HashSet<Task> tasks = new HashSet<>();
-        HashSet<Task> reached = new HashSet<>();
+        // a task is reached once all its dependencies are reached
+        Map<Task, Integer> unreachedDependencies = new HashMap<>();
+        Map<Task, List<Task>> dependents = new HashMap<>();
+        Deque<Task> reachedToPropagate = new ArrayDeque<>();
+        Set<Task> reached = new HashSet<>();
         for (Task t : job.getTasks()) {
-            if (t.getDependencesList() == null) {
+            List<Task> dependencies = t.getDependencesList();
+            if (dependencies == null) {
                 reached.add(t);
+                reachedToPropagate.add(t);
             } else {
-                tasks.add(t);
+                unreachedDependencies.put(t, dependencies.size());
+                for (Task dependency : dependencies) {
+                    dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(t);
+                }
             }
         }
-        boolean change;
-        do {
-            change = false;
-            Iterator<Task> it = tasks.iterator();
-            while (it.hasNext()) {
-                Task t = it.next();
-                if (reached.containsAll(t.getDependencesList())) {
-                    it.remove();
-                    reached.add(t);
-                    change = true;
+        while (!reachedToPropagate.isEmpty()) {
+            Task t = reachedToPropagate.poll();
+            for (Task dependent : dependents.getOrDefault(t, Collections.emptyList())) {
+                if (unreachedDependencies.merge(dependent, -1, Integer::sum) == 0 && reached.add(dependent)) {
+                    reachedToPropagate.add(dependent);
                 }
             }
-        } while (change);
+        }
         if (reached.size() != job.getTasks().size()) {
             for (Task t : job.getTasks()) {
                 if (!reached.contains(t)) {
@@ -326,8 +350,8 @@ public class FlowChecker {
 
         // check blocks
         for (Block b : blocks) {
-            checkBlockDown(b.end, b.start);
-            checkBlockUp(b.start, b.end);
+            checkBlockDown(b.end, b.start, new HashSet<>());
+            checkBlockUp(b.start, b.end, new HashSet<>());
         }
     }
 
@@ -523,6 +547,7 @@ public class FlowChecker {
             tasksFlat.add(t);
         }
 
+        this.tasksByName = tasks;
         this.roots = roots;
     }
 
@@ -532,9 +557,13 @@ public class FlowChecker {
      * 
      * @param endBlock task at the end of the block
      * @param node the current node
+     * @param checked nodes already checked for this block, the result does not depend on the path
      * @throws FlowError
      */
-    private static void checkBlockDown(TaskTree endBlock, TaskTree node) throws FlowError {
+    private static void checkBlockDown(TaskTree endBlock, TaskTree node, Set<TaskTree> checked) throws FlowError {
+        if (!checked.add(node)) {
+            return;
+        }
         List<TaskTree> children = new ArrayList<>();
         children.addAll(node.children);
 
@@ -552,7 +581,7 @@ public class FlowChecker {
         } else {
             for (TaskTree child : children) {
                 if (child != null) {
-                    checkBlockDown(endBlock, child);
+                    checkBlockDown(endBlock, child, checked);
                 }
             }
         }
@@ -564,9 +593,13 @@ public class FlowChecker {
      * 
      * @param startBlock task at the beginning of the block
      * @param node the current node
+     * @param checked nodes already checked for this block, the result does not depend on the path
      * @throws FlowError
      */
-    private static void checkBlockUp(TaskTree startBlock, TaskTree node) throws FlowError {
+    private static void checkBlockUp(TaskTree startBlock, TaskTree node, Set<TaskTree> checked) throws FlowError {
+        if (!checked.add(node)) {
+            return;
+        }
         List<TaskTree> parents = new ArrayList<>();
         parents.addAll(node.parents);
 
@@ -584,7 +617,7 @@ public class FlowChecker {
         } else {
             for (TaskTree parent : parents) {
                 if (parent != null) {
-                    checkBlockUp(startBlock, parent);
+                    checkBlockUp(startBlock, parent, checked);
                 }
             }
         }
@@ -597,12 +630,21 @@ public class FlowChecker {
      * @return the corresponding TaskTree, or null
      */
     private TaskTree findTask(String task) {
-        for (TaskTree tree : this.tasksFlat) {
-            if (tree.element.getName().equals(task)) {
-                return tree;
-            }
+        return task == null ? null : this.tasksByName.get(task);
+    }
+
+    /**
+     * Index the detected blocks by the name of their start task; when several blocks start
+     * with the same task, the last detected one is kept
+     *
+     * @return the blocks indexed by start task name
+     */
+    private Map<String, Block> blocksByStart() {
+        Map<String, Block> blocksByStart = new HashMap<>();
+        for (Block b : this.blocks) {
+            blocksByStart.put(b.start.element.getName(), b);
         }
-        return null;
+        return blocksByStart;
     }
 
     /**
@@ -612,6 +654,7 @@ public class FlowChecker {
      * @throws FlowError
      */
     private void checkReplicate() throws FlowError {
+        Map<String, Block> blocksByStart = blocksByStart();
         for (TaskTree tree : tasksFlat) {
             if (tree.element.getFlowScript() != null &&
                 tree.element.getFlowScript().getActionType().equals(FlowActionType.REPLICATE.toString())) {
@@ -627,12 +670,7 @@ public class FlowChecker {
                                             FlowErrorType.REPLICATE,
                                             child.element.getName());
                     }
-                    Block block = null;
-                    for (Block b : this.blocks) {
-                        if (b.start.element.getName().equals(child.element.getName())) {
-                            block = b;
-                        }
-                    }
+                    Block block = blocksByStart.get(child.element.getName());
                     TaskTree endBlock = null;
                     if (block != null) {
                         endBlock = block.end;
@@ -666,6 +704,7 @@ public class FlowChecker {
      * @throws FlowError
      */
     private void checkIf() throws FlowError {
+        Map<String, Block> blocksByStart = blocksByStart();
         for (TaskTree tree : tasksFlat) {
             if (tree.element.getFlowScript() != null &&
                 tree.element.getFlowScript().getActionType().equals(FlowActionType.IF.toString())) {
@@ -721,12 +760,13 @@ public class FlowChecker {
                             }
                         }
 
+                        Set<TaskTree> checked = new HashSet<>();
                         for (TaskTree t : ifTasks.values()) {
                             if (t.element.getName().equals(target.element.getName())) {
                                 continue;
                             }
                             try {
-                                checkBlockUp(target, t);
+                                checkBlockUp(target, t, checked);
                             } catch (FlowError e) {
                                 throw new FlowError("IF block at " + target.element.getName() +
                                                     " has external dependencies", FlowErrorType.IF, e.getTask());
@@ -737,18 +777,9 @@ public class FlowChecker {
                 }
                 // join : IF and ELSE are blocks
                 else {
-                    Block ifBlock = null;
-                    Block elseBlock = null;
-
                     // detect blocks
-                    for (Block b : this.blocks) {
-                        if (b.start.element.getName().equals(targetIf.element.getName())) {
-                            ifBlock = b;
-                        }
-                        if (b.start.element.getName().equals(targetElse.element.getName())) {
-                            elseBlock = b;
-                        }
-                    }
+                    Block ifBlock = blocksByStart.get(targetIf.element.getName());
+                    Block elseBlock = blocksByStart.get(targetElse.element.getName());
 
                     // if is a block or a single task
                     if (ifBlock == null) {
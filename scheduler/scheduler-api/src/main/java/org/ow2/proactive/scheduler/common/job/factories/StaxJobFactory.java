@@ -37,6 +37,10 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -53,8 +57,10 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.XMLEvent;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector;
 import org.ow2.proactive.scheduler.common.Scheduler;
@@ -85,7 +91,6 @@ import org.ow2.proactive.scheduler.common.task.dataspaces.OutputAccessMode;
 import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.common.task.flow.FlowBlock;
 import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
-import org.ow2.proactive.scheduler.common.util.Object2ByteConverter;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.task.SchedulerVars;
 import org.ow2.proactive.scripting.ForkEnvironmentScript;
@@ -115,7 +120,8 @@ public class StaxJobFactory extends JobFactory {
 
     public static final String MSG_UNABLE_TO_INSTANCIATE_JOB_VALIDATION_FACTORIES = "Unable to instanciate job validation factories";
 
-    private static final Map<String, Job> jobCache = Collections.synchronizedMap(new LRUMap<>(PASchedulerProperties.SCHEDULER_STAX_JOB_CACHE.getValueAsInt()));
+    /** Parsed jobs, kept serialized so that each caller gets its own copy of the job */
+    private static final Map<String, byte[]> jobCache = Collections.synchronizedMap(new LRUMap<>(PASchedulerProperties.SCHEDULER_STAX_JOB_CACHE.getValueAsInt()));
 
     private static final Map<String, JobCreationException> validationCache = Collections.synchronizedMap(new LRUMap<>(PASchedulerProperties.SCHEDULER_STAX_JOB_CACHE.getValueAsInt()));
 
@@ -260,36 +266,37 @@ public class StaxJobFactory extends JobFactory {
             Map<String, String> replacementGenericInfos, Scheduler scheduler, SchedulerSpaceInterface space)
             throws JobCreationException, IOException, XMLStreamException {
         long t0 = System.currentTimeMillis();
-        byte[] bytes = ValidationUtil.getInputStreamBytes(jobInputStream);
-        String md5Job = DigestUtils.md5Hex(bytes);
-        String md5Variables = DigestUtils.md5Hex(Object2ByteConverter.convertObject2Byte(replacementVariables));
-        String md5GenericInfo = DigestUtils.md5Hex(Object2ByteConverter.convertObject2Byte(replacementGenericInfos));
-        String md5GlobalVariables = DigestUtils.md5Hex(Object2ByteConverter.convertObject2Byte(getConfiguredGlobalJobVariables()));
-        String md5GlobalGenericInfo = DigestUtils.md5Hex(Object2ByteConverter.convertObject2Byte(getConfiguredGlobalGenericInfo()));
-        String md5 = md5Job + "_" + md5Variables + "_" + md5GenericInfo + "_" + md5GlobalVariables + "_" +
-                     md5GlobalGenericInfo;
+        // the cache key is computed while the job is read, and from the content of the maps rather than
+        // from their serialized form
+        MessageDigest digest = DigestUtils.getMd5Digest();
+        byte[] bytes = ValidationUtil.getInputStreamBytes(new DigestInputStream(jobInputStream, digest));
+        updateDigest(digest, replacementVariables);
+        updateDigest(digest, replacementGenericInfos);
+        for (JobVariable globalVariable : getConfiguredGlobalJobVariables().values()) {
+            updateDigest(digest, globalVariable.getName());
+            updateDigest(digest, globalVariable.getValue());
+            updateDigest(digest, globalVariable.getModel());
+        }
+        updateDigest(digest, getConfiguredGlobalGenericInfo());
+        String cacheKey = Hex.encodeHexString(digest.digest());
         long t1 = System.currentTimeMillis();
-        if (!validationCache.containsKey(md5)) {
+        JobCreationException validationError = validationCache.get(cacheKey);
+        if (validationError == null) {
             try {
-
-                try (ByteArrayInputStream jobInputStreamForValidation = new ByteArrayInputStream(bytes)) {
-                    validate(jobInputStreamForValidation);
-                }
-                validationCache.put(md5, EMPTY_EXCEPTION);
+                validate(new ByteArrayInputStream(bytes));
+                validationCache.put(cacheKey, EMPTY_EXCEPTION);
             } catch (JobCreationException e) {
-                validationCache.put(md5, e);
-                throw e;
-            }
-        } else {
-            JobCreationException e = validationCache.get(md5);
-            if (e != EMPTY_EXCEPTION) {
+                validationCache.put(cacheKey, e);
                 throw e;
             }
+        } else if (validationError != EMPTY_EXCEPTION) {
+            throw validationError;
         }
         long t2 = System.currentTimeMillis();
         long t3;
         Job job;
-        if (!jobCache.containsKey(md5)) {
+        byte[] serializedJob = jobCache.get(cacheKey);
+        if (serializedJob == null) {
             Map<String, ArrayList<String>> dependencies = new LinkedHashMap<>();
             try (ByteArrayInputStream jobInpoutStreamForParsing = new ByteArrayInputStream(bytes)) {
                 XMLStreamReader xmlsr = xmlInputFactory.createXMLStreamReader(jobInpoutStreamForParsing, FILE_ENCODING);
@@ -299,9 +306,10 @@ public class StaxJobFactory extends JobFactory {
             t3 = System.currentTimeMillis();
 
             makeDependences(job, dependencies);
-            jobCache.put(md5, job);
+            jobCache.put(cacheKey, SerializationUtils.serialize(job));
         } else {
-            job = jobCache.get(md5);
+            // the validators and the submission modify the job, it must not be shared between callers
+            job = SerializationUtils.deserialize(serializedJob);
             t3 = System.currentTimeMillis();
         }
         long t4 = System.currentTimeMillis();
@@ -320,6 +328,37 @@ public class StaxJobFactory extends JobFactory {
         return job;
     }
 
+    @VisibleForTesting
+    static void clearCaches() {
+        jobCache.clear();
+        validationCache.clear();
+    }
+
+    private static void updateDigest(MessageDigest digest, Map<String, String> map) {
+        if (map == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            updateDigest(digest, entry.getKey());
+            updateDigest(digest, entry.getValue());
+        }
+        digest.update((byte) 2);
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // the length avoids collisions between different splits of the same characters
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
     /*
      * Validate the given job descriptor
      */
@@ -32,13 +32,15 @@ import static org.ow2.proactive.scheduler.common.job.factories.XMLTags.TASK_FLOW
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.iso_relax.verifier.Schema;
 import org.iso_relax.verifier.Verifier;
 import org.iso_relax.verifier.VerifierConfigurationException;
-import org.iso_relax.verifier.VerifierFactory;
 import org.iso_relax.verifier.VerifierHandler;
 import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.xml.sax.*;
@@ -53,6 +55,14 @@ import com.sun.msv.verifier.ValidityViolation;
  */
 public class ValidationUtil {
 
+    /** Compiled job schemas indexed by their location, a compiled schema can be shared between threads */
+    private static final Map<String, Schema> compiledSchemas = new ConcurrentHashMap<>();
+
+    /** Verifiers are not thread-safe but can be reused, each thread keeps one verifier per schema */
+    private static final ThreadLocal<Map<String, Verifier>> verifiers = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<XMLReader> xmlReaders = new ThreadLocal<>();
+
     /**
      * Validates the job descriptor file against the specified schema.
      * 
@@ -67,12 +77,68 @@ public class ValidationUtil {
     public static void validate(InputStream jobInputStream, InputStream schemaIs)
             throws SAXException, IOException, JobCreationException {
         try {
+            XMLReader reader = createXMLReader();
+            Schema schema = new com.sun.msv.verifier.jarv.TheFactoryImpl().compileSchema(schemaIs);
+            validate(jobInputStream, reader, schema.newVerifier());
+        } catch (VerifierConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Validates the job descriptor file against the schema found at the given location.
+     *
+     * The schema is compiled once, and the verifier and the XML reader are reused by the calling thread.
+     *
+     * @param jobInputStream
+     *            the job file content as an InputStream
+     * @param schemaLocation
+     *            the location of the job schema in the classpath
+     *
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     */
+    public static void validate(InputStream jobInputStream, String schemaLocation)
+            throws SAXException, IOException, JobCreationException {
+        Map<String, Verifier> threadVerifiers = verifiers.get();
+        Verifier verifier = threadVerifiers.remove(schemaLocation);
+        XMLReader reader = xmlReaders.get();
+        xmlReaders.remove();
+        try {
+            if (verifier == null) {
+                verifier = compiledSchemas.computeIfAbsent(schemaLocation, ValidationUtil::compileSchema)
+                                          .newVerifier();
+            }
+            if (reader == null) {
+                reader = createXMLReader();
+            }
+            validate(jobInputStream, reader, verifier);
+        } catch (VerifierConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        // only released after a successful validation, a failed parsing may leave them in an inconsistent state
+        threadVerifiers.put(schemaLocation, verifier);
+        xmlReaders.set(reader);
+    }
+
+    private static Schema compileSchema(String schemaLocation) {
+        try (InputStream schemaIs = ValidationUtil.class.getResourceAsStream(schemaLocation)) {
+            if (schemaIs == null) {
+                throw new IllegalArgumentException("Job schema not found: " + schemaLocation);
+            }
+            return new com.sun.msv.verifier.jarv.TheFactoryImpl().compileSchema(schemaIs);
+        } catch (VerifierConfigurationException | SAXException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-            XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
-            VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
-            Schema schema = vfactory.compileSchema(schemaIs);
+    private static XMLReader createXMLReader() throws SAXException {
+        return XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
+    }
 
-            Verifier verifier = schema.newVerifier();
+    private static void validate(InputStream jobInputStream, XMLReader reader, Verifier verifier)
+            throws SAXException, IOException, JobCreationException {
+        try {
             VerifierHandler handler = verifier.getVerifierHandler();
             ContentHandlerDecorator contentHandlerDecorator = new ContentHandlerDecorator(handler);
             reader.setContentHandler(contentHandlerDecorator);
@@ -88,15 +154,12 @@ public class ValidationUtil {
             } else {
                 throw se;
             }
-        } catch (VerifierConfigurationException e) {
-            throw new IllegalStateException(e);
         }
     }
 
     public static byte[] getInputStreamBytes(InputStream inputStream) throws IOException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             IOUtils.copy(inputStream, outputStream);
-            outputStream.toByteArray();
             return outputStream.toByteArray();
         }
     }
@@ -26,6 +26,8 @@
 package org.ow2.proactive.scheduler.common.job.factories.spi.model;
 
 import java.io.InputStream;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.ow2.proactive.scheduler.common.Scheduler;
 import org.ow2.proactive.scheduler.common.SchedulerSpaceInterface;
@@ -36,6 +38,7 @@ import org.ow2.proactive.scheduler.common.job.factories.spi.JobValidatorService;
 import org.ow2.proactive.scheduler.common.job.factories.spi.model.validator.ModelValidator;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskVariable;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 
 /**
@@ -67,17 +70,57 @@ public class DefaultModelJobValidatorServiceProvider implements JobValidatorServ
             checkVariableFormat(null, jobVariable, context);
             context.updateJobWithContext(job);
         }
-        for (Task task : job.getTasks()) {
-            context = new ModelValidatorContext(task, scheduler, space);
-            for (TaskVariable taskVariable : task.getVariables().values()) {
-                checkVariableFormat(task, taskVariable, context);
-                context.updateTaskWithContext(task);
+        List<Task> tasks = job.getTasks();
+        int parallelThreshold = PASchedulerProperties.SCHEDULER_JOB_VALIDATION_PARALLEL_THRESHOLD.getValueAsInt();
+        if (parallelThreshold > 0 && tasks.size() >= parallelThreshold) {
+            validateTasksInParallel(tasks, scheduler, space);
+        } else {
+            for (Task task : tasks) {
+                validateTask(task, scheduler, space);
             }
         }
 
         return job;
     }
 
+    /**
+     * Each task is validated with its own context, so tasks can be validated concurrently. All the tasks are
+     * validated, and the error reported is the one of the first invalid task in the job order, as in a
+     * sequential validation.
+     */
+    private void validateTasksInParallel(List<Task> tasks, Scheduler scheduler, SchedulerSpaceInterface space)
+            throws JobValidationException {
+        JobValidationException[] errors = new JobValidationException[tasks.size()];
+        // models may load classes, validate with the class loader of the caller
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        IntStream.range(0, tasks.size()).parallel().forEach(i -> {
+            Thread worker = Thread.currentThread();
+            ClassLoader workerClassLoader = worker.getContextClassLoader();
+            worker.setContextClassLoader(contextClassLoader);
+            try {
+                validateTask(tasks.get(i), scheduler, space);
+            } catch (JobValidationException e) {
+                errors[i] = e;
+            } finally {
+                worker.setContextClassLoader(workerClassLoader);
+            }
+        });
+        for (JobValidationException error : errors) {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    private void validateTask(Task task, Scheduler scheduler, SchedulerSpaceInterface space)
+            throws JobValidationException {
+        ModelValidatorContext context = new ModelValidatorContext(task, scheduler, space);
+        for (TaskVariable taskVariable : task.getVariables().values()) {
+            checkVariableFormat(task, taskVariable, context);
+            context.updateTaskWithContext(task);
+        }
+    }
+
     protected void checkVariableFormat(Task task, JobVariable variable, ModelValidatorContext context)
             throws JobValidationException {
         if (variable.getModel() != null && !variable.getModel().trim().isEmpty()) {
@@ -63,14 +63,14 @@ public class StaxJobValidatorServiceProvider implements JobValidatorService {
     @Override
     public void validateJob(InputStream jobInputStream) throws JobValidationException {
         try {
-            byte[] bytes = ValidationUtil.getInputStreamBytes(jobInputStream);
-            try (ByteArrayInputStream jobInputStreamForSchema = new ByteArrayInputStream(bytes)) {
-                String findSchemaByNamespaceUsed = findSchemaByNamespaceUsed(jobInputStreamForSchema);
-                InputStream schemaStream = this.getClass().getResourceAsStream(findSchemaByNamespaceUsed);
-                try (ByteArrayInputStream jobInputStreamForValidation = new ByteArrayInputStream(bytes)) {
-                    ValidationUtil.validate(jobInputStreamForValidation, schemaStream);
-                }
+            if (!jobInputStream.markSupported()) {
+                jobInputStream = new ByteArrayInputStream(ValidationUtil.getInputStreamBytes(jobInputStream));
             }
+            // the descriptor is read twice, to find its schema then to validate it
+            jobInputStream.mark(Integer.MAX_VALUE);
+            String findSchemaByNamespaceUsed = findSchemaByNamespaceUsed(jobInputStream);
+            jobInputStream.reset();
+            ValidationUtil.validate(jobInputStream, findSchemaByNamespaceUsed);
         } catch (Exception e) {
             throw new JobValidationException(true, e);
         }
@@ -67,6 +67,15 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** Scheduler main loop time out */
     SCHEDULER_TIME_OUT("pa.scheduler.core.timeout", PropertyType.INTEGER, "100"),
 
+    /** If true, the scheduling loop is driven by events (job submission, task termination, released nodes...)
+     * and runs as soon as one is received. The main loop time out is then only used as a fallback
+     * (e.g. to detect nodes added in the resource manager). */
+    SCHEDULER_EVENT_DRIVEN_LOOP("pa.scheduler.core.eventdriven", PropertyType.BOOLEAN, "false"),
+
+    /** Minimum delay in milliseconds between two scheduling loops when the event driven loop is enabled.
+     * Events received during this delay are coalesced into the next loop. */
+    SCHEDULER_EVENT_DRIVEN_MIN_INTERVAL("pa.scheduler.core.eventdriven.mininterval", PropertyType.INTEGER, "10"),
+
     /** Scheduler auto reconnection to the RM when the connection is down */
     SCHEDULER_RMCONNECTION_AUTO_CONNECT("pa.scheduler.core.rmconnection.autoconnect", PropertyType.BOOLEAN, "true"),
 
@@ -133,6 +142,21 @@ public enum PASchedulerProperties implements PACommonProperties {
      * until the scheduling loop will block as well.*/
     SCHEDULER_STARTTASK_THREADNUMBER("pa.scheduler.core.starttask.threadnumber", PropertyType.INTEGER, "20"),
 
+    /** If true, the launchers of the tasks to start are created in parallel while the scheduling loop asks nodes
+     * for the next compatible tasks. Parallel (multi-nodes) tasks are always started sequentially. */
+    SCHEDULER_STARTTASK_PIPELINED("pa.scheduler.core.starttask.pipelined", PropertyType.BOOLEAN, "false"),
+
+    /** Maximum number of threads used to create task launchers when the pipelined start of tasks is enabled */
+    SCHEDULER_STARTTASK_PIPELINED_THREADNUMBER("pa.scheduler.core.starttask.pipelined.threadnumber", PropertyType.INTEGER, "20"),
+
+    /** Timeout in milliseconds for the creation of a task launcher when the pipelined start of tasks is enabled.
+     * The node of a task whose launcher could not be created in time is given back to the resource manager. */
+    SCHEDULER_STARTTASK_PIPELINED_LAUNCHER_TIMEOUT("pa.scheduler.core.starttask.pipelined.launcher.timeout", PropertyType.INTEGER, "20000"),
+
+    /** Timeout in milliseconds to check whether a node is recoverable when the pipelined start of tasks is enabled.
+     * The node is considered as not recoverable if the check does not complete in time. */
+    SCHEDULER_STARTTASK_PIPELINED_RECOVERABLE_TIMEOUT("pa.scheduler.core.starttask.pipelined.recoverable.timeout", PropertyType.INTEGER, "5000"),
+
     /** Maximum number of threads used to send events to clients. This property defines the number of clients
      * than can block at the same time. If this number is reached, every clients won't receive events until
      * a thread unlock. */
@@ -144,6 +168,9 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** Size of parsed workflow cache, used to optimize workflow submission time */
     SCHEDULER_STAX_JOB_CACHE("pa.scheduler.stax.job.cache", PropertyType.INTEGER, "5000"),
 
+    /** Minimum number of tasks from which the task variables are validated in parallel, 0 to always validate sequentially */
+    SCHEDULER_JOB_VALIDATION_PARALLEL_THRESHOLD("pa.scheduler.job.validation.parallel.threshold", PropertyType.INTEGER, "500"),
+
     /* ***************************************************************** */
     /* ********************** AUTHENTICATION PROPERTIES **************** */
     /* ***************************************************************** */
@@ -219,6 +246,19 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** If true script tasks are ran in a forked JVM, if false they are ran in the node's JVM */
     TASK_FORK("pa.scheduler.task.fork", PropertyType.BOOLEAN),
 
+    /**
+     * Maximum number of idle forked JVMs kept by a node to run forked tasks. Only the tasks which do not run in
+     * RunAsMe mode and whose fork environment does not define an environment script or a pre java command
+     * (e.g. docker) can run in a pooled JVM. 0 (default) disables the pool.
+     */
+    TASK_FORK_POOL_SIZE("pa.scheduler.task.fork.pool.size", PropertyType.INTEGER, "0"),
+
+    /** Number of tasks executed by a pooled forked JVM before it is replaced by a new one */
+    TASK_FORK_POOL_MAX_TASKS("pa.scheduler.task.fork.pool.max.tasks", PropertyType.INTEGER, "50"),
+
+    /** Time in seconds after which an idle pooled forked JVM is stopped */
+    TASK_FORK_POOL_IDLE_TIMEOUT("pa.scheduler.task.fork.pool.idle.timeout", PropertyType.INTEGER, "600"),
+
     /**
      * If true tasks are always ran in RunAsMe mode (implies automatically fork), if false, the user can choose whether to run the task in runasme mode or not
      **/
@@ -313,6 +353,9 @@ public enum PASchedulerProperties implements PACommonProperties {
 
     SCHEDULER_JOB_LOGS_MAX_SIZE("pa.scheduler.job.logs.max.size", PropertyType.STRING, "10000"),
 
+    // Maximum number of bytes returned by a single ranged server logs request
+    SCHEDULER_JOB_LOGS_MAX_CHUNK_SIZE("pa.scheduler.job.logs.max.chunk.size", PropertyType.INTEGER, "1048576"),
+
     //    /** Log max size (in lines per tasks) */
     //    LOGS_MAX_SIZE("pa.scheduler.logs.maxsize", PropertyType.INTEGER),
 
@@ -457,10 +500,22 @@ public enum PASchedulerProperties implements PACommonProperties {
             PropertyType.INTEGER,
             "100"),
 
+    /** Number of batches of jobs loaded in parallel, each in its own database session, when scheduler is restarted */
+    SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS("pa.scheduler.db.recovery.load.jobs.nbthreads", PropertyType.INTEGER, "4"),
+
     SCHEDULER_DB_ITEMS_MAX_SIZE("pa.scheduler.db.items.max.size", PropertyType.INTEGER, "1000"),
 
     SCHEDULER_DB_FETCH_TASK_RESULTS_BATCH_SIZE("pa.scheduler.db.fetch.batch_size", PropertyType.INTEGER, "50"),
 
+    /**
+     * Duration in milliseconds during which the total number of tasks matching a task listing query is reused,
+     * 0 to count the tasks on each query
+     */
+    SCHEDULER_DB_TASKS_COUNT_CACHE_DURATION(
+            "pa.scheduler.db.tasks.count.cache.duration",
+            PropertyType.INTEGER,
+            "5000"),
+
     /* ***************************************************************** */
     /* ************** VARIABLES & GENERIC INFO PROPERTIES ************** */
     /* ***************************************************************** */
@@ -507,6 +562,35 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** location of the jdbm database for persistent channels */
     SCHEDULER_SYNCHRONIZATION_DATABASE("pa.scheduler.synchronization.db", PropertyType.STRING, "data/synchronization"),
 
+    /**
+     * Store persistent channels in an append-only journal of key modifications, periodically compacted into a snapshot,
+     * instead of rewriting the whole channel in the jdbm database after each modification.
+     */
+    SCHEDULER_SYNCHRONIZATION_JOURNAL("pa.scheduler.synchronization.journal", PropertyType.BOOLEAN, "false"),
+
+    /**
+     * Maximum time in milliseconds during which journal records are grouped before being written to disk.
+     * 0 (default) writes and syncs each modification before the call returns, as the jdbm database does.
+     * A positive value relaxes the Synchronization API guarantees: a modification call returns before its record
+     * is synced, and the modifications of the last interval may be lost on a crash.
+     */
+    SCHEDULER_SYNCHRONIZATION_JOURNAL_COMMIT_INTERVAL(
+            "pa.scheduler.synchronization.journal.commit.interval",
+            PropertyType.INTEGER,
+            "0"),
+
+    /** Number of pending journal records which triggers a write to disk before the commit interval expires */
+    SCHEDULER_SYNCHRONIZATION_JOURNAL_COMMIT_BATCH(
+            "pa.scheduler.synchronization.journal.commit.batch",
+            PropertyType.INTEGER,
+            "256"),
+
+    /** Size in megabytes of the journal above which it is compacted into a new snapshot */
+    SCHEDULER_SYNCHRONIZATION_JOURNAL_COMPACTION_SIZE(
+            "pa.scheduler.synchronization.journal.compaction.size",
+            PropertyType.INTEGER,
+            "16"),
+
     /* ***************************************************************** */
     /* ***************** SIGNAL API PROPERTIES ************** */
     /* ***************************************************************** */
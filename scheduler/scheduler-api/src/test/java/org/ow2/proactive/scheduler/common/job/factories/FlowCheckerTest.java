@@ -0,0 +1,86 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.job.factories.FlowError.FlowErrorType;
+import org.ow2.proactive.scheduler.common.task.ScriptTask;
+
+
+public class FlowCheckerTest {
+
+    @Test
+    public void denselyConnectedWorkflowIsValid() throws Exception {
+        // every path through the layers used to be explored separately
+        TaskFlowJob job = JobValidationBenchmark.createLayeredJob(300);
+
+        assertNull(FlowChecker.validate(job));
+    }
+
+    @Test
+    public void cycleIsDetected() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        ScriptTask root = createTask("root");
+        ScriptTask first = createTask("first");
+        ScriptTask second = createTask("second");
+        first.addDependence(root);
+        first.addDependence(second);
+        second.addDependence(first);
+        job.addTask(root);
+        job.addTask(first);
+        job.addTask(second);
+
+        FlowError error = FlowChecker.validate(job);
+
+        assertNotNull(error);
+        assertEquals(FlowErrorType.RECURSION, error.getErrorType());
+        assertEquals("first", error.getTask());
+    }
+
+    @Test
+    public void duplicatedDependencyIsReachable() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        ScriptTask root = createTask("root");
+        ScriptTask child = createTask("child");
+        child.addDependence(root);
+        child.addDependence(root);
+        job.addTask(root);
+        job.addTask(child);
+
+        assertNull(FlowChecker.validate(job));
+    }
+
+    private ScriptTask createTask(String name) {
+        ScriptTask task = new ScriptTask();
+        task.setName(name);
+        return task;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.ow2.proactive.scheduler.common.job.Job;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.job.factories.spi.model.DefaultModelJobValidatorServiceProvider;
+import org.ow2.proactive.scheduler.common.task.ScriptTask;
+import org.ow2.proactive.scheduler.common.task.TaskVariable;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Splits the submission-time validation of a workflow into its steps, for growing workflow sizes: the flow
+ * checks, the model validation of the task variables, and the whole creation of a job from its descriptor.
+ *
+ * The checked workflow is made of layers of tasks, each task depending on all the tasks of the previous layer,
+ * and each task defining variables with models.
+ *
+ * Run with the test classpath: {@code java org.ow2.proactive.scheduler.common.job.factories.JobValidationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JobValidationBenchmark {
+
+    private static final int LAYER_WIDTH = 10;
+
+    @Param({ "1000", "5000", "10000" })
+    public int tasks;
+
+    private TaskFlowJob layeredJob;
+
+    private byte[] replicatedWorkflow;
+
+    private StaxJobFactory factory;
+
+    private DefaultModelJobValidatorServiceProvider modelValidator;
+
+    @Setup
+    public void setUp() throws Exception {
+        layeredJob = createLayeredJob(tasks);
+        replicatedWorkflow = StaxJobFactoryBenchmark.createReplicatedWorkflow(tasks).getBytes(StandardCharsets.UTF_8);
+        factory = (StaxJobFactory) JobFactory.getFactory(StaxJobFactory.class.getName());
+        StaxJobFactory.globalVariables = new LinkedHashMap<>();
+        StaxJobFactory.globalGenericInformation = new LinkedHashMap<>();
+        modelValidator = new DefaultModelJobValidatorServiceProvider();
+    }
+
+    @Benchmark
+    public FlowError flowChecks() {
+        FlowError error = FlowChecker.validate(layeredJob);
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        return error;
+    }
+
+    @Benchmark
+    public TaskFlowJob modelValidation() throws Exception {
+        return modelValidator.validateJob(layeredJob);
+    }
+
+    @Benchmark
+    public Job descriptorToJob() throws Exception {
+        StaxJobFactory.clearCaches();
+        return factory.createJob(new ByteArrayInputStream(replicatedWorkflow));
+    }
+
+    static TaskFlowJob createLayeredJob(int size) throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        job.setName("Layered_" + size);
+        List<ScriptTask> previousLayer = new ArrayList<>();
+        List<ScriptTask> layer = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ScriptTask task = new ScriptTask();
+            task.setName("task_" + i);
+            task.setScript(new TaskScript(new SimpleScript("println 'task'", "groovy")));
+            Map<String, TaskVariable> variables = new LinkedHashMap<>();
+            variables.put("count", new TaskVariable("count", String.valueOf(i), "PA:INTEGER", false));
+            variables.put("mode", new TaskVariable("mode", "fast", "PA:LIST(fast,slow)", false));
+            task.setVariables(variables);
+            for (ScriptTask parent : previousLayer) {
+                task.addDependence(parent);
+            }
+            job.addTask(task);
+            layer.add(task);
+            if (layer.size() == LAYER_WIDTH) {
+                previousLayer = layer;
+                layer = new ArrayList<>();
+            }
+        }
+        return job;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JobValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
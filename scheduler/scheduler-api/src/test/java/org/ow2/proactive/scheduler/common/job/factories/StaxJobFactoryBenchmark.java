@@ -0,0 +1,147 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.job.factories;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.ow2.proactive.scheduler.common.job.Job;
+
+
+/**
+ * Measures the creation of a replicated workflow of several thousand tasks by the {@link StaxJobFactory}, when the
+ * descriptor must be validated and parsed (cold), and when it is found in the factory caches (warm).
+ *
+ * Run with the test classpath: {@code java org.ow2.proactive.scheduler.common.job.factories.StaxJobFactoryBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StaxJobFactoryBenchmark {
+
+    @Param({ "5000" })
+    public int replicas;
+
+    private StaxJobFactory factory;
+
+    private byte[] workflow;
+
+    @Setup
+    public void setUp() {
+        factory = (StaxJobFactory) JobFactory.getFactory(StaxJobFactory.class.getName());
+        StaxJobFactory.globalVariables = new LinkedHashMap<>();
+        StaxJobFactory.globalGenericInformation = new LinkedHashMap<>();
+        workflow = createReplicatedWorkflow(replicas).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Job coldCreation() throws Exception {
+        StaxJobFactory.clearCaches();
+        return factory.createJob(new ByteArrayInputStream(workflow));
+    }
+
+    @Benchmark
+    public Job warmCreation() throws Exception {
+        return factory.createJob(new ByteArrayInputStream(workflow));
+    }
+
+    /**
+     * Builds a split / replicated tasks / merge workflow, each replicated task using the job variables.
+     */
+    static String createReplicatedWorkflow(int replicas) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<job xmlns=\"urn:proactive:jobdescriptor:dev\" name=\"Replicated_")
+           .append(replicas)
+           .append("\" onTaskError=\"continueJobExecution\" priority=\"normal\">\n")
+           .append("  <variables>\n")
+           .append("    <variable name=\"input\" value=\"data\"/>\n")
+           .append("    <variable name=\"iterations\" value=\"10\" model=\"PA:INTEGER\"/>\n")
+           .append("  </variables>\n")
+           .append("  <taskFlow>\n");
+        appendTask(xml, "split", null);
+        for (int i = 0; i < replicas; i++) {
+            appendTask(xml, "replicate_" + i, "split");
+        }
+        xml.append("    <task name=\"merge\">\n").append("      <depends>\n");
+        for (int i = 0; i < replicas; i++) {
+            xml.append("        <task ref=\"replicate_").append(i).append("\"/>\n");
+        }
+        xml.append("      </depends>\n");
+        appendExecutable(xml);
+        xml.append("    </task>\n").append("  </taskFlow>\n").append("</job>\n");
+        return xml.toString();
+    }
+
+    private static void appendTask(StringBuilder xml, String name, String dependency) {
+        xml.append("    <task name=\"").append(name).append("\">\n");
+        xml.append("      <genericInformation>\n")
+           .append("        <info name=\"replica\" value=\"").append(name).append("\"/>\n")
+           .append("      </genericInformation>\n");
+        if (dependency != null) {
+            xml.append("      <depends>\n")
+               .append("        <task ref=\"")
+               .append(dependency)
+               .append("\"/>\n")
+               .append("      </depends>\n");
+        }
+        appendExecutable(xml);
+        xml.append("    </task>\n");
+    }
+
+    private static void appendExecutable(StringBuilder xml) {
+        xml.append("      <scriptExecutable>\n")
+           .append("        <script>\n")
+           .append("          <code language=\"groovy\"><![CDATA[\n")
+           .append("println variables.get(\"input\") + \" \" + variables.get(\"PA_TASK_NAME\")\n")
+           .append("]]></code>\n")
+           .append("        </script>\n")
+           .append("      </scriptExecutable>\n");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StaxJobFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
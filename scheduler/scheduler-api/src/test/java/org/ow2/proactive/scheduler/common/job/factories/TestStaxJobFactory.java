@@ -665,6 +665,27 @@ public class TestStaxJobFactory {
         assertEquals("gi_task_value1", genericInformation.get("info1"));
     }
 
+    @Test
+    public void testCachedJobIsNotSharedBetweenCallers() throws Exception {
+        TaskFlowJob first = (TaskFlowJob) factory.createJob(jobDescriptorUri);
+        first.getVariables().get("job_name").setValue("modified");
+
+        TaskFlowJob second = (TaskFlowJob) factory.createJob(jobDescriptorUri);
+        assertNotSame(first, second);
+        assertEquals("updated_job_name", second.getVariables().get("job_name").getValue());
+        assertEquals(first.getTasks().size(), second.getTasks().size());
+    }
+
+    @Test
+    public void testCacheKeyDependsOnGlobalVariables() throws Exception {
+        TaskFlowJob job = (TaskFlowJob) factory.createJob(jobDescriptorNoVariablesUri);
+        assertFalse(job.getVariables().containsKey("global_var"));
+
+        factory.globalVariables.put("global_var", new JobVariable("global_var", "global_value"));
+        job = (TaskFlowJob) factory.createJob(jobDescriptorNoVariablesUri);
+        assertEquals("global_value", job.getVariables().get("global_var").getValue());
+    }
+
     private static <K, V> void assertExpectedKeyValueEntriesMatch(Map<K, V> map) {
         // map variable is assumed to contain attributes name/value parsed from XML
 
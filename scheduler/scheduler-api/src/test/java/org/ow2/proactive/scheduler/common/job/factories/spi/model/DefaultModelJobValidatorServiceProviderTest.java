@@ -25,6 +25,9 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories.spi.model;
 
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 import java.util.Collections;
 
 import org.junit.Before;
@@ -40,6 +43,7 @@ import org.ow2.proactive.scheduler.common.job.factories.spi.model.validator.Mode
 import org.ow2.proactive.scheduler.common.task.ScriptTask;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskVariable;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -124,6 +128,29 @@ public class DefaultModelJobValidatorServiceProviderTest {
         factory.validateJob(createJobWithTaskModelVariable("blabla", ModelValidator.PREFIX + "UNKNOWN"));
     }
 
+    @Test
+    public void testParallelValidationReportsFirstInvalidTask() throws UserException {
+        int taskCount = PASchedulerProperties.SCHEDULER_JOB_VALIDATION_PARALLEL_THRESHOLD.getValueAsInt() + 10;
+        TaskFlowJob job = new TaskFlowJob();
+        for (int i = 0; i < taskCount; i++) {
+            boolean invalid = i == 7 || i == taskCount - 1;
+            TaskVariable variable = new TaskVariable("VAR",
+                                                     invalid ? "blabla" : "true",
+                                                     ModelValidator.PREFIX + ModelType.BOOLEAN,
+                                                     false);
+            Task task = new ScriptTask();
+            task.setName("ModelTask" + i);
+            task.setVariables(Collections.singletonMap(variable.getName(), variable));
+            job.addTask(task);
+        }
+        try {
+            factory.validateJob(job);
+            fail("The job should not be valid");
+        } catch (JobValidationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Task 'ModelTask7'"));
+        }
+    }
+
     private TaskFlowJob createJobWithJobModelVariable(String value, String model) throws UserException {
         TaskFlowJob job = new TaskFlowJob();
         JobVariable jobVariable = new JobVariable("VAR", value, model);
@@ -56,6 +56,7 @@ import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.exception.InternalSchedulerException;
@@ -718,6 +719,20 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getTaskServerLogs(id, taskName);
     }
 
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return uischeduler.getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        return uischeduler.getTaskServerLogs(id, taskName, offset, length);
+    }
+
     @Override
     @ImmediateService
     public String getTaskServerLogsByTag(String id, String taskTag)
@@ -52,6 +52,7 @@ import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.exception.JobAlreadyFinishedException;
@@ -711,6 +712,20 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getTaskServerLogs(id, taskName);
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskServerLogs(id, taskName, offset, length);
+    }
+
     @Override
     public String getTaskServerLogsByTag(String id, String taskTag)
             throws UnknownJobException, NotConnectedException, PermissionException {
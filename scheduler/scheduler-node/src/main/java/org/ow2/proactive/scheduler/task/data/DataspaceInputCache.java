@@ -0,0 +1,350 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+
+import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Node local cache of the input files copied from remote dataspaces to the scratch space of tasks.
+ * <p>
+ * Entries are named after a digest of the source location, size and modification time, so a file
+ * modified in its dataspace is fetched again while unchanged files are fetched once and shared by
+ * all tasks of the node. Tasks needing a file which is being fetched wait for this download instead
+ * of starting their own. Files are given to tasks as hard links to the entries when the file system
+ * allows it, copies otherwise. Entries are read-only, so linked input files cannot be modified in
+ * place by tasks.
+ * <p>
+ * The cache directory must belong to the user running the node and is only accessible by this user,
+ * as are the entries: tasks running as another user must be given copies.
+ * <p>
+ * The least recently used entries are deleted when the cache exceeds its size budget. Files larger
+ * than the budget are not cached.
+ */
+public class DataspaceInputCache {
+
+    private static final Logger logger = Logger.getLogger(DataspaceInputCache.class);
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    private static final Set<PosixFilePermission> ENTRY_PERMISSIONS = PosixFilePermissions.fromString("r--------");
+
+    public enum Placement {
+        /** the file cannot be cached and must be copied by the caller */
+        NOT_CACHED,
+        /** the file is a hard link to the read-only cache entry */
+        LINKED,
+        /** the file is a copy of the cache entry */
+        COPIED
+    }
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    private final boolean link;
+
+    private final boolean posix;
+
+    /** size of the entries in access order, guarded by this */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** total size of the entries, guarded by this */
+    private long size;
+
+    /** number of tasks reading each entry, which cannot be evicted meanwhile, guarded by this */
+    private final Map<String, Integer> readers = new HashMap<>();
+
+    private final Map<String, FutureTask<Path>> downloads = new ConcurrentHashMap<>();
+
+    public DataspaceInputCache(File directory, long maxSize, boolean link) throws IOException {
+        this.directory = directory.toPath();
+        this.maxSize = maxSize;
+        this.link = link;
+        Files.createDirectories(this.directory);
+        this.posix = Files.getFileStore(this.directory).supportsFileAttributeView(PosixFileAttributeView.class);
+        restrictToOwner();
+        loadEntries();
+    }
+
+    /**
+     * Makes the content of a remote file available at the given local path.
+     *
+     * @return how the file was made available
+     */
+    public Placement copy(DataSpacesFileObject source, File target) throws IOException, InterruptedException {
+        return copy(source, target, true);
+    }
+
+    /**
+     * Makes the content of a remote file available at the given local path, as a copy of the cache
+     * entry when the file must not be linked to it, e.g. because the task runs as another user.
+     *
+     * @return how the file was made available
+     */
+    public Placement copy(DataSpacesFileObject source, File target, boolean linkAllowed)
+            throws IOException, InterruptedException {
+        long sourceSize = source.getContent().getSize();
+        if (sourceSize > maxSize) {
+            return Placement.NOT_CACHED;
+        }
+        long lastModifiedTime = source.getContent().getLastModifiedTime();
+        String key = key(source.getRealURI(), sourceSize, lastModifiedTime);
+        Path entry = fetch(key, source, sourceSize, lastModifiedTime);
+        synchronized (this) {
+            // evicted by another download since it was fetched, the caller copies the file itself
+            // rather than fetching it again
+            if (entries.get(key) == null || !Files.exists(entry)) {
+                return Placement.NOT_CACHED;
+            }
+            Integer count = readers.get(key);
+            readers.put(key, count == null ? 1 : count + 1);
+        }
+        try {
+            return place(entry, target.toPath(), link && linkAllowed);
+        } finally {
+            synchronized (this) {
+                int count = readers.get(key);
+                if (count == 1) {
+                    readers.remove(key);
+                } else {
+                    readers.put(key, count - 1);
+                }
+            }
+        }
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    synchronized boolean contains(String uri, long size, long lastModifiedTime) {
+        return entries.containsKey(key(uri, size, lastModifiedTime));
+    }
+
+    private Path fetch(final String key, final DataSpacesFileObject source, final long sourceSize,
+            final long lastModifiedTime) throws IOException, InterruptedException {
+        synchronized (this) {
+            if (entries.get(key) != null) {
+                return entry(key);
+            }
+        }
+        FutureTask<Path> download = new FutureTask<>(new Callable<Path>() {
+            @Override
+            public Path call() throws Exception {
+                return download(key, source, sourceSize, lastModifiedTime);
+            }
+        });
+        FutureTask<Path> inFlight = downloads.putIfAbsent(key, download);
+        if (inFlight == null) {
+            inFlight = download;
+            try {
+                download.run();
+            } finally {
+                downloads.remove(key, download);
+            }
+        } else {
+            logger.debug("Waiting for the download of " + source.getRealURI() + " by another task");
+        }
+        try {
+            return inFlight.get();
+        } catch (ExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private Path download(String key, DataSpacesFileObject source, long sourceSize, long lastModifiedTime)
+            throws IOException {
+        synchronized (this) {
+            // completed by another download between the lookup and the registration of this one
+            if (entries.get(key) != null) {
+                return entry(key);
+            }
+        }
+        logger.info("Caching " + source.getRealURI() + " in " + directory);
+        Path temporary = Files.createTempFile(directory, key, TEMPORARY_SUFFIX);
+        try {
+            long copied;
+            try (InputStream inputStream = source.getContent().getInputStream()) {
+                copied = Files.copy(inputStream, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (copied != sourceSize) {
+                throw new IOException(source.getRealURI() + " was modified during its download");
+            }
+            makeReadOnly(temporary);
+            Files.setLastModifiedTime(temporary, FileTime.fromMillis(lastModifiedTime));
+            Path entry = entry(key);
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Long previous = entries.put(key, sourceSize);
+                size += sourceSize - (previous == null ? 0 : previous);
+                evict(key);
+            }
+            return entry;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Placement place(Path entry, Path target, boolean link) throws IOException {
+        Files.deleteIfExists(target);
+        if (link) {
+            try {
+                Files.createLink(target, entry);
+                return Placement.LINKED;
+            } catch (IOException | UnsupportedOperationException e) {
+                logger.debug("Cannot link " + target + " to " + entry + ", copying it instead", e);
+            }
+        }
+        Files.copy(entry, target, StandardCopyOption.COPY_ATTRIBUTES);
+        target.toFile().setWritable(true);
+        return Placement.COPIED;
+    }
+
+    /**
+     * Deletes the least recently used entries which are not being read until the cache fits in its budget.
+     * The entry just downloaded, if any, is kept even if the cache still exceeds its budget, as it is
+     * about to be read.
+     */
+    private void evict(String downloaded) throws IOException {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (readers.containsKey(eldest.getKey()) || eldest.getKey().equals(downloaded)) {
+                continue;
+            }
+            logger.debug("Evicting " + eldest.getKey() + " from the input cache");
+            Files.deleteIfExists(entry(eldest.getKey()));
+            size -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Registers the entries left by a previous run of the node, in the order they were last accessed.
+     */
+    private void loadEntries() throws IOException {
+        final Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else {
+                    makeReadOnly(file);
+                    attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+                }
+            }
+        }
+        List<Path> files = new ArrayList<>(attributes.keySet());
+        Collections.sort(files, new Comparator<Path>() {
+            @Override
+            public int compare(Path first, Path second) {
+                return attributes.get(first).lastAccessTime().compareTo(attributes.get(second).lastAccessTime());
+            }
+        });
+        synchronized (this) {
+            for (Path file : files) {
+                long fileSize = attributes.get(file).size();
+                entries.put(file.getFileName().toString(), fileSize);
+                size += fileSize;
+            }
+            evict(null);
+        }
+    }
+
+    /**
+     * Checks that the cache directory belongs to the user running the node, which could otherwise
+     * replace the entries read by tasks, and makes it private to this user.
+     */
+    private void restrictToOwner() throws IOException {
+        if (!posix) {
+            return;
+        }
+        UserPrincipal owner = Files.getOwner(directory);
+        UserPrincipal user = directory.getFileSystem()
+                                      .getUserPrincipalLookupService()
+                                      .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(user)) {
+            throw new IOException(directory + " belongs to " + owner.getName() + " and cannot hold the input cache of " +
+                                  user.getName());
+        }
+        Files.setPosixFilePermissions(directory, DIRECTORY_PERMISSIONS);
+    }
+
+    private void makeReadOnly(Path file) throws IOException {
+        if (posix) {
+            Files.setPosixFilePermissions(file, ENTRY_PERMISSIONS);
+        } else {
+            file.toFile().setWritable(false, false);
+        }
+    }
+
+    private Path entry(String key) {
+        return directory.resolve(key);
+    }
+
+    private static String key(String uri, long size, long lastModifiedTime) {
+        return Hashing.sha256()
+                      .hashString(uri + '\n' + size + '\n' + lastModifiedTime, StandardCharsets.UTF_8)
+                      .toString();
+    }
+
+}
@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.task.data;
 import static com.google.common.base.Throwables.getStackTraceAsString;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -78,6 +79,19 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
 
     public static final String PA_NODE_DATASPACE_CREATE_FOLDER_HIERARCHY_SEQUENTIALLY = "pa.node.dataspace.create_folder_hierarchy_sequentially";
 
+    /** Size in megabytes of the node local cache of input files, 0 (the default) disables it */
+    public static final String PA_NODE_DATASPACE_INPUT_CACHE_SIZE = "pa.node.dataspace.inputcache.size";
+
+    /** Directory of the input cache, which must belong to the user running the node */
+    public static final String PA_NODE_DATASPACE_INPUT_CACHE_DIR = "pa.node.dataspace.inputcache.dir";
+
+    /** Whether cached input files are hard linked (the default) or copied into the scratch space */
+    public static final String PA_NODE_DATASPACE_INPUT_CACHE_LINK = "pa.node.dataspace.inputcache.link";
+
+    private static DataspaceInputCache inputCache;
+
+    private static boolean inputCacheInitialized;
+
     private transient DataSpacesFileObject SCRATCH;
 
     private transient DataSpacesFileObject CACHE;
@@ -132,6 +146,34 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         initDataSpaces();
     }
 
+    /**
+     * @return the input cache shared by the tasks of this node, or null if it is disabled
+     */
+    static synchronized DataspaceInputCache getInputCache() {
+        if (!inputCacheInitialized) {
+            inputCacheInitialized = true;
+            String sizeAsString = System.getProperty(PA_NODE_DATASPACE_INPUT_CACHE_SIZE, "0");
+            try {
+                long size = Long.parseLong(sizeAsString) * 1024 * 1024;
+                if (size > 0) {
+                    String directory = System.getProperty(PA_NODE_DATASPACE_INPUT_CACHE_DIR,
+                                                          new File(System.getProperty("java.io.tmpdir"),
+                                                                   "proactive-inputcache-" +
+                                                                           System.getProperty("user.name")).getPath());
+                    boolean link = !"false".equalsIgnoreCase(System.getProperty(PA_NODE_DATASPACE_INPUT_CACHE_LINK));
+                    inputCache = new DataspaceInputCache(new File(directory), size, link);
+                    logger.info("Input files are cached in " + directory + " up to " + sizeAsString + " MB");
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value set for property '" + PA_NODE_DATASPACE_INPUT_CACHE_SIZE + "': " +
+                            sizeAsString + ", input cache is disabled");
+            } catch (IOException e) {
+                logger.warn("Cannot create the input cache, it is disabled", e);
+            }
+        }
+        return inputCache;
+    }
+
     protected int getFileTransferThreadPoolSize() {
         String sizeAsString = System.getProperty(PA_NODE_DATASPACE_FILE_TRANSFER_THREAD_POOL_SIZE);
 
@@ -792,19 +834,21 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
 
         return executorTransfer.submit(new Callable<Boolean>() {
             @Override
-            public Boolean call() throws FileSystemException {
+            public Boolean call() throws Exception {
 
                 DataSpacesFileObject target = destinationBase.resolveFile(destinationRelativeToBase);
+                boolean cacheable = isInputFile && destinationBase == SCRATCH;
+                boolean linked = false;
 
                 target.refresh();
                 if (!target.exists()) {
                     logger.info("Copying " + source.getRealURI() + " to " + destinationBase.getRealURI() + "/" +
                                 destinationRelativeToBase);
-                    target.copyFrom(source, FileSelector.SELECT_SELF);
+                    linked = copyFile(source, target, cacheable);
                 } else if (source.getContent().getLastModifiedTime() > target.getContent().getLastModifiedTime()) {
                     logger.info("Copying " + source.getRealURI() + " to " + destinationBase.getRealURI() + "/" +
                                 destinationRelativeToBase + " (newer version)");
-                    target.copyFrom(source, FileSelector.SELECT_SELF);
+                    linked = copyFile(source, target, cacheable);
                 } else {
                     logger.debug("Destination file " + target.getRealURI() + " is already present and newer.");
                 }
@@ -816,7 +860,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                     logger.error(message);
                     logDataspacesStatus(message, DataspacesStatusLevel.ERROR);
                 } else {
-                    if (isInputFile) {
+                    if (isInputFile && !linked) {
+                        // linked cache entries must stay read-only, and are never linked in RunAsMe mode
                         setFileRightsForRunAsUserMode(target);
                     }
                 }
@@ -825,6 +870,31 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         });
     }
 
+    /**
+     * Copies a file, through the input cache of the node for input files copied to the scratch space.
+     *
+     * @return true if the target is a hard link to an entry of the input cache
+     */
+    private boolean copyFile(DataSpacesFileObject source, DataSpacesFileObject target, boolean cacheable)
+            throws FileSystemException, InterruptedException {
+        DataspaceInputCache cache = cacheable ? getInputCache() : null;
+        if (cache != null && FileType.FILE.equals(source.getType())) {
+            try {
+                File localTarget = new File(convertDataSpaceURIToFileIfPossible(target.getRealURI(), true));
+                // entries are only readable by the user running the node
+                DataspaceInputCache.Placement placement = cache.copy(source, localTarget, !runAsUser);
+                if (placement != DataspaceInputCache.Placement.NOT_CACHED) {
+                    target.refresh();
+                    return placement == DataspaceInputCache.Placement.LINKED;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Cannot copy " + source.getRealURI() + " through the input cache, copying it directly", e);
+            }
+        }
+        target.copyFrom(source, FileSelector.SELECT_SELF);
+        return false;
+    }
+
     private Future<List<DataSpacesFileObject>> findFilesToCopyFromInput(final DataSpacesFileObject space,
             final String spaceName, final InputSelector inputSelector,
             final org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector) {
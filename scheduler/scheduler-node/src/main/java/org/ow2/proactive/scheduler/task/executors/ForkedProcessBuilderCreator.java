@@ -30,6 +30,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.security.KeyException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
 import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
@@ -82,6 +85,45 @@ public class ForkedProcessBuilderCreator implements Serializable {
         return processBuilder;
     }
 
+    /**
+     * A task can run in a pooled JVM when its JVM does not depend on the execution of a fork environment
+     * script, is not started by a pre java command (e.g. docker), and does not run as the task owner.
+     *
+     * @param context The task context to execute.
+     * @return true if the task can run in a JVM started for another task with the same command and environment.
+     */
+    public boolean canRunInPooledJvm(TaskContext context) {
+        if (context.isRunAsUser()) {
+            return false;
+        }
+        ForkEnvironment forkEnvironment = context.getInitializer().getForkEnvironment();
+        return forkEnvironment == null ||
+               (forkEnvironment.getEnvScript() == null && forkEnvironment.getPreJavaCommand().isEmpty() &&
+                !forkEnvironment.isDockerWindowsToLinux());
+    }
+
+    /**
+     * Creates the command of a pooled JVM able to run the given task, without the main class and its arguments.
+     *
+     * @param context The task context to execute, see {@link #canRunInPooledJvm(TaskContext)}.
+     * @return the java executable, classpath and JVM arguments.
+     * @throws Exception
+     */
+    public List<String> createPooledForkedJvmCommand(TaskContext context) throws Exception {
+        return forkedJvmTaskExecutionCommandCreator.createForkedJvmCommand(context, null);
+    }
+
+    /**
+     * @param context The task context to execute, see {@link #canRunInPooledJvm(TaskContext)}.
+     * @return the system environment variables defined by the fork environment of the task.
+     */
+    public Map<String, String> createPooledForkedJvmEnvironment(TaskContext context) {
+        if (context.getInitializer().getForkEnvironment() == null) {
+            return Collections.emptyMap();
+        }
+        return taskContextVariableExtractor.extractVariablesThirdPartyCredentialsAndSystemEnvironmentVariables(context);
+    }
+
     private ScriptResult executeForkEnvironmentScriptAndExtractVariables(TaskContext context, PrintStream outputSink,
             PrintStream errorSink, OSProcessBuilder processBuilder) throws Exception {
         ScriptResult forkEnvironmentScriptResult = null;
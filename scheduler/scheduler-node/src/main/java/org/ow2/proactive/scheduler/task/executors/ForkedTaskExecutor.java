@@ -43,6 +43,8 @@ import org.ow2.proactive.scheduler.task.context.TaskContextSerializer;
 import org.ow2.proactive.scheduler.task.context.TaskContextVariableExtractor;
 import org.ow2.proactive.scheduler.task.exceptions.ForkedJvmProcessException;
 import org.ow2.proactive.scheduler.task.executors.forked.env.ExecuteForkedTaskInsideNewJvm;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmKey;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmPool;
 import org.ow2.proactive.scheduler.task.utils.ProcessStreamsReader;
 import org.ow2.proactive.scheduler.task.utils.task.termination.CleanupTimeoutGetter;
 import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
@@ -51,6 +53,9 @@ import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
 /**
  * Executor in charge to fork a new process for running a non forked task in a dedicated JVM.
  *
+ * When the {@link ForkedJvmPool} of the node is enabled, the tasks which can share their JVM run in
+ * a pooled JVM instead of a new one.
+ *
  * @see ExecuteForkedTaskInsideNewJvm
  * @see InProcessTaskExecutor
  */
@@ -64,12 +69,22 @@ public class ForkedTaskExecutor implements TaskExecutor {
 
     private final File workingDir;
 
+    private final ForkedJvmPool forkedJvmPool;
+
     public ForkedTaskExecutor(File workingDir) {
+        this(workingDir, ForkedJvmPool.getInstance());
+    }
+
+    public ForkedTaskExecutor(File workingDir, ForkedJvmPool forkedJvmPool) {
         this.workingDir = workingDir;
+        this.forkedJvmPool = forkedJvmPool;
     }
 
     @Override
     public TaskResultImpl execute(TaskContext context, PrintStream outputSink, PrintStream errorSink) {
+        if (forkedJvmPool.isEnabled() && forkedJvmProcessBuilderCreator.canRunInPooledJvm(context)) {
+            return executeInPooledJvm(context, outputSink, errorSink);
+        }
         CookieBasedProcessTreeKiller taskProcessTreeKiller = null;
         Process process = null;
         ProcessStreamsReader processStreamsReader = null;
@@ -145,6 +160,24 @@ public class ForkedTaskExecutor implements TaskExecutor {
         }
     }
 
+    private TaskResultImpl executeInPooledJvm(TaskContext context, PrintStream outputSink, PrintStream errorSink) {
+        try {
+            if (!workingDir.exists()) {
+                FileUtils.forceMkdir(workingDir);
+            }
+            ForkedJvmKey key = new ForkedJvmKey(context.getInitializer().getJobOwner(),
+                                                forkedJvmProcessBuilderCreator.createPooledForkedJvmCommand(context),
+                                                forkedJvmProcessBuilderCreator.createPooledForkedJvmEnvironment(context));
+            Object result = forkedJvmPool.execute(key, workingDir, context, outputSink, errorSink);
+            if (result instanceof Throwable) {
+                return createTaskResult(context, (Throwable) result);
+            }
+            return (TaskResultImpl) result;
+        } catch (Throwable throwable) {
+            return createTaskResult(context, throwable);
+        }
+    }
+
     private TaskResultImpl createTaskResult(TaskContext context, Throwable throwable) {
         TaskResultImpl result = new TaskResultImpl(context.getTaskId(),
                                                    new ForkedJvmProcessException("Failed to execute task in a forked JVM",
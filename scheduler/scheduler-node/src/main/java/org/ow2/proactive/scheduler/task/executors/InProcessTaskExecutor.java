@@ -45,7 +45,6 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
 
 import org.apache.commons.io.FileUtils;
 import org.ow2.proactive.resourcemanager.task.client.RMNodeClient;
@@ -64,6 +63,7 @@ import org.ow2.proactive.scheduler.task.exceptions.TaskException;
 import org.ow2.proactive.scheduler.task.executors.forked.env.ForkedTaskVariablesManager;
 import org.ow2.proactive.scheduler.task.utils.VariablesMap;
 import org.ow2.proactive.scripting.Script;
+import org.ow2.proactive.scripting.ScriptEngineRegistry;
 import org.ow2.proactive.scripting.ScriptHandler;
 import org.ow2.proactive.scripting.ScriptLoader;
 import org.ow2.proactive.scripting.ScriptResult;
@@ -235,8 +235,7 @@ public class InProcessTaskExecutor implements TaskExecutor {
     private void saveScriptAsFile(String path, Script<?> script, TaskContext taskContext) throws Throwable {
         //If the path doesn't contain an extension, add an extension to it
         if (!path.contains(".")) {
-            ScriptEngineFactory factory = new ScriptEngineManager().getEngineByName(script.getEngineName())
-                                                                   .getFactory();
+            ScriptEngineFactory factory = ScriptEngineRegistry.getInstance().getFactory(script.getEngineName());
             String extension = factory.getExtensions().get(0);
             path = path + "." + extension;
         }
@@ -0,0 +1,157 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.env;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.ow2.proactive.scheduler.common.SchedulerConstants;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.InProcessTaskExecutor;
+import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
+import org.ow2.proactive.utils.Environment;
+
+
+/**
+ * Main class of a pooled forked JVM, executing the tasks received from the node one after the other.
+ *
+ * The JVM connects to the node on the given local port and authenticates with the given token. It then
+ * reads task contexts, each one preceded by the working directory of the task, moves to this directory
+ * and answers each context with the task result, or with the exception raised by the execution. After each task, the processes started by the task are killed and the given end marker is
+ * printed on the standard output and error, so that the node knows that the whole output of the task
+ * was received. The JVM exits when the connection is closed.
+ *
+ * @see ExecuteForkedTaskInsideNewJvm
+ */
+public class ExecuteForkedTasksInsidePooledJvm {
+
+    private final Socket socket;
+
+    private final String endMarker;
+
+    private ExecuteForkedTasksInsidePooledJvm(Socket socket, String endMarker) {
+        this.socket = socket;
+        this.endMarker = endMarker;
+    }
+
+    /**
+     * Everything here and called from here should only use System.out and System.err
+     */
+    public static void main(String[] args) throws Throwable {
+        if (args.length != 3) {
+            System.err.println("Port, token and end marker are expected");
+            System.exit(-1);
+        }
+
+        ExecuteForkedTaskInsideNewJvm.setSecurityPolicy();
+
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+        socket.setTcpNoDelay(true);
+
+        new ExecuteForkedTasksInsidePooledJvm(socket, args[2]).executeTasks(args[1]);
+
+        // Call to System.exit is necessary at this point as the forked JVM can keep alive non-daemon threads
+        System.exit(0);
+    }
+
+    private void executeTasks(String token) throws IOException {
+        ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        output.writeUTF(token);
+        output.flush();
+        ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        while (true) {
+            String workingDir;
+            TaskContext context;
+            try {
+                workingDir = input.readUTF();
+                context = (TaskContext) input.readObject();
+            } catch (EOFException connectionClosed) {
+                return;
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+
+            Object result = execute(workingDir, context);
+
+            System.out.flush();
+            System.err.flush();
+            System.out.println(endMarker);
+            System.err.println(endMarker);
+
+            try {
+                output.writeObject(result);
+            } catch (NotSerializableException e) {
+                output.reset();
+                output.writeObject(new IOException("Could not serialize task result", e));
+            }
+            output.flush();
+            // do not keep references to the objects of the previous tasks
+            output.reset();
+        }
+    }
+
+    private Object execute(String workingDir, TaskContext context) {
+        CookieBasedProcessTreeKiller taskProcessTreeKiller = null;
+        try {
+            if (Environment.chdir(workingDir) != 0) {
+                throw new IOException("Could not change the working directory of the pooled forked JVM to " +
+                                      workingDir);
+            }
+            if (isProcessTreeKillerEnabled(context)) {
+                TaskId taskId = context.getTaskId();
+                // processes started by the task inherit the cookie added to the environment of the JVM
+                taskProcessTreeKiller = CookieBasedProcessTreeKiller.createAllChildrenKiller("Job" +
+                                                                                             taskId.getJobId()
+                                                                                                   .value() +
+                                                                                             "Task" + taskId.value());
+            }
+            return new InProcessTaskExecutor().execute(context, System.out, System.err);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace(System.err);
+            return throwable;
+        } finally {
+            if (taskProcessTreeKiller != null) {
+                taskProcessTreeKiller.kill();
+            }
+        }
+    }
+
+    private boolean isProcessTreeKillerEnabled(TaskContext context) {
+        return context.getInitializer().getGenericInformation() == null ||
+               !"true".equalsIgnoreCase(context.getInitializer()
+                                               .getGenericInformation()
+                                               .get(SchedulerConstants.DISABLE_PROCESS_TREE_KILLER_GENERIC_INFO));
+    }
+}
@@ -85,6 +85,28 @@ public class ForkedJvmTaskExecutionCommandCreator implements Serializable {
         if (taskContext == null) {
             return new ArrayList<>(0);
         }
+        List<String> javaCommand = createForkedJvmCommand(taskContext, forkEnvironmentScriptResult);
+        javaCommand.add(ExecuteForkedTaskInsideNewJvm.class.getName());
+        javaCommand.add(convertToLinuxPathIfNeeded(isDockerWindowsToLinux(taskContext),
+                                                   serializedContextAbsolutePath));
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Forked JVM command : " + javaCommand);
+        }
+        return javaCommand;
+    }
+
+    /**
+     * Creates the command starting the java virtual machine of a task, without the main class and its arguments.
+     *
+     * @param taskContext                   TaskContext object describing the task.
+     * @param forkEnvironmentScriptResult   Result from a running fork environment script, may be null.
+     * @return the java executable, classpath and JVM arguments of the forked JVM.
+     * @throws Exception If the {@link TaskContextVariableExtractor} could not extract all variables from the
+     *                   TaskContext.
+     */
+    public List<String> createForkedJvmCommand(TaskContext taskContext, ScriptResult forkEnvironmentScriptResult)
+            throws Exception {
         Map<String, Serializable> variables = taskContextVariableExtractor.getAllVariables(taskContext);
         String javaHome = System.getProperty("java.home");
         List<String> jvmArguments = new ArrayList<>(1);
@@ -171,15 +193,14 @@ public class ForkedJvmTaskExecutionCommandCreator implements Serializable {
                                        .map(arg -> isDockerWindowsToLinux ? ForkEnvironment.convertToLinuxPathInJVMArgument(arg)
                                                                           : arg)
                                        .collect(Collectors.toList()));
-        javaCommand.add(ExecuteForkedTaskInsideNewJvm.class.getName());
-        javaCommand.add(convertToLinuxPathIfNeeded(isDockerWindowsToLinux, serializedContextAbsolutePath));
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("Forked JVM command : " + javaCommand);
-        }
         return javaCommand;
     }
 
+    private boolean isDockerWindowsToLinux(TaskContext taskContext) {
+        return taskContext.getInitializer() != null && taskContext.getInitializer().getForkEnvironment() != null &&
+               taskContext.getInitializer().getForkEnvironment().isDockerWindowsToLinux();
+    }
+
     private PAPropertyString createNodeSourceProperty() {
         PAPropertyString nodeSourceNameProperty = new PAPropertyString("proactive.node.nodesource", false, "Default");
         try {
@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Identifies the forked JVMs which can run a task: two tasks can run in the same pooled JVM when they
+ * belong to jobs of the same owner, and their JVMs are started with the same command (java home, JVM
+ * arguments and classpath) and the same system environment variables. The working directory of a task,
+ * its scratch folder, is set by the pooled JVM for each execution.
+ */
+public final class ForkedJvmKey {
+
+    private final String owner;
+
+    private final List<String> command;
+
+    private final Map<String, String> environment;
+
+    public ForkedJvmKey(String owner, List<String> command, Map<String, String> environment) {
+        this.owner = owner;
+        this.command = Collections.unmodifiableList(new ArrayList<>(command));
+        this.environment = Collections.unmodifiableMap(new HashMap<>(environment));
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ForkedJvmKey that = (ForkedJvmKey) o;
+        return Objects.equals(owner, that.owner) && command.equals(that.command) &&
+               environment.equals(that.environment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(owner, command, environment);
+    }
+
+    @Override
+    public String toString() {
+        return "ForkedJvmKey{owner=" + owner + ", command=" + command + '}';
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+
+/**
+ * Pool of forked JVMs of a node, kept alive between the executions of forked tasks to avoid paying the
+ * start of a JVM for each task.
+ *
+ * JVMs are indexed by {@link ForkedJvmKey}: a task always runs in a JVM started for its job owner, with its
+ * own command and environment, a new JVM is started when no idle JVM matches. The JVM moves to the working
+ * directory of each task it executes. A JVM is stopped when the execution of a task in it failed or was
+ * interrupted, and is replaced by a new one after
+ * {@link PASchedulerProperties#TASK_FORK_POOL_MAX_TASKS} tasks. At most
+ * {@link PASchedulerProperties#TASK_FORK_POOL_SIZE} JVMs are kept idle, the ones idle for more than
+ * {@link PASchedulerProperties#TASK_FORK_POOL_IDLE_TIMEOUT} seconds are stopped.
+ */
+public class ForkedJvmPool {
+
+    private static final Logger logger = Logger.getLogger(ForkedJvmPool.class);
+
+    private static final int START_TIMEOUT_MILLIS = 60000;
+
+    private static ForkedJvmPool instance;
+
+    private final int maxIdleJvms;
+
+    private final int maxTasksPerJvm;
+
+    private final long idleTimeoutMillis;
+
+    /**
+     * idle JVMs, per key, the most recently used first
+     */
+    private final Map<ForkedJvmKey, Deque<PooledForkedJvm>> idleJvms = new HashMap<>();
+
+    /**
+     * idle JVMs of all keys, the least recently used first
+     */
+    private final LinkedList<PooledForkedJvm> idleOrder = new LinkedList<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("forked-jvm-pool-%d")
+                                                                                                      .setDaemon(true)
+                                                                                                      .build());
+
+    private boolean shutdown = false;
+
+    public ForkedJvmPool(int maxIdleJvms, int maxTasksPerJvm, long idleTimeoutMillis) {
+        this.maxIdleJvms = maxIdleJvms;
+        this.maxTasksPerJvm = maxTasksPerJvm;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        if (maxIdleJvms > 0 && idleTimeoutMillis > 0) {
+            ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("forked-jvm-pool-reaper")
+                                                                                                                   .setDaemon(true)
+                                                                                                                   .build());
+            reaper.scheduleWithFixedDelay(this::stopExpiredJvms,
+                                          idleTimeoutMillis,
+                                          idleTimeoutMillis,
+                                          TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the pool of the node, configured by the scheduler properties
+     */
+    public static synchronized ForkedJvmPool getInstance() {
+        if (instance == null) {
+            instance = new ForkedJvmPool(PASchedulerProperties.TASK_FORK_POOL_SIZE.getValueAsInt(),
+                                         PASchedulerProperties.TASK_FORK_POOL_MAX_TASKS.getValueAsInt(),
+                                         TimeUnit.SECONDS.toMillis(PASchedulerProperties.TASK_FORK_POOL_IDLE_TIMEOUT.getValueAsInt()));
+            if (instance.isEnabled()) {
+                Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "forked-jvm-pool-shutdown"));
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return maxIdleJvms > 0;
+    }
+
+    /**
+     * Executes a task in a JVM of the pool, starting one if no idle JVM matches the key.
+     *
+     * @param workingDir the existing working directory of the task
+     * @return the task result, or the exception thrown by the task execution in the JVM
+     */
+    public Object execute(ForkedJvmKey key, File workingDir, TaskContext context, PrintStream outputSink,
+            PrintStream errorSink) throws Exception {
+        PooledForkedJvm jvm = acquire(key);
+        boolean reusable = false;
+        try {
+            Object result = jvm.execute(workingDir, context, outputSink, errorSink, executor);
+            reusable = true;
+            return result;
+        } finally {
+            release(jvm, reusable);
+        }
+    }
+
+    private PooledForkedJvm acquire(ForkedJvmKey key) throws IOException {
+        List<PooledForkedJvm> deadJvms = new ArrayList<>(0);
+        try {
+            synchronized (this) {
+                Deque<PooledForkedJvm> jvms = idleJvms.get(key);
+                while (jvms != null && !jvms.isEmpty()) {
+                    PooledForkedJvm jvm = removeIdle(jvms.peekFirst());
+                    if (jvm.isAlive()) {
+                        return jvm;
+                    }
+                    deadJvms.add(jvm);
+                }
+            }
+        } finally {
+            deadJvms.forEach(PooledForkedJvm::destroy);
+        }
+        return startJvm(key);
+    }
+
+    private void release(PooledForkedJvm jvm, boolean reusable) {
+        if (!reusable || !jvm.isAlive()) {
+            jvm.destroy();
+        } else if (jvm.getExecutedTasks() >= maxTasksPerJvm) {
+            jvm.destroy();
+            // start the replacement before the next task needs it
+            executor.execute(() -> {
+                try {
+                    addIdle(startJvm(jvm.getKey()));
+                } catch (Exception e) {
+                    logger.warn("Could not start pooled forked JVM", e);
+                }
+            });
+        } else {
+            addIdle(jvm);
+        }
+    }
+
+    private PooledForkedJvm startJvm(ForkedJvmKey key) throws IOException {
+        logger.debug("Starting pooled forked JVM " + key);
+        return PooledForkedJvm.start(key, START_TIMEOUT_MILLIS, executor);
+    }
+
+    private void addIdle(PooledForkedJvm jvm) {
+        List<PooledForkedJvm> evicted = new ArrayList<>(1);
+        synchronized (this) {
+            if (shutdown) {
+                evicted.add(jvm);
+            } else {
+                jvm.setIdle();
+                idleJvms.computeIfAbsent(jvm.getKey(), k -> new ArrayDeque<>()).addFirst(jvm);
+                idleOrder.addLast(jvm);
+                while (idleOrder.size() > maxIdleJvms) {
+                    evicted.add(removeIdle(idleOrder.getFirst()));
+                }
+            }
+        }
+        evicted.forEach(PooledForkedJvm::destroy);
+    }
+
+    private synchronized PooledForkedJvm removeIdle(PooledForkedJvm jvm) {
+        Deque<PooledForkedJvm> jvms = idleJvms.get(jvm.getKey());
+        jvms.remove(jvm);
+        if (jvms.isEmpty()) {
+            idleJvms.remove(jvm.getKey());
+        }
+        idleOrder.remove(jvm);
+        return jvm;
+    }
+
+    private void stopExpiredJvms() {
+        List<PooledForkedJvm> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Iterator<PooledForkedJvm> iterator = idleOrder.iterator();
+            while (iterator.hasNext()) {
+                PooledForkedJvm jvm = iterator.next();
+                if (now - jvm.getIdleSince() < idleTimeoutMillis) {
+                    break;
+                }
+                expired.add(jvm);
+            }
+            expired.forEach(this::removeIdle);
+        }
+        expired.forEach(PooledForkedJvm::destroy);
+    }
+
+    /**
+     * Stops all idle JVMs, JVMs released afterwards are stopped as well.
+     */
+    public void shutdown() {
+        List<PooledForkedJvm> jvms;
+        synchronized (this) {
+            shutdown = true;
+            jvms = new ArrayList<>(idleOrder);
+            jvms.forEach(this::removeIdle);
+        }
+        jvms.forEach(PooledForkedJvm::destroy);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.executors.forked.pool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.exceptions.ForkedJvmProcessException;
+import org.ow2.proactive.scheduler.task.executors.forked.env.ExecuteForkedTasksInsidePooledJvm;
+import org.ow2.proactive.scheduler.task.utils.task.termination.CleanupTimeoutGetter;
+import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
+
+
+/**
+ * A forked JVM running {@link ExecuteForkedTasksInsidePooledJvm}, to which task contexts are sent through
+ * a local socket, each one preceded by the working directory of the task.
+ *
+ * The standard output and error of the JVM are read by two threads, which forward each line to the sinks
+ * of the task being executed, until the end marker printed by the JVM after each task is read.
+ */
+public class PooledForkedJvm {
+
+    private static final Logger logger = Logger.getLogger(PooledForkedJvm.class);
+
+    private static final long END_MARKER_TIMEOUT_SECONDS = 10;
+
+    private final ForkedJvmKey key;
+
+    private final Process process;
+
+    private final CookieBasedProcessTreeKiller processTreeKiller;
+
+    private final Socket socket;
+
+    private final ObjectOutputStream output;
+
+    private final ObjectInputStream input;
+
+    private final String endMarker;
+
+    /**
+     * released each time the end marker is read on the standard output or error
+     */
+    private final Semaphore endMarkers = new Semaphore(0);
+
+    private volatile PrintStream outputSink;
+
+    private volatile PrintStream errorSink;
+
+    private int executedTasks = 0;
+
+    private long idleSince = System.currentTimeMillis();
+
+    private PooledForkedJvm(ForkedJvmKey key, Process process, CookieBasedProcessTreeKiller processTreeKiller,
+            Socket socket, ObjectOutputStream output, ObjectInputStream input, String endMarker) {
+        this.key = key;
+        this.process = process;
+        this.processTreeKiller = processTreeKiller;
+        this.socket = socket;
+        this.output = output;
+        this.input = input;
+        this.endMarker = endMarker;
+    }
+
+    /**
+     * Starts a JVM and waits until it is connected.
+     *
+     * @param key the command and environment of the JVM
+     * @param startTimeoutMillis maximum time to wait for the connection of the JVM
+     * @param readers executor running the threads reading the output of the JVM
+     * @return the connected JVM
+     */
+    static PooledForkedJvm start(ForkedJvmKey key, int startTimeoutMillis, ExecutorService readers)
+            throws IOException {
+        String token = UUID.randomUUID().toString();
+        String endMarker = "END_OF_FORKED_TASK_" + UUID.randomUUID();
+
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(startTimeoutMillis);
+
+            List<String> command = new ArrayList<>(key.getCommand());
+            command.add(ExecuteForkedTasksInsidePooledJvm.class.getName());
+            command.add(String.valueOf(serverSocket.getLocalPort()));
+            command.add(token);
+            command.add(endMarker);
+
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.environment().putAll(key.getEnvironment());
+            CookieBasedProcessTreeKiller processTreeKiller = CookieBasedProcessTreeKiller.createProcessChildrenKiller("PooledForkedJvm",
+                                                                                                                     processBuilder.environment());
+            Process process = processBuilder.start();
+
+            Socket socket = null;
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+                if (!token.equals(input.readUTF())) {
+                    throw new IOException("Invalid token received from forked JVM");
+                }
+                ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                output.flush();
+
+                PooledForkedJvm jvm = new PooledForkedJvm(key,
+                                                          process,
+                                                          processTreeKiller,
+                                                          socket,
+                                                          output,
+                                                          input,
+                                                          endMarker);
+                readers.execute(() -> jvm.forwardLines(process.getInputStream(), true));
+                readers.execute(() -> jvm.forwardLines(process.getErrorStream(), false));
+                return jvm;
+            } catch (IOException e) {
+                if (socket != null) {
+                    socket.close();
+                }
+                process.destroy();
+                processTreeKiller.kill();
+                if (e instanceof SocketTimeoutException) {
+                    throw new ForkedJvmProcessException("Pooled forked JVM did not connect after " +
+                                                        startTimeoutMillis + " ms", e);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Executes a task in the JVM. The thread waiting for the result can be interrupted, the JVM must then
+     * be destroyed.
+     *
+     * @return the task result, or the exception thrown by the task execution in the JVM
+     */
+    Object execute(File workingDir, TaskContext context, PrintStream outputSink, PrintStream errorSink,
+            ExecutorService readers) throws Exception {
+        executedTasks++;
+        this.outputSink = outputSink;
+        this.errorSink = errorSink;
+        try {
+            Future<Object> result = readers.submit(() -> {
+                output.writeUTF(workingDir.getAbsolutePath());
+                output.writeObject(context);
+                output.flush();
+                output.reset();
+                return input.readObject();
+            });
+            Object taskResult;
+            try {
+                taskResult = result.get();
+            } catch (ExecutionException e) {
+                throw new ForkedJvmProcessException("Pooled forked JVM terminated during the task execution (exit code " +
+                                                    (process.isAlive() ? "unknown" : process.exitValue()) + ")",
+                                                    e.getCause());
+            }
+            // the whole output of the task was read when both end markers were received
+            if (!endMarkers.tryAcquire(2, END_MARKER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Output of the task was not entirely received from pooled forked JVM");
+            }
+            return taskResult;
+        } finally {
+            this.outputSink = null;
+            this.errorSink = null;
+            endMarkers.drainPermits();
+        }
+    }
+
+    private void forwardLines(InputStream stream, boolean standardOutput) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (endMarker.equals(line)) {
+                    endMarkers.release();
+                    continue;
+                }
+                PrintStream sink = standardOutput ? outputSink : errorSink;
+                if (sink != null) {
+                    sink.println(line);
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Pooled forked JVM output: " + line);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Stopped reading the output of pooled forked JVM", e);
+        }
+    }
+
+    ForkedJvmKey getKey() {
+        return key;
+    }
+
+    int getExecutedTasks() {
+        return executedTasks;
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdle() {
+        idleSince = System.currentTimeMillis();
+    }
+
+    boolean isAlive() {
+        return process.isAlive() && !socket.isClosed();
+    }
+
+    /**
+     * Stops the JVM and kills all the processes it started.
+     */
+    void destroy() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Could not close connection to pooled forked JVM", e);
+        }
+        process.destroy();
+        try {
+            process.waitFor(new CleanupTimeoutGetter().getCleanupTimeSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        processTreeKiller.kill();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.TestTaskOutput;
+import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.context.NodeDataSpacesURIs;
+import org.ow2.proactive.scheduler.task.context.NodeInfo;
+import org.ow2.proactive.scheduler.task.context.TaskContext;
+import org.ow2.proactive.scheduler.task.executors.ForkedTaskExecutor;
+import org.ow2.proactive.scheduler.task.executors.forked.pool.ForkedJvmPool;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Executes tasks in the pooled JVMs of a {@link ForkedJvmPool}.
+ * As the pool starts separate JVMs, this test is a functionalTest (to avoid leaving alive subprocesses when cancelled)
+ */
+public class ForkedJvmPoolTest {
+
+    private static final String JVM_NAME_SCRIPT = "result = java.lang.management.ManagementFactory.getRuntimeMXBean().getName()";
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private ForkedJvmPool pool;
+
+    private File workingDir;
+
+    @Before
+    public void createPool() throws Exception {
+        pool = new ForkedJvmPool(1, 2, 60000);
+        workingDir = tmpFolder.newFolder();
+    }
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void jvmIsReusedAndRecycledAfterMaxTasks() throws Throwable {
+        Serializable firstJvm = executeTask("first", JVM_NAME_SCRIPT);
+        Serializable secondJvm = executeTask("second", JVM_NAME_SCRIPT);
+        Serializable thirdJvm = executeTask("third", JVM_NAME_SCRIPT);
+
+        assertEquals(firstJvm, secondJvm);
+        assertNotEquals(secondJvm, thirdJvm);
+    }
+
+    @Test
+    public void outputIsSeparatedBetweenTasks() throws Throwable {
+        TestTaskOutput firstOutput = new TestTaskOutput();
+        TestTaskOutput secondOutput = new TestTaskOutput();
+
+        execute("first", "println('task first')", firstOutput);
+        execute("second", "println('task second')", secondOutput);
+
+        assertEquals(String.format("task first%n"), firstOutput.output());
+        assertEquals(String.format("task second%n"), secondOutput.output());
+    }
+
+    @Test
+    public void jvmIsReplacedWhenTheTaskExitsTheJvm() throws Throwable {
+        TaskResultImpl failed = execute("exit", "System.exit(1)", new TestTaskOutput());
+
+        assertTrue(failed.hadException());
+
+        TaskResultImpl result = execute("after", "result = 'ok'", new TestTaskOutput());
+
+        assertNull(result.getException());
+        assertEquals("ok", result.value());
+    }
+
+    @Test
+    public void taskReadsRelativeFilesInItsWorkingDir() throws Throwable {
+        File otherWorkingDir = tmpFolder.newFolder();
+        FileUtils.writeStringToFile(new File(workingDir, "input.txt"), "first", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(otherWorkingDir, "input.txt"), "second", StandardCharsets.UTF_8);
+        String readInput = "result = new File('input.txt').text";
+
+        assertEquals("first", execute("first", readInput, "user", workingDir, new TestTaskOutput()).value());
+        assertEquals("second", execute("second", readInput, "user", otherWorkingDir, new TestTaskOutput()).value());
+        assertEquals("first", execute("third", readInput, "user", workingDir, new TestTaskOutput()).value());
+    }
+
+    @Test
+    public void jvmIsReusedByTasksOfDifferentWorkingDirs() throws Throwable {
+        // each task has its own scratch folder
+        File firstScratch = new File(tmpFolder.getRoot(), "first-scratch");
+        File secondScratch = new File(tmpFolder.getRoot(), "second-scratch");
+        String script = JVM_NAME_SCRIPT + " + ' ' + new File('.').canonicalPath";
+
+        String first = (String) execute("first", script, "user", firstScratch, new TestTaskOutput()).value();
+        String second = (String) execute("second", script, "user", secondScratch, new TestTaskOutput()).value();
+
+        assertEquals(first.split(" ")[0], second.split(" ")[0]);
+        assertEquals(firstScratch.getCanonicalPath(), first.substring(first.indexOf(' ') + 1));
+        assertEquals(secondScratch.getCanonicalPath(), second.substring(second.indexOf(' ') + 1));
+    }
+
+    @Test
+    public void jvmIsNotSharedBetweenJobOwners() throws Throwable {
+        Serializable firstJvm = execute("first", JVM_NAME_SCRIPT, "user", workingDir, new TestTaskOutput()).value();
+        Serializable secondJvm = execute("second", JVM_NAME_SCRIPT, "other", workingDir, new TestTaskOutput()).value();
+
+        assertNotEquals(firstJvm, secondJvm);
+    }
+
+    private Serializable executeTask(String taskName, String script) throws Throwable {
+        return execute(taskName, script, new TestTaskOutput()).value();
+    }
+
+    private TaskResultImpl execute(String taskName, String script, TestTaskOutput taskOutput) throws Throwable {
+        return execute(taskName, script, "user", workingDir, taskOutput);
+    }
+
+    private TaskResultImpl execute(String taskName, String script, String jobOwner, File taskWorkingDir,
+            TestTaskOutput taskOutput) throws Throwable {
+        TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+        initializer.setTaskId(TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), taskName, 1000L));
+        initializer.setJobOwner(jobOwner);
+
+        ForkedTaskExecutor taskExecutor = new ForkedTaskExecutor(taskWorkingDir, pool);
+
+        return taskExecutor.execute(new TaskContext(new ScriptExecutableContainer(new TaskScript(new SimpleScript(script,
+                                                                                                                  "groovy"))),
+                                                    initializer,
+                                                    null,
+                                                    new NodeDataSpacesURIs("", "", "", "", "", ""),
+                                                    "",
+                                                    new NodeInfo("", "", "", "")),
+                                    taskOutput.outputStream,
+                                    taskOutput.error);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.data;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+import org.objectweb.proactive.extensions.dataspaces.api.FileContent;
+
+
+public class DataspaceInputCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheDirectory;
+
+    private File scratch;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        scratch = temporaryFolder.newFolder("scratch");
+    }
+
+    @Test
+    public void testFileIsDownloadedOnce() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        byte[] data = data(40);
+        FileContent content = content(data, 1000);
+        DataSpacesFileObject source = source("file:///input/a", content);
+
+        assertThat(cache.copy(source, new File(scratch, "a1"))).isEqualTo(DataspaceInputCache.Placement.LINKED);
+        assertThat(cache.copy(source, new File(scratch, "a2"))).isEqualTo(DataspaceInputCache.Placement.LINKED);
+
+        verify(content, times(1)).getInputStream();
+        assertThat(Files.readAllBytes(new File(scratch, "a2").toPath())).isEqualTo(data);
+        assertThat(new File(scratch, "a2").lastModified()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void testConcurrentTasksShareDownload() throws Exception {
+        final DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        final CountDownLatch downloadStarted = new CountDownLatch(1);
+        final CountDownLatch downloadAllowed = new CountDownLatch(1);
+        final byte[] data = data(40);
+        FileContent content = content(data, 1000);
+        when(content.getInputStream()).thenAnswer(new Answer<InputStream>() {
+            @Override
+            public InputStream answer(InvocationOnMock invocation) throws Throwable {
+                downloadStarted.countDown();
+                downloadAllowed.await();
+                return new ByteArrayInputStream(data);
+            }
+        });
+        final DataSpacesFileObject source = source("file:///input/a", content);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DataspaceInputCache.Placement>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final File target = new File(scratch, "a" + i);
+                futures.add(executor.submit(new Callable<DataspaceInputCache.Placement>() {
+                    @Override
+                    public DataspaceInputCache.Placement call() throws Exception {
+                        return cache.copy(source, target);
+                    }
+                }));
+            }
+            downloadStarted.await();
+            Thread.sleep(100);
+            downloadAllowed.countDown();
+            for (Future<DataspaceInputCache.Placement> future : futures) {
+                assertThat(future.get()).isEqualTo(DataspaceInputCache.Placement.LINKED);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(content, times(1)).getInputStream();
+        for (int i = 0; i < 4; i++) {
+            assertThat(Files.readAllBytes(new File(scratch, "a" + i).toPath())).isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void testModifiedFileIsDownloadedAgain() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, false);
+        FileContent content = content(data(10), 1000);
+        cache.copy(source("file:///input/a", content), new File(scratch, "a"));
+
+        FileContent modifiedContent = content(data(20), 2000);
+        assertThat(cache.copy(source("file:///input/a", modifiedContent),
+                              new File(scratch, "a"))).isEqualTo(DataspaceInputCache.Placement.COPIED);
+
+        verify(modifiedContent, times(1)).getInputStream();
+        assertThat(new File(scratch, "a").length()).isEqualTo(20L);
+        assertThat(new File(scratch, "a").canWrite()).isTrue();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        cache.copy(source("file:///input/a", content(data(40), 1)), new File(scratch, "a"));
+        cache.copy(source("file:///input/b", content(data(40), 1)), new File(scratch, "b"));
+        cache.copy(source("file:///input/a", content(data(40), 1)), new File(scratch, "a2"));
+        cache.copy(source("file:///input/c", content(data(40), 1)), new File(scratch, "c"));
+
+        assertThat(cache.getSize()).isEqualTo(80L);
+        assertThat(cache.contains("file:///input/a", 40, 1)).isTrue();
+        assertThat(cache.contains("file:///input/b", 40, 1)).isFalse();
+        assertThat(cache.contains("file:///input/c", 40, 1)).isTrue();
+        // linked files survive the eviction of their entry
+        assertThat(new File(scratch, "b").length()).isEqualTo(40L);
+    }
+
+    @Test
+    public void testFileLargerThanCacheIsNotCached() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        FileContent content = content(data(101), 1);
+
+        assertThat(cache.copy(source("file:///input/big", content),
+                              new File(scratch, "big"))).isEqualTo(DataspaceInputCache.Placement.NOT_CACHED);
+        assertThat(cache.getSize()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testEntriesAreReloaded() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        cache.copy(source("file:///input/a", content(data(40), 1)), new File(scratch, "a"));
+
+        DataspaceInputCache reloadedCache = new DataspaceInputCache(cacheDirectory, 100, true);
+        FileContent content = content(data(40), 1);
+        reloadedCache.copy(source("file:///input/a", content), new File(scratch, "a2"));
+
+        assertThat(reloadedCache.getSize()).isEqualTo(40L);
+        verify(content, times(0)).getInputStream();
+    }
+
+    @Test
+    public void testCacheIsOnlyAccessibleByNodeUser() throws Exception {
+        Assume.assumeTrue(Files.getFileStore(cacheDirectory.toPath())
+                               .supportsFileAttributeView(PosixFileAttributeView.class));
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        cache.copy(source("file:///input/a", content(data(40), 1)), new File(scratch, "a"));
+
+        assertThat(permissions(cacheDirectory)).isEqualTo("rwx------");
+        File[] entries = cacheDirectory.listFiles();
+        assertThat(entries.length).isEqualTo(1);
+        assertThat(permissions(entries[0])).isEqualTo("r--------");
+    }
+
+    @Test
+    public void testFileIsCopiedWhenLinkIsNotAllowed() throws Exception {
+        DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        byte[] data = data(40);
+
+        assertThat(cache.copy(source("file:///input/a", content(data, 1)),
+                              new File(scratch, "a"),
+                              false)).isEqualTo(DataspaceInputCache.Placement.COPIED);
+        assertThat(Files.readAllBytes(new File(scratch, "a").toPath())).isEqualTo(data);
+        assertThat(new File(scratch, "a").canWrite()).isTrue();
+    }
+
+    @Test
+    public void testDownloadedEntryIsNotEvicted() throws Exception {
+        final DataspaceInputCache cache = new DataspaceInputCache(cacheDirectory, 100, true);
+        final CountDownLatch readingA = new CountDownLatch(1);
+        final CountDownLatch readAllowed = new CountDownLatch(1);
+        // the entry of a cannot be evicted while it is read into this target
+        final File blockingTarget = new File(scratch, "a") {
+            @Override
+            public Path toPath() {
+                readingA.countDown();
+                try {
+                    readAllowed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.toPath();
+            }
+        };
+        final DataSpacesFileObject sourceA = source("file:///input/a", content(data(60), 1));
+        FileContent contentB = content(data(60), 1);
+        final DataSpacesFileObject sourceB = source("file:///input/b", contentB);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DataspaceInputCache.Placement> copyA = executor.submit(new Callable<DataspaceInputCache.Placement>() {
+                @Override
+                public DataspaceInputCache.Placement call() throws Exception {
+                    return cache.copy(sourceA, blockingTarget);
+                }
+            });
+            readingA.await();
+            Future<DataspaceInputCache.Placement> copyB = executor.submit(new Callable<DataspaceInputCache.Placement>() {
+                @Override
+                public DataspaceInputCache.Placement call() throws Exception {
+                    return cache.copy(sourceB, new File(scratch, "b"));
+                }
+            });
+
+            assertThat(copyB.get(10, TimeUnit.SECONDS)).isEqualTo(DataspaceInputCache.Placement.LINKED);
+            readAllowed.countDown();
+            assertThat(copyA.get(10, TimeUnit.SECONDS)).isEqualTo(DataspaceInputCache.Placement.LINKED);
+        } finally {
+            readAllowed.countDown();
+            executor.shutdownNow();
+        }
+
+        verify(contentB, times(1)).getInputStream();
+        assertThat(Files.readAllBytes(new File(scratch, "b").toPath())).isEqualTo(data(60));
+        assertThat(cache.contains("file:///input/b", 60, 1)).isTrue();
+    }
+
+    private static String permissions(File file) throws Exception {
+        return PosixFilePermissions.toString(Files.getPosixFilePermissions(file.toPath()));
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static FileContent content(byte[] data, long lastModifiedTime) throws Exception {
+        FileContent content = mock(FileContent.class);
+        when(content.getSize()).thenReturn((long) data.length);
+        when(content.getLastModifiedTime()).thenReturn(lastModifiedTime);
+        when(content.getInputStream()).thenReturn(new ByteArrayInputStream(data));
+        return content;
+    }
+
+    private static DataSpacesFileObject source(String uri, FileContent content) throws Exception {
+        DataSpacesFileObject source = mock(DataSpacesFileObject.class);
+        when(source.getRealURI()).thenReturn(uri);
+        when(source.getContent()).thenReturn(content);
+        return source;
+    }
+}
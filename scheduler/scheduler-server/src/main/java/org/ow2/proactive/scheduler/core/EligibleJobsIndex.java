@@ -0,0 +1,162 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.descriptor.EligibleTasksListener;
+import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+/**
+ * Index of the live jobs which currently have eligible tasks.
+ * <p>
+ * Jobs are kept ordered by priority (highest first) then by id, which is the order used by the
+ * {@link org.ow2.proactive.scheduler.policy.DefaultPolicy}. The index is maintained incrementally by the
+ * job descriptors, so that a scheduling loop only visits the jobs which have something to schedule
+ * instead of every live job.
+ *
+ * @author The ProActive Team
+ */
+class EligibleJobsIndex implements EligibleTasksListener {
+
+    private final ConcurrentSkipListSet<Entry> orderedJobs = new ConcurrentSkipListSet<>();
+
+    /** current entry of each indexed job, guarded by this */
+    private final Map<JobId, Entry> entries = new HashMap<>();
+
+    @Override
+    public synchronized void eligibleTasksChanged(JobDescriptorImpl jobDescriptor, boolean hasEligibleTasks) {
+        if (hasEligibleTasks) {
+            add(jobDescriptor.getInternal());
+        } else {
+            remove(jobDescriptor.getJobId());
+        }
+    }
+
+    /**
+     * Reorder the given job after its priority has changed.
+     *
+     * @param job the job whose priority has changed
+     */
+    synchronized void priorityChanged(InternalJob job) {
+        if (entries.containsKey(job.getId())) {
+            remove(job.getId());
+            add(job);
+        }
+    }
+
+    synchronized void remove(JobId jobId) {
+        Entry entry = entries.remove(jobId);
+        if (entry != null) {
+            orderedJobs.remove(entry);
+        }
+    }
+
+    private void add(InternalJob job) {
+        Entry entry = new Entry(job.getPriority(), job.getId());
+        Entry previous = entries.put(job.getId(), entry);
+        if (previous != null) {
+            orderedJobs.remove(previous);
+        }
+        orderedJobs.add(entry);
+    }
+
+    int size() {
+        return orderedJobs.size();
+    }
+
+    synchronized boolean contains(JobId jobId) {
+        return entries.containsKey(jobId);
+    }
+
+    /**
+     * Returns the ids of the indexed jobs, highest priority first.
+     * The iteration is weakly consistent and never throws a concurrent modification exception.
+     *
+     * @return an iterable over the ids of the jobs which have eligible tasks
+     */
+    Iterable<JobId> getJobIds() {
+        return () -> new Iterator<JobId>() {
+            private final Iterator<Entry> iterator = orderedJobs.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public JobId next() {
+                return iterator.next().jobId;
+            }
+        };
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final JobPriority priority;
+
+        private final JobId jobId;
+
+        private Entry(JobPriority priority, JobId jobId) {
+            this.priority = priority;
+            this.jobId = jobId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority.equals(other.priority)) {
+                return jobId.compareTo(other.jobId);
+            } else {
+                return other.priority.compareTo(priority);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return priority == entry.priority && jobId.equals(entry.jobId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * priority.hashCode() + jobId.hashCode();
+        }
+    }
+
+}
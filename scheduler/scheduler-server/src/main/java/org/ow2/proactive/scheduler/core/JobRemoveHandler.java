@@ -118,7 +118,7 @@ public class JobRemoveHandler implements Callable<Boolean> {
             }
             allJobsWereRemoved = dbJobsIds.size() == jobIds.size();
 
-            service.wakeUpSchedulingThread();
+            service.wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.JOB_UPDATED);
         } catch (Exception e) {
             logger.error("Error while removing list of jobs (" +
                          jobIds.stream().map(JobId::value).collect(Collectors.joining(", ")) + ") due to : " +
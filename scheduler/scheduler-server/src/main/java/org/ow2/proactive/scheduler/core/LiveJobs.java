@@ -107,6 +107,9 @@ class LiveJobs {
 
     private final Map<JobId, JobData> jobs = new ConcurrentHashMap<>();
 
+    /** live jobs which have eligible tasks, ordered by priority */
+    private final EligibleJobsIndex eligibleJobs = new EligibleJobsIndex();
+
     private final ConcurrentHashMap<TaskIdWrapper, RunningTaskData> runningTasksData = new ConcurrentHashMap<>();
 
     private final OnErrorPolicyInterpreter onErrorPolicyInterpreter = new OnErrorPolicyInterpreter();
@@ -137,6 +140,7 @@ class LiveJobs {
 
     void jobRecovered(InternalJob job) {
         jobs.put(job.getId(), new JobData(job));
+        job.getJobDescriptor().setEligibleTasksListener(eligibleJobs);
         for (InternalTask task : job.getITasks()) {
             if (task.getStatus() == TaskStatus.RUNNING) {
                 logger.info("Recover task " + task.getId() + " (" + task.getName() + ") of job " + job.getId() + " (" +
@@ -253,6 +257,7 @@ class LiveJobs {
         }
         try {
             jobData.job.setPriority(priority);
+            eligibleJobs.priorityChanged(jobData.job);
 
             dbManager.changeJobPriority(jobId, priority);
 
@@ -361,17 +366,47 @@ class LiveJobs {
         dbManager.newJobSubmitted(job);
         ClientJobState clientJobState = new ClientJobState(job);
         jobs.put(job.getId(), new JobData(job));
+        job.getJobDescriptor().setEligibleTasksListener(eligibleJobs);
         listener.jobSubmitted(clientJobState);
     }
 
+    private void jobRemoved(InternalJob job) {
+        jobs.remove(job.getId());
+        job.getJobDescriptor().setEligibleTasksListener(null);
+        eligibleJobs.remove(job.getId());
+    }
+
     Map<JobId, JobDescriptor> lockJobsToSchedule(boolean isSchedulerPausedOrStopped) {
+        return lockJobsToSchedule(jobs.values(), isSchedulerPausedOrStopped, new HashMap<>());
+    }
+
+    /**
+     * Lock only the live jobs which currently have eligible tasks.
+     * Unlike {@link #lockJobsToSchedule(boolean)}, jobs are read from an index maintained incrementally
+     * by the job descriptors, so the cost does not depend on the number of live jobs which have nothing
+     * to schedule. The returned map iterates over jobs by decreasing priority.
+     *
+     * @param isSchedulerPausedOrStopped if true, only running or stalled jobs are locked
+     * @return the locked jobs, or an empty map if a priority conflict was detected
+     */
+    Map<JobId, JobDescriptor> lockJobsWithEligibleTasksToSchedule(boolean isSchedulerPausedOrStopped) {
+        List<JobData> jobsWithEligibleTasks = new ArrayList<>(eligibleJobs.size());
+        for (JobId jobId : eligibleJobs.getJobIds()) {
+            JobData jobData = jobs.get(jobId);
+            if (jobData != null) {
+                jobsWithEligibleTasks.add(jobData);
+            }
+        }
+        return lockJobsToSchedule(jobsWithEligibleTasks, isSchedulerPausedOrStopped, new LinkedHashMap<>());
+    }
+
+    private Map<JobId, JobDescriptor> lockJobsToSchedule(Collection<JobData> jobsToLock,
+            boolean isSchedulerPausedOrStopped, Map<JobId, JobDescriptor> result) {
 
         TreeSet<JobPriority> prioritiesScheduled = new TreeSet<>();
         TreeSet<JobPriority> prioritiesNotScheduled = new TreeSet<>();
 
-        Map<JobId, JobDescriptor> result = new HashMap<>();
-        for (Map.Entry<JobId, JobData> entry : jobs.entrySet()) {
-            JobData value = entry.getValue();
+        for (JobData value : jobsToLock) {
 
             // If the scheduler is paused, schedule only running or stalled jobs
             if (isSchedulerPausedOrStopped &&
@@ -380,7 +415,7 @@ class LiveJobs {
             }
 
             if (value.jobLock.tryLock()) {
-                InternalJob job = entry.getValue().job;
+                InternalJob job = value.job;
                 result.put(job.getId(), job.getJobDescriptor());
                 prioritiesScheduled.add(job.getPriority());
             } else {
@@ -808,7 +843,7 @@ class LiveJobs {
                 // terminating job
                 job.terminate();
                 jlogger.debug(job.getId(), "terminated");
-                jobs.remove(job.getId());
+                jobRemoved(job);
                 terminationData.addJobToTerminate(job.getId(), job.getGenericInformation(), job.getCredentials());
             }
 
@@ -1104,7 +1139,7 @@ class LiveJobs {
 
             jlogger.debug(job.getId(), "terminated");
             terminationData.addJobToTerminate(job.getId(), job.getGenericInformation(), job.getCredentials());
-            jobs.remove(job.getId());
+            jobRemoved(job);
         }
 
         task.setTaskResult(result);
@@ -1175,7 +1210,7 @@ class LiveJobs {
 
                 JobId jobId = jobData.job.getId();
 
-                jobs.remove(jobId);
+                jobRemoved(jobData.job);
                 terminationData.addJobToTerminate(jobId,
                                                   jobData.job.getGenericInformation(),
                                                   jobData.job.getCredentials());
@@ -1240,7 +1275,7 @@ class LiveJobs {
             String errorMsg, JobStatus jobStatus) {
         JobId jobId = jobData.job.getId();
 
-        jobs.remove(jobId);
+        jobRemoved(jobData.job);
 
         terminationData.addJobToTerminate(jobId, jobData.job.getGenericInformation(), jobData.job.getCredentials());
 
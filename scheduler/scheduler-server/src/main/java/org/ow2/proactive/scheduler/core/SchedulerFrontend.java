@@ -111,6 +111,7 @@ import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerSpaceInterface;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.exception.AlreadyConnectedException;
@@ -1574,6 +1575,37 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive, EndA
         throw new UnknownTaskException("Unknown task " + taskName + " in job " + jobId);
     }
 
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getJobServerLogs(String jobId, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getJobServerLogs",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSIONS_TO_GET_THE_LOGS_OF_THIS_JOB);
+
+        return ServerJobAndTaskLogs.getInstance().getJobLog(id, frontendState.getJobTasks(id), offset, length);
+    }
+
+    @Override
+    @ImmediateService
+    public ServerLogsChunk getTaskServerLogs(String jobId, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+
+        JobId id = JobIdImpl.makeJobId(jobId);
+        frontendState.checkPermissions("getTaskServerLogs",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_LOGS_OF_THIS_JOB);
+
+        for (TaskId taskId : frontendState.getJobTasks(id)) {
+            if (taskId.getReadableName().equals(taskName)) {
+                return ServerJobAndTaskLogs.getInstance().getTaskLog(taskId, offset, length);
+            }
+        }
+
+        throw new UnknownTaskException("Unknown task " + taskName + " in job " + jobId);
+    }
+
     @Override
     @ImmediateService
     public String getTaskServerLogsByTag(String jobId, String taskTag)
@@ -1608,7 +1640,8 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive, EndA
             user = ident.getUsername();
         }
 
-        Page<JobInfo> jobsInfo = dbManager.getJobs(offset,
+        Page<JobInfo> jobsInfo = dbManager.getJobs(filterCriteria.getAfterJobId(),
+                                                   offset,
                                                    limit,
                                                    user,
                                                    filterCriteria.isPending(),
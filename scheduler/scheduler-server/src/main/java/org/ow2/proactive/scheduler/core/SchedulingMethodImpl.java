@@ -38,7 +38,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
@@ -56,7 +61,6 @@ import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.TaskTerminateNotification;
 import org.ow2.proactive.scheduler.common.job.JobId;
-import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.util.VariableSubstitutor;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
@@ -74,6 +78,7 @@ import org.ow2.proactive.scheduler.synchronization.SynchronizationWrapper;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.internal.ExecuterInformation;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.proactive.scheduler.task.internal.TaskRecoveryData;
 import org.ow2.proactive.scheduler.util.JobLogger;
@@ -116,6 +121,9 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
     protected TimeoutThreadPoolExecutor threadPool;
 
+    /** Thread pool used to create task launchers, null if the pipelined start of tasks is disabled */
+    protected ExecutorService deployThreadPool;
+
     protected PrivateKey corePrivateKey;
 
     private TaskTerminateNotification terminateNotification;
@@ -139,9 +147,23 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                                                                        new NamedThreadFactory("DoTask_Action",
                                                                                               true,
                                                                                               7));
+        if (PASchedulerProperties.SCHEDULER_STARTTASK_PIPELINED.getValueAsBoolean()) {
+            this.deployThreadPool = Executors.newFixedThreadPool(PASchedulerProperties.SCHEDULER_STARTTASK_PIPELINED_THREADNUMBER.getValueAsInt(),
+                                                                 new NamedThreadFactory("DeployTask_Action", true, 7));
+        }
         this.corePrivateKey = Credentials.getPrivateKey(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_AUTH_PRIVKEY_PATH.getValueAsString()));
     }
 
+    /**
+     * For testing purposes
+     */
+    SchedulingMethodImpl(SchedulingService schedulingService, ExecutorService deployThreadPool) {
+        this.schedulingService = schedulingService;
+        this.deployThreadPool = deployThreadPool;
+        this.activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+        this.schedulingMainLoopTimingLogger = new SchedulingMainLoopTimingLogger(logger);
+    }
+
     RMProxiesManager getRMProxiesManager() {
         return schedulingService.getInfrastructure().getRMProxiesManager();
     }
@@ -177,8 +199,8 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         //Number of time to retry an active object creation before leaving scheduling loop
         activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
 
-        //get job Descriptor list with eligible jobs (running and pending)
-        Map<JobId, JobDescriptor> jobMap = schedulingService.lockJobsToSchedule();
+        //get job Descriptor list with eligible jobs (running and pending) which have tasks to schedule
+        Map<JobId, JobDescriptor> jobMap = schedulingService.lockJobsWithEligibleTasksToSchedule();
 
         Map<JobId, JobDescriptor> toUnlock = jobMap;
 
@@ -267,18 +289,16 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                                                                                            .equals(TaskStatus.PENDING))
                                                                       .collect(Collectors.toList());
 
+        // all the tasks made pending by this scheduling loop share the same scheduled time
+        long scheduledTime = System.currentTimeMillis();
         notPendingYet.forEach(task -> {
             if (task.getInternal().getScheduledTime() == -1) {
-                task.getInternal().setScheduledTime(System.currentTimeMillis());
+                task.getInternal().setScheduledTime(scheduledTime);
             }
             task.getInternal().setStatus(TaskStatus.PENDING);
         });
 
-        notPendingYet.forEach(task -> {
-            getDBManager().updateTaskStatusAndScheduledTime(task,
-                                                            TaskStatus.PENDING,
-                                                            task.getInternal().getScheduledTime());
-        });
+        getDBManager().updateTaskStatusAndScheduledTime(notPendingYet, TaskStatus.PENDING);
 
     }
 
@@ -297,7 +317,7 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     private Set<String> getFreeResources(Policy currentPolicy) {
         RMState rmState = getRMProxiesManager().getRmProxy().getState();
         currentPolicy.setRMState(rmState);
-        Set<String> freeResources = rmState.getFreeNodes();
+        Set<String> freeResources = new HashSet<>(rmState.getFreeNodes());
         if (logger.isDebugEnabled()) {
             logger.debug("eligible nodes : " + (freeResources.size() < 5 ? freeResources : freeResources.size()));
         }
@@ -321,6 +341,9 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
         Set<EligibleTaskDescriptor> rest = new HashSet<>(fullListOfTaskRetrievedFromPolicy);
 
+        // launchers being created for the previous compatible tasks, when the pipelined start of tasks is enabled
+        List<TaskLauncherDeployment> pendingDeployments = Collections.emptyList();
+
         while (progressiveIterator.hasMoreElements() && !freeResources.isEmpty()) {
 
             LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy = new LinkedList<>(progressiveIterator.getNextElements(freeResources.size()));
@@ -389,6 +412,17 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                     freeResources.removeAll(nodeSet.getAllNodesUrls());
                 }
 
+                if (deployThreadPool != null && nodeSet != null && !isParallel(tasksToSchedule)) {
+                    // launchers of the previous compatible tasks were created while the nodes were requested
+                    numberOfTaskStarted += completeDeployments(pendingDeployments, freeResources, rest);
+                    pendingDeployments = submitDeployments(currentPolicy,
+                                                           jobMap,
+                                                           nodeSet,
+                                                           tasksToSchedule,
+                                                           freeResources);
+                    continue;
+                }
+
                 //start selected tasks
                 Node node = null;
                 InternalJob currentJob = null;
@@ -458,12 +492,217 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
             }
         }
 
+        numberOfTaskStarted += completeDeployments(pendingDeployments, freeResources, rest);
+
         // number of nodes needed to start all pending tasks
         updateNeededNodes(rest);
 
         return numberOfTaskStarted;
     }
 
+    private boolean isParallel(LinkedList<EligibleTaskDescriptor> tasksToSchedule) {
+        return ((EligibleTaskDescriptorImpl) tasksToSchedule.getFirst()).getInternal().isParallel();
+    }
+
+    /**
+     * Pipelined start of non parallel tasks: prepare the launcher of each task while holding its job lock,
+     * then submit the launcher creation to the deploy thread pool. The scheduling loop can thus ask
+     * nodes for the next compatible tasks while the launchers are created.<br>
+     * Nodes which are not used are given back to the resource manager.
+     *
+     * @return the submitted deployments, to be completed with {@link #completeDeployments(List, Set, Set)}
+     */
+    private List<TaskLauncherDeployment> submitDeployments(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap,
+            NodeSet nodeSet, LinkedList<EligibleTaskDescriptor> tasksToSchedule, Set<String> freeResources) {
+        schedulingMainLoopTimingLogger.start("submitDeployments");
+        List<TaskLauncherDeployment> deployments = new ArrayList<>(nodeSet.size());
+        InternalJob currentJob = null;
+        while (!nodeSet.isEmpty() && !tasksToSchedule.isEmpty()) {
+            EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
+            currentJob = ((JobDescriptorImpl) jobMap.get(taskDescriptor.getJobId())).getInternal();
+            InternalTask internalTask = ((EligibleTaskDescriptorImpl) taskDescriptor).getInternal();
+
+            if (currentPolicy.isTaskExecutable(nodeSet, taskDescriptor)) {
+                TaskLauncherDeployment deployment = new TaskLauncherDeployment(currentJob,
+                                                                               internalTask,
+                                                                               taskDescriptor,
+                                                                               nodeSet.get(0));
+                try {
+                    if (prepareDeployment(deployment)) {
+                        nodeSet.remove(0);
+                        deployments.add(deployment);
+                    }
+                } catch (Exception e) {
+                    logger.warn("An exception occured while preparing the launcher of task " + internalTask.getId(),
+                                e);
+                }
+            }
+        }
+        if (!nodeSet.isEmpty() && currentJob != null) {
+            //get back unused nodes to the RManager
+            try {
+                releaseNodes(currentJob, nodeSet);
+                freeResources.addAll(nodeSet.getAllNodesUrls());
+            } catch (Exception e) {
+                logger.info("Unable to get back the nodeSet to the RM", e);
+            }
+        }
+        schedulingMainLoopTimingLogger.end("submitDeployments");
+        return deployments;
+    }
+
+    /**
+     * Build the launcher initializer of the task while holding its job lock and submit the launcher creation.
+     *
+     * @return true if the launcher creation was submitted, false if the task cannot be started anymore
+     */
+    private boolean prepareDeployment(TaskLauncherDeployment deployment) {
+        InternalJob job = deployment.getJob();
+        InternalTask task = deployment.getTask();
+        LiveJobs.JobData jobData = schedulingService.lockJob(job.getId());
+        if (jobData == null) {
+            return false;
+        }
+        try {
+            if (task.getStatus() == TaskStatus.PAUSED) {
+                return false;
+            }
+            //start dataspace app for this job
+            DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure().getDataSpaceServiceStarter();
+            job.startDataSpaceApplication(dsStarter.getNamingService(), ImmutableList.of(task));
+            job.setSynchronizationAPI(schedulingService.getSynchronizationAPI());
+
+            deployment.submit(deployThreadPool,
+                              task.createLauncherInitializer(),
+                              getRMProxiesManager().getRmProxy(),
+                              PASchedulerProperties.SCHEDULER_STARTTASK_PIPELINED_LAUNCHER_TIMEOUT.getValueAsInt(),
+                              PASchedulerProperties.SCHEDULER_STARTTASK_PIPELINED_RECOVERABLE_TIMEOUT.getValueAsInt());
+            return true;
+        } finally {
+            jobData.unlock();
+        }
+    }
+
+    /**
+     * Wait for the launchers created in the deploy thread pool and start the corresponding tasks.
+     * A slow or failing node only delays or fails its own task: its node is given back to the resource manager.
+     *
+     * @return the number of tasks started
+     */
+    int completeDeployments(List<TaskLauncherDeployment> deployments, Set<String> freeResources,
+            Set<EligibleTaskDescriptor> rest) {
+        if (deployments.isEmpty()) {
+            return 0;
+        }
+        schedulingMainLoopTimingLogger.start("completeDeployments");
+        int numberOfTaskStarted = 0;
+        for (TaskLauncherDeployment deployment : deployments) {
+            try {
+                TaskLauncher launcher = deployment.awaitLauncher();
+                activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+                if (startDeployedTask(deployment, launcher)) {
+                    rest.remove(deployment.getTaskDescriptor());
+                    numberOfTaskStarted++;
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("An exception occured while creating the launcher of task " + deployment.getTask().getId(),
+                            e.getCause());
+                if (e.getCause() instanceof ActiveObjectCreationException && activeObjectCreationRetryTimeNumber > 0) {
+                    activeObjectCreationRetryTimeNumber--;
+                }
+            } catch (TimeoutException e) {
+                logger.warn("The launcher of task " + deployment.getTask().getId() + " was not created in time on node " +
+                            deployment.getNodeUrl());
+            } catch (Exception e) {
+                logger.warn("An exception occured while starting task " + deployment.getTask().getId() + " on node " +
+                            deployment.getNodeUrl(), e);
+            }
+            //the task was not started, get back its node to the RManager once no launcher can appear on it
+            AtomicBoolean released = new AtomicBoolean();
+            if (deployment.discard(() -> released.set(releaseDeploymentNode(deployment))) && released.get()) {
+                freeResources.add(deployment.getNodeUrl());
+            }
+        }
+        schedulingMainLoopTimingLogger.end("completeDeployments");
+        return numberOfTaskStarted;
+    }
+
+    private boolean releaseDeploymentNode(TaskLauncherDeployment deployment) {
+        try {
+            releaseNodes(deployment.getJob(), new NodeSet(ImmutableList.of(deployment.getNode())));
+            return true;
+        } catch (Exception e) {
+            logger.info("Unable to get back the node " + deployment.getNodeUrl() + " to the RM", e);
+            return false;
+        }
+    }
+
+    /**
+     * Start a task whose launcher was created by the deploy thread pool, while holding its job lock.
+     *
+     * @return true if the task was started, false if it cannot be started anymore (killed or paused meanwhile)
+     */
+    private boolean startDeployedTask(TaskLauncherDeployment deployment, TaskLauncher launcher)
+            throws InterruptedException {
+        boolean nodesRecoverable = deployment.awaitNodesRecoverable();
+
+        InternalJob job = deployment.getJob();
+        InternalTask task = deployment.getTask();
+        Node node = deployment.getNode();
+        LiveJobs.JobData jobData = schedulingService.lockJob(job.getId());
+        if (jobData == null) {
+            return false;
+        }
+        try {
+            // the job lock was released while the launcher was created
+            if (task.getStatus() != TaskStatus.PENDING) {
+                return false;
+            }
+            task.setExecuterInformation(new ExecuterInformation(launcher, node));
+            task.getExecutableContainer().setNodes(new NodeSet());
+
+            tlogger.debug(task.getId(), "deploying");
+
+            TaskRecoveryData taskRecoveryData = new TaskRecoveryData(getTerminateNotificationNodeURL(),
+                                                                     nodesRecoverable);
+            threadPool.submitWithTimeout(new TimedDoTaskAction(job,
+                                                               deployment.getTaskDescriptor(),
+                                                               launcher,
+                                                               schedulingService,
+                                                               terminateNotification,
+                                                               corePrivateKey,
+                                                               taskRecoveryData),
+                                         getDoTaskActionTimeout(deployment.getTaskDescriptor()),
+                                         TimeUnit.MILLISECONDS);
+
+            // as in createExecution, the task is advertised as started once the do task action is submitted
+            finalizeStarting(job, task, node, launcher);
+            return true;
+        } finally {
+            jobData.unlock();
+        }
+    }
+
+    private String getTerminateNotificationNodeURL() {
+        return PAActiveObject.getActiveObjectNode(terminateNotification).getNodeInformation().getURL();
+    }
+
+    /**
+     * Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
+     * above 500 parent tasks, it is worth adjusting.
+     */
+    private int getDoTaskActionTimeout(TaskDescriptor taskDescriptor) {
+        if (taskDescriptor.getParents().size() > 500) {
+            return (int) (taskDescriptor.getParents().size() / 500.0 *
+                          PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
+        } else {
+            return PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
+        }
+    }
+
     private void loggingEligibleTasksDetails(LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy,
             LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy) {
         logger.debug("full list of eligible tasks: " +
@@ -691,20 +930,16 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
      */
     public static Map<String, Serializable> createBindingsForSelectionScripts(InternalJob job, InternalTask task,
             SchedulingService service) throws IOException, ClassNotFoundException {
+        // variables and generic information bindings are computed once and cached by the task,
+        // the scripts get their own copy of these maps
         Map<String, Serializable> bindings = new HashMap<>();
-        Map<String, Serializable> variables = new HashMap<>();
-        Map<String, Serializable> genericInfo = new HashMap<>();
-
-        variables.putAll(task.getRuntimeVariables());
-
-        genericInfo.putAll(job.getRuntimeGenericInformation());
-
-        if (job.getType() == JobType.TASKSFLOW) {
-            genericInfo.putAll(task.getRuntimeGenericInformation());
+        for (Map.Entry<String, Serializable> binding : task.getSelectionScriptBindings().entrySet()) {
+            Serializable value = binding.getValue();
+            if (value instanceof Map) {
+                value = new HashMap<>((Map<?, ?>) value);
+            }
+            bindings.put(binding.getKey(), value);
         }
-
-        bindings.put(SchedulerConstants.VARIABLES_BINDING_NAME, (Serializable) variables);
-        bindings.put(SchedulerConstants.GENERIC_INFO_BINDING_NAME, (Serializable) genericInfo);
         if (service != null) {
             bindings.put(SchedulerConstants.SYNCHRONIZATION_API_BINDING_NAME,
                          (Serializable) new SynchronizationWrapper(job.getOwner(),
@@ -830,24 +1065,14 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
                     tlogger.debug(task.getId(), "deploying");
 
-                    // Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
-                    // above 500 parent tasks, it is worth adjusting.
-                    if (taskDescriptor.getParents().size() > 500) {
-                        dotaskActionTimeout = (int) (taskDescriptor.getParents().size() / 500.0 *
-                                                     PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
-                    } else {
-                        // reset the dotaskActionTimeout to its default value otherwise.
-                        dotaskActionTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
-                    }
+                    dotaskActionTimeout = getDoTaskActionTimeout(taskDescriptor);
 
                     schedulingMainLoopTimingLogger.start("areNodesRecoverable");
                     boolean taskRecoverable = getRMProxiesManager().getRmProxy().areNodesRecoverable(nodes);
                     schedulingMainLoopTimingLogger.end("areNodesRecoverable");
 
                     schedulingMainLoopTimingLogger.start("terminateNotificationNodeURL");
-                    String terminateNotificationNodeURL = PAActiveObject.getActiveObjectNode(terminateNotification)
-                                                                        .getNodeInformation()
-                                                                        .getURL();
+                    String terminateNotificationNodeURL = getTerminateNotificationNodeURL();
                     TaskRecoveryData taskRecoveryData = new TaskRecoveryData(terminateNotificationNodeURL,
                                                                              taskRecoverable);
                     schedulingMainLoopTimingLogger.end("terminateNotificationNodeURL");
@@ -288,7 +288,7 @@ public class SchedulingService {
         logger.info("Scheduler has just been resumed !");
         listener.schedulerStateUpdated(SchedulerEvent.RESUMED);
 
-        wakeUpSchedulingThread();
+        wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.SCHEDULER_RESUMED);
 
         return true;
     }
@@ -471,6 +471,14 @@ public class SchedulingService {
         return jobs.lockJobsToSchedule(isPausedOrStopped());
     }
 
+    /*
+     * Should be called only by scheduling method impl when job scheduling starts,
+     * locks only the jobs which have eligible tasks
+     */
+    public Map<JobId, JobDescriptor> lockJobsWithEligibleTasksToSchedule() {
+        return jobs.lockJobsWithEligibleTasksToSchedule(isPausedOrStopped());
+    }
+
     /*
      * Should be called only by scheduling method impl when job scheduling starts
      */
@@ -558,7 +566,7 @@ public class SchedulingService {
         try {
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 Boolean result = jobs.restartAllInErrorTasks(jobId);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.JOB_UPDATED);
                 return result;
             }).get();
         } catch (Exception e) {
@@ -570,7 +578,7 @@ public class SchedulingService {
         try {
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 Boolean result = jobs.resumeJob(jobId);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.JOB_UPDATED);
                 return result;
             }).get();
         } catch (Exception e) {
@@ -586,7 +594,7 @@ public class SchedulingService {
             infrastructure.getClientOperationsThreadPool().submit(() -> {
                 jlogger.info(jobId, "request to change the priority to " + priority);
                 jobs.changeJobPriority(jobId, priority);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.JOB_UPDATED);
             }).get();
         } catch (Exception e) {
             throw handleFutureWaitException(e);
@@ -623,7 +631,7 @@ public class SchedulingService {
             } catch (Exception e) {
                 logger.error("Exception occurred, fail to get variables into the cleaning script: ", e);
             }
-            wakeUpSchedulingThread();
+            wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
         });
     }
 
@@ -649,6 +657,8 @@ public class SchedulingService {
             } catch (Exception e) {
                 logger.error("Exception occurred, fail to get variables into the cleaning script:", e);
             }
+            // nodes of the terminated tasks are now released
+            wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.NODES_RELEASED);
         }
     }
 
@@ -662,7 +672,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.killJob(jobId);
                 boolean jobKilled = terminationData.jobTerminated(jobId);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return jobKilled;
             }).get();
 
@@ -680,7 +690,7 @@ public class SchedulingService {
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 TerminationData terminationData = jobs.killJobs(jobIds);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return true;
             }).get();
 
@@ -716,7 +726,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.killTask(jobId, taskName, message);
                 boolean taskKilled = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return taskKilled;
             }).get();
         } catch (ExecutionException e) {
@@ -810,7 +820,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.restartTask(jobId, taskName, restartDelay);
                 boolean taskRestarted = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return taskRestarted;
             }).get();
         } catch (ExecutionException e) {
@@ -837,7 +847,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.finishInErrorTask(jobId, taskName);
                 boolean taskfinished = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return taskfinished;
             }).get();
         } catch (ExecutionException e) {
@@ -862,7 +872,7 @@ public class SchedulingService {
 
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 jobs.restartInErrorTask(jobId, taskName);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.JOB_UPDATED);
                 return Boolean.TRUE;
             }).get();
         } catch (ExecutionException e) {
@@ -885,7 +895,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.preemptTask(jobId, taskName, restartDelay);
                 boolean taskRestarted = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
                 return taskRestarted;
             }).get();
 
@@ -924,7 +934,7 @@ public class SchedulingService {
             try {
                 TerminationData terminationData = jobs.taskTerminatedWithResult(taskId, (TaskResultImpl) taskResult);
                 terminationData.handleTermination(SchedulingService.this);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.TASK_TERMINATED);
             } catch (Throwable e) {
                 logger.error("Failed to terminate task " + taskId, e);
             }
@@ -1245,8 +1255,8 @@ public class SchedulingService {
         schedulingThread.sleepSchedulingThread();
     }
 
-    protected void wakeUpSchedulingThread() {
-        schedulingThread.wakeUpSchedulingThread();
+    protected void wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger trigger) {
+        schedulingThread.wakeUpSchedulingThread(trigger);
     }
 
     /**
@@ -1275,7 +1285,7 @@ public class SchedulingService {
 
             }
 
-            wakeUpSchedulingThread();
+            wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger.HOUSEKEEPING);
             return jobIdList.keySet().stream().map(JobId::longValue).collect(Collectors.toList());
         }
 
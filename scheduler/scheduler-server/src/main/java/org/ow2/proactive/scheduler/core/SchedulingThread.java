@@ -25,17 +25,22 @@
  */
 package org.ow2.proactive.scheduler.core;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
 
+import org.apache.log4j.Logger;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 
 public final class SchedulingThread extends Thread {
 
+    private static final Logger logger = Logger.getLogger(SchedulingThread.class);
+
     private static final int SCHEDULER_TIME_OUT = PASchedulerProperties.SCHEDULER_TIME_OUT.getValueAsInt();
 
+    /** triggers of the event driven scheduling loop, null if the loop is driven by the time out */
+    private final SchedulingTriggerQueue triggerQueue;
+
     private final SchedulingMethod schedulingMethod;
 
     private final SchedulingService service;
@@ -44,6 +49,11 @@ public final class SchedulingThread extends Thread {
         super("SchedulingThread");
         this.schedulingMethod = schedulingMethod;
         this.service = service;
+        if (PASchedulerProperties.SCHEDULER_EVENT_DRIVEN_LOOP.getValueAsBoolean()) {
+            this.triggerQueue = new SchedulingTriggerQueue(PASchedulerProperties.SCHEDULER_EVENT_DRIVEN_MIN_INTERVAL.getValueAsInt());
+        } else {
+            this.triggerQueue = null;
+        }
     }
 
     public void run() {
@@ -56,7 +66,10 @@ public final class SchedulingThread extends Thread {
                     service.status == SchedulerStatus.STOPPED) {
                     tasksStarted = schedulingMethod.schedule() > 0;
                 }
-                if (!tasksStarted) {
+                if (triggerQueue != null) {
+                    // when tasks were started, other tasks may be startable right away
+                    awaitNextTrigger(tasksStarted ? 0 : SCHEDULER_TIME_OUT);
+                } else if (!tasksStarted) {
                     service.sleepSchedulingThread();
                 }
             } catch (InterruptedException e) {
@@ -67,15 +80,26 @@ public final class SchedulingThread extends Thread {
         }
     }
 
+    private void awaitNextTrigger(long timeout) throws InterruptedException {
+        Set<SchedulingTriggerQueue.Trigger> triggers = triggerQueue.awaitNextPass(timeout);
+        if (!triggers.isEmpty() && logger.isDebugEnabled()) {
+            logger.debug(triggerQueue.getMetricsString());
+        }
+    }
+
     protected void sleepSchedulingThread() throws InterruptedException {
         synchronized (this) {
             this.wait(SCHEDULER_TIME_OUT);
         }
     }
 
-    protected void wakeUpSchedulingThread() {
-        synchronized (this) {
-            this.notifyAll();
+    protected void wakeUpSchedulingThread(SchedulingTriggerQueue.Trigger trigger) {
+        if (triggerQueue != null) {
+            triggerQueue.signal(trigger);
+        } else {
+            synchronized (this) {
+                this.notifyAll();
+            }
         }
     }
 
@@ -0,0 +1,181 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Coalescing queue of the events which require a new scheduling loop.
+ * <p>
+ * Each kind of trigger is stored at most once until the next scheduling loop consumes it, so a burst of
+ * submissions or task terminations results in a single loop. A minimum interval between two loops
+ * is enforced to avoid spinning when events arrive continuously.
+ * <p>
+ * The queue also records how many triggers were received (and coalesced) and the time elapsed between
+ * the oldest pending trigger and the start of the scheduling loop which handled it.
+ *
+ * @author The ProActive Team
+ */
+class SchedulingTriggerQueue {
+
+    private static final Logger logger = Logger.getLogger(SchedulingTriggerQueue.class);
+
+    enum Trigger {
+        JOB_SUBMITTED,
+        JOB_UPDATED,
+        TASK_TERMINATED,
+        NODES_RELEASED,
+        SCHEDULER_RESUMED,
+        HOUSEKEEPING
+    }
+
+    private final long minInterval;
+
+    /** pending triggers, associated with the time when they were first received */
+    private final EnumMap<Trigger, Long> pending = new EnumMap<>(Trigger.class);
+
+    private final long[] triggerCounts = new long[Trigger.values().length];
+
+    private long coalescedCount;
+
+    private long passCount;
+
+    private long triggeredPassCount;
+
+    private long totalTriggerToPassTime;
+
+    private long maxTriggerToPassTime;
+
+    private long lastPassStart;
+
+    SchedulingTriggerQueue(long minInterval) {
+        this.minInterval = minInterval;
+    }
+
+    /**
+     * Notify that a new scheduling loop is required.
+     *
+     * @param trigger the event which requires the scheduling loop
+     */
+    synchronized void signal(Trigger trigger) {
+        triggerCounts[trigger.ordinal()]++;
+        if (pending.containsKey(trigger)) {
+            coalescedCount++;
+        } else {
+            pending.put(trigger, System.currentTimeMillis());
+        }
+        notifyAll();
+    }
+
+    /**
+     * Wait until a trigger is received or the given timeout is reached, then wait if needed so that
+     * two scheduling loops are separated by at least the minimum interval.
+     *
+     * @param timeout the maximum time to wait for a trigger in milliseconds (0 means do not wait for a trigger)
+     * @return the triggers consumed by the scheduling loop about to start, empty if the timeout was reached
+     * @throws InterruptedException if the scheduling thread is interrupted
+     */
+    synchronized Set<Trigger> awaitNextPass(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        long remaining = timeout;
+        while (pending.isEmpty() && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+
+        long earliestStart = lastPassStart + minInterval;
+        long now = System.currentTimeMillis();
+        while (now < earliestStart) {
+            // triggers received meanwhile are coalesced into this loop
+            wait(earliestStart - now);
+            now = System.currentTimeMillis();
+        }
+
+        passCount++;
+        lastPassStart = now;
+        if (pending.isEmpty()) {
+            return EnumSet.noneOf(Trigger.class);
+        }
+
+        long triggerToPassTime = now - Collections.min(pending.values());
+        triggeredPassCount++;
+        totalTriggerToPassTime += triggerToPassTime;
+        maxTriggerToPassTime = Math.max(maxTriggerToPassTime, triggerToPassTime);
+
+        Set<Trigger> triggers = EnumSet.copyOf(pending.keySet());
+        pending.clear();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Scheduling loop triggered by " + triggers + " after " + triggerToPassTime + "ms");
+        }
+        return triggers;
+    }
+
+    synchronized long getTriggerCount(Trigger trigger) {
+        return triggerCounts[trigger.ordinal()];
+    }
+
+    synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    synchronized long getPassCount() {
+        return passCount;
+    }
+
+    synchronized long getMaxTriggerToPassTime() {
+        return maxTriggerToPassTime;
+    }
+
+    synchronized long getAverageTriggerToPassTime() {
+        return triggeredPassCount > 0 ? totalTriggerToPassTime / triggeredPassCount : 0;
+    }
+
+    synchronized String getMetricsString() {
+        StringBuilder builder = new StringBuilder("SchedulingTriggers::");
+        for (Trigger trigger : Trigger.values()) {
+            builder.append(trigger).append(':').append(triggerCounts[trigger.ordinal()]).append(';');
+        }
+        return builder.append("Coalesced:")
+                      .append(coalescedCount)
+                      .append(";Loops:")
+                      .append(passCount)
+                      .append(";TriggeredLoops:")
+                      .append(triggeredPassCount)
+                      .append(";MaxTriggerToLoop:")
+                      .append(maxTriggerToPassTime)
+                      .append("ms;AverageTriggerToLoop:")
+                      .append(getAverageTriggerToPassTime())
+                      .append("ms")
+                      .toString();
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.scheduler.common.TaskDescriptor;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.utils.NodeSet;
+
+
+/**
+ * TaskLauncherDeployment is used by the pipelined start of tasks to create the launcher of one task
+ * on one node in parallel of the scheduling loop.
+ * <p>
+ * The launcher initializer is built beforehand by the scheduling loop while it holds the job lock,
+ * so the launcher creation and the check of the node recoverability do not access the task state.
+ * Both run in the given thread pool, each one with its own timeout.
+ * <p>
+ * A launcher creation cannot be interrupted once started, so the node of a deployment which is not used
+ * is only given back once the creation is over and the launcher, if any, is killed.
+ *
+ * @author The ProActive Team
+ */
+class TaskLauncherDeployment {
+
+    private static final Logger logger = Logger.getLogger(TaskLauncherDeployment.class);
+
+    private final InternalJob job;
+
+    private final InternalTask task;
+
+    private final TaskDescriptor taskDescriptor;
+
+    private final Node node;
+
+    private CompletableFuture<TaskLauncher> launcherFuture;
+
+    private Future<Boolean> recoverableFuture;
+
+    private long launcherDeadline;
+
+    private long recoverableDeadline;
+
+    TaskLauncherDeployment(InternalJob job, InternalTask task, TaskDescriptor taskDescriptor, Node node) {
+        this.job = job;
+        this.task = task;
+        this.taskDescriptor = taskDescriptor;
+        this.node = node;
+    }
+
+    /**
+     * Start the creation of the launcher and the check of the node recoverability.
+     *
+     * @param executor the thread pool used to deploy launchers
+     * @param initializer the initializer of the launcher, built while holding the job lock
+     * @param rmProxy the proxy used to check whether the node is recoverable
+     * @param launcherTimeout maximum time in milliseconds to create the launcher
+     * @param recoverableTimeout maximum time in milliseconds to check the node recoverability
+     */
+    void submit(ExecutorService executor, TaskLauncherInitializer initializer, RMProxy rmProxy,
+            long launcherTimeout, long recoverableTimeout) {
+        long now = System.currentTimeMillis();
+        launcherDeadline = now + launcherTimeout;
+        recoverableDeadline = now + recoverableTimeout;
+        launcherFuture = CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.createLauncher(initializer, node);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        // nodes given to the executable container of a non parallel task are always empty
+        recoverableFuture = executor.submit(() -> rmProxy.areNodesRecoverable(new NodeSet()));
+    }
+
+    /**
+     * Wait for the launcher creation, until the launcher timeout is reached.
+     *
+     * @return the created launcher
+     * @throws ExecutionException if the launcher creation failed
+     * @throws TimeoutException if the launcher was not created in time, the creation still goes on
+     * @throws InterruptedException if the scheduling thread is interrupted
+     */
+    TaskLauncher awaitLauncher() throws ExecutionException, TimeoutException, InterruptedException {
+        try {
+            return launcherFuture.get(Math.max(0, launcherDeadline - System.currentTimeMillis()),
+                                      TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            recoverableFuture.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Give up this deployment: once the launcher creation is over, kill the launcher if it was created,
+     * then run the given action which releases the node.
+     *
+     * @param releaseNode action releasing the node, run by the calling thread if the creation is over,
+     *                    by the thread which completes the creation otherwise
+     * @return true if the launcher creation was over and the node released by the calling thread
+     */
+    boolean discard(Runnable releaseNode) {
+        boolean creationOver = launcherFuture.isDone();
+        if (!creationOver) {
+            logger.info("Node " + getNodeUrl() + " will be released once the launcher creation of task " +
+                        task.getId() + " is over");
+        }
+        launcherFuture.whenComplete((launcher, error) -> {
+            if (launcher != null) {
+                try {
+                    launcher.kill();
+                } catch (Exception e) {
+                    logger.warn("Could not kill the unused launcher of task " + task.getId() + " on node " +
+                                getNodeUrl(), e);
+                }
+            }
+            releaseNode.run();
+        });
+        return creationOver;
+    }
+
+    /**
+     * Wait for the check of the node recoverability, until the recoverable timeout is reached.
+     *
+     * @return true if the node is recoverable, false if not or if the check failed
+     * @throws InterruptedException if the scheduling thread is interrupted
+     */
+    boolean awaitNodesRecoverable() throws InterruptedException {
+        try {
+            return recoverableFuture.get(Math.max(0, recoverableDeadline - System.currentTimeMillis()),
+                                         TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            recoverableFuture.cancel(true);
+            logger.warn("Could not check whether node " + getNodeUrl() + " is recoverable for task " + task.getId(),
+                        e);
+            return false;
+        }
+    }
+
+    InternalJob getJob() {
+        return job;
+    }
+
+    InternalTask getTask() {
+        return task;
+    }
+
+    TaskDescriptor getTaskDescriptor() {
+        return taskDescriptor;
+    }
+
+    Node getNode() {
+        return node;
+    }
+
+    String getNodeUrl() {
+        return node.getNodeInformation().getURL();
+    }
+
+}
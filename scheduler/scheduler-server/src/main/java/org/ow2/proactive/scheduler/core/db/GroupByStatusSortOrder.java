@@ -68,6 +68,22 @@ public class GroupByStatusSortOrder extends Order {
                " else 2 end " + (ascending ? " asc" : " desc");
     }
 
+    /**
+     * @return the rank of the group of the given status, in ascending order
+     */
+    static int group(JobStatus status) {
+        switch (status) {
+            case PENDING:
+                return 0;
+            case RUNNING:
+            case STALLED:
+            case PAUSED:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
     @Override
     public Order ignoreCase() {
         throw new UnsupportedOperationException("not implemented");
@@ -91,9 +91,9 @@ import com.google.common.collect.Lists;
                 @NamedQuery(name = "getMeanJobPendingTime", query = "select avg(startTime - submittedTime) from JobData where startTime > 0 and submittedTime > 0"),
                 @NamedQuery(name = "getMeanJobSubmittingPeriod", query = "select count(*), min(submittedTime), max(submittedTime) from JobData"),
                 @NamedQuery(name = "getTotalJobsCount", query = "select count(*) from JobData"),
-                @NamedQuery(name = "loadInternalJobs", query = "from JobData as job where job.id in (:ids)"),
-                @NamedQuery(name = "loadJobs", query = "select id from JobData where status in (:status)"),
-                @NamedQuery(name = "loadJobsWithPeriod", query = "select id from JobData where status in (:status) and submittedTime >= :minSubmittedTime"),
+                @NamedQuery(name = "loadInternalJobs", query = "from JobData as job where job.id in (:ids) order by job.id"),
+                @NamedQuery(name = "loadJobs", query = "select id from JobData where status in (:status) order by id"),
+                @NamedQuery(name = "loadJobsWithPeriod", query = "select id from JobData where status in (:status) and submittedTime >= :minSubmittedTime order by id"),
                 @NamedQuery(name = "loadJobDataIfNotRemoved", query = "from JobData as job where job.id in (:ids)"),
                 @NamedQuery(name = "readAccountJobs", query = "select count(*), sum(finishedTime) - sum(startTime) from JobData" +
                                                               " where owner = :username and finishedTime > 0"),
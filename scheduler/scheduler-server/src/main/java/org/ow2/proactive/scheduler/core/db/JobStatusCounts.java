@@ -0,0 +1,178 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.hibernate.Session;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+/**
+ * Number of jobs stored in the database per owner, status and kind (top-level or child job).
+ *
+ * The counts are loaded once from the database, then maintained in memory when the job state changes
+ * written by the live jobs are committed, and when the housekeeping deletes jobs. This allows job
+ * listings to compute their total number of results without counting the rows of the job table.
+ *
+ * Jobs which are not finished yet are tracked individually, as their status is still expected to change.
+ * A finished job is only counted, its status being final until it is removed.
+ */
+class JobStatusCounts {
+
+    private final Map<JobKey, Long> counts = new HashMap<>();
+
+    private final Map<Long, JobKey> notFinishedJobs = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    synchronized void load(Session session) {
+        counts.clear();
+        notFinishedJobs.clear();
+        for (boolean childJobs : new boolean[] { false, true }) {
+            List<Object[]> rows = session.createQuery("select owner, status, count(*) from JobData where parentId " +
+                                                      (childJobs ? "is not null" : "is null") +
+                                                      " group by owner, status")
+                                         .list();
+            for (Object[] row : rows) {
+                counts.merge(new JobKey((String) row[0], (JobStatus) row[1], childJobs), (Long) row[2], Long::sum);
+            }
+        }
+        List<Object[]> rows = session.createQuery("select id, owner, status, parentId from JobData where status in (:status)")
+                                     .setParameterList("status", SchedulerDBManager.NOT_FINISHED_JOB_STATUSES)
+                                     .list();
+        for (Object[] row : rows) {
+            notFinishedJobs.put((Long) row[0], new JobKey((String) row[1], (JobStatus) row[2], row[3] != null));
+        }
+    }
+
+    synchronized void jobSubmitted(InternalJob job) {
+        JobKey key = JobKey.of(job);
+        increment(key);
+        if (!isFinished(key)) {
+            notFinishedJobs.put(job.getId().longValue(), key);
+        }
+    }
+
+    synchronized void jobUpdated(InternalJob job) {
+        long jobId = job.getId().longValue();
+        JobKey previousKey = notFinishedJobs.get(jobId);
+        if (previousKey == null) {
+            // finished jobs keep their status
+            return;
+        }
+        JobKey key = JobKey.of(job);
+        if (!key.equals(previousKey)) {
+            decrement(previousKey);
+            increment(key);
+        }
+        if (isFinished(key)) {
+            notFinishedJobs.remove(jobId);
+        } else {
+            notFinishedJobs.put(jobId, key);
+        }
+    }
+
+    /**
+     * @param removedJobs rows containing the id, owner, status and parent id of the deleted jobs
+     */
+    synchronized void jobsRemoved(List<Object[]> removedJobs) {
+        for (Object[] row : removedJobs) {
+            notFinishedJobs.remove(row[0]);
+            decrement(new JobKey((String) row[1], (JobStatus) row[2], row[3] != null));
+        }
+    }
+
+    /**
+     * @param owner the owner of the jobs, or null to count the jobs of all users
+     * @param statuses the statuses of the jobs to count
+     * @param childJobs whether child jobs are counted
+     * @return the number of matching jobs
+     */
+    synchronized long count(String owner, Collection<JobStatus> statuses, boolean childJobs) {
+        long count = 0;
+        for (Map.Entry<JobKey, Long> entry : counts.entrySet()) {
+            JobKey key = entry.getKey();
+            if ((owner == null || owner.equals(key.owner)) && statuses.contains(key.status) &&
+                (childJobs || !key.childJob)) {
+                count += entry.getValue();
+            }
+        }
+        return count;
+    }
+
+    private void increment(JobKey key) {
+        counts.merge(key, 1L, Long::sum);
+    }
+
+    private void decrement(JobKey key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static boolean isFinished(JobKey key) {
+        return SchedulerDBManager.FINISHED_JOB_STATUSES.contains(key.status);
+    }
+
+    private static final class JobKey {
+
+        private final String owner;
+
+        private final JobStatus status;
+
+        private final boolean childJob;
+
+        private JobKey(String owner, JobStatus status, boolean childJob) {
+            this.owner = owner;
+            this.status = status;
+            this.childJob = childJob;
+        }
+
+        private static JobKey of(InternalJob job) {
+            return new JobKey(job.getOwner(), job.getStatus(), job.getParentId() != null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JobKey jobKey = (JobKey) o;
+            return childJob == jobKey.childJob && Objects.equals(owner, jobKey.owner) && status == jobKey.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, status, childJob);
+        }
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -45,6 +46,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
@@ -56,18 +63,25 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.criterion.Conjunction;
 import org.hibernate.criterion.CriteriaSpecification;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Disjunction;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.ProjectionList;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Property;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.transform.DistinctRootEntityResultTransformer;
 import org.hibernate.type.StandardBasicTypes;
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.authentication.crypto.HybridEncryptionUtil.HybridEncryptedData;
 import org.ow2.proactive.core.properties.PropertyDecrypter;
 import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.db.SortParameter;
 import org.ow2.proactive.db.TransactionHelper;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
@@ -106,9 +120,13 @@ import org.ow2.proactive.scripting.InvalidScriptException;
 import org.ow2.proactive.utils.FileToBytesConverter;
 import org.ow2.proactive.utils.ObjectByteConverter;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 
 @SuppressWarnings("JpaQueryApiInspection")
@@ -116,8 +134,6 @@ public class SchedulerDBManager {
 
     public static final String JAVA_PROPERTYNAME_NODB = "scheduler.database.nodb";
 
-    private static final int RECOVERY_LOAD_JOBS_BATCH_SIZE = PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.getValueAsInt();
-
     private static final Logger logger = Logger.getLogger(SchedulerDBManager.class);
 
     public static final Set<JobStatus> FINISHED_JOB_STATUSES = ImmutableSet.of(JobStatus.CANCELED,
@@ -143,6 +159,18 @@ public class SchedulerDBManager {
 
     private final TransactionHelper transactionHelper;
 
+    private final JobStatusCounts jobStatusCounts = new JobStatusCounts();
+
+    /**
+     * Total number of tasks matching the filters of recent task listing queries. Unlike job counts, they cannot be
+     * maintained in memory as tasks are filtered by date and tag, so consecutive pages of the same listing reuse them.
+     */
+    private final Cache<List<Object>, Integer> tasksCounts = CacheBuilder.newBuilder()
+                                                                         .maximumSize(1000)
+                                                                         .expireAfterWrite(PASchedulerProperties.SCHEDULER_DB_TASKS_COUNT_CACHE_DURATION.getValueAsInt(),
+                                                                                           TimeUnit.MILLISECONDS)
+                                                                         .build();
+
     public static SchedulerDBManager createUsingProperties() {
         if (System.getProperty(JAVA_PROPERTYNAME_NODB) != null) {
             return createInMemorySchedulerDBManager();
@@ -200,6 +228,10 @@ public class SchedulerDBManager {
                                                                                   .build();
             sessionFactory = configuration.buildSessionFactory(serviceRegistry);
             transactionHelper = new TransactionHelper(sessionFactory);
+            executeReadOnlyTransaction(session -> {
+                jobStatusCounts.load(session);
+                return null;
+            });
 
         } catch (Throwable ex) {
             logger.error("Initial SessionFactory creation failed", ex);
@@ -210,6 +242,22 @@ public class SchedulerDBManager {
     public Page<JobInfo> getJobs(final int offset, final int limit, final String user, final boolean pending,
             final boolean running, final boolean finished, final boolean childJobs,
             final List<SortParameter<JobSortParameter>> sortParameters) {
+        return getJobs(null, offset, limit, user, pending, running, finished, childJobs, sortParameters);
+    }
+
+    /**
+     * Returns a page of jobs.
+     *
+     * When a cursor is given, the page starts right after the job it designates, in the order defined by the sort
+     * parameters, and the offset is ignored. Seeking from the last job of the previous page does not require the
+     * database to skip all the preceding rows, which keeps deep pages as cheap as the first one. The job id is
+     * always used as the last sort key, so that the order of the jobs is total.
+     *
+     * @param afterJobId id of the last job of the previous page, or null to start from the offset
+     */
+    public Page<JobInfo> getJobs(final String afterJobId, final int offset, final int limit, final String user,
+            final boolean pending, final boolean running, final boolean finished, final boolean childJobs,
+            final List<SortParameter<JobSortParameter>> sortParameters) {
 
         if (!pending && !running && !finished) {
             return new Page<>(new ArrayList<JobInfo>(0), 0);
@@ -230,7 +278,7 @@ public class SchedulerDBManager {
             if (limit > 0) {
                 criteria.setMaxResults(limit);
             }
-            if (offset >= 0) {
+            if (offset >= 0 && afterJobId == null) {
                 criteria.setFirstResult(offset);
             }
             if (user != null) {
@@ -244,63 +292,18 @@ public class SchedulerDBManager {
                 criteria.add(Restrictions.in("status", jobStatuses));
             }
 
-            if (sortParameters != null) {
+            List<SortParameter<JobSortParameter>> sortKeys = withIdSortKey(sortParameters);
+            if (afterJobId != null) {
+                criteria.add(seekRestriction(session, Long.parseLong(afterJobId), sortKeys));
+            }
+            for (SortParameter<JobSortParameter> param : sortKeys) {
                 Order sortOrder;
-                for (SortParameter<JobSortParameter> param : sortParameters) {
-                    switch (param.getParameter()) {
-                        case ID:
-                            sortOrder = configureSortOrder(param, Property.forName("id"));
-                            break;
-                        case NAME:
-                            sortOrder = configureSortOrder(param, Property.forName("jobName"));
-                            break;
-                        case OWNER:
-                            sortOrder = configureSortOrder(param, Property.forName("owner"));
-                            break;
-                        case PRIORITY:
-                            sortOrder = configureSortOrder(param, Property.forName("priority"));
-                            break;
-                        case STATE:
-                            sortOrder = new GroupByStatusSortOrder(param.getSortOrder(), "status");
-                            break;
-                        case SUBMIT_TIME:
-                            sortOrder = configureSortOrder(param, Property.forName("submittedTime"));
-                            break;
-                        case START_TIME:
-                            sortOrder = configureSortOrder(param, Property.forName("startTime"));
-                            break;
-                        case FINISH_TIME:
-                            sortOrder = configureSortOrder(param, Property.forName("finishedTime"));
-                            break;
-                        case IN_ERROR_TIME:
-                            sortOrder = configureSortOrder(param, Property.forName("finishedTime"));
-                            break;
-                        case TOTAL_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("totalNumberOfTasks"));
-                            break;
-                        case PENDING_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfPendingTasks"));
-                            break;
-                        case RUNNING_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfRunningTasks"));
-                            break;
-                        case IN_ERROR_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfInErrorTasks"));
-                            break;
-                        case FINISHED_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfFinishedTasks"));
-                            break;
-                        case FAULTY_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfFaultyTasks"));
-                            break;
-                        case FAILED_TASKS:
-                            sortOrder = configureSortOrder(param, Property.forName("numberOfFailedTasks"));
-                            break;
-                        default:
-                            throw new IllegalArgumentException("Unsupported sort parameter: " + param.getParameter());
-                    }
-                    criteria.addOrder(sortOrder);
+                if (param.getParameter() == JobSortParameter.STATE) {
+                    sortOrder = new GroupByStatusSortOrder(param.getSortOrder(), "status");
+                } else {
+                    sortOrder = configureSortOrder(param, Property.forName(sortPropertyName(param.getParameter())));
                 }
+                criteria.addOrder(sortOrder);
             }
 
             List<JobData> jobsList = criteria.list();
@@ -310,6 +313,120 @@ public class SchedulerDBManager {
         return new Page<>(lJobs, totalNbJobs);
     }
 
+    private static List<SortParameter<JobSortParameter>>
+            withIdSortKey(List<SortParameter<JobSortParameter>> sortParameters) {
+        List<SortParameter<JobSortParameter>> sortKeys = new ArrayList<>();
+        if (sortParameters != null) {
+            sortKeys.addAll(sortParameters);
+        }
+        if (sortKeys.stream().noneMatch(param -> param.getParameter() == JobSortParameter.ID)) {
+            sortKeys.add(new SortParameter<>(JobSortParameter.ID, SortOrder.ASC));
+        }
+        return sortKeys;
+    }
+
+    private static String sortPropertyName(JobSortParameter parameter) {
+        switch (parameter) {
+            case ID:
+                return "id";
+            case NAME:
+                return "jobName";
+            case OWNER:
+                return "owner";
+            case STATE:
+                return "status";
+            case PRIORITY:
+                return "priority";
+            case SUBMIT_TIME:
+                return "submittedTime";
+            case START_TIME:
+                return "startTime";
+            case FINISH_TIME:
+            case IN_ERROR_TIME:
+                return "finishedTime";
+            case TOTAL_TASKS:
+                return "totalNumberOfTasks";
+            case PENDING_TASKS:
+                return "numberOfPendingTasks";
+            case RUNNING_TASKS:
+                return "numberOfRunningTasks";
+            case IN_ERROR_TASKS:
+                return "numberOfInErrorTasks";
+            case FINISHED_TASKS:
+                return "numberOfFinishedTasks";
+            case FAULTY_TASKS:
+                return "numberOfFaultyTasks";
+            case FAILED_TASKS:
+                return "numberOfFailedTasks";
+            default:
+                throw new IllegalArgumentException("Unsupported sort parameter: " + parameter);
+        }
+    }
+
+    /**
+     * Builds the restriction selecting the jobs located after the given job in the order defined by the sort keys,
+     * i.e. (k1 > v1) or (k1 = v1 and k2 > v2) or ... where v1, v2... are the sort key values of the given job.
+     */
+    private Criterion seekRestriction(Session session, long afterJobId,
+            List<SortParameter<JobSortParameter>> sortKeys) {
+        ProjectionList projections = Projections.projectionList();
+        for (SortParameter<JobSortParameter> param : sortKeys) {
+            projections.add(Property.forName(sortPropertyName(param.getParameter())));
+        }
+        Object[] cursorValues = (Object[]) session.createCriteria(JobData.class)
+                                                  .add(Restrictions.idEq(afterJobId))
+                                                  .setProjection(Projections.projectionList()
+                                                                            .add(projections)
+                                                                            .add(Projections.id()))
+                                                  .uniqueResult();
+        if (cursorValues == null) {
+            throw new IllegalArgumentException("Job " + afterJobId + " used as pagination cursor does not exist");
+        }
+
+        Disjunction seek = Restrictions.disjunction();
+        Conjunction previousKeysEqual = Restrictions.conjunction();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            SortParameter<JobSortParameter> param = sortKeys.get(i);
+            String property = sortPropertyName(param.getParameter());
+            Object value = cursorValues[i];
+            if (param.getParameter() == JobSortParameter.STATE) {
+                // jobs are sorted by group of statuses rather than by status
+                int group = GroupByStatusSortOrder.group((JobStatus) value);
+                boolean ascending = param.getSortOrder().isAscending();
+                Set<JobStatus> nextGroups = EnumSet.noneOf(JobStatus.class);
+                Set<JobStatus> sameGroup = EnumSet.noneOf(JobStatus.class);
+                for (JobStatus status : JobStatus.values()) {
+                    int statusGroup = GroupByStatusSortOrder.group(status);
+                    if (statusGroup == group) {
+                        sameGroup.add(status);
+                    } else if (ascending == statusGroup > group) {
+                        nextGroups.add(status);
+                    }
+                }
+                if (!nextGroups.isEmpty()) {
+                    seek.add(Restrictions.conjunction()
+                                         .add(previousKeysEqual)
+                                         .add(Restrictions.in(property, nextGroups)));
+                }
+                previousKeysEqual = Restrictions.conjunction()
+                                                .add(previousKeysEqual)
+                                                .add(Restrictions.in(property, sameGroup));
+            } else if (value != null) {
+                Criterion after = param.getSortOrder().isAscending() ? Restrictions.gt(property, value)
+                                                                     : Restrictions.lt(property, value);
+                seek.add(Restrictions.conjunction().add(previousKeysEqual).add(after));
+                previousKeysEqual = Restrictions.conjunction()
+                                                .add(previousKeysEqual)
+                                                .add(Restrictions.eq(property, value));
+            } else {
+                previousKeysEqual = Restrictions.conjunction()
+                                                .add(previousKeysEqual)
+                                                .add(Restrictions.isNull(property));
+            }
+        }
+        return seek;
+    }
+
     public List<JobInfo> getJobs(final List<String> jobIds) {
         List<Long> longJobIds = jobIds.stream().map(id -> Long.parseLong(id)).collect(Collectors.toList());
         List<JobInfo> jobsList = new ArrayList(longJobIds.size());
@@ -363,46 +480,32 @@ public class SchedulerDBManager {
     }
 
     private int getTotalNumberOfTasks(final DBTaskDataParameters params) {
-
-        return executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params));
-
+        if (params.getStatus().isEmpty()) {
+            return 0;
+        }
+        List<Object> filters = Arrays.asList(params.getUser(),
+                                             params.getTag(),
+                                             params.getFrom(),
+                                             params.getTo(),
+                                             EnumSet.copyOf(params.getStatus()));
+        try {
+            return tasksCounts.get(filters,
+                                   () -> executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new DatabaseManagerException(e.getCause());
+        }
     }
 
     private int getTotalNumberOfJobs(final DBJobDataParameters params) {
-
-        return executeReadOnlyTransaction(session -> {
-
-            Set<JobStatus> statuses = params.getStatuses();
-
-            if (statuses.isEmpty()) {
-                return 0;
-            } else {
-
-                boolean hasUser = params.getUser() != null && "".compareTo(params.getUser()) != 0;
-
-                StringBuilder queryString = new StringBuilder("select count(*) from JobData where ");
-
-                queryString.append("status in (:jobStatus) ");
-
-                if (hasUser) {
-                    queryString.append("and owner = :user ");
-                }
-
-                if (!params.isChildJobs()) {
-                    queryString.append("and parentId = null ");
-                }
-
-                Query query = session.createQuery(queryString.toString());
-                query.setParameterList("jobStatus", statuses);
-                if (hasUser) {
-                    query.setParameter("user", params.getUser());
-                }
-
-                Long count = (Long) query.uniqueResult();
-
-                return count.intValue();
-            }
-        });
+        Set<JobStatus> statuses = params.getStatuses();
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        boolean hasUser = params.getUser() != null && "".compareTo(params.getUser()) != 0;
+        return Math.toIntExact(jobStatusCounts.count(hasUser ? params.getUser() : null,
+                                                     statuses,
+                                                     params.isChildJobs()));
     }
 
     private Order configureSortOrder(SortParameter<JobSortParameter> param, Property property) {
@@ -500,28 +603,15 @@ public class SchedulerDBManager {
     }
 
     public long getTotalJobsCount() {
-        return executeReadOnlyTransaction(session -> {
-            Query query = session.getNamedQuery("getTotalJobsCount");
-            return (Long) query.uniqueResult();
-        });
+        return jobStatusCounts.count(null, EnumSet.allOf(JobStatus.class), true);
     }
 
     private long getJobsNumberWithStatus(final Collection<JobStatus> status) {
-        return executeReadOnlyTransaction(session -> {
-            Query query = session.getNamedQuery("getJobsNumberWithStatus").setParameterList("status", status);
-
-            return (Long) query.uniqueResult();
-        });
+        return jobStatusCounts.count(null, status, true);
     }
 
     private int getJobsNumberWithStatusForUser(final Collection<JobStatus> status, String username) {
-        return executeReadOnlyTransaction(session -> {
-            Query query = session.getNamedQuery("getJobsNumberWithStatusUsername")
-                                 .setParameter("username", username)
-                                 .setParameterList("status", status);
-
-            return Math.toIntExact((Long) query.uniqueResult());
-        });
+        return Math.toIntExact(jobStatusCounts.count(username, status, true));
     }
 
     public long getJobsCount(JobStatus status) {
@@ -854,10 +944,23 @@ public class SchedulerDBManager {
     public void executeHousekeepingInDB(final List<Long> jobIdList, final boolean shouldRemoveFromDb) {
         List<List<Long>> jobIdSubSets = Lists.partition(jobIdList, MAX_ITEMS_IN_LIST);
         for (List<Long> jobIdSubList : jobIdSubSets) {
-            executeReadWriteTransaction(new HousekeepingSessionWork(jobIdSubList, shouldRemoveFromDb));
+            List<Object[]> removedJobs = executeReadWriteTransaction(session -> {
+                List<Object[]> jobs = shouldRemoveFromDb ? loadJobStatusCountKeys(session, jobIdSubList)
+                                                         : Collections.<Object[]> emptyList();
+                new HousekeepingSessionWork(jobIdSubList, shouldRemoveFromDb).doInTransaction(session);
+                return jobs;
+            });
+            jobStatusCounts.jobsRemoved(removedJobs);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private List<Object[]> loadJobStatusCountKeys(Session session, List<Long> jobIds) {
+        return session.createQuery("select id, owner, status, parentId from JobData where id in (:ids)")
+                      .setParameterList("ids", jobIds)
+                      .list();
+    }
+
     public void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
         removeJob(Collections.singletonList(jobId), removedTime, removeData);
     }
@@ -865,10 +968,13 @@ public class SchedulerDBManager {
     public void removeJob(final List<JobId> jobIds, final long removedTime, final boolean removeData) {
         List<List<JobId>> jobIdSubSets = Lists.partition(jobIds, MAX_ITEMS_IN_LIST);
         for (List<JobId> jobIdSubList : jobIdSubSets) {
-            executeReadWriteTransaction((SessionWork<Void>) session -> {
+            List<Object[]> removedJobs = executeReadWriteTransaction(session -> {
                 List<Long> ids = jobIdSubList.stream().map(SchedulerDBManager::jobId).collect(Collectors.toList());
+                List<Object[]> jobs = Collections.emptyList();
 
                 if (removeData) {
+                    jobs = loadJobStatusCountKeys(session, ids);
+
                     session.createSQLQuery("delete from TASK_DATA_DEPENDENCIES where JOB_ID in (:ids)")
                            .setParameterList("ids", ids)
                            .executeUpdate();
@@ -891,8 +997,9 @@ public class SchedulerDBManager {
                            .setParameterList("ids", ids)
                            .executeUpdate();
                 }
-                return null;
+                return jobs;
             });
+            jobStatusCounts.jobsRemoved(removedJobs);
         }
     }
 
@@ -905,7 +1012,7 @@ public class SchedulerDBManager {
     }
 
     private List<InternalJob> loadJobs(final boolean fullState, final Collection<JobStatus> status, final long period) {
-        return executeReadOnlyTransaction(session -> {
+        List<Long> ids = executeReadOnlyTransaction(session -> {
             logger.info("Loading Jobs from database");
 
             Query query;
@@ -918,12 +1025,52 @@ public class SchedulerDBManager {
                 query = session.getNamedQuery("loadJobs").setParameterList("status", status).setReadOnly(true);
             }
 
-            List<Long> ids = query.list();
+            return (List<Long>) query.list();
+        });
 
-            logger.info(ids.size() + " Jobs to fetch from database");
+        logger.info(ids.size() + " Jobs to fetch from database");
 
-            return loadInternalJobs(fullState, session, ids);
-        });
+        List<List<Long>> batches = Lists.partition(ids, recoveryLoadJobsBatchSize());
+        int nbThreads = Math.min(batches.size(),
+                                 PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS.getValueAsInt());
+        if (nbThreads <= 1) {
+            return executeReadOnlyTransaction(session -> loadInternalJobs(fullState, session, ids));
+        }
+        return loadInternalJobsInParallel(fullState, batches, nbThreads);
+    }
+
+    /**
+     * Loads batches of jobs concurrently, each batch in its own transaction, and returns the jobs
+     * in the order of the batches, i.e. ordered by id like jobs loaded in a single transaction.
+     */
+    private List<InternalJob> loadInternalJobsInParallel(boolean fullState, List<List<Long>> batches, int nbThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads, new NamedThreadFactory("JobLoadThreadPool"));
+        try {
+            List<Future<List<InternalJob>>> futures = new ArrayList<>(batches.size());
+            for (List<Long> batch : batches) {
+                futures.add(executor.submit(() -> executeReadOnlyTransaction(session -> {
+                    List<InternalJob> jobs = new ArrayList<>(batch.size());
+                    batchLoadJobs(session, fullState, session.getNamedQuery("loadInternalJobs"), batch, jobs);
+                    return jobs;
+                })));
+            }
+
+            List<InternalJob> result = new ArrayList<>(batches.size() * batches.get(0).size());
+            for (int i = 0; i < futures.size(); i++) {
+                result.addAll(futures.get(i).get());
+                logger.info("Loaded internal Jobs, batch number " + (i + 1) + " of " + futures.size());
+            }
+            logger.info(ALL_REQUIRED_JOBS_HAVE_BEEN_FETCHED);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseManagerException("Interrupted while loading jobs", e);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new DatabaseManagerException("Failed to load jobs", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     public List<InternalJob> loadJobWithTasksIfNotRemoved(final JobId... jobIds) {
@@ -971,23 +1118,28 @@ public class SchedulerDBManager {
         return executeReadOnlyTransaction(session -> loadInternalJobs(false, session, Collections.singletonList(id)));
     }
 
+    private static int recoveryLoadJobsBatchSize() {
+        return PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.getValueAsInt();
+    }
+
     // Executed in a transaction from the caller
     private List<InternalJob> loadInternalJobs(boolean fullState, Session session, List<Long> ids) {
         Query jobQuery = session.getNamedQuery("loadInternalJobs");
 
         List<InternalJob> result = new ArrayList<>(ids.size());
 
-        List<Long> batchLoadIds = new ArrayList<>(RECOVERY_LOAD_JOBS_BATCH_SIZE);
+        int batchSize = recoveryLoadJobsBatchSize();
+        List<Long> batchLoadIds = new ArrayList<>(batchSize);
 
         int batchIndex = 1;
         for (Long id : ids) {
             batchLoadIds.add(id);
-            if (batchLoadIds.size() == RECOVERY_LOAD_JOBS_BATCH_SIZE) {
+            if (batchLoadIds.size() == batchSize) {
                 logger.info("Loading internal Jobs, batch number " + batchIndex);
                 batchLoadJobs(session, fullState, jobQuery, batchLoadIds, result);
                 batchLoadIds.clear();
                 session.clear();
-                logger.info("Fetched " + (batchIndex * RECOVERY_LOAD_JOBS_BATCH_SIZE) + " internal Jobs");
+                logger.info("Fetched " + (batchIndex * batchSize) + " internal Jobs");
                 batchIndex++;
             }
         }
@@ -1134,6 +1286,7 @@ public class SchedulerDBManager {
                    .executeUpdate();
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void taskRestarted(final InternalJob job, final InternalTask task, final TaskResultImpl result) {
@@ -1170,6 +1323,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     @SuppressWarnings("unchecked")
@@ -1249,6 +1403,7 @@ public class SchedulerDBManager {
 
             return null;
         }, false);
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void updateAfterJobKilled(InternalJob job, Set<TaskId> tasksToUpdate) {
@@ -1340,6 +1495,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void killJobs(List<InternalJob> jobs) {
@@ -1433,6 +1589,7 @@ public class SchedulerDBManager {
 
                 return null;
             });
+            jobsSubList.forEach(jobStatusCounts::jobUpdated);
         }
     }
 
@@ -1447,6 +1604,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void pauseJobAndTasks(final InternalJob job) {
@@ -1457,6 +1615,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void updateJobAndRestartAllInErrorTasks(InternalJob job) {
@@ -1467,6 +1626,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     private void restartAllInErrorTasks(InternalJob job, Session session) {
@@ -1485,6 +1645,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     private void unpauseTasks(InternalJob job, Session session) {
@@ -1519,6 +1680,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     public void updateTaskSchedulingTime(final InternalJob job, final long scheduledTime) {
@@ -1551,6 +1713,48 @@ public class SchedulerDBManager {
         });
     }
 
+    /**
+     * Updates the status and the scheduled time of all given tasks in a single transaction.
+     * Tasks sharing the same scheduled time are updated by a bulk HQL update, per list of
+     * {@link #MAX_ITEMS_IN_LIST} tasks ordered by task id.
+     *
+     * @param tasks the tasks to update, their scheduled time is read from their internal task
+     * @param newStatus the status to set on all tasks
+     */
+    public void updateTaskStatusAndScheduledTime(final Collection<EligibleTaskDescriptorImpl> tasks,
+            final TaskStatus newStatus) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (tasks.size() == 1) {
+            EligibleTaskDescriptorImpl task = tasks.iterator().next();
+            updateTaskStatusAndScheduledTime(task, newStatus, task.getInternal().getScheduledTime());
+            return;
+        }
+
+        // tasks made eligible during the same scheduling pass share their scheduled time
+        final Map<Long, List<DBTaskId>> taskIdsByScheduledTime = new TreeMap<>();
+        for (EligibleTaskDescriptorImpl task : tasks) {
+            taskIdsByScheduledTime.computeIfAbsent(task.getInternal().getScheduledTime(), time -> new ArrayList<>())
+                                  .add(taskId(task.getInternal()));
+        }
+
+        executeReadWriteTransaction((SessionWork<Void>) session -> {
+            for (Map.Entry<Long, List<DBTaskId>> entry : taskIdsByScheduledTime.entrySet()) {
+                List<DBTaskId> taskIds = entry.getValue();
+                taskIds.sort(Comparator.comparingLong(DBTaskId::getJobId).thenComparingLong(DBTaskId::getTaskId));
+                for (List<DBTaskId> taskIdsSubList : Lists.partition(taskIds, MAX_ITEMS_IN_LIST)) {
+                    session.getNamedQuery("updateTaskDataStatusAndScheduledTimeInBulk")
+                           .setParameter("taskStatus", newStatus)
+                           .setParameter("scheduledTime", entry.getKey())
+                           .setParameterList("ids", taskIdsSubList)
+                           .executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
     public void updateTaskStatus(final EligibleTaskDescriptorImpl task, final TaskStatus newStatus) {
         executeReadWriteTransaction((SessionWork<Void>) session -> {
 
@@ -1681,6 +1885,7 @@ public class SchedulerDBManager {
 
             return null;
         });
+        jobStatusCounts.jobUpdated(job);
     }
 
     private TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, Session session) {
@@ -1962,6 +2167,7 @@ public class SchedulerDBManager {
 
             return jobRuntimeData;
         });
+        jobStatusCounts.jobSubmitted(job);
     }
 
     private TaskData getTaskReference(Session session, InternalTask task) {
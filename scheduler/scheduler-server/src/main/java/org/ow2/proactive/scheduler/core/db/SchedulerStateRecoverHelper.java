@@ -27,11 +27,16 @@ package org.ow2.proactive.scheduler.core.db;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -50,6 +55,8 @@ import org.ow2.proactive.scheduler.util.JobLogger;
 import org.ow2.proactive.utils.NodeSet;
 import org.ow2.proactive.utils.PAExecutors;
 
+import com.google.common.base.Throwables;
+
 
 public class SchedulerStateRecoverHelper {
 
@@ -73,6 +80,13 @@ public class SchedulerStateRecoverHelper {
 
     public RecoveredSchedulerState recover(long loadJobPeriod, RMProxy rmProxy, SchedulerStatus schedulerStatus) {
         dbManager.setTaskDataOwnerIfNull();
+
+        // finished jobs are not needed to recover the other jobs, they are loaded meanwhile
+        ExecutorService loadFinishedJobsExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("FinishedJobsLoadThread"));
+        Future<List<InternalJob>> loadedFinishedJobs = loadFinishedJobsExecutor.submit(() -> dbManager.loadFinishedJobs(false,
+                                                                                                                         loadJobPeriod));
+        loadFinishedJobsExecutor.shutdown();
+
         List<InternalJob> notFinishedJobs = dbManager.loadNotFinishedJobs(true);
 
         Vector<InternalJob> pendingJobs = new Vector<>();
@@ -137,13 +151,38 @@ public class SchedulerStateRecoverHelper {
             }
         }
 
-        finishedJobs.addAll(dbManager.loadFinishedJobs(false, loadJobPeriod));
+        addLoadedFinishedJobs(finishedJobs, loadedFinishedJobs);
         logger.info("[Recovering counters] " + " Pending: " + pendingJobs.size() + " Running: " + runningJobs.size() +
                     " Finished: " + finishedJobs.size());
 
         return new RecoveredSchedulerState(pendingJobs, runningJobs, finishedJobs, schedulerStatus);
     }
 
+    /**
+     * Adds the finished jobs loaded from the database, except the jobs canceled during the recovery
+     * which may have been loaded again depending on when they were updated.
+     */
+    private void addLoadedFinishedJobs(Vector<InternalJob> finishedJobs, Future<List<InternalJob>> loadedFinishedJobs) {
+        Set<JobId> canceledJobs = new HashSet<>();
+        for (InternalJob job : finishedJobs) {
+            canceledJobs.add(job.getId());
+        }
+        try {
+            for (InternalJob job : loadedFinishedJobs.get()) {
+                if (!canceledJobs.contains(job.getId())) {
+                    finishedJobs.add(job);
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for the finished jobs to be loaded", e);
+            Thread.currentThread().interrupt();
+            throw new SchedulerStateNotRecoveredException(e);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new SchedulerStateNotRecoveredException(e);
+        }
+    }
+
     private void applyJobUpdates(List<InternalJob> notFinishedJobs) {
         for (InternalJob job : notFinishedJobs) {
             if (this.jobsToUpdate.containsKey(job.getId())) {
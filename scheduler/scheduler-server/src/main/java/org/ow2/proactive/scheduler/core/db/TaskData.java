@@ -159,6 +159,9 @@ import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
                                                                        "cleanScript = null  where id.jobId in :ids"),
                 @NamedQuery(name = "updateTaskDataJobScriptsInBulk", query = "update TaskData set envScript = null, preScript = null, postScript = null,flowScript = null," +
                                                                              "cleanScript = null  where id.jobId in :jobIdList"),
+                @NamedQuery(name = "updateTaskDataStatusAndScheduledTimeInBulk", query = "update TaskData task set task.taskStatus = :taskStatus, " +
+                                                                                         "task.scheduledTime = :scheduledTime " +
+                                                                                         "where task.id in (:ids)"),
                 @NamedQuery(name = "updateTaskDataStatusToPending", query = "update TaskData task set task.taskStatus = :taskStatus " +
                                                                             "where task.jobData = :job"),
                 @NamedQuery(name = "updateTaskDataTaskRestarted", query = "update TaskData set taskStatus = :taskStatus, " +
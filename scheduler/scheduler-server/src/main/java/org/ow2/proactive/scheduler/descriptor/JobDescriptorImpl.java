@@ -36,7 +36,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
-import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -100,6 +99,12 @@ public class JobDescriptorImpl implements JobDescriptor {
     /** All tasks with their children */
     private final Map<InternalTask, TaskDescriptor> allTasksWithTheirChildren = new HashMap<>();
 
+    /** Notified when this job starts or stops having eligible tasks */
+    private transient EligibleTasksListener eligibleTasksListener;
+
+    /** Whether the eligible tasks listener was last notified that this job has eligible tasks */
+    private transient boolean hadEligibleTasks;
+
     /**
      * Create a new instance of job descriptor using an internal job.
      * Just make a mapping between some fields of the two type of job in order to
@@ -215,6 +220,7 @@ public class JobDescriptorImpl implements JobDescriptor {
      */
     public void start(TaskId taskId) {
         runningTasks.put(taskId, eligibleTasks.remove(taskId));
+        eligibleTasksUpdated();
     }
 
     /**
@@ -225,6 +231,7 @@ public class JobDescriptorImpl implements JobDescriptor {
      */
     public void reStart(TaskId taskId) {
         eligibleTasks.put(taskId, (EligibleTaskDescriptor) runningTasks.remove(taskId));
+        eligibleTasksUpdated();
     }
 
     /**
@@ -308,6 +315,7 @@ public class JobDescriptorImpl implements JobDescriptor {
         putNewLoopTaskIntoPausedOrEligableList(target.getId(), newStart);
 
         runningTasks.remove(initiator);
+        eligibleTasksUpdated();
     }
 
     private void putNewLoopTaskIntoPausedOrEligableList(TaskId taskid, EligibleTaskDescriptor newLoopTask) {
@@ -489,6 +497,7 @@ public class JobDescriptorImpl implements JobDescriptor {
         oldTask.addChild(newTask);
 
         eligibleTasks.put(target.getId(), newTask);
+        eligibleTasksUpdated();
     }
 
     /**
@@ -596,6 +605,8 @@ public class JobDescriptorImpl implements JobDescriptor {
             terminate(taskIdToSkip);
         }
 
+        eligibleTasksUpdated();
+
     }
 
     public EligibleTaskDescriptor getTaskByName(String taskName) {
@@ -631,6 +642,7 @@ public class JobDescriptorImpl implements JobDescriptor {
             runningTasks.put(taskId, taskToRun);
             terminate(taskId);
         }
+        eligibleTasksUpdated();
     }
 
     /**
@@ -641,6 +653,7 @@ public class JobDescriptorImpl implements JobDescriptor {
     public void failed() {
         eligibleTasks.clear();
         runningTasks.clear();
+        eligibleTasksUpdated();
     }
 
     public void pause(TaskId taskId) {
@@ -649,6 +662,7 @@ public class JobDescriptorImpl implements JobDescriptor {
 
             if (eligibleTaskDescriptor != null) {
                 pausedTasks.put(taskId, eligibleTaskDescriptor);
+                eligibleTasksUpdated();
             }
         }
     }
@@ -669,6 +683,7 @@ public class JobDescriptorImpl implements JobDescriptor {
 
             if (eligibleTaskDescriptor != null) {
                 eligibleTasks.put(taskId, eligibleTaskDescriptor);
+                eligibleTasksUpdated();
             }
         }
     }
@@ -703,6 +718,7 @@ public class JobDescriptorImpl implements JobDescriptor {
                 iterator.remove();
             }
         }
+        eligibleTasksUpdated();
     }
 
     /**
@@ -727,6 +743,38 @@ public class JobDescriptorImpl implements JobDescriptor {
                 iterator.remove();
             }
         }
+        eligibleTasksUpdated();
+    }
+
+    /**
+     * Set the listener notified each time this job starts or stops having eligible tasks.
+     * The listener is immediately notified if the job currently has eligible tasks.
+     *
+     * @param eligibleTasksListener the listener to notify, or null to stop notifications.
+     */
+    public void setEligibleTasksListener(EligibleTasksListener eligibleTasksListener) {
+        this.eligibleTasksListener = eligibleTasksListener;
+        this.hadEligibleTasks = false;
+        eligibleTasksUpdated();
+    }
+
+    /**
+     * Return true if this job has at least one task which can be scheduled.
+     *
+     * @return true if the eligible tasks view is not empty.
+     */
+    public boolean hasEligibleTasks() {
+        return !eligibleTasks.isEmpty();
+    }
+
+    private void eligibleTasksUpdated() {
+        boolean hasEligibleTasks = hasEligibleTasks();
+        if (hasEligibleTasks != hadEligibleTasks) {
+            hadEligibleTasks = hasEligibleTasks;
+            if (eligibleTasksListener != null) {
+                eligibleTasksListener.eligibleTasksChanged(this, hasEligibleTasks);
+            }
+        }
     }
 
     /**
@@ -746,7 +794,7 @@ public class JobDescriptorImpl implements JobDescriptor {
      */
     @XmlTransient
     public Collection<TaskDescriptor> getEligibleTasks() {
-        return new Vector<TaskDescriptor>(eligibleTasks.values());
+        return new ArrayList<TaskDescriptor>(eligibleTasks.values());
     }
 
     /**
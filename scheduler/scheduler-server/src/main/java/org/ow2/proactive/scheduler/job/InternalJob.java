@@ -1346,12 +1346,32 @@ public abstract class InternalJob extends JobState {
     public void setVariables(Map<String, JobVariable> variables) {
         super.setVariables(variables);
         this.jobInfo.setVariables(this.getVariablesAsReplacementMap());
+        clearTasksRuntimeInformationCache();
     }
 
     @Override
     public void setGenericInformation(Map<String, String> genericInformation) {
         super.setGenericInformation(genericInformation);
         this.jobInfo.setGenericInformation(genericInformation);
+        clearTasksRuntimeInformationCache();
+    }
+
+    @Override
+    public void addGenericInformation(String key, String genericInformation) {
+        super.addGenericInformation(key, genericInformation);
+        clearTasksRuntimeInformationCache();
+    }
+
+    /**
+     * Clears the runtime generic information cached by the tasks of this job, as it depends on the
+     * job variables and generic information.
+     */
+    private void clearTasksRuntimeInformationCache() {
+        if (tasks != null) {
+            for (InternalTask task : tasks.values()) {
+                task.clearRuntimeInformationCache();
+            }
+        }
     }
 
     public Map<String, Serializable> getResultMap() {
@@ -60,9 +60,6 @@ import com.google.common.annotations.VisibleForTesting;
 
 import groovy.lang.GroovyShell;
 import groovy.lang.Script;
-import jdbm.PrimaryHashMap;
-import jdbm.RecordManager;
-import jdbm.RecordManagerFactory;
 
 
 /**
@@ -72,7 +69,8 @@ import jdbm.RecordManagerFactory;
  *
  * All requests are <b>synchronous</b> (this is done by returning primitive objects or throwing checked exception)
  *
- * Internally, HashMap are used to implement Channels. Channels are persisted thanks to <a href="https://code.google.com/archive/p/jdbm2/">JDBM2</a>
+ * Internally, HashMap are used to implement Channels. Channels are persisted thanks to <a href="https://code.google.com/archive/p/jdbm2/">JDBM2</a>,
+ * or in an append-only journal when {@link PASchedulerProperties#SCHEDULER_SYNCHRONIZATION_JOURNAL} is enabled
  *
  * A custom {@link RunActive#runActivity(Body) runActivity} is implemented to handle wait Methods.
  * @author ActiveEon Team
@@ -102,37 +100,31 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
     private static final String CLOSURE_NAME_BASE = "AOSynchronization_";
 
-    /** Path to jdbm database main file */
+    /** Path to the database main file */
     private File statusFile;
 
-    /** Location of the jdbm database */
+    /** Location of the database */
     private File statusFileDirectory;
 
     /** Name of the JDBM Database file used by this service */
     private static final String DEFAULT_STORE_SESSION_NAME = "SchedulerStore";
 
-    /** Schema used inside the JDBM database */
-    private static final String STATUS_RECORD_NAME = "STORE";
-
-    private static long WAIT_STEP = 500L;
-
     /** HashMap storing the in-memory channels */
     private ConcurrentHashMap<String, Channel> inMemoryChannels;
 
-    /** JDBM map storing the persistent channels */
-    private PrimaryHashMap<String, Channel> persistedChannels;
+    /** Store of the persistent channels */
+    private PersistentChannelStore persistentStore;
 
+    /** Map storing the persistent channels, provided by the persistent store */
     private Map<String, Channel> synchronizedPersistedChannels;
 
-    /** Queue used to memorize and handle wait requests to the active object */
-    private Queue<TimedOutRequest> waitUntilQueue = new ArrayDeque<>();
+    /** Wait requests to the active object whose predicate is not met yet */
+    private PendingWaitRequests pendingWaitRequests = new PendingWaitRequests();
 
     /** Groovy related configuration */
 
     private GroovyShell shell;
 
-    private RecordManager recordManager;
-
     private volatile boolean isStarted = false;
 
     @java.lang.SuppressWarnings("unused")
@@ -181,14 +173,8 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     private void init(boolean firstAttempt) {
         close();
         try {
-            logger.info("Loading Record Manager from file : " + statusFile);
-            recordManager = RecordManagerFactory.createRecordManager(statusFile.getCanonicalPath());
-            persistedChannels = recordManager.hashMap(STATUS_RECORD_NAME);
-            // While printing the content of persistedChannels, InvalidClassException or jdbm Error can be triggered
-            logger.info("Content of persisted store : " + persistedChannels);
-
-            recordManager.commit();
-            synchronizedPersistedChannels = Collections.synchronizedMap(persistedChannels);
+            persistentStore = createPersistentStore();
+            synchronizedPersistedChannels = persistentStore.open();
             if (!firstAttempt) {
                 logger.info("Loading of job database successful after clean.");
             }
@@ -207,6 +193,19 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         isStarted = true;
     }
 
+    private PersistentChannelStore createPersistentStore() {
+        if (PASchedulerProperties.SCHEDULER_SYNCHRONIZATION_JOURNAL.getValueAsBoolean()) {
+            return new JournaledChannelStore(statusFile,
+                                             PASchedulerProperties.SCHEDULER_SYNCHRONIZATION_JOURNAL_COMMIT_INTERVAL.getValueAsInt(),
+                                             PASchedulerProperties.SCHEDULER_SYNCHRONIZATION_JOURNAL_COMMIT_BATCH.getValueAsInt(),
+                                             PASchedulerProperties.SCHEDULER_SYNCHRONIZATION_JOURNAL_COMPACTION_SIZE.getValueAsInt() *
+                                                                                                                1024L *
+                                                                                                                1024L);
+        } else {
+            return new JdbmChannelStore(statusFile);
+        }
+    }
+
     private void waitUntilStarted() {
         while (!isStarted) {
             try {
@@ -247,13 +246,12 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
     public boolean close() {
         inMemoryChannels.clear();
-        if (recordManager != null) {
+        if (persistentStore != null) {
             try {
-                logger.info("Closing Record Manager");
-                recordManager.close();
-                recordManager = null;
+                persistentStore.close();
+                persistentStore = null;
             } catch (IOException e) {
-                logger.warn("Error when closing Record Manager", e);
+                logger.warn("Error when closing persistent channels store", e);
             }
         }
         return true;
@@ -276,12 +274,11 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
             boolean alreadyExistingChannel = deleteChannel(originator, taskid, name);
             Channel newChannel = new Channel();
             if (isPersistent) {
-                synchronizedPersistedChannels.put(name, newChannel);
+                persistentStore.putChannel(name, newChannel);
                 logWithContextAndPersist(taskid,
                                          null,
                                          "Created new persistent channel " + QUOTE + name + QUOTE,
                                          Level.INFO);
-                recordManager.commit();
             } else {
                 inMemoryChannels.put(name, newChannel);
                 logWithContextAndPersist(taskid,
@@ -299,12 +296,11 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     public boolean deleteChannel(String originator, TaskId taskid, String name) throws IOException {
         try {
             if (synchronizedPersistedChannels.containsKey(name)) {
-                synchronizedPersistedChannels.remove(name);
+                persistentStore.removeChannel(name);
                 logWithContextAndPersist(taskid,
                                          null,
                                          "Deleted persistent channel " + QUOTE + name + QUOTE,
                                          Level.INFO);
-                recordManager.commit();
                 return true;
             } else if (inMemoryChannels.containsKey(name)) {
                 inMemoryChannels.remove(name);
@@ -338,15 +334,16 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     /**
      * Commits pending operations on the given channel
      * @param channel channel name
+     * @param key the only key modified by the operations, or null if any key may have been modified
      * @throws IOException if an error occurs when persisting channel
      */
-    private void commitIfNeeded(String channel) throws IOException {
-        if (synchronizedPersistedChannels.containsKey(channel)) {
-            // Record Manager mark as dirty (uncommited) entries which have be modified via a put call
-            // Thus, such operation as persistedChannels.get(channel).dosomething() will not be committed
-            // by the following trick, we mark the entry as dirty and commit
-            synchronizedPersistedChannels.put(channel, synchronizedPersistedChannels.get(channel));
-            recordManager.commit();
+    private void commitIfNeeded(String channel, String key) throws IOException {
+        if (channel != null && synchronizedPersistedChannels.containsKey(channel)) {
+            if (key != null) {
+                persistentStore.commitKey(channel, key);
+            } else {
+                persistentStore.commitChannel(channel);
+            }
         }
     }
 
@@ -394,6 +391,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         Serializable answer = getChannel(channel).put(key, value);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer + "",
                                  Level.DEBUG);
         return answer;
@@ -405,6 +403,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         Serializable answer = getChannel(channel).remove(key);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Removed key " + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
                                  Level.DEBUG);
         return answer;
@@ -491,6 +490,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         Serializable answer = getChannel(channel).putIfAbsent(key, value);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
                                  Level.DEBUG);
         return answer;
@@ -502,6 +502,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         boolean answer = getChannel(channel).remove(key, value);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Tried to remove key " + QUOTE + key + QUOTE + " with expected value " + value +
                                           ", success=" + answer,
                                  Level.DEBUG);
@@ -514,6 +515,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         boolean answer = getChannel(channel).replace(key, oldValue, newValue);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Tried to replace key " + QUOTE + key + QUOTE + " with expected old value " +
                                           oldValue + " and new value " + newValue + ", success=" + answer,
                                  Level.DEBUG);
@@ -527,6 +529,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         Serializable answer = getChannel(channel).replace(key, value);
         logWithContextAndPersist(taskid,
                                  channel,
+                                 key,
                                  "Replaced key " + QUOTE + key + QUOTE + WITH_VALUE + value + ", old value was " +
                                           answer,
                                  Level.DEBUG);
@@ -545,6 +548,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
                                                                                                                       Function.class));
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run computeIfAbsent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
         } catch (InvalidChannelException | CompilationException | IOException e) {
@@ -567,6 +571,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
                                                                                                                                                BiFunction.class));
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run computeIfPresent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
         } catch (InvalidChannelException | CompilationException | IOException e) {
@@ -588,6 +593,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
                                                                                                                                             BiFunction.class));
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run compute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
         } catch (InvalidChannelException | CompilationException | IOException e) {
@@ -611,6 +617,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
                                                                                                                                                 BiFunction.class));
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run merge" + ON_KEY + QUOTE + key + QUOTE + WITH_VALUE + value + RESULT_IS +
                                               answer,
                                      Level.DEBUG);
@@ -642,6 +649,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
             }
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
 
@@ -675,6 +683,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
             }
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
         } catch (InvalidChannelException | CompilationException | IOException e) {
@@ -763,66 +772,25 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    @ImmediateService
     public boolean waitUntil(String originator, TaskId taskid, String channel, String key, String predicate)
             throws InvalidChannelException, CompilationException {
         /**
-         * waitUntil is run on its dedicated thread (ImmediateService), it runs its predicate periodically until success
+         * waitUntil is handled with the ActiveObject request queue (see runActivity), it is only served once its
+         * predicate is met. The request is delayed without holding a thread and re-evaluated when the key changes.
          */
-        waitUntilStarted();
-        boolean predicateResult = false;
-        do {
-            Channel chosenChannel = getChannel(channel);
-            Serializable value = chosenChannel.get(key);
-            try {
-                predicateResult = evaluateClosure(predicate, BiPredicate.class).test(key, value);
-                if (!predicateResult) {
-                    Thread.sleep(WAIT_STEP);
-                }
-            } catch (CompilationException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
-                                                     StackTraceUtil.getStackTrace(e));
-            }
-        } while (!predicateResult);
-
+        if (!executeWaitPredicate(originator, taskid, channel, key, predicate)) {
+            throw new IllegalStateException("Predicate " + predicate + " is not met");
+        }
         return true;
     }
 
     @Override
-    @ImmediateService
     public boolean waitUntil(String originator, TaskId taskid, String channel, String key, String predicate,
             long timeout) throws InvalidChannelException, CompilationException, TimeoutException {
         /**
-         * waitUntil with timeout is run on its dedicated thread (ImmediateService).
-         * it runs its predicate periodically until success or timeout
+         * timeout is ignored inside the method implementation (it is handled by the runActivity method)
          */
-        waitUntilStarted();
-        boolean predicateResult = false;
-        long startTime = System.currentTimeMillis();
-        do {
-            Channel chosenChannel = getChannel(channel);
-            Serializable value = chosenChannel.get(key);
-            try {
-                predicateResult = evaluateClosure(predicate, BiPredicate.class).test(key, value);
-                if (!predicateResult) {
-                    if (System.currentTimeMillis() - startTime > timeout) {
-                        throw new TimeoutException("Timeout of " + timeout + " ms expired while waiting for predicate");
-                    }
-                    Thread.sleep(WAIT_STEP);
-                }
-            } catch (CompilationException e) {
-                throw e;
-            } catch (TimeoutException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
-                                                     StackTraceUtil.getStackTrace(e));
-            }
-        } while (!predicateResult);
-        return true;
+        return waitUntil(originator, taskid, channel, key, predicate);
     }
 
     @Override
@@ -849,6 +817,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
             logWithContextAndPersist(taskid,
                                      channel,
+                                     key,
                                      "Run waitUntil" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
                                      Level.DEBUG);
         } catch (InvalidChannelException | CompilationException | IOException e) {
@@ -873,9 +842,14 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
     private void logWithContextAndPersist(TaskId taskId, String channel, String message, Level level)
             throws IOException, InvalidChannelException {
+        logWithContextAndPersist(taskId, channel, null, message, level);
+    }
+
+    private void logWithContextAndPersist(TaskId taskId, String channel, String key, String message, Level level)
+            throws IOException, InvalidChannelException {
         logWithContext(taskId, channel, message, null, level);
         try {
-            commitIfNeeded(channel);
+            commitIfNeeded(channel, key);
         } catch (IOException e) {
             logWithContext(taskId, channel, "Error when persisting channel content", e, Level.ERROR);
             throw e;
@@ -930,77 +904,87 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         Service service = new Service(body);
         while (body.isActive()) {
             try {
-                List<NewRequestWithWaitTime> requestsWithWaitTime = waitForNewRequests(service);
-                for (NewRequestWithWaitTime requestWithWaitTime : requestsWithWaitTime) {
-                    Request request = requestWithWaitTime.getNewRequest();
-                    if (request != null && request.getMethodName().equals("freeze")) {
+                List<Request> newRequests = waitForNewRequests(service);
+                ModifiedEntries modifiedEntries = new ModifiedEntries();
+                for (Request request : newRequests) {
+                    if (request == null) {
+                        continue;
+                    }
+                    if (request.getMethodName().equals("freeze")) {
                         service.serve(request);
                         service.blockingServeOldest("resume");
-                    } else if (request != null && request.getMethodName().startsWith("waitUntilThen") &&
-                               !testWaitFunction(service, request)) {
-                        // If the predicate is not met, delay the wait method execution
-                        TimedOutRequest timedOutRequest = new TimedOutRequest(request,
-                                                                              extractWaitRequestTimeoutParameter(request));
-                        logger.trace("New pending wait request : " + timedOutRequest);
-                        waitUntilQueue.add(new TimedOutRequest(request, extractWaitRequestTimeoutParameter(request)));
-                    } else if (request != null) {
+                        modifiedEntries.markAll();
+                    } else if (isWaitMethod(request)) {
+                        serveOrDelayWaitRequest(service, request, modifiedEntries);
+                    } else {
                         service.serve(request);
+                        modifiedEntries.mark(request);
                     }
                 }
-                unblockWaitMethods(service, computeMaxTimeSpentWaiting(requestsWithWaitTime));
+                unblockWaitMethods(service, modifiedEntries);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
     }
 
-    private long computeMaxTimeSpentWaiting(List<NewRequestWithWaitTime> requestsWithWaitTime) {
-        long maxWait = 0;
-        for (NewRequestWithWaitTime requestWithWaitTime : requestsWithWaitTime) {
-            if (requestWithWaitTime.waitTime > maxWait) {
-                maxWait = requestWithWaitTime.waitTime;
+    private static boolean isWaitMethod(Request request) {
+        return request.getMethodName().startsWith("waitUntil");
+    }
+
+    /**
+     * Serve the given wait request if its predicate is met, otherwise add it to the pending wait requests
+     */
+    private void serveOrDelayWaitRequest(Service service, Request request, ModifiedEntries modifiedEntries) {
+        try {
+            if (executeWaitPredicateFunction(request)) {
+                service.serve(request);
+                modifiedEntries.mark(request);
+            } else {
+                // If the predicate is not met, delay the wait method execution
+                PendingWaitRequests.PendingWaitRequest pendingRequest = new PendingWaitRequests.PendingWaitRequest(request,
+                                                                                                                   (String) request.getParameter(2),
+                                                                                                                   (String) request.getParameter(3),
+                                                                                                                   extractWaitRequestTimeoutParameter(request),
+                                                                                                                   System.currentTimeMillis());
+                logger.trace("New pending wait request : " + pendingRequest);
+                pendingWaitRequests.add(pendingRequest);
             }
+        } catch (Exception e) {
+            // in case an exception occurs, don't delay the request, execute it immediately to notify the client
+            service.serveWithException(request, e);
         }
-        return maxWait;
     }
 
     @Override
     public void freeze() throws IOException {
-        logger.info("Closing Record Manager");
-        recordManager.close();
-        recordManager = null;
+        persistentStore.close();
         isStarted = false;
     }
 
     @Override
     public void resume() throws IOException {
-        logger.info("Loading Record Manager from file : " + statusFile);
-        recordManager = RecordManagerFactory.createRecordManager(statusFile.getCanonicalPath());
-        persistedChannels = recordManager.hashMap(STATUS_RECORD_NAME);
-        recordManager.commit();
-        synchronizedPersistedChannels = Collections.synchronizedMap(persistedChannels);
+        synchronizedPersistedChannels = persistentStore.open();
         isStarted = true;
     }
 
     /**
-     * Wait for a new request in the request queue, until a request is found or until a timeout based on the pending wait request queue
+     * Wait for new requests in the request queue, until a request is found or until the next deadline of the pending wait requests
      * @param service active object service
-     * @return composite object containing the request and the waited time
+     * @return the new requests, may contain null if the wait timed out
      * @throws InterruptedException if the thread is interrupted while waiting for request
      */
-    private List<NewRequestWithWaitTime> waitForNewRequests(Service service) throws InterruptedException {
-        // we cannot wait more then min(pending_wait_requests_timeouts)
-        long maximumTimeToWaitForNewRequests = computeMinimumTimeout();
-        List<NewRequestWithWaitTime> newRequests = new ArrayList<>();
+    private List<Request> waitForNewRequests(Service service) throws InterruptedException {
+        // we cannot wait more than the next deadline of pending wait requests
+        long maximumTimeToWaitForNewRequests = pendingWaitRequests.getTimeUntilNextDeadline(System.currentTimeMillis());
+        List<Request> newRequests = new ArrayList<>();
 
         logger.trace("Waiting for new requests with timeout = " + maximumTimeToWaitForNewRequests + " ms");
-        long waitStart = System.currentTimeMillis();
-        do {
-            Request request = service.blockingRemoveOldest(maximumTimeToWaitForNewRequests);
-            long timeSpentWaiting = System.currentTimeMillis() - waitStart;
-            logger.trace("Time spent waiting for new request: " + timeSpentWaiting + " ms");
-            newRequests.add(new NewRequestWithWaitTime(request, timeSpentWaiting));
-        } while (service.hasRequestToServe());
+        if (maximumTimeToWaitForNewRequests > 0 || service.hasRequestToServe()) {
+            do {
+                newRequests.add(service.blockingRemoveOldest(Math.max(1, maximumTimeToWaitForNewRequests)));
+            } while (service.hasRequestToServe());
+        }
         return newRequests;
     }
 
@@ -1023,38 +1007,39 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         }
     }
 
-    private long computeMinimumTimeout() {
-        long minimumTimeout = Long.MAX_VALUE;
-        for (TimedOutRequest request : waitUntilQueue) {
-            if (request.getRemainingTimeout() < minimumTimeout) {
-                minimumTimeout = request.getRemainingTimeout();
-            }
-        }
-        return minimumTimeout;
-    }
-
     /**
-     * Unblock all pending wait methods if predicates are met
+     * Unblock the pending wait methods whose entries were modified if their predicates are met,
+     * then unblock with a timeout exception the pending wait methods whose deadline is reached
      * @param service active object service
+     * @param modifiedEntries entries modified by the requests served since the last call
      */
-    private void unblockWaitMethods(Service service, long timeSpentWaiting) {
-        for (Iterator<TimedOutRequest> iterator = waitUntilQueue.iterator(); iterator.hasNext();) {
-            TimedOutRequest waitRequest = iterator.next();
-            waitRequest.substractTime(timeSpentWaiting);
-            logger.trace("Updated timeouted request: " + waitRequest);
-            if (testWaitFunction(service, waitRequest.getRequest())) {
-                // predicate is met, serve the request
-                service.serve(waitRequest.getRequest());
-                iterator.remove();
-            } else if (waitRequest.getRemainingTimeout() <= 0) {
-                // predicate is not met and timeout expired, serve the request with a timeout exception
-                logger.trace("Timeout observed: " + waitRequest.getRequest().getMethodName());
-                service.serveWithException(waitRequest.getRequest(),
-                                           new TimeoutException("Timeout of " + waitRequest.getConfiguredTimeout() +
-                                                                " ms expired while waiting for predicate"));
-                iterator.remove();
+    private void unblockWaitMethods(Service service, ModifiedEntries modifiedEntries) {
+        // serving a waitUntilThen modifies its key, which can in turn unblock other waiting requests
+        while (!modifiedEntries.isEmpty() && pendingWaitRequests.size() > 0) {
+            List<PendingWaitRequests.PendingWaitRequest> candidates = modifiedEntries.getPendingRequests(pendingWaitRequests);
+            modifiedEntries = new ModifiedEntries();
+            for (PendingWaitRequests.PendingWaitRequest waitRequest : candidates) {
+                Request request = waitRequest.getRequest();
+                try {
+                    if (executeWaitPredicateFunction(request)) {
+                        // predicate is met, serve the request
+                        pendingWaitRequests.remove(waitRequest);
+                        service.serve(request);
+                        modifiedEntries.mark(request);
+                    }
+                } catch (Exception e) {
+                    pendingWaitRequests.remove(waitRequest);
+                    service.serveWithException(request, e);
+                }
             }
         }
+        for (PendingWaitRequests.PendingWaitRequest waitRequest : pendingWaitRequests.removeExpired(System.currentTimeMillis())) {
+            // predicate is not met and timeout expired, serve the request with a timeout exception
+            logger.trace("Timeout observed: " + waitRequest);
+            service.serveWithException(waitRequest.getRequest(),
+                                       new TimeoutException("Timeout of " + waitRequest.getConfiguredTimeout() +
+                                                            " ms expired while waiting for predicate"));
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -1090,29 +1075,6 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         return closureCache.get(md5Closure);
     }
 
-    /**
-     * Execute the waitUntilThen function corresponding to the provided request
-     *
-     * If an error occurs, serve the request to unblock the caller with the exception attached
-     *
-     * @param service active object service
-     * @param request request to process
-     * @return true if the result of the waitUntil call is true or if an exception occurred
-     */
-    private boolean testWaitFunction(Service service, Request request) {
-        boolean dontNeedWaiting;
-        try {
-
-            dontNeedWaiting = executeWaitPredicateFunction(request);
-        } catch (Exception e) {
-            service.serveWithException(request, e);
-            // in case an exception occurs, don't delay the request, execute it immediately to notify the client
-            dontNeedWaiting = true;
-        }
-        return dontNeedWaiting;
-
-    }
-
     /**
      * Extract from the request the parameters corresponding to the waitUntil method call, then execute waitUntil with these parameters
      * @param request request used to extract parameters
@@ -1145,58 +1107,71 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         private static final long serialVersionUID = 1L;
     }
 
-    private static final class NewRequestWithWaitTime {
-        private Request newRequest;
-
-        private long waitTime;
-
-        NewRequestWithWaitTime(Request newRequest, long waitTime) {
-            this.newRequest = newRequest;
-            this.waitTime = waitTime;
-        }
-
-        Request getNewRequest() {
-            return newRequest;
-        }
-
-        long getWaitTime() {
-            return waitTime;
-        }
-    }
-
-    private static final class TimedOutRequest {
-        private Request request;
-
-        private long configuredTimeout;
-
-        private long remainingTimeout;
-
-        TimedOutRequest(Request request, long configuredTimeout) {
-            this.request = request;
-            this.configuredTimeout = configuredTimeout;
-            this.remainingTimeout = configuredTimeout;
-        }
-
-        void substractTime(long timespent) {
-            this.remainingTimeout -= timespent;
-        }
-
-        Request getRequest() {
-            return request;
+    /**
+     * Channel entries modified by served requests, used to select the pending wait requests to re-evaluate
+     */
+    private static final class ModifiedEntries {
+
+        /** Methods whose third and fourth parameters are the channel and the single key they can modify */
+        private static final Set<String> KEY_MODIFYING_METHODS = new HashSet<>(Arrays.asList("put",
+                                                                                           "remove",
+                                                                                           "putIfAbsent",
+                                                                                           "replace",
+                                                                                           "computeIfAbsent",
+                                                                                           "computeIfPresent",
+                                                                                           "compute",
+                                                                                           "merge",
+                                                                                           "conditionalCompute",
+                                                                                           "waitUntilThen"));
+
+        private final Map<String, Set<String>> keysByChannel = new HashMap<>();
+
+        private final Set<String> channels = new HashSet<>();
+
+        private boolean all = false;
+
+        void mark(Request request) {
+            int numberOfParameters = request.getMethodCall().getNumberOfParameter();
+            String methodName = request.getMethodName();
+            if (methodName.equals("waitUntil")) {
+                // waitUntil does not modify any entry
+                return;
+            }
+            if (numberOfParameters > 3 && KEY_MODIFYING_METHODS.contains(methodName) &&
+                request.getParameter(2) instanceof String && request.getParameter(3) instanceof String) {
+                keysByChannel.computeIfAbsent((String) request.getParameter(2), channel -> new HashSet<>())
+                             .add((String) request.getParameter(3));
+            } else if (numberOfParameters > 2 && request.getParameter(2) instanceof String) {
+                channels.add((String) request.getParameter(2));
+            } else {
+                markAll();
+            }
         }
 
-        long getConfiguredTimeout() {
-            return configuredTimeout;
+        void markAll() {
+            all = true;
         }
 
-        long getRemainingTimeout() {
-            return remainingTimeout;
+        boolean isEmpty() {
+            return !all && channels.isEmpty() && keysByChannel.isEmpty();
         }
 
-        @Override
-        public String toString() {
-            return "TimedOutRequest{" + "request=" + request + ", configuredTimeout=" + configuredTimeout +
-                   ", remainingTimeout=" + remainingTimeout + '}';
+        List<PendingWaitRequests.PendingWaitRequest> getPendingRequests(PendingWaitRequests pendingWaitRequests) {
+            if (all) {
+                return pendingWaitRequests.getRequests();
+            }
+            List<PendingWaitRequests.PendingWaitRequest> requests = new ArrayList<>();
+            for (String channel : channels) {
+                requests.addAll(pendingWaitRequests.getRequests(channel));
+            }
+            for (Map.Entry<String, Set<String>> entry : keysByChannel.entrySet()) {
+                if (!channels.contains(entry.getKey())) {
+                    for (String key : entry.getValue()) {
+                        requests.addAll(pendingWaitRequests.getRequests(entry.getKey(), key));
+                    }
+                }
+            }
+            return requests;
         }
     }
 }
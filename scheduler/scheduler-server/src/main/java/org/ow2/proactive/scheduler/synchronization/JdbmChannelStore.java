@@ -0,0 +1,115 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+import jdbm.PrimaryHashMap;
+import jdbm.RecordManager;
+import jdbm.RecordManagerFactory;
+
+
+/**
+ * Persistent channels stored in a <a href="https://code.google.com/archive/p/jdbm2/">JDBM2</a> database.
+ *
+ * A channel is stored as a single record, which is entirely rewritten after each modification.
+ */
+class JdbmChannelStore implements PersistentChannelStore {
+
+    private static final Logger logger = Logger.getLogger(JdbmChannelStore.class);
+
+    /** Schema used inside the JDBM database */
+    private static final String STATUS_RECORD_NAME = "STORE";
+
+    /** Path to jdbm database main file */
+    private final File statusFile;
+
+    private RecordManager recordManager;
+
+    private Map<String, Channel> persistedChannels;
+
+    JdbmChannelStore(File statusFile) {
+        this.statusFile = statusFile;
+    }
+
+    @Override
+    public Map<String, Channel> open() throws IOException {
+        logger.info("Loading Record Manager from file : " + statusFile);
+        recordManager = RecordManagerFactory.createRecordManager(statusFile.getCanonicalPath());
+        PrimaryHashMap<String, Channel> channels = recordManager.hashMap(STATUS_RECORD_NAME);
+        // While printing the content of persistedChannels, InvalidClassException or jdbm Error can be triggered
+        logger.info("Content of persisted store : " + channels);
+        recordManager.commit();
+        persistedChannels = Collections.synchronizedMap(channels);
+        return persistedChannels;
+    }
+
+    @Override
+    public void putChannel(String name, Channel channel) throws IOException {
+        persistedChannels.put(name, channel);
+        recordManager.commit();
+    }
+
+    @Override
+    public void removeChannel(String name) throws IOException {
+        persistedChannels.remove(name);
+        recordManager.commit();
+    }
+
+    @Override
+    public void commitChannel(String name) throws IOException {
+        if (persistedChannels.containsKey(name)) {
+            // Record Manager mark as dirty (uncommited) entries which have be modified via a put call
+            // Thus, such operation as persistedChannels.get(channel).dosomething() will not be committed
+            // by the following trick, we mark the entry as dirty and commit
+            persistedChannels.put(name, persistedChannels.get(name));
+            recordManager.commit();
+        }
+    }
+
+    @Override
+    public void commitKey(String name, String key) throws IOException {
+        commitChannel(name);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (recordManager != null) {
+            logger.info("Closing Record Manager");
+            try {
+                recordManager.close();
+            } finally {
+                recordManager = null;
+            }
+        }
+    }
+}
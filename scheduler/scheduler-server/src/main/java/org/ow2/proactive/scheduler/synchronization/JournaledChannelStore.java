@@ -0,0 +1,475 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+
+/**
+ * Persistent channels stored in an append-only journal of modifications, compacted into snapshots.
+ *
+ * Each modification of a single key appends a record containing the new value of the key, other modifications
+ * append a record containing the whole channel. With a commit interval of 0 (the default), each record is written
+ * and synced before the modification call returns, which keeps the durability of the jdbm store.
+ *
+ * A positive commit interval group commits records: they are accumulated in memory and written (and synced) to the
+ * journal every commit interval, or as soon as the commit batch size is reached. Modification calls then return
+ * before their record is synced, so this mode is outside the default Synchronization semantics: the modifications
+ * of the last interval may be lost on a crash. The reply cannot be delayed until the group commit instead, as
+ * modifications are served one at a time by the synchronization active object, which would wait for every commit.
+ *
+ * When the journal grows above the compaction size, it is rotated and a snapshot of all channels is written in the
+ * background, after which the rotated journal is deleted. As records contain the state of a key or channel rather
+ * than the operation which modified it, replaying the rotated journal and the current journal over the last
+ * snapshot always gives back the latest state, whether or not the snapshot already contains some of the records.
+ *
+ * On the first opening, channels stored in a previous jdbm database are imported.
+ */
+class JournaledChannelStore implements PersistentChannelStore {
+
+    private static final Logger logger = Logger.getLogger(JournaledChannelStore.class);
+
+    private static final byte PUT_CHANNEL = 1;
+
+    private static final byte REMOVE_CHANNEL = 2;
+
+    private static final byte PUT_KEY = 3;
+
+    private static final byte REMOVE_KEY = 4;
+
+    /** Records larger than this value can only come from a corrupted journal */
+    private static final int MAX_RECORD_LENGTH = 512 * 1024 * 1024;
+
+    private final File statusFile;
+
+    private final File snapshotFile;
+
+    private final File temporarySnapshotFile;
+
+    private final File journalFile;
+
+    private final File rotatedJournalFile;
+
+    private final long commitInterval;
+
+    private final int commitBatchSize;
+
+    private final long compactionSize;
+
+    private Map<String, Channel> channels;
+
+    /** Guards the pending records */
+    private final Object pendingLock = new Object();
+
+    /** Guards the journal file, always acquired before pendingLock */
+    private final Object journalLock = new Object();
+
+    private ByteArrayOutputStream pendingRecords = new ByteArrayOutputStream();
+
+    private int pendingCount = 0;
+
+    private boolean flushRequested = false;
+
+    private FileOutputStream journalStream;
+
+    private long journalSize;
+
+    private volatile boolean compacting = false;
+
+    private volatile IOException writeError;
+
+    private ScheduledExecutorService journalWriter;
+
+    JournaledChannelStore(File statusFile, long commitInterval, int commitBatchSize, long compactionSize) {
+        this.statusFile = statusFile;
+        this.snapshotFile = new File(statusFile.getPath() + ".snapshot");
+        this.temporarySnapshotFile = new File(statusFile.getPath() + ".snapshot.tmp");
+        this.journalFile = new File(statusFile.getPath() + ".journal");
+        this.rotatedJournalFile = new File(statusFile.getPath() + ".journal.old");
+        this.commitInterval = commitInterval;
+        this.commitBatchSize = Math.max(1, commitBatchSize);
+        this.compactionSize = compactionSize;
+    }
+
+    @Override
+    public Map<String, Channel> open() throws IOException {
+        logger.info("Loading journaled channels from " + statusFile);
+        channels = new ConcurrentHashMap<>();
+        if (snapshotFile.exists()) {
+            channels.putAll(readSnapshot());
+        } else if (!journalFile.exists() && !rotatedJournalFile.exists()) {
+            importJdbmStore();
+        }
+        replay(rotatedJournalFile);
+        replay(journalFile);
+        logger.info("Content of persisted store : " + channels);
+
+        // start from a fresh snapshot and an empty journal, discarding a possibly truncated last record
+        writeSnapshot();
+        Files.deleteIfExists(rotatedJournalFile.toPath());
+        Files.deleteIfExists(journalFile.toPath());
+        journalStream = new FileOutputStream(journalFile, true);
+        journalSize = 0;
+        writeError = null;
+
+        journalWriter = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SynchronizationJournalWriter",
+                                                                                          true,
+                                                                                          Thread.NORM_PRIORITY));
+        if (commitInterval > 0) {
+            journalWriter.scheduleWithFixedDelay(this::flushQuietly,
+                                                 commitInterval,
+                                                 commitInterval,
+                                                 TimeUnit.MILLISECONDS);
+        }
+        return channels;
+    }
+
+    @Override
+    public void putChannel(String name, Channel channel) throws IOException {
+        channels.put(name, channel);
+        append(encode(PUT_CHANNEL, name, null, channel));
+    }
+
+    @Override
+    public void removeChannel(String name) throws IOException {
+        channels.remove(name);
+        append(encode(REMOVE_CHANNEL, name, null, null));
+    }
+
+    @Override
+    public void commitChannel(String name) throws IOException {
+        Channel channel = channels.get(name);
+        if (channel != null) {
+            append(encode(PUT_CHANNEL, name, null, channel));
+        }
+    }
+
+    @Override
+    public void commitKey(String name, String key) throws IOException {
+        Channel channel = channels.get(name);
+        if (channel != null) {
+            Serializable value = channel.get(key);
+            if (value == null) {
+                append(encode(REMOVE_KEY, name, key, null));
+            } else {
+                append(encode(PUT_KEY, name, key, value));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.shutdown();
+            try {
+                if (!journalWriter.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.warn("Timeout while waiting for the synchronization journal writer to terminate");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            journalWriter = null;
+        }
+        synchronized (journalLock) {
+            if (journalStream != null) {
+                try {
+                    flush();
+                } finally {
+                    journalStream.close();
+                    journalStream = null;
+                }
+            }
+        }
+    }
+
+    private void append(byte[] record) throws IOException {
+        IOException error = writeError;
+        if (error != null) {
+            writeError = null;
+            throw new IOException("Error when writing the synchronization journal", error);
+        }
+        boolean flushNow = commitInterval <= 0;
+        synchronized (pendingLock) {
+            writeRecord(new DataOutputStream(pendingRecords), record);
+            pendingCount++;
+            if (!flushNow && pendingCount >= commitBatchSize && !flushRequested) {
+                flushRequested = true;
+                journalWriter.execute(this::flushQuietly);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.error("Error when writing the synchronization journal", e);
+            writeError = e;
+        }
+    }
+
+    /**
+     * Writes and syncs the pending records, then triggers a compaction if the journal is too large
+     */
+    private void flush() throws IOException {
+        synchronized (journalLock) {
+            byte[] records;
+            synchronized (pendingLock) {
+                flushRequested = false;
+                if (pendingCount == 0 || journalStream == null) {
+                    return;
+                }
+                records = pendingRecords.toByteArray();
+                pendingRecords.reset();
+                pendingCount = 0;
+            }
+            journalStream.write(records);
+            journalStream.getChannel().force(false);
+            journalSize += records.length;
+            if (journalSize >= compactionSize && !compacting && journalWriter != null &&
+                !journalWriter.isShutdown()) {
+                compacting = true;
+                journalWriter.execute(this::compact);
+            }
+        }
+    }
+
+    private void compact() {
+        try {
+            synchronized (journalLock) {
+                if (journalStream == null) {
+                    return;
+                }
+                flush();
+                // a journal left by a failed compaction is kept until a snapshot is written
+                if (!rotatedJournalFile.exists()) {
+                    logger.debug("Rotating synchronization journal of " + journalSize + " bytes");
+                    journalStream.close();
+                    Files.move(journalFile.toPath(), rotatedJournalFile.toPath());
+                    journalStream = new FileOutputStream(journalFile, true);
+                    journalSize = 0;
+                }
+            }
+            // modifications which occur while the snapshot is written are also recorded in the new journal
+            writeSnapshot();
+            Files.deleteIfExists(rotatedJournalFile.toPath());
+        } catch (IOException e) {
+            logger.error("Error when compacting the synchronization journal", e);
+        } finally {
+            compacting = false;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        try (FileOutputStream fileStream = new FileOutputStream(temporarySnapshotFile)) {
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(fileStream));
+            out.writeObject(new HashMap<>(channels));
+            out.flush();
+            fileStream.getChannel().force(false);
+        }
+        Files.move(temporarySnapshotFile.toPath(),
+                   snapshotFile.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Channel> readSnapshot() throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            return (Map<String, Channel>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not read synchronization snapshot " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Imports the channels of a jdbm database created before the journal was enabled, if any
+     */
+    private void importJdbmStore() throws IOException {
+        File[] jdbmFiles = statusFile.getAbsoluteFile()
+                                     .getParentFile()
+                                     .listFiles((dir, name) -> name.startsWith(statusFile.getName() + ".d") ||
+                                                               name.startsWith(statusFile.getName() + ".lg"));
+        if (jdbmFiles == null || jdbmFiles.length == 0) {
+            return;
+        }
+        logger.info("Importing persistent channels from jdbm database " + statusFile);
+        JdbmChannelStore jdbmStore = new JdbmChannelStore(statusFile);
+        try {
+            channels.putAll(new HashMap<>(jdbmStore.open()));
+        } finally {
+            jdbmStore.close();
+        }
+    }
+
+    private void replay(File journal) throws IOException {
+        if (!journal.exists()) {
+            return;
+        }
+        int replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+            while (true) {
+                byte[] record = readRecord(in);
+                if (record == null) {
+                    break;
+                }
+                apply(record);
+                replayed++;
+            }
+        }
+        logger.info("Replayed " + replayed + " records from " + journal);
+    }
+
+    private void apply(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            String name = readString(in);
+            switch (type) {
+                case PUT_CHANNEL:
+                    channels.put(name, (Channel) readObject(in));
+                    break;
+                case REMOVE_CHANNEL:
+                    channels.remove(name);
+                    break;
+                case PUT_KEY:
+                    String key = readString(in);
+                    Serializable value = (Serializable) readObject(in);
+                    if (channels.containsKey(name)) {
+                        channels.get(name).put(key, value);
+                    }
+                    break;
+                case REMOVE_KEY:
+                    String removedKey = readString(in);
+                    if (channels.containsKey(name)) {
+                        channels.get(name).remove(removedKey);
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown synchronization journal record type " + type);
+            }
+        }
+    }
+
+    private static byte[] encode(byte type, String name, String key, Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            writeString(out, name);
+            if (key != null) {
+                writeString(out, key);
+            }
+            if (value != null) {
+                ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeObject(value);
+                objectOut.flush();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        out.writeInt(record.length);
+        out.writeLong(crc.getValue());
+        out.write(record);
+    }
+
+    /**
+     * @return the next record, or null when the end of the journal or an incomplete or corrupted record is reached
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            long checksum = in.readLong();
+            if (length < 0 || length > MAX_RECORD_LENGTH) {
+                logger.warn("Invalid record length in synchronization journal, ignoring remaining records");
+                return null;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if (crc.getValue() != checksum) {
+                logger.warn("Corrupted record in synchronization journal, ignoring remaining records");
+                return null;
+            }
+            return record;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Object readObject(DataInputStream in) throws IOException {
+        try {
+            return new ObjectInputStream(in).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not read synchronization journal record", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.objectweb.proactive.core.body.request.Request;
+
+
+/**
+ * Wait requests of the {@link AOSynchronization} service whose predicate is not met yet.
+ *
+ * Requests are indexed by the channel and the key their predicate depends on, so that a modification
+ * of the channel only re-evaluates the predicates of the modified key. Requests having a timeout are
+ * also ordered by deadline, giving the time until which the service can wait for new requests.
+ *
+ * This class is not thread-safe, it is only used by the active object thread.
+ */
+class PendingWaitRequests {
+
+    private final Map<String, Map<String, Set<PendingWaitRequest>>> requestsByChannelAndKey = new HashMap<>();
+
+    private final PriorityQueue<PendingWaitRequest> requestsByDeadline = new PriorityQueue<>((r1,
+            r2) -> Long.compare(r1.getDeadline(), r2.getDeadline()));
+
+    private int size = 0;
+
+    void add(PendingWaitRequest request) {
+        requestsByChannelAndKey.computeIfAbsent(request.getChannel(), channel -> new HashMap<>())
+                               .computeIfAbsent(request.getKey(), key -> new LinkedHashSet<>())
+                               .add(request);
+        if (request.getDeadline() != Long.MAX_VALUE) {
+            requestsByDeadline.add(request);
+        }
+        size++;
+    }
+
+    void remove(PendingWaitRequest request) {
+        Map<String, Set<PendingWaitRequest>> requestsByKey = requestsByChannelAndKey.get(request.getChannel());
+        if (requestsByKey != null) {
+            Set<PendingWaitRequest> requests = requestsByKey.get(request.getKey());
+            if (requests != null && requests.remove(request)) {
+                size--;
+                if (requests.isEmpty()) {
+                    requestsByKey.remove(request.getKey());
+                    if (requestsByKey.isEmpty()) {
+                        requestsByChannelAndKey.remove(request.getChannel());
+                    }
+                }
+            }
+        }
+        if (request.getDeadline() != Long.MAX_VALUE) {
+            requestsByDeadline.remove(request);
+        }
+    }
+
+    /**
+     * @return the requests waiting on the given key of the channel, in arrival order
+     */
+    List<PendingWaitRequest> getRequests(String channel, String key) {
+        Map<String, Set<PendingWaitRequest>> requestsByKey = requestsByChannelAndKey.get(channel);
+        if (requestsByKey == null || !requestsByKey.containsKey(key)) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(requestsByKey.get(key));
+    }
+
+    /**
+     * @return the requests waiting on any key of the channel
+     */
+    List<PendingWaitRequest> getRequests(String channel) {
+        Map<String, Set<PendingWaitRequest>> requestsByKey = requestsByChannelAndKey.get(channel);
+        if (requestsByKey == null) {
+            return Collections.emptyList();
+        }
+        List<PendingWaitRequest> requests = new ArrayList<>();
+        requestsByKey.values().forEach(requests::addAll);
+        return requests;
+    }
+
+    /**
+     * @return all the pending requests
+     */
+    List<PendingWaitRequest> getRequests() {
+        List<PendingWaitRequest> requests = new ArrayList<>(size);
+        for (String channel : requestsByChannelAndKey.keySet()) {
+            requests.addAll(getRequests(channel));
+        }
+        return requests;
+    }
+
+    /**
+     * Removes and returns the requests whose deadline is reached.
+     */
+    List<PendingWaitRequest> removeExpired(long now) {
+        List<PendingWaitRequest> expired = new ArrayList<>();
+        while (!requestsByDeadline.isEmpty() && requestsByDeadline.peek().getDeadline() <= now) {
+            PendingWaitRequest request = requestsByDeadline.peek();
+            remove(request);
+            expired.add(request);
+        }
+        return expired;
+    }
+
+    /**
+     * @return the time in milliseconds until the next deadline, or Long.MAX_VALUE if no request has a timeout
+     */
+    long getTimeUntilNextDeadline(long now) {
+        PendingWaitRequest next = requestsByDeadline.peek();
+        if (next == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, next.getDeadline() - now);
+    }
+
+    int size() {
+        return size;
+    }
+
+    static final class PendingWaitRequest {
+
+        private final Request request;
+
+        private final String channel;
+
+        private final String key;
+
+        private final long configuredTimeout;
+
+        private final long deadline;
+
+        PendingWaitRequest(Request request, String channel, String key, long configuredTimeout, long now) {
+            this.request = request;
+            this.channel = channel;
+            this.key = key;
+            this.configuredTimeout = configuredTimeout;
+            this.deadline = configuredTimeout == Long.MAX_VALUE || now > Long.MAX_VALUE - configuredTimeout
+                                                                                                          ? Long.MAX_VALUE
+                                                                                                          : now +
+                                                                                                            configuredTimeout;
+        }
+
+        Request getRequest() {
+            return request;
+        }
+
+        String getChannel() {
+            return channel;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        long getConfiguredTimeout() {
+            return configuredTimeout;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public String toString() {
+            return "PendingWaitRequest{" + "request=" + request + ", channel=" + channel + ", key=" + key +
+                   ", configuredTimeout=" + configuredTimeout + ", deadline=" + deadline + '}';
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+
+/**
+ * Storage of the persistent channels of the {@link AOSynchronization} service.
+ *
+ * Channels are modified in place by the service, the store is notified after each modification
+ * so that it can persist it.
+ */
+interface PersistentChannelStore {
+
+    /**
+     * Opens the store and loads the persisted channels
+     * @return a live view of the persistent channels, indexed by name
+     * @throws IOException if the store cannot be loaded
+     */
+    Map<String, Channel> open() throws IOException;
+
+    /**
+     * Creates or replaces a channel
+     */
+    void putChannel(String name, Channel channel) throws IOException;
+
+    /**
+     * Deletes a channel
+     */
+    void removeChannel(String name) throws IOException;
+
+    /**
+     * Persists a channel after any modification of its content
+     */
+    void commitChannel(String name) throws IOException;
+
+    /**
+     * Persists a channel after a modification restricted to the given key
+     */
+    void commitKey(String name, String key) throws IOException;
+
+    /**
+     * Persists pending modifications and releases the store resources, the store can be opened again afterwards
+     */
+    void close() throws IOException;
+}
@@ -29,12 +29,12 @@ import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 
 import org.objectweb.proactive.ActiveObjectCreationException;
-import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.ProActiveForkedTaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 
 
@@ -64,15 +64,18 @@ public class InternalForkedScriptTask extends InternalScriptTask {
     @Override
     public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
         logger.info(getTaskInfo().getTaskId(), "creating forked task launcher");
-        TaskLauncher launcher = (TaskLauncher) PAActiveObject.newActive(TaskLauncher.class.getName(),
-                                                                        new Object[] { getDefaultTaskLauncherInitializer(),
-                                                                                       new ProActiveForkedTaskLauncherFactory() },
-                                                                        node);
-        // wait until the task launcher is active
-        launcher.isActivated();
+        TaskLauncher launcher = createLauncher(getDefaultTaskLauncherInitializer(), node);
         setExecuterInformation(new ExecuterInformation(launcher, node));
 
         return launcher;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected TaskLauncherFactory createTaskLauncherFactory() {
+        return new ProActiveForkedTaskLauncherFactory();
+    }
+
 }
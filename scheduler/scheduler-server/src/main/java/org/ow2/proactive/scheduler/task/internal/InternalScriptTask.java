@@ -29,11 +29,9 @@ import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 
 import org.objectweb.proactive.ActiveObjectCreationException;
-import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
 import org.ow2.proactive.scheduler.job.InternalJob;
-import org.ow2.proactive.scheduler.task.ProActiveNonForkedTaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
@@ -67,12 +65,7 @@ public class InternalScriptTask extends InternalTask {
     @Override
     public TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException {
         logger.info(getTaskInfo().getTaskId(), "creating non forked task launcher");
-        TaskLauncher launcher = (TaskLauncher) PAActiveObject.newActive(TaskLauncher.class.getName(),
-                                                                        new Object[] { getDefaultTaskLauncherInitializer(),
-                                                                                       new ProActiveNonForkedTaskLauncherFactory() },
-                                                                        node);
-        // wait until the task launcher is active
-        launcher.isActivated();
+        TaskLauncher launcher = createLauncher(getDefaultTaskLauncherInitializer(), node);
         setExecuterInformation(new ExecuterInformation(launcher, node));
 
         return launcher;
@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.task.internal;
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -45,12 +46,14 @@ import javax.xml.bind.annotation.XmlTransient;
 
 import org.apache.commons.collections4.ListUtils;
 import org.objectweb.proactive.ActiveObjectCreationException;
+import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
 import org.objectweb.proactive.core.util.converter.ProActiveMakeDeepCopy;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.exception.ExecutableCreationException;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
@@ -68,9 +71,11 @@ import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.signal.SignalApiImpl;
 import org.ow2.proactive.scheduler.synchronization.SynchronizationWrapper;
+import org.ow2.proactive.scheduler.task.ProActiveNonForkedTaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.TaskInfoImpl;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherFactory;
 import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
 import org.ow2.proactive.scheduler.util.TaskLogger;
@@ -169,6 +174,14 @@ public abstract class InternalTask extends TaskState {
     @XmlTransient
     private transient Map<String, Serializable> updatedVariables;
 
+    /** runtime generic information resolved against updatedVariables, null until computed */
+    @XmlTransient
+    private transient volatile Map<String, String> runtimeGenericInformation;
+
+    /** variables and generic information bindings of the selection scripts, null until computed */
+    @XmlTransient
+    private transient volatile Map<String, Serializable> selectionScriptBindings;
+
     protected InternalTask(InternalJob internalJob) {
         this.internalJob = internalJob;
     }
@@ -513,6 +526,43 @@ public abstract class InternalTask extends TaskState {
      */
     public abstract TaskLauncher createLauncher(Node node) throws ActiveObjectCreationException, NodeException;
 
+    /**
+     * Build the initializer of the launcher which will execute this task.
+     * It reads the task and job state, so it must be called while holding the job lock.
+     *
+     * @return the initializer to give to {@link #createLauncher(TaskLauncherInitializer, Node)}.
+     */
+    public TaskLauncherInitializer createLauncherInitializer() {
+        return getDefaultTaskLauncherInitializer();
+    }
+
+    /**
+     * Create the launcher for this taskDescriptor from an initializer built beforehand.
+     * Unlike {@link #createLauncher(Node)}, this method neither reads nor updates the task state,
+     * it can then be called without holding the job lock.
+     *
+     * @param initializer the initializer returned by {@link #createLauncherInitializer()}.
+     * @param node the node on which to create the launcher.
+     * @return the created launcher as an activeObject.
+     */
+    public TaskLauncher createLauncher(TaskLauncherInitializer initializer, Node node)
+            throws ActiveObjectCreationException, NodeException {
+        TaskLauncher launcher = (TaskLauncher) PAActiveObject.newActive(TaskLauncher.class.getName(),
+                                                                        new Object[] { initializer,
+                                                                                       createTaskLauncherFactory() },
+                                                                        node);
+        // wait until the task launcher is active
+        launcher.isActivated();
+        return launcher;
+    }
+
+    /**
+     * @return the factory used by the launcher to execute this task.
+     */
+    protected TaskLauncherFactory createTaskLauncherFactory() {
+        return new ProActiveNonForkedTaskLauncherFactory();
+    }
+
     /**
      * Return true if this task can handle parent results arguments in its executable
      *
@@ -1297,9 +1347,32 @@ public abstract class InternalTask extends TaskState {
             updatedVariables.putAll(getSystemVariables());
 
             updatedVariables = VariableSubstitutor.resolveVariables(updatedVariables, updatedVariables);
+            clearRuntimeInformationCache();
         }
     }
 
+    /**
+     * Clears the cached runtime generic information and selection script bindings of this task.
+     * They will be computed again on next access. This must be called whenever the variables or the
+     * generic information of the task or of its job are modified.
+     */
+    public synchronized void clearRuntimeInformationCache() {
+        runtimeGenericInformation = null;
+        selectionScriptBindings = null;
+    }
+
+    @Override
+    public void setGenericInformation(Map<String, String> genericInformation) {
+        super.setGenericInformation(genericInformation);
+        clearRuntimeInformationCache();
+    }
+
+    @Override
+    public void addGenericInformation(String key, String genericInformation) {
+        super.addGenericInformation(key, genericInformation);
+        clearRuntimeInformationCache();
+    }
+
     private void updateVariablesWithTaskResults(Map<TaskId, TaskResult> taskResults) {
         for (TaskResult taskResult : taskResults.values()) {
             Map<String, Serializable> propagatedVariables;
@@ -1380,7 +1453,9 @@ public abstract class InternalTask extends TaskState {
     }
 
     /**
-     * returns a generic replacement map, where up-to-date runtime variables were replaced
+     * returns a generic replacement map, where up-to-date runtime variables were replaced.
+     * Once the runtime variables are computed, the result is cached until {@link #clearRuntimeInformationCache()}
+     * is called, the returned map is therefore unmodifiable.
      */
     @Override
     public Map<String, String> getRuntimeGenericInformation() {
@@ -1390,18 +1465,72 @@ public abstract class InternalTask extends TaskState {
             return new HashMap<>();
         }
 
-        HashMap<String, String> gInfo = new HashMap<>();
-        Map<String, String> jobGenericInfo = internalJob.getRuntimeGenericInformation();
-        if (jobGenericInfo != null) {
-            gInfo.putAll(jobGenericInfo);
+        Map<String, String> cached = runtimeGenericInformation;
+        if (cached != null) {
+            return cached;
         }
 
-        if (genericInformation != null) {
-            Map<String, String> updatedTaskGenericInfo = applyReplacementsOnGenericInformation(genericInformation,
-                                                                                               getRuntimeVariables());
-            gInfo.putAll(updatedTaskGenericInfo);
+        synchronized (this) {
+            if (runtimeGenericInformation != null) {
+                return runtimeGenericInformation;
+            }
+
+            HashMap<String, String> gInfo = new HashMap<>();
+            Map<String, String> jobGenericInfo = internalJob.getRuntimeGenericInformation();
+            if (jobGenericInfo != null) {
+                gInfo.putAll(jobGenericInfo);
+            }
+
+            if (genericInformation != null) {
+                Map<String, String> updatedTaskGenericInfo = applyReplacementsOnGenericInformation(genericInformation,
+                                                                                                   getRuntimeVariables());
+                gInfo.putAll(updatedTaskGenericInfo);
+            }
+
+            Map<String, String> result = Collections.unmodifiableMap(gInfo);
+            if (updatedVariables != null) {
+                // runtime variables are not known before updateVariables, the result cannot be cached yet
+                runtimeGenericInformation = result;
+            }
+            return result;
         }
+    }
 
-        return gInfo;
+    /**
+     * Returns the variables and generic information bindings given to the selection scripts of this task.
+     * As for {@link #getRuntimeGenericInformation()}, the bindings are cached once the runtime variables are computed.
+     *
+     * @return an unmodifiable map containing the variables and the generic information bindings, which are
+     *         unmodifiable maps as well so that callers cannot alter the cached bindings
+     */
+    public Map<String, Serializable> getSelectionScriptBindings() {
+        Map<String, Serializable> cached = selectionScriptBindings;
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (this) {
+            if (selectionScriptBindings != null) {
+                return selectionScriptBindings;
+            }
+
+            HashMap<String, Serializable> variables = new HashMap<>(getRuntimeVariables());
+            HashMap<String, String> genericInfo = new HashMap<>(internalJob.getRuntimeGenericInformation());
+            if (internalJob.getType() == JobType.TASKSFLOW) {
+                genericInfo.putAll(getRuntimeGenericInformation());
+            }
+
+            Map<String, Serializable> bindings = new HashMap<>(2, 1f);
+            bindings.put(SchedulerConstants.VARIABLES_BINDING_NAME,
+                         (Serializable) Collections.unmodifiableMap(variables));
+            bindings.put(SchedulerConstants.GENERIC_INFO_BINDING_NAME,
+                         (Serializable) Collections.unmodifiableMap(genericInfo));
+
+            Map<String, Serializable> result = Collections.unmodifiableMap(bindings);
+            if (updatedVariables != null) {
+                selectionScriptBindings = result;
+            }
+            return result;
+        }
     }
 }
@@ -34,6 +34,7 @@ import org.apache.log4j.MDC;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.utils.appenders.AsynchFileAppender;
 import org.ow2.proactive.utils.appenders.FileAppender;
+import org.ow2.proactive.utils.appenders.PooledFileAppender;
 
 
 public class JobLogger {
@@ -118,6 +119,8 @@ public class JobLogger {
         for (Appender appender : (List<Appender>) Collections.list(logger.getAllAppenders())) {
             if (appender instanceof AsynchFileAppender) {
                 ((AsynchFileAppender) appender).flush();
+            } else if (appender instanceof PooledFileAppender) {
+                ((PooledFileAppender) appender).flush();
             }
         }
         MDC.remove(FileAppender.FILE_NAME);
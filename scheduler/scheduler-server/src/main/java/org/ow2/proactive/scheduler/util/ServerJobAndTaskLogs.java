@@ -27,15 +27,21 @@ package org.ow2.proactive.scheduler.util;
 
 import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_CACHE_ENABLED;
 import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_ENABLED;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_ENABLED;
 import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_JOB_LOGS_LOCATION;
 import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.getAbsolutePath;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.log4j.Appender;
@@ -45,6 +51,7 @@ import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
 import org.objectweb.proactive.extensions.dataspaces.exceptions.FileSystemException;
 import org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector;
 import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.util.TaskLoggerRelativePathGenerator;
@@ -55,8 +62,12 @@ import org.ow2.proactive.utils.FileUtils;
 import org.ow2.proactive.utils.appenders.AsynchChachedFileAppender;
 import org.ow2.proactive.utils.appenders.AsynchFileAppender;
 import org.ow2.proactive.utils.appenders.FileAppender;
+import org.ow2.proactive.utils.appenders.PooledFileAppender;
 import org.ow2.proactive.utils.appenders.SynchFileAppender;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 
 public class ServerJobAndTaskLogs {
 
@@ -66,6 +77,20 @@ public class ServerJobAndTaskLogs {
 
     private static final int MAX_REMOVAL_ATTEMPTS = 10;
 
+    /**
+     * How long the layout of a logs document is reused by range reads, long enough for the
+     * consecutive chunks of one stream to be read from the same layout
+     */
+    private static final long LAYOUT_RETENTION_SECONDS = 10;
+
+    /**
+     * Layouts of the logs documents recently read by range, keyed by a list starting with the job id
+     */
+    private final Cache<List<Object>, List<LogSegment>> layouts = CacheBuilder.newBuilder()
+                                                                              .expireAfterWrite(LAYOUT_RETENTION_SECONDS,
+                                                                                                TimeUnit.SECONDS)
+                                                                              .build();
+
     private SchedulerSpacesSupport spacesSupport = null;
 
     private static ServerJobAndTaskLogs activeInstance = null;
@@ -132,8 +157,65 @@ public class ServerJobAndTaskLogs {
 
     }
 
+    /**
+     * Reads a range of the logs of a task, see {@link #getJobLog(JobId, Set, long, int)}.
+     */
+    public ServerLogsChunk getTaskLog(TaskId id, long offset, int length) {
+        List<Object> key = Arrays.asList(id.getJobId(), id);
+        List<LogSegment> segments = layouts.getIfPresent(key);
+        if (segments == null) {
+            segments = new ArrayList<>(2);
+            if (!addLogFiles(segments, TaskLogger.getTaskLogRelativePath(id))) {
+                return readRange(Collections.singletonList(new TextSegment("Cannot retrieve logs for task " + id)),
+                                 offset,
+                                 length);
+            }
+            layouts.put(key, segments);
+        }
+        return readRange(segments, offset, length);
+    }
+
+    /**
+     * Reads a range of the logs of a job and of the given tasks, as they would be returned by
+     * {@link #getJobLog(JobId, Set)} with tasks ordered by id, reading only the part of the
+     * log files that is needed.
+     * <p>
+     * The layout of the document, i.e. the size of each log file, is built by the first call and
+     * reused by the following calls for the same job and tasks during {@value #LAYOUT_RETENTION_SECONDS}
+     * seconds, so that the chunks of one stream fit together even if the job is still running, and
+     * that log files are not listed again for every chunk. Logs written meanwhile are only visible once
+     * the layout expired, which a reader of a running job notices by a different total size.
+     *
+     * @param offset position of the first byte, or if negative, number of bytes to read from the end
+     * @param length maximum number of bytes to read, additionally bounded by
+     *               {@link PASchedulerProperties#SCHEDULER_JOB_LOGS_MAX_CHUNK_SIZE}
+     */
+    public ServerLogsChunk getJobLog(JobId jobId, Set<TaskId> tasks, long offset, int length) {
+        Set<TaskId> sortedTasks = new TreeSet<>(tasks);
+        List<Object> key = Arrays.asList(jobId, sortedTasks);
+        List<LogSegment> segments = layouts.getIfPresent(key);
+        if (segments == null) {
+            segments = new ArrayList<>(2 + 3 * tasks.size());
+            segments.add(new TextSegment("================= Job " + jobId + " logs =================\n"));
+            if (!addLogFiles(segments, JobLogger.getJobLogRelativePath(jobId))) {
+                return readRange(Collections.singletonList(new TextSegment("Cannot retrieve logs for job " + jobId)),
+                                 offset,
+                                 length);
+            }
+            for (TaskId taskId : sortedTasks) {
+                segments.add(new TextSegment("\n================ Task " + taskId + " logs =================\n"));
+                if (!addLogFiles(segments, TaskLogger.getTaskLogRelativePath(taskId))) {
+                    segments.add(new TextSegment("Cannot retrieve logs for task " + taskId));
+                }
+            }
+            layouts.put(key, segments);
+        }
+        return readRange(segments, offset, length);
+    }
+
     public void remove(JobId jobId, String jobOwner, Credentials userCredentials) {
         jlogger.close(jobId);
+        layouts.asMap().keySet().removeIf(key -> jobId.equals(key.get(0)));
         removeFolderLog(jobId.value());
         removeVisualizationFile(jobId.value());
         removePreciousLogs(jobId, jobOwner, userCredentials);
@@ -259,6 +341,57 @@ public class ServerJobAndTaskLogs {
         return result;
     }
 
+    /**
+     * Adds the existing files of the given log, in the order they were written
+     */
+    private boolean addLogFiles(List<LogSegment> segments, String filename) {
+        boolean found = false;
+        for (String suffix : new String[] { ".1", "" }) {
+            File file = new File(getLogsLocation(), filename + suffix);
+            if (file.exists()) {
+                segments.add(new FileSegment(file));
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private ServerLogsChunk readRange(List<LogSegment> segments, long offset, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        long totalSize = 0;
+        for (LogSegment segment : segments) {
+            totalSize += segment.size;
+        }
+        long start = offset >= 0 ? Math.min(offset, totalSize) : Math.max(0, totalSize + offset);
+        int maxLength = PASchedulerProperties.SCHEDULER_JOB_LOGS_MAX_CHUNK_SIZE.getValueAsInt();
+        byte[] content = new byte[(int) Math.min(Math.min(length, maxLength), totalSize - start)];
+
+        int read = 0;
+        long segmentStart = 0;
+        for (LogSegment segment : segments) {
+            if (read == content.length) {
+                break;
+            }
+            long segmentEnd = segmentStart + segment.size;
+            if (segmentEnd > start + read) {
+                long position = start + read - segmentStart;
+                int count = (int) Math.min(content.length - read, segment.size - position);
+                try {
+                    segment.read(position, content, read, count);
+                } catch (IOException e) {
+                    // the file was rolled over or removed since its size was read
+                    logger.warn("Could not read logs from " + segment, e);
+                    return new ServerLogsChunk(Arrays.copyOf(content, read), start, totalSize);
+                }
+                read += count;
+            }
+            segmentStart = segmentEnd;
+        }
+        return new ServerLogsChunk(content, start, totalSize);
+    }
+
     private String readFile(File file) {
         if (file.exists()) {
             try {
@@ -273,6 +406,7 @@ public class ServerJobAndTaskLogs {
     void removeLogsDirectory() {
         String logsLocation = getLogsLocation();
         logger.info("Removing logs " + logsLocation);
+        layouts.invalidateAll();
 
         boolean folderRemoved = org.apache.commons.io.FileUtils.deleteQuietly(new File(logsLocation));
         if (!folderRemoved) {
@@ -315,6 +449,8 @@ public class ServerJobAndTaskLogs {
         if (LOG4J_ASYNC_APPENDER_ENABLED.getValueAsBoolean()) {
             if (LOG4J_ASYNC_APPENDER_CACHE_ENABLED.getValueAsBoolean()) {
                 appender = new AsynchChachedFileAppender();
+            } else if (LOG4J_ASYNC_APPENDER_POOL_ENABLED.getValueAsBoolean()) {
+                appender = new PooledFileAppender();
             } else {
                 appender = new AsynchFileAppender();
             }
@@ -327,6 +463,68 @@ public class ServerJobAndTaskLogs {
         return appender;
     }
 
+    /**
+     * A part of the logs document, its size is fixed when the document is built so that
+     * logs written concurrently do not shift the requested range
+     */
+    private abstract static class LogSegment {
+
+        final long size;
+
+        LogSegment(long size) {
+            this.size = size;
+        }
+
+        abstract void read(long position, byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private static class TextSegment extends LogSegment {
+
+        private final byte[] bytes;
+
+        TextSegment(String text) {
+            this(text.getBytes(Charset.defaultCharset()));
+        }
+
+        private TextSegment(byte[] bytes) {
+            super(bytes.length);
+            this.bytes = bytes;
+        }
+
+        @Override
+        void read(long position, byte[] buffer, int offset, int length) {
+            System.arraycopy(bytes, (int) position, buffer, offset, length);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, Charset.defaultCharset());
+        }
+    }
+
+    private static class FileSegment extends LogSegment {
+
+        private final File file;
+
+        FileSegment(File file) {
+            super(file.length());
+            this.file = file;
+        }
+
+        @Override
+        void read(long position, byte[] buffer, int offset, int length) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                raf.seek(position);
+                raf.readFully(buffer, offset, length);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
     private static class LazyHolder {
         private static final ServerJobAndTaskLogs INSTANCE = new ServerJobAndTaskLogs();
     }
@@ -45,6 +45,7 @@ import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.job.InternalJobFactory;
 import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 
 import com.google.common.collect.ImmutableList;
@@ -301,6 +302,35 @@ public class SchedulerStateRecoverHelperTest {
         assertThat(recoveredState.getFinishedJobs().get(0).getStatus()).isEqualTo(JobStatus.CANCELED);
     }
 
+    @Test
+    public void testRecoverWithJobCanceledDuringRecoveryAlsoLoadedAsFinished() throws Exception {
+        InternalJob job = createJob(JobStatus.RUNNING);
+        job.setId(new JobIdImpl(1, "job"));
+        InternalJob finishedJob = createJob(JobStatus.FINISHED);
+        finishedJob.setId(new JobIdImpl(2, "finishedJob"));
+        // finished jobs are loaded concurrently, possibly after the job was canceled in the database
+        InternalJob canceledJob = createJob(JobStatus.CANCELED);
+        canceledJob.setId(new JobIdImpl(1, "job"));
+
+        SchedulerDBManager dbManager = Mockito.mock(SchedulerDBManager.class);
+        SchedulerStateRecoverHelper stateRecoverHelper = new SchedulerStateRecoverHelper(dbManager) {
+            @Override
+            protected List<InternalTask> copyAndSort(List<InternalTask> tasks) {
+                throw new RuntimeException("bouh!");
+            }
+        };
+        Mockito.when(dbManager.loadNotFinishedJobs(true)).thenReturn(ImmutableList.of(job));
+        Mockito.when(dbManager.loadFinishedJobs(false, -1)).thenReturn(ImmutableList.of(canceledJob, finishedJob));
+
+        RecoveredSchedulerState recoveredState = stateRecoverHelper.recover(-1);
+
+        assertThat(recoveredState.getFinishedJobs()).hasSize(2);
+        assertThat(recoveredState.getFinishedJobs().get(0)).isSameAs(job);
+        assertThat(recoveredState.getFinishedJobs().get(1)).isSameAs(finishedJob);
+        assertThat(recoveredState.getPendingJobs()).isEmpty();
+        assertThat(recoveredState.getRunningJobs()).isEmpty();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testRecoverWithCanceledStatusForLoadedNotFinishedJobs() {
         testRecoverWithIncorrectStatusForLoadedNotFinishedJobs(JobStatus.CANCELED);
@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests.db.schedulerdb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+
+
+public class TestLoadJobsInBatches extends BaseSchedulerDBTest {
+
+    private String batchSize;
+
+    private String nbThreads;
+
+    @Before
+    public void setBatchSize() {
+        batchSize = PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.getValueAsString();
+        nbThreads = PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS.getValueAsString();
+        PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.updateProperty("2");
+    }
+
+    @After
+    public void restoreBatchSize() {
+        PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.updateProperty(batchSize);
+        PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS.updateProperty(nbThreads);
+    }
+
+    @Test
+    public void testJobsAreLoadedInParallelBatches() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS.updateProperty("3");
+        checkJobsAreLoadedInOrder();
+    }
+
+    @Test
+    public void testJobsAreLoadedInSequentialBatches() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_NBTHREADS.updateProperty("1");
+        checkJobsAreLoadedInOrder();
+    }
+
+    private void checkJobsAreLoadedInOrder() throws Exception {
+        List<JobId> notFinishedJobs = new ArrayList<>();
+        List<JobId> finishedJobs = new ArrayList<>();
+        // 7 jobs of each kind make 4 batches, the last one being incomplete
+        for (int i = 0; i < 7; i++) {
+            notFinishedJobs.add(defaultSubmitJob(new TaskFlowJob()).getId());
+            finishedJobs.add(addFinishedJob().getId());
+        }
+
+        Assert.assertEquals(notFinishedJobs, ids(dbManager.loadNotFinishedJobs(true)));
+        Assert.assertEquals(finishedJobs, ids(dbManager.loadFinishedJobs(false, -1)));
+    }
+
+    private InternalJob addFinishedJob() throws Exception {
+        InternalJob job = defaultSubmitJob(new TaskFlowJob());
+        job.failed(null, JobStatus.KILLED);
+        dbManager.updateAfterJobKilled(job, Collections.<TaskId> emptySet());
+        return job;
+    }
+
+    private static List<JobId> ids(List<InternalJob> jobs) {
+        List<JobId> ids = new ArrayList<>(jobs.size());
+        for (InternalJob job : jobs) {
+            ids.add(job.getId());
+        }
+        return ids;
+    }
+}
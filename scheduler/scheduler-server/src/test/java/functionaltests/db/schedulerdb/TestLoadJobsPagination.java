@@ -327,6 +327,73 @@ public class TestLoadJobsPagination extends BaseSchedulerDBTest {
         checkJobs(jobs);
     }
 
+    @Test
+    public void testCursorPagination() throws Exception {
+        defaultSubmitJob(createJob("A", JobPriority.IDLE), "user_a"); // 1
+        InternalJob job2 = defaultSubmitJob(createJob("B", JobPriority.LOWEST), "user_b"); // 2
+        defaultSubmitJob(createJob("C", JobPriority.LOW), "user_c"); // 3
+        InternalJob job4 = defaultSubmitJob(createJob("A", JobPriority.NORMAL), "user_d"); // 4
+        defaultSubmitJob(createJob("B", JobPriority.HIGH), "user_e"); // 5
+
+        job2.failed(null, JobStatus.KILLED);
+        dbManager.updateAfterJobKilled(job2, Collections.<TaskId> emptySet());
+
+        job4.start();
+        InternalTask taskJob4 = startTask(job4, job4.getITasks().get(0));
+        dbManager.jobTaskStarted(job4, taskJob4, true);
+
+        List<SortParameter<JobSortParameter>> byState = sortParameters(new SortParameter<>(JobSortParameter.STATE,
+                                                                                           SortOrder.ASC),
+                                                                       new SortParameter<>(JobSortParameter.ID,
+                                                                                           SortOrder.DESC));
+        checkJobs(getJobsAfter(null, 2, byState), 5, 3);
+        checkJobs(getJobsAfter("3", 2, byState), 1, 4);
+        checkJobs(getJobsAfter("4", 2, byState), 2);
+        checkJobs(getJobsAfter("2", 2, byState));
+
+        // the job id is used as last sort key
+        List<SortParameter<JobSortParameter>> byName = sortParameters(new SortParameter<>(JobSortParameter.NAME,
+                                                                                          SortOrder.ASC));
+        checkJobs(getJobsAfter(null, 3, byName), 1, 4, 2);
+        checkJobs(getJobsAfter("2", 3, byName), 5, 3);
+    }
+
+    @Test
+    public void testJobCountsFollowJobChanges() throws Exception {
+        InternalJob job1 = defaultSubmitJob(createJob());
+        InternalJob job2 = defaultSubmitJob(createJob());
+        defaultSubmitJob(createJob());
+        defaultSubmitJob(createJob(), "user1");
+
+        List<SortParameter<JobSortParameter>> sortParameters = sortParameters(new SortParameter<>(JobSortParameter.ID,
+                                                                                                  SortOrder.ASC));
+        Assert.assertEquals(4, dbManager.getJobs(0, 1, null, true, true, true, true, sortParameters).getSize());
+        Assert.assertEquals(3,
+                            dbManager.getJobs(0, 1, DEFAULT_USER_NAME, true, false, false, true, sortParameters)
+                                     .getSize());
+
+        job2.failed(null, JobStatus.KILLED);
+        dbManager.updateAfterJobKilled(job2, Collections.<TaskId> emptySet());
+
+        Assert.assertEquals(3, dbManager.getJobs(0, 1, null, true, false, false, true, sortParameters).getSize());
+        Assert.assertEquals(1, dbManager.getJobs(0, 1, null, false, false, true, true, sortParameters).getSize());
+        Assert.assertEquals(1, dbManager.getKilledJobsCount(DEFAULT_USER_NAME));
+
+        dbManager.removeJob(job1.getId(), System.currentTimeMillis(), true);
+        dbManager.removeJob(job2.getId(), System.currentTimeMillis(), true);
+
+        Assert.assertEquals(2, dbManager.getJobs(0, 1, null, true, true, true, true, sortParameters).getSize());
+        Assert.assertEquals(1,
+                            dbManager.getJobs(0, 1, "user1", true, true, true, true, sortParameters).getSize());
+        Assert.assertEquals(0, dbManager.getKilledJobsCount(DEFAULT_USER_NAME));
+        Assert.assertEquals(2, dbManager.getTotalJobsCount());
+    }
+
+    private List<JobInfo> getJobsAfter(String afterJobId, int limit,
+            List<SortParameter<JobSortParameter>> sortParameters) {
+        return dbManager.getJobs(afterJobId, 0, limit, null, true, true, true, true, sortParameters).getList();
+    }
+
     private List<SortParameter<JobSortParameter>> sortParameters(SortParameter<JobSortParameter>... params) {
         return Arrays.asList(params);
     }
@@ -25,6 +25,8 @@
  */
 package functionaltests.db.schedulerdb;
 
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
@@ -33,6 +35,7 @@ import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.NativeTask;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.internal.InternalForkedScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -104,4 +107,30 @@ public class TestTaskRuntimeData extends BaseSchedulerDBTest {
         Assert.assertEquals(TaskStatus.SUBMITTED, internalJob.getTask("task3").getStatus());
     }
 
+    @Test
+    public void testUpdateTaskStatusAndScheduledTimeInBatch() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        job.addTask(createDefaultTask("task1"));
+        job.addTask(createDefaultTask("task2"));
+        job.addTask(createDefaultTask("task3"));
+
+        InternalJob internalJob = defaultSubmitJobAndLoadInternal(true, job);
+
+        InternalTask task1 = internalJob.getTask("task1");
+        InternalTask task3 = internalJob.getTask("task3");
+        task1.setScheduledTime(1000L);
+        task3.setScheduledTime(3000L);
+
+        dbManager.updateTaskStatusAndScheduledTime(Arrays.asList(new EligibleTaskDescriptorImpl(task3),
+                                                                 new EligibleTaskDescriptorImpl(task1)),
+                                                   TaskStatus.PENDING);
+
+        internalJob = loadInternalJob(true, internalJob.getId());
+        Assert.assertEquals(TaskStatus.PENDING, internalJob.getTask("task1").getStatus());
+        Assert.assertEquals(1000L, internalJob.getTask("task1").getScheduledTime());
+        Assert.assertEquals(TaskStatus.SUBMITTED, internalJob.getTask("task2").getStatus());
+        Assert.assertEquals(TaskStatus.PENDING, internalJob.getTask("task3").getStatus());
+        Assert.assertEquals(3000L, internalJob.getTask("task3").getScheduledTime());
+    }
+
 }
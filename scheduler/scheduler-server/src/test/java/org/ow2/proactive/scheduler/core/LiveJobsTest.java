@@ -29,7 +29,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.junit.Assert;
@@ -44,6 +46,7 @@ import org.mockito.stubbing.Answer;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeInformation;
 import org.objectweb.proactive.core.runtime.VMInformation;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
 import org.ow2.proactive.scheduler.common.exception.UnknownJobException;
 import org.ow2.proactive.scheduler.common.exception.UnknownTaskException;
 import org.ow2.proactive.scheduler.common.job.JobId;
@@ -352,6 +355,38 @@ public class LiveJobsTest extends ProActiveTestClean {
         assertThat(liveJobs.lockJobsToSchedule(false).size(), is(1));
     }
 
+    @Test(timeout = 60000)
+    public void testLockJobsWithEligibleTasksToSchedule() {
+        InternalJob pausedJob = submitJobWithOneTask(666L, JobPriority.HIGH);
+        InternalJob lowJob = submitJobWithOneTask(667L, JobPriority.LOW);
+        InternalJob normalJob = submitJobWithOneTask(668L, JobPriority.NORMAL);
+        liveJobs.pauseJob(pausedJob.getId());
+
+        Map<JobId, JobDescriptor> locked = liveJobs.lockJobsWithEligibleTasksToSchedule(false);
+        assertThat(new ArrayList<>(locked.keySet()), is(Arrays.asList(normalJob.getId(), lowJob.getId())));
+        liveJobs.unlockJobsToSchedule(locked.values());
+
+        liveJobs.changeJobPriority(lowJob.getId(), JobPriority.HIGHEST);
+        liveJobs.resumeJob(pausedJob.getId());
+
+        locked = liveJobs.lockJobsWithEligibleTasksToSchedule(false);
+        assertThat(new ArrayList<>(locked.keySet()),
+                   is(Arrays.asList(lowJob.getId(), pausedJob.getId(), normalJob.getId())));
+        liveJobs.unlockJobsToSchedule(locked.values());
+    }
+
+    private InternalJob submitJobWithOneTask(long id, JobPriority priority) {
+        InternalJob job = new InternalTaskFlowJob("test-name", priority, OnTaskError.CANCEL_JOB, "description");
+        job.setId(new JobIdImpl(id, "test-name"));
+        List<InternalTask> tasksList = new ArrayList<>();
+        InternalTask internalTask = new InternalScriptTask(job);
+        internalTask.setName("task-name");
+        tasksList.add(internalTask);
+        job.setTasks(tasksList);
+        liveJobs.jobSubmitted(job);
+        return job;
+    }
+
     @Test(expected = IllegalStateException.class, timeout = 60000)
     public void testRestartTaskOnNodeFailureRunningExceptionExpectedBecauseNotLockedTask()
             throws UnknownJobException, UnknownTaskException {
@@ -0,0 +1,238 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.objectweb.proactive.ActiveObjectCreationException;
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeInformation;
+import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.common.TaskDescriptor;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
+import org.ow2.proactive.scheduler.task.internal.ExecuterInformation;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.utils.NodeSet;
+import org.ow2.tests.ProActiveTestClean;
+
+
+/**
+ * Unit tests of the completion of the deployments submitted by the pipelined start of tasks.
+ */
+public class SchedulingMethodImplTest extends ProActiveTestClean {
+
+    private static final String NODE_URL = "pnp://host:1234/node";
+
+    @Mock
+    private SchedulingService schedulingService;
+
+    @Mock
+    private SchedulingInfrastructure infrastructure;
+
+    @Mock
+    private RMProxiesManager rmProxiesManager;
+
+    @Mock
+    private RMProxy userRMProxy;
+
+    @Mock
+    private RMProxy rmProxy;
+
+    @Mock
+    private InternalJob job;
+
+    @Mock
+    private InternalTask task;
+
+    @Mock
+    private TaskDescriptor taskDescriptor;
+
+    @Mock
+    private Node node;
+
+    @Mock
+    private NodeInformation nodeInformation;
+
+    @Mock
+    private TaskLauncher launcher;
+
+    private ExecutorService deployThreadPool;
+
+    private SchedulingMethodImpl schedulingMethod;
+
+    private Set<String> freeResources;
+
+    private Set<EligibleTaskDescriptor> rest;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        deployThreadPool = Executors.newCachedThreadPool();
+        schedulingMethod = new SchedulingMethodImpl(schedulingService, deployThreadPool);
+        freeResources = new HashSet<>();
+        rest = new HashSet<>();
+
+        JobId jobId = JobIdImpl.makeJobId("42");
+        when(job.getId()).thenReturn(jobId);
+        when(job.getOwner()).thenReturn("user");
+        when(task.getId()).thenReturn(TaskIdImpl.createTaskId(jobId, "task", 1));
+        when(node.getNodeInformation()).thenReturn(nodeInformation);
+        when(nodeInformation.getURL()).thenReturn(NODE_URL);
+
+        when(schedulingService.getInfrastructure()).thenReturn(infrastructure);
+        when(infrastructure.getRMProxiesManager()).thenReturn(rmProxiesManager);
+        when(rmProxiesManager.getUserRMProxy(Mockito.anyString(),
+                                             Mockito.<Credentials> any())).thenReturn(userRMProxy);
+        when(rmProxy.areNodesRecoverable(Mockito.<NodeSet> any())).thenReturn(true);
+        when(schedulingService.lockJob(jobId)).thenReturn(mock(LiveJobs.JobData.class));
+    }
+
+    @After
+    public void tearDown() {
+        deployThreadPool.shutdownNow();
+    }
+
+    @Test
+    public void testNodeOfTimedOutLauncherIsReleasedOnceLauncherIsCreated() throws Exception {
+        final CountDownLatch creationAllowed = new CountDownLatch(1);
+        when(task.createLauncher(Mockito.<TaskLauncherInitializer> any(), Mockito.eq(node))).thenAnswer(invocation -> {
+            creationAllowed.await();
+            return launcher;
+        });
+
+        int started = schedulingMethod.completeDeployments(submit(deployment(), 50), freeResources, rest);
+
+        assertThat(started, is(0));
+        // the launcher may still appear on the node, it must not be given to another task yet
+        verify(userRMProxy, never()).releaseNodes(Mockito.<NodeSet> any());
+        assertThat(freeResources, is(empty()));
+
+        creationAllowed.countDown();
+
+        verify(userRMProxy, timeout(5000)).releaseNodes(Mockito.<NodeSet> any());
+        InOrder inOrder = inOrder(launcher, userRMProxy);
+        inOrder.verify(launcher).kill();
+        inOrder.verify(userRMProxy).releaseNodes(Mockito.<NodeSet> any());
+    }
+
+    @Test
+    public void testTaskKilledBetweenSubmitAndComplete() throws Exception {
+        testTaskNotPendingAnymore(TaskStatus.ABORTED);
+    }
+
+    @Test
+    public void testTaskPausedBetweenSubmitAndComplete() throws Exception {
+        testTaskNotPendingAnymore(TaskStatus.PAUSED);
+    }
+
+    private void testTaskNotPendingAnymore(TaskStatus status) throws Exception {
+        when(task.createLauncher(Mockito.<TaskLauncherInitializer> any(), Mockito.eq(node))).thenReturn(launcher);
+        List<TaskLauncherDeployment> deployments = submit(deployment(), 5000);
+        when(task.getStatus()).thenReturn(status);
+
+        int started = schedulingMethod.completeDeployments(deployments, freeResources, rest);
+
+        assertThat(started, is(0));
+        verify(task, never()).setExecuterInformation(Mockito.<ExecuterInformation> any());
+        InOrder inOrder = inOrder(launcher, userRMProxy);
+        inOrder.verify(launcher).kill();
+        inOrder.verify(userRMProxy).releaseNodes(Mockito.<NodeSet> any());
+        assertThat(freeResources, contains(NODE_URL));
+    }
+
+    @Test
+    public void testActiveObjectCreationExceptionDecrementsRetryCounter() throws Exception {
+        when(task.createLauncher(Mockito.<TaskLauncherInitializer> any(),
+                                 Mockito.eq(node))).thenThrow(new ActiveObjectCreationException("node down"));
+        List<TaskLauncherDeployment> deployments = new ArrayList<>();
+        deployments.addAll(submit(deployment(), 5000));
+        deployments.addAll(submit(deployment(), 5000));
+
+        int started = schedulingMethod.completeDeployments(deployments, freeResources, rest);
+
+        assertThat(started, is(0));
+        assertThat(schedulingMethod.activeObjectCreationRetryTimeNumber,
+                   is(SchedulingMethodImpl.ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER - 2));
+        verify(launcher, never()).kill();
+        verify(userRMProxy, Mockito.times(2)).releaseNodes(Mockito.<NodeSet> any());
+        assertThat(freeResources, contains(NODE_URL));
+    }
+
+    @Test
+    public void testRetryCounterIsNotDecrementedByOtherFailures() throws Exception {
+        when(task.createLauncher(Mockito.<TaskLauncherInitializer> any(),
+                                 Mockito.eq(node))).thenThrow(new IllegalStateException("unexpected"));
+
+        schedulingMethod.completeDeployments(submit(deployment(), 5000), freeResources, rest);
+
+        assertThat(schedulingMethod.activeObjectCreationRetryTimeNumber,
+                   is(SchedulingMethodImpl.ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER));
+        verify(userRMProxy).releaseNodes(Mockito.<NodeSet> any());
+    }
+
+    private TaskLauncherDeployment deployment() {
+        return new TaskLauncherDeployment(job, task, taskDescriptor, node);
+    }
+
+    private List<TaskLauncherDeployment> submit(TaskLauncherDeployment deployment, long launcherTimeout) {
+        deployment.submit(deployThreadPool, mock(TaskLauncherInitializer.class), rmProxy, launcherTimeout, 5000);
+        return Collections.singletonList(deployment);
+    }
+}
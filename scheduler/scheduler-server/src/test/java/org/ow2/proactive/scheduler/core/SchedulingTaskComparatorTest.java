@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.core;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -103,21 +104,30 @@ public class SchedulingTaskComparatorTest extends ProActiveTestClean {
         Mockito.when(task1.getSelectionScripts())
                .thenReturn(ImmutableList.of(new SelectionScript("variables.get(\"PA_JOB\");selected = true",
                                                                 "javascript")));
-        Mockito.when(task1.getRuntimeVariables()).thenReturn(ImmutableMap.of("PA_JOB", (Serializable) "job1"));
+        Mockito.when(task1.getSelectionScriptBindings()).thenReturn(selectionScriptBindings("job1"));
         Mockito.when(task2.getSelectionScripts())
                .thenReturn(ImmutableList.of(new SelectionScript("variables.get(\"PA_JOB\");selected = true",
                                                                 "javascript")));
-        Mockito.when(task2.getRuntimeVariables()).thenReturn(ImmutableMap.of("PA_JOB", (Serializable) "job2"));
+        Mockito.when(task2.getSelectionScriptBindings()).thenReturn(selectionScriptBindings("job2"));
 
         Assert.assertFalse((new SchedulingTaskComparator(task1, job1)).equals(new SchedulingTaskComparator(task2,
                                                                                                            job2)));
 
-        Mockito.when(task2.getRuntimeVariables()).thenReturn(ImmutableMap.of("PA_JOB", (Serializable) "job1"));
+        Mockito.when(task2.getSelectionScriptBindings()).thenReturn(selectionScriptBindings("job1"));
 
         Assert.assertTrue((new SchedulingTaskComparator(task1, job1)).equals(new SchedulingTaskComparator(task2,
                                                                                                           job2)));
     }
 
+    private static Map<String, Serializable> selectionScriptBindings(String jobVariable) {
+        HashMap<String, Serializable> variables = new HashMap<>();
+        variables.put("PA_JOB", jobVariable);
+        return ImmutableMap.of(SchedulerConstants.VARIABLES_BINDING_NAME,
+                               variables,
+                               SchedulerConstants.GENERIC_INFO_BINDING_NAME,
+                               new HashMap<String, String>());
+    }
+
     @Test
     public void testJobOwnerDiffers() throws Exception {
         Mockito.when(job2.getOwner()).thenReturn("notadmin");
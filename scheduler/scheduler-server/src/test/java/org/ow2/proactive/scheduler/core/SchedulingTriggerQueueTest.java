@@ -0,0 +1,106 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.ow2.proactive.scheduler.core.SchedulingTriggerQueue.Trigger;
+
+
+public class SchedulingTriggerQueueTest {
+
+    @Test
+    public void testTriggersAreCoalesced() throws InterruptedException {
+        SchedulingTriggerQueue queue = new SchedulingTriggerQueue(0);
+
+        queue.signal(Trigger.JOB_SUBMITTED);
+        queue.signal(Trigger.JOB_SUBMITTED);
+        queue.signal(Trigger.TASK_TERMINATED);
+
+        Set<Trigger> triggers = queue.awaitNextPass(10000);
+
+        assertThat(triggers, is(EnumSet.of(Trigger.JOB_SUBMITTED, Trigger.TASK_TERMINATED)));
+        assertThat(queue.getTriggerCount(Trigger.JOB_SUBMITTED), is(2L));
+        assertThat(queue.getTriggerCount(Trigger.TASK_TERMINATED), is(1L));
+        assertThat(queue.getCoalescedCount(), is(1L));
+        assertThat(queue.getPassCount(), is(1L));
+    }
+
+    @Test
+    public void testTimeoutWithoutTrigger() throws InterruptedException {
+        SchedulingTriggerQueue queue = new SchedulingTriggerQueue(0);
+
+        long start = System.currentTimeMillis();
+        Set<Trigger> triggers = queue.awaitNextPass(100);
+
+        assertTrue(System.currentTimeMillis() - start >= 100);
+        assertTrue(triggers.isEmpty());
+    }
+
+    @Test
+    public void testSignalWakesUpWaitingLoop() throws InterruptedException {
+        SchedulingTriggerQueue queue = new SchedulingTriggerQueue(0);
+
+        Thread signaler = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.signal(Trigger.NODES_RELEASED);
+        });
+        signaler.start();
+
+        long start = System.currentTimeMillis();
+        Set<Trigger> triggers = queue.awaitNextPass(60000);
+
+        assertTrue(System.currentTimeMillis() - start < 60000);
+        assertThat(triggers, is(EnumSet.of(Trigger.NODES_RELEASED)));
+        signaler.join();
+    }
+
+    @Test
+    public void testMinimumIntervalBetweenLoops() throws InterruptedException {
+        SchedulingTriggerQueue queue = new SchedulingTriggerQueue(200);
+
+        queue.signal(Trigger.JOB_SUBMITTED);
+        queue.awaitNextPass(0);
+        long firstLoop = System.currentTimeMillis();
+
+        queue.signal(Trigger.JOB_SUBMITTED);
+        queue.awaitNextPass(0);
+
+        assertTrue(System.currentTimeMillis() - firstLoop >= 190);
+        assertThat(queue.getPassCount(), is(2L));
+    }
+
+}
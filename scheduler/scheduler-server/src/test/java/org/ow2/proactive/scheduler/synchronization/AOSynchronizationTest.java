@@ -35,6 +35,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -468,6 +469,32 @@ public class AOSynchronizationTest extends ProActiveTestClean {
         }
     }
 
+    @Test
+    public void testWaitUntilIsNotifiedOnKeyModification() throws Exception {
+        initChannel();
+        initChannel(CHANNEL2);
+
+        Future<Boolean> waitOnA = executor.submit(() -> synchronization.waitUntil(CHANNEL1, "a", PREDICATE_EQ_ZERO));
+        Future<Boolean> waitOnB = executor.submit(() -> synchronization.waitUntil(CHANNEL1,
+                                                                                  "b",
+                                                                                  PREDICATE_EQ_ZERO,
+                                                                                  60000));
+
+        // modifications of other channels or keys must not release the waiting calls
+        synchronization.put(CHANNEL2, "a", 0);
+        synchronization.put(CHANNEL1, "c", 0);
+        TimeUnit.MILLISECONDS.sleep(200);
+        Assert.assertFalse(waitOnA.isDone());
+        Assert.assertFalse(waitOnB.isDone());
+
+        synchronization.compute(CHANNEL1, "a", BIFUNCTION_DECREMENT_ONE);
+        Assert.assertTrue(waitOnA.get(10, TimeUnit.SECONDS));
+        Assert.assertFalse(waitOnB.isDone());
+
+        synchronization.put(CHANNEL1, "b", 0);
+        Assert.assertTrue(waitOnB.get(10, TimeUnit.SECONDS));
+    }
+
     @Test
     public void testWaitUntilThen() throws IOException, InvalidChannelException, CompilationException {
         initChannel();
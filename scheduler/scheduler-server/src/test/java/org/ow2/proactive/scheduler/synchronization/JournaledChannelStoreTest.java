@@ -0,0 +1,146 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+
+public class JournaledChannelStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File statusFile;
+
+    @Before
+    public void init() throws IOException {
+        statusFile = new File(folder.newFolder(), "SchedulerStore");
+    }
+
+    @Test
+    public void testModificationsAreReplayedAfterRestart() throws IOException {
+        JournaledChannelStore store = new JournaledChannelStore(statusFile, 0, 1, Long.MAX_VALUE);
+        Map<String, Channel> channels = store.open();
+        store.putChannel("channel1", new Channel());
+        store.putChannel("channel2", new Channel());
+
+        channels.get("channel1").put("a", 1);
+        store.commitKey("channel1", "a");
+        channels.get("channel1").put("b", 2);
+        store.commitKey("channel1", "b");
+        channels.get("channel1").remove("b");
+        store.commitKey("channel1", "b");
+        channels.get("channel2").put("c", 3);
+        channels.get("channel2").put("d", 4);
+        store.commitChannel("channel2");
+        store.removeChannel("channel2");
+
+        // the store is not closed, as after a crash
+        Map<String, Channel> recovered = new JournaledChannelStore(statusFile, 0, 1, Long.MAX_VALUE).open();
+        assertEquals(1, recovered.size());
+        assertEquals(1, recovered.get("channel1").get("a"));
+        assertNull(recovered.get("channel1").get("b"));
+        assertFalse(recovered.containsKey("channel2"));
+        store.close();
+    }
+
+    @Test
+    public void testGroupedModificationsAreWrittenOnClose() throws IOException {
+        JournaledChannelStore store = new JournaledChannelStore(statusFile, 60000, 1000, Long.MAX_VALUE);
+        Map<String, Channel> channels = store.open();
+        store.putChannel("channel", new Channel());
+        for (int i = 0; i < 100; i++) {
+            channels.get("channel").put("counter", i);
+            store.commitKey("channel", "counter");
+        }
+        store.close();
+
+        store = new JournaledChannelStore(statusFile, 60000, 1000, Long.MAX_VALUE);
+        assertEquals(99, store.open().get("channel").get("counter"));
+        store.close();
+    }
+
+    @Test
+    public void testTruncatedRecordIsIgnored() throws IOException {
+        JournaledChannelStore store = new JournaledChannelStore(statusFile, 0, 1, Long.MAX_VALUE);
+        Map<String, Channel> channels = store.open();
+        store.putChannel("channel", new Channel());
+        channels.get("channel").put("a", 1);
+        store.commitKey("channel", "a");
+        store.close();
+
+        try (FileOutputStream journal = new FileOutputStream(new File(statusFile.getPath() + ".journal"), true)) {
+            journal.write(new byte[] { 0, 0, 1, 0, 42 });
+        }
+
+        store = new JournaledChannelStore(statusFile, 0, 1, Long.MAX_VALUE);
+        channels = store.open();
+        assertEquals(1, channels.get("channel").get("a"));
+        channels.get("channel").put("a", 2);
+        store.commitKey("channel", "a");
+        store.close();
+
+        store = new JournaledChannelStore(statusFile, 0, 1, Long.MAX_VALUE);
+        assertEquals(2, store.open().get("channel").get("a"));
+        store.close();
+    }
+
+    @Test
+    public void testJournalIsCompacted() throws Exception {
+        JournaledChannelStore store = new JournaledChannelStore(statusFile, 0, 1, 1024);
+        Map<String, Channel> channels = store.open();
+        store.putChannel("channel", new Channel());
+        for (int i = 0; i < 1000; i++) {
+            channels.get("channel").put("key" + (i % 10), i);
+            store.commitKey("channel", "key" + (i % 10));
+        }
+        store.close();
+
+        assertTrue(new File(statusFile.getPath() + ".snapshot").exists());
+        assertFalse(new File(statusFile.getPath() + ".journal.old").exists());
+
+        store = new JournaledChannelStore(statusFile, 0, 1, 1024);
+        channels = store.open();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(990 + i, channels.get("channel").get("key" + i));
+        }
+        store.close();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.task.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.SchedulerConstants;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.task.OnTaskError;
+import org.ow2.proactive.scheduler.core.SchedulingMethodImpl;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.tests.ProActiveTestClean;
+
+
+public class InternalTaskRuntimeInformationTest extends ProActiveTestClean {
+
+    private InternalJob job;
+
+    private InternalTask task;
+
+    @Before
+    public void init() {
+        job = new InternalTaskFlowJob("test-name", JobPriority.NORMAL, OnTaskError.CANCEL_JOB, "description");
+        job.setId(new JobIdImpl(666L, "test-name"));
+        task = new InternalScriptTask(job);
+        task.setName("task");
+        job.addTask(task);
+        task.setJobInfo(job.getJobInfo());
+        task.addGenericInformation("TASK_GI", "${PA_TASK_NAME}");
+    }
+
+    @Test
+    public void testRuntimeGenericInformationIsNotCachedBeforeVariablesUpdate() {
+        Map<String, String> first = task.getRuntimeGenericInformation();
+        assertThat(task.getRuntimeGenericInformation(), not(sameInstance(first)));
+    }
+
+    @Test
+    public void testRuntimeGenericInformationIsCachedAfterVariablesUpdate() {
+        task.updateVariables(null);
+
+        Map<String, String> first = task.getRuntimeGenericInformation();
+        assertThat(first.get("TASK_GI"), is("task"));
+        assertThat(task.getRuntimeGenericInformation(), sameInstance(first));
+
+        Map<String, Serializable> bindings = task.getSelectionScriptBindings();
+        assertThat(task.getSelectionScriptBindings(), sameInstance(bindings));
+        assertThat(((Map<?, ?>) bindings.get(SchedulerConstants.GENERIC_INFO_BINDING_NAME)).get("TASK_GI"),
+                   is((Object) "task"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCachedSelectionScriptBindingsAreDeeplyUnmodifiable() {
+        task.updateVariables(null);
+
+        Map<String, String> genericInfo = (Map<String, String>) task.getSelectionScriptBindings()
+                                                                    .get(SchedulerConstants.GENERIC_INFO_BINDING_NAME);
+        genericInfo.put("TASK_GI", "modified");
+    }
+
+    @Test
+    public void testSelectionScriptsGetCopiesOfTheCachedBindings() throws Exception {
+        task.updateVariables(null);
+
+        Map<String, Serializable> bindings = SchedulingMethodImpl.createBindingsForSelectionScripts(job, task, null);
+        ((Map<String, String>) bindings.get(SchedulerConstants.GENERIC_INFO_BINDING_NAME)).put("TASK_GI",
+                                                                                                "modified");
+
+        assertThat(((Map<?, ?>) task.getSelectionScriptBindings()
+                                    .get(SchedulerConstants.GENERIC_INFO_BINDING_NAME)).get("TASK_GI"),
+                   is((Object) "task"));
+    }
+
+    @Test
+    public void testCacheIsClearedWhenGenericInformationChanges() {
+        task.updateVariables(null);
+        Map<String, String> first = task.getRuntimeGenericInformation();
+        Map<String, Serializable> bindings = task.getSelectionScriptBindings();
+
+        task.addGenericInformation("OTHER_GI", "value");
+
+        assertThat(task.getRuntimeGenericInformation().get("OTHER_GI"), is("value"));
+        assertThat(task.getSelectionScriptBindings(), not(sameInstance(bindings)));
+
+        job.addGenericInformation("JOB_GI", "jobValue");
+
+        assertThat(task.getRuntimeGenericInformation().get("JOB_GI"), is("jobValue"));
+        assertThat(task.getRuntimeGenericInformation(), not(sameInstance(first)));
+    }
+}
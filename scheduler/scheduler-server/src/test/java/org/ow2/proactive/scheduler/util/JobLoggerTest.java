@@ -26,6 +26,7 @@
 package org.ow2.proactive.scheduler.util;
 
 import static java.nio.charset.Charset.defaultCharset;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -48,6 +49,7 @@ import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.utils.appenders.AsynchChachedFileAppender;
 import org.ow2.proactive.utils.appenders.FileAppender;
+import org.ow2.proactive.utils.appenders.PooledFileAppender;
 
 
 public class JobLoggerTest {
@@ -70,6 +72,7 @@ public class JobLoggerTest {
     public static void wrapup() {
         PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_ENABLED.updateProperty("true");
         PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_CACHE_ENABLED.updateProperty("false");
+        PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_ENABLED.updateProperty("true");
     }
 
     @After
@@ -88,12 +91,27 @@ public class JobLoggerTest {
 
         PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_ENABLED.updateProperty("true");
         PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_CACHE_ENABLED.updateProperty("false");
+        PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_ENABLED.updateProperty("false");
 
         logFolder = initLoggers();
 
         doLogTest(logFolder, false);
     }
 
+    @Test
+    public void testLoggerAsyncPooled() throws IOException {
+
+        PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_ENABLED.updateProperty("true");
+        PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_CACHE_ENABLED.updateProperty("false");
+        PAResourceManagerProperties.LOG4J_ASYNC_APPENDER_POOL_ENABLED.updateProperty("true");
+
+        logFolder = initLoggers();
+        assertThat(Logger.getLogger(JobLogger.class).getAllAppenders().nextElement(),
+                   instanceOf(PooledFileAppender.class));
+
+        doLogTest(logFolder, false);
+    }
+
     @Test
     public void testLoggerAsyncWithCache() throws IOException {
 
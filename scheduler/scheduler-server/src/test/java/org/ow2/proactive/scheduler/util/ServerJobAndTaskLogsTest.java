@@ -27,18 +27,23 @@ package org.ow2.proactive.scheduler.util;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.junit.*;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
@@ -139,6 +144,73 @@ public class ServerJobAndTaskLogsTest extends ProActiveTestClean {
         assertEquals(0, new File(ServerJobAndTaskLogs.getInstance().getLogsLocation()).list().length);
     }
 
+    @Test
+    public void logsRange() throws Exception {
+        jobLogger.info(jobId, "first job log");
+        taskLogger.info(taskId, "first task log");
+        jobLogger.info(jobId, "second job log");
+        taskLogger.info(taskId, "second task log");
+
+        jobLogger.close(jobId);
+        taskLogger.close(taskId);
+        Thread.sleep(200);
+
+        ServerJobAndTaskLogs logs = ServerJobAndTaskLogs.getInstance();
+        byte[] jobLog = logs.getJobLog(jobId, Collections.singleton(taskId)).getBytes(Charset.defaultCharset());
+
+        ServerLogsChunk chunk = logs.getJobLog(jobId, Collections.singleton(taskId), 0, Integer.MAX_VALUE);
+        assertArrayEquals(jobLog, chunk.getContent());
+        assertEquals(jobLog.length, chunk.getTotalSize());
+        assertTrue(chunk.isLast());
+
+        chunk = logs.getJobLog(jobId, Collections.singleton(taskId), 5, 60);
+        assertArrayEquals(Arrays.copyOfRange(jobLog, 5, 65), chunk.getContent());
+        assertEquals(5, chunk.getOffset());
+        assertFalse(chunk.isLast());
+
+        chunk = logs.getJobLog(jobId, Collections.singleton(taskId), -20, 100);
+        assertArrayEquals(Arrays.copyOfRange(jobLog, jobLog.length - 20, jobLog.length), chunk.getContent());
+        assertEquals(jobLog.length - 20, chunk.getOffset());
+
+        chunk = logs.getJobLog(jobId, Collections.singleton(taskId), jobLog.length + 10, 100);
+        assertEquals(0, chunk.getLength());
+        assertEquals(jobLog.length, chunk.getOffset());
+
+        byte[] taskLog = logs.getTaskLog(taskId).getBytes(Charset.defaultCharset());
+        assertArrayEquals(taskLog, logs.getTaskLog(taskId, 0, 1000).getContent());
+
+        TaskId unknownTask = TaskIdImpl.createTaskId(jobId, "task2", 10002);
+        assertEquals("Cannot retrieve logs for task " + unknownTask,
+                     new String(logs.getTaskLog(unknownTask, 0, 1000).getContent(), Charset.defaultCharset()));
+    }
+
+    @Test
+    public void logsRangeLayoutIsKeptBetweenChunks() throws Exception {
+        // forget the layout that other tests may have read for the same job
+        ServerJobAndTaskLogs.getInstance().remove(jobId, "test", null);
+
+        jobLogger.info(jobId, "first job log");
+        taskLogger.info(taskId, "first task log");
+        jobLogger.close(jobId);
+        taskLogger.close(taskId);
+        Thread.sleep(200);
+
+        ServerJobAndTaskLogs logs = ServerJobAndTaskLogs.getInstance();
+        byte[] jobLog = logs.getJobLog(jobId, Collections.singleton(taskId)).getBytes(Charset.defaultCharset());
+        ServerLogsChunk first = logs.getJobLog(jobId, Collections.singleton(taskId), 0, 10);
+
+        // logs written while the job logs are streamed do not shift the following chunks
+        jobLogger.info(jobId, "second job log");
+        jobLogger.close(jobId);
+        Thread.sleep(200);
+
+        ServerLogsChunk second = logs.getJobLog(jobId, Collections.singleton(taskId), 10, Integer.MAX_VALUE);
+        assertEquals(first.getTotalSize(), second.getTotalSize());
+        assertArrayEquals(Arrays.copyOfRange(jobLog, 10, jobLog.length), second.getContent());
+
+        logs.remove(jobId, "test", null);
+    }
+
     @Test
     public void cleanUp() throws Exception {
         jobLogger.info(jobId, "first job log");
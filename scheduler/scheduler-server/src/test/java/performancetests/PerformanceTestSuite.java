@@ -41,6 +41,7 @@ import performancetests.recovery.NodeRecoveryTest;
                       // Metrics
                       TaskCreationTimeTest.class, GetResultMetricTest.class, SchedulerEfficiencyMetricsTest.class,
                       ParallelTaskSchedulingTest.class, JobSubmissionTest.class, JobParsingAndSubmissionTest.class,
+                      PendingTasksSchedulingTimeTest.class,
 
                       // Test which computes average metrics
                       TaskSchedulingTimeTest.class
@@ -0,0 +1,121 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.metrics;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.objectweb.proactive.core.config.ProActiveConfiguration;
+import org.ow2.proactive.resourcemanager.RMFactory;
+import org.ow2.proactive.scheduler.common.exception.UserException;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.JavaTask;
+import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.examples.EmptyTask;
+
+import functionaltests.utils.SchedulerTHelper;
+import performancetests.recovery.PerformanceTestBase;
+
+
+/**
+ * The performance test measures time to dispatch the first task of a job with many parallel tasks.
+ * All tasks of the job become eligible in the same scheduling pass, so their pending status has to be
+ * written to the database before the first task can be started. The measured time, i.e.
+ * first task start time - job submitted time, therefore mostly depends on the cost of these status writes.
+ */
+@RunWith(Parameterized.class)
+public class PendingTasksSchedulingTimeTest extends PerformanceTestBase {
+
+    /**
+     * @return an array of parameters which is used by JUnit to create objects of PendingTasksSchedulingTimeTest,
+     * where first value represents number of task in the job, the second the number of nodes,
+     * and the third represents limit of time.
+     */
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 5000, 10, 10000 } });
+    }
+
+    // number of tasks (all task are empty) inside single job
+    private final int numberOfTasks;
+
+    private final int numberOfNodes;
+
+    // time limit in milliseconds
+    private final int timeLimit;
+
+    public PendingTasksSchedulingTimeTest(int numberOfTasks, int numberOfNodes, int timeLimit) {
+        this.numberOfTasks = numberOfTasks;
+        this.numberOfNodes = numberOfNodes;
+        this.timeLimit = timeLimit;
+    }
+
+    @Test(timeout = 3600000)
+    public void test() throws Exception {
+        ProActiveConfiguration.load();
+        RMFactory.setOsJavaProperty();
+        schedulerHelper = new SchedulerTHelper(false,
+                                               SCHEDULER_CONFIGURATION_START.getPath(),
+                                               RM_CONFIGURATION_START.getPath(),
+                                               null);
+
+        schedulerHelper.createNodeSourceWithInfiniteTimeout("local", numberOfNodes);
+
+        final TaskFlowJob job = createJob(numberOfTasks);
+        jobId = schedulerHelper.submitJob(job);
+        schedulerHelper.waitForEventJobFinished(jobId);
+        final JobState jobState = schedulerHelper.getSchedulerInterface().getJobState(jobId);
+
+        long firstTaskStart = Long.MAX_VALUE;
+        for (TaskState taskState : jobState.getTasks()) {
+            if (taskState.getStartTime() > 0 && taskState.getStartTime() < firstTaskStart) {
+                firstTaskStart = taskState.getStartTime();
+            }
+        }
+        final long timeToMeasure = firstTaskStart - jobState.getSubmittedTime();
+
+        LOGGER.info(makeCSVString(PendingTasksSchedulingTimeTest.class.getSimpleName(),
+                                  numberOfTasks,
+                                  timeLimit,
+                                  timeToMeasure,
+                                  ((timeToMeasure < timeLimit) ? SUCCESS : FAILURE)));
+    }
+
+    private TaskFlowJob createJob(int numberOfTasks) throws UserException {
+        TaskFlowJob job = new TaskFlowJob();
+        for (int i = 0; i < numberOfTasks; i++) {
+            JavaTask task = new JavaTask();
+            task.setName("JavaTask_" + i);
+            task.setExecutableClassName(EmptyTask.class.getName());
+            job.addTask(task);
+        }
+        return job;
+    }
+}
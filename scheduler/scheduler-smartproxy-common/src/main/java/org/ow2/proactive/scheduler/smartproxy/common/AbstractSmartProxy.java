@@ -52,6 +52,7 @@ import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
 import org.ow2.proactive.scheduler.common.SchedulerState;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
+import org.ow2.proactive.scheduler.common.ServerLogsChunk;
 import org.ow2.proactive.scheduler.common.SortSpecifierContainer;
 import org.ow2.proactive.scheduler.common.TaskDescriptor;
 import org.ow2.proactive.scheduler.common.exception.JobAlreadyFinishedException;
@@ -221,6 +222,18 @@ public abstract class AbstractSmartProxy<T extends JobTracker> implements Schedu
         return getScheduler().getTaskServerLogs(id, taskName);
     }
 
+    @Override
+    public ServerLogsChunk getJobServerLogs(String id, long offset, int length)
+            throws UnknownJobException, NotConnectedException, PermissionException {
+        return getScheduler().getJobServerLogs(id, offset, length);
+    }
+
+    @Override
+    public ServerLogsChunk getTaskServerLogs(String id, String taskName, long offset, int length)
+            throws UnknownJobException, UnknownTaskException, NotConnectedException, PermissionException {
+        return getScheduler().getTaskServerLogs(id, taskName, offset, length);
+    }
+
     @Override
     public String getTaskServerLogsByTag(String id, String taskTag)
             throws UnknownJobException, NotConnectedException, PermissionException {